@@ -0,0 +1,108 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.common;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Computes the delay before the next poll of a remote run. The delay starts at the base interval and grows while the
+ * observed state does not change, is kept long while the run is still well within its expected duration, drops back
+ * to the base interval once the state changes or the expected duration has passed, and is jittered so that many
+ * pollers do not hit the server in lockstep.
+ */
+public class PollInterval {
+
+    /** Upper bound for the delay between polls, in milliseconds. */
+    public static final long MAX_INTERVAL = Long.getLong("PollInterval.MaxInterval", 30000L);
+
+    private static final double BACKOFF = 1.5;
+    private static final double JITTER = 0.1;
+    private static final int REMAINING_FRACTION = 10;
+
+    private final long base;
+    private final long max;
+    private long current;
+    private String lastState;
+    private boolean started;
+
+    public PollInterval(long base) {
+        this(base, Math.max(base, MAX_INTERVAL));
+    }
+
+    public PollInterval(long base, long max) {
+        this.base = Math.max(0, base);
+        this.max = Math.max(this.base, max);
+        this.current = this.base;
+    }
+
+    /**
+     * @param state the state reported by the last poll, may be null
+     * @param elapsed time since the run started, in milliseconds
+     * @param estimated expected duration of the run in milliseconds, or a value &lt;= 0 if unknown
+     * @return the delay before the next poll, in milliseconds
+     */
+    public synchronized long next(String state, long elapsed, long estimated) {
+        if (base == 0) {
+            return 0;
+        }
+        if (!started || !Objects.equals(state, lastState)) {
+            current = base;
+            lastState = state;
+            started = true;
+        } else {
+            current = Math.min(max, (long) (current * BACKOFF));
+        }
+
+        long delay = current;
+        if (estimated > 0) {
+            if (elapsed < estimated) {
+                delay = Math.max(delay, Math.min(max, (estimated - elapsed) / REMAINING_FRACTION));
+            } else {
+                // overdue: the run may end at any moment
+                current = base;
+                delay = base;
+            }
+        }
+
+        long spread = (long) (delay * JITTER);
+        if (spread > 0) {
+            delay += ThreadLocalRandom.current().nextLong(-spread, spread + 1);
+        }
+        return Math.max(0, delay);
+    }
+
+    /**
+     * Start over from the base interval, e.g. after a failed poll.
+     */
+    public synchronized void reset() {
+        current = base;
+        started = false;
+    }
+}
@@ -90,7 +90,7 @@ public abstract class BasicPostEntityRequest {
 
     protected Map<String, String> handleResult(Response response, Map<String, String> valueMap, String restPrefix) {
         if (response.isOk() && !response.toString().equals("")) {
-            Map<String, String> result = XPathUtils.toEntities(response.toString()).get(0);
+            Map<String, String> result = XPathUtils.toEntities(response.getData()).get(0);
             logger.info(String.format("%s entity success. %s(%s)", operation, restPrefix,
                     getResultNameAndId(result)));
             return result;
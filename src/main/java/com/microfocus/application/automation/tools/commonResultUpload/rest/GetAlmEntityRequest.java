@@ -56,7 +56,7 @@ public class GetAlmEntityRequest extends BaseGetEntityRequest {
                 getHeaders(),
                 ResourceAccessLevel.PROTECTED);
         if (response.isOk() && !response.toString().equals("")) {
-            List<Map<String, String>> results = XPathUtils.toEntities(response.toString());
+            List<Map<String, String>> results = XPathUtils.toEntities(response.getData());
             return results;
         } else {
             logger.error("Get entities failed from: " + url);
@@ -0,0 +1,280 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.commonResultUpload.service;
+
+import com.microfocus.application.automation.tools.results.service.almentities.AlmCommonProperties;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What the upload learns about the structure of one ALM project: folders, the entities inside them
+ * and the customization of the entity types.
+ * One instance per server, domain and project is shared by the uploads of all builds until it expires,
+ * so a build does not resolve again the folder tree the previous build has just walked.
+ */
+public class AlmProjectCache {
+
+    static final long TTL_MILLIS = TimeUnit.MINUTES.toMillis(
+            Long.getLong("CommonResultUpload.CacheTtlMinutes", 10));
+    private static final Map<String, AlmProjectCache> CACHES = new HashMap<>();
+
+    private final long expiresAt;
+    private final Map<String, Map<String, String>> subtypes = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, String>> fields = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> versioning = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, String>> folders = new ConcurrentHashMap<>();
+    private final Map<String, EntityIndex> entityIndexes = new ConcurrentHashMap<>();
+
+    AlmProjectCache() {
+        this(Long.MAX_VALUE);
+    }
+
+    private AlmProjectCache(long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Get the cache of a project, dropping the expired ones.
+     * With a TTL of 0 every call gets a new cache which lives as long as the upload.
+     */
+    public static AlmProjectCache get(String serverUrl, String domain, String project) {
+        if (TTL_MILLIS <= 0) {
+            return new AlmProjectCache();
+        }
+        return get(serverUrl + "|" + domain + "|" + project, System.currentTimeMillis());
+    }
+
+    static AlmProjectCache get(String key, long now) {
+        synchronized (CACHES) {
+            Iterator<AlmProjectCache> it = CACHES.values().iterator();
+            while (it.hasNext()) {
+                if (it.next().expiresAt <= now) {
+                    it.remove();
+                }
+            }
+            AlmProjectCache cache = CACHES.get(key);
+            if (cache == null) {
+                cache = new AlmProjectCache(now + TTL_MILLIS);
+                CACHES.put(key, cache);
+            }
+            return cache;
+        }
+    }
+
+    Map<String, Map<String, String>> getSubtypes() {
+        return subtypes;
+    }
+
+    Map<String, Map<String, String>> getFields() {
+        return fields;
+    }
+
+    Map<String, Boolean> getVersioning() {
+        return versioning;
+    }
+
+    Map<String, String> getFolder(String prefix, String parentId, String name) {
+        Map<String, String> folder = folders.get(prefix + "|" + parentId + "|" + name);
+        return folder == null ? null : new HashMap<>(folder);
+    }
+
+    void putFolder(String prefix, String parentId, String name, Map<String, String> folder) {
+        folders.put(prefix + "|" + parentId + "|" + name, new HashMap<>(folder));
+    }
+
+    boolean removeFolder(String prefix, String parentId, String name) {
+        return folders.remove(prefix + "|" + parentId + "|" + name) != null;
+    }
+
+    /**
+     * Drop a folder ALM does not know anymore, its sub folders and the entity indexes it is part of.
+     * @return whether the folder came from this cache
+     */
+    boolean removeFolder(String prefix, String folderId) {
+        boolean removed = false;
+        Iterator<Map.Entry<String, Map<String, String>>> it = folders.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Map<String, String>> entry = it.next();
+            if (entry.getKey().startsWith(prefix + "|" + folderId + "|")
+                    || entry.getKey().startsWith(prefix + "|") && folderId.equals(entry.getValue().get(AlmCommonProperties.ID))) {
+                it.remove();
+                removed = true;
+            }
+        }
+        Iterator<EntityIndex> indexes = entityIndexes.values().iterator();
+        while (indexes.hasNext()) {
+            EntityIndex index = indexes.next();
+            if (index.folderPrefix.equals(prefix) && index.hasFolder(folderId)) {
+                indexes.remove();
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Drop the indexes holding an entity ALM refused, so the next search asks ALM where it is now.
+     * @return whether the entity came from this cache
+     */
+    boolean removeEntity(String entityPrefix, String id) {
+        boolean removed = false;
+        Iterator<EntityIndex> indexes = entityIndexes.values().iterator();
+        while (indexes.hasNext()) {
+            EntityIndex index = indexes.next();
+            if (index.entityPrefix.equals(entityPrefix) && index.hasEntity(id)) {
+                indexes.remove();
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
+    EntityIndex getEntityIndex(String key) {
+        return entityIndexes.get(key);
+    }
+
+    void putEntityIndex(String key, EntityIndex index) {
+        entityIndexes.put(key, index);
+    }
+
+    /**
+     * Record an entity created or updated during the upload in the indexes of its type.
+     */
+    void remember(String entityPrefix, Map<String, String> entity) {
+        for (EntityIndex index : entityIndexes.values()) {
+            if (index.entityPrefix.equals(entityPrefix)) {
+                index.put(entity);
+            }
+        }
+    }
+
+    /**
+     * The folder tree under a root folder together with the entities of every folder in it,
+     * keyed by parent id and name.
+     */
+    static class EntityIndex {
+
+        private final String entityPrefix;
+        private final String folderPrefix;
+        private final String rootId;
+        private final String[] fields;
+        private final Map<String, List<String>> subFolders = new HashMap<>();
+        private final Map<String, Map<String, Map<String, String>>> entities = new HashMap<>();
+
+        EntityIndex(String entityPrefix, String folderPrefix, String rootId, String[] fields) {
+            this.entityPrefix = entityPrefix;
+            this.folderPrefix = folderPrefix;
+            this.rootId = rootId;
+            this.fields = fields;
+            entities.put(rootId, new HashMap<String, Map<String, String>>());
+        }
+
+        synchronized void addFolder(String parentId, String folderId) {
+            List<String> children = subFolders.get(parentId);
+            if (children == null) {
+                children = new ArrayList<>();
+                subFolders.put(parentId, children);
+            }
+            children.add(folderId);
+            entities.put(folderId, new HashMap<String, Map<String, String>>());
+        }
+
+        synchronized List<String> getFolderIds() {
+            return new ArrayList<>(entities.keySet());
+        }
+
+        synchronized boolean hasFolder(String folderId) {
+            return entities.containsKey(folderId);
+        }
+
+        synchronized boolean hasEntity(String id) {
+            for (Map<String, Map<String, String>> byName : entities.values()) {
+                for (Map<String, String> entity : byName.values()) {
+                    if (id.equals(entity.get(AlmCommonProperties.ID))) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        synchronized void put(Map<String, String> entity) {
+            Map<String, Map<String, String>> byName = entities.get(entity.get(AlmCommonProperties.PARENT_ID));
+            String name = entity.get(AlmCommonProperties.NAME);
+            String id = entity.get(AlmCommonProperties.ID);
+            if (byName == null || name == null || id == null) {
+                return;
+            }
+            Map<String, String> values = new HashMap<>();
+            for (String field : fields) {
+                if (entity.containsKey(field)) {
+                    values.put(field, entity.get(field));
+                }
+            }
+            values.put(AlmCommonProperties.ID, id);
+            values.put(AlmCommonProperties.PARENT_ID, entity.get(AlmCommonProperties.PARENT_ID));
+            if (!byName.containsKey(name) || id.equals(byName.get(name).get(AlmCommonProperties.ID))) {
+                byName.put(name, values);
+            }
+        }
+
+        /**
+         * Same order as the recursive search: the root folder first, then the sub folders depth first.
+         */
+        synchronized Map<String, String> find(String name) {
+            Deque<String> pending = new ArrayDeque<>();
+            pending.push(rootId);
+            while (!pending.isEmpty()) {
+                String folderId = pending.pop();
+                Map<String, String> entity = entities.get(folderId).get(name);
+                if (entity != null) {
+                    return new HashMap<>(entity);
+                }
+                List<String> children = subFolders.get(folderId);
+                if (children != null) {
+                    List<String> reversed = new ArrayList<>(children);
+                    Collections.reverse(reversed);
+                    for (String child : reversed) {
+                        pending.push(child);
+                    }
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -36,7 +36,6 @@ import com.microfocus.application.automation.tools.sse.sdk.Response;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
-import java.util.HashMap;
 import java.util.Map;
 
 public class CustomizationService {
@@ -51,11 +50,18 @@ public class CustomizationService {
     private Map<String, Map<String, String>> subtypeCache;
     private Map<String, Map<String, String>> fieldCache;
 
+    private Map<String, Boolean> versioningCache;
+
     public CustomizationService(RestClient client, CommonUploadLogger logger) {
+        this(client, logger, new AlmProjectCache());
+    }
+
+    public CustomizationService(RestClient client, CommonUploadLogger logger, AlmProjectCache cache) {
         this.client = client;
         this.logger = logger;
-        subtypeCache = new HashMap<>();
-        fieldCache = new HashMap<>();
+        subtypeCache = cache.getSubtypes();
+        fieldCache = cache.getFields();
+        versioningCache = cache.getVersioning();
     }
 
     public String getRunSubtypeIdByTestInstance(String testInstanceSubtypeId) {
@@ -134,6 +140,11 @@ public class CustomizationService {
     }
 
     public boolean isVersioningEnabled(String entityName) {
+        Boolean cached = versioningCache.get(entityName);
+        if (cached != null) {
+            return cached;
+        }
+
         String suffix = String.format("customization/entities/%s", entityName);
         String url = client.buildRestRequest(suffix);
         Response response = client.httpGet(
@@ -145,7 +156,9 @@ public class CustomizationService {
             logger.log(String.format("INFO: -- Get Entity Resource Descriptor success. [%s]", entityName));
             Document document = XPathUtils.getDocument(response.toString());
             Element element = (Element) document.getElementsByTagName("SupportsVC").item(0);
-            return "true".equals(element.getTextContent());
+            boolean supportsVC = "true".equals(element.getTextContent());
+            versioningCache.put(entityName, supportsVC);
+            return supportsVC;
         } else {
             logger.log("ERR: Get entities failed from: " + url);
             logger.log("ERR: " + response.getFailure());
@@ -32,6 +32,8 @@ import com.microfocus.application.automation.tools.results.service.AlmRestTool;
 import com.microfocus.application.automation.tools.results.service.almentities.AlmCommonProperties;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -40,23 +42,54 @@ import java.util.StringTokenizer;
 public class FolderService {
 
     private static final String FOLDER_SEPERATOR = "\\";
+    private static final int PAGE_SIZE = 1000;
+    private static final int PARENTS_PER_QUERY = 50;
     private RestService restService;
+    private AlmProjectCache cache;
 
     public FolderService(RestService restService) {
+        this(restService, new AlmProjectCache());
+    }
+
+    public FolderService(RestService restService, AlmProjectCache cache) {
         this.restService = restService;
+        this.cache = cache;
     }
 
     public Map<String, String> createOrFindPath(String prefix, String parentId, String path) {
+        List<String[]> cachedSteps = new ArrayList<>();
+        Map<String, String> folder = createOrFindPath(prefix, parentId, path, cachedSteps);
+        if (folder == null && !cachedSteps.isEmpty()) {
+            // A folder of the path may have been removed since it was cached: walk it once more asking ALM.
+            for (String[] step : cachedSteps) {
+                cache.removeFolder(prefix, step[0], step[1]);
+            }
+            folder = createOrFindPath(prefix, parentId, path, null);
+        }
+        return folder;
+    }
+
+    private Map<String, String> createOrFindPath(String prefix, String parentId, String path,
+                                                 List<String[]> cachedSteps) {
         List<Map<String, String>> folders = new ArrayList<Map<String, String>>();
+        boolean failed = false;
         StringTokenizer tokenizer = new StringTokenizer(path, FOLDER_SEPERATOR);
         while (tokenizer.hasMoreTokens()) {
             String itemString = tokenizer.nextToken();
+            if (cachedSteps != null && cache.getFolder(prefix, parentId, itemString) != null) {
+                cachedSteps.add(new String[]{parentId, itemString});
+            }
             Map<String, String> folder = createFolder(prefix, parentId, itemString);
             if (folder != null) {
                 folders.add(folder);
                 parentId = folder.get("id");
+            } else {
+                failed = true;
             }
         }
+        if (failed && cachedSteps != null && !cachedSteps.isEmpty()) {
+            return null;
+        }
         if (folders.size() > 0) {
             return folders.get(folders.size() - 1);
         } else  {
@@ -65,15 +98,23 @@ public class FolderService {
     }
 
     public Map<String, String> createFolder(String prefix, String parentId, String folderName) {
+        Map<String, String> cachedFolder = cache.getFolder(prefix, parentId, folderName);
+        if (cachedFolder != null) {
+            return cachedFolder;
+        }
+
         Map<String, String> existsFolder = checkFolderExits(prefix, parentId, folderName);
         if (existsFolder == null) {
             existsFolder = new HashMap<>();
             existsFolder.put(AlmCommonProperties.PARENT_ID, parentId);
             existsFolder.put(AlmCommonProperties.NAME, folderName);
-            return restService.create(prefix, existsFolder);
-        } else {
-            return existsFolder;
+            existsFolder = restService.create(prefix, existsFolder);
+            if (existsFolder == null) {
+                return null;
+            }
         }
+        cache.putFolder(prefix, parentId, folderName, existsFolder);
+        return existsFolder;
     }
 
     public Map<String, String> checkFolderExits(String prefix, String parentId, String folderName) {
@@ -113,10 +154,139 @@ public class FolderService {
                     test.get(AlmCommonProperties.NAME));
         }
 
+        if (isSearchByName(test)) {
+            AlmProjectCache.EntityIndex index = getEntityIndex(
+                    testFolder.get(AlmCommonProperties.ID), entityPrefix, folderPrefix, queryFields);
+            if (index != null) {
+                return findEntityInIndex(index, testFolder, test);
+            }
+        }
+
         findEntityInFolderAndSub(foundTests, test, entityPrefix, folderPrefix, queryFields);
         return foundTests.size() > 0 ? foundTests.get(0) : null;
     }
 
+    /**
+     * Record an entity created or updated under a searched folder, so the next search finds it.
+     */
+    public void remember(String entityPrefix, Map<String, String> entity) {
+        if (entity != null) {
+            cache.remember(entityPrefix, entity);
+        }
+    }
+
+    /**
+     * Forget a cached folder ALM refused to create an entity in.
+     * @return whether the folder came from the cache, i.e. whether looking it up again can help
+     */
+    public boolean forgetFolder(String prefix, Map<String, String> folder) {
+        return folder != null && folder.get(AlmCommonProperties.ID) != null
+                && cache.removeFolder(prefix, folder.get(AlmCommonProperties.ID));
+    }
+
+    /**
+     * Forget a cached entity ALM refused to update.
+     * @return whether the entity came from the cache, i.e. whether looking it up again can help
+     */
+    public boolean forgetEntity(String entityPrefix, Map<String, String> entity) {
+        return entity != null && entity.get(AlmCommonProperties.ID) != null
+                && cache.removeEntity(entityPrefix, entity.get(AlmCommonProperties.ID));
+    }
+
+    private static boolean isSearchByName(Map<String, String> test) {
+        for (String key : test.keySet()) {
+            if (key.startsWith(CriteriaTranslator.CRITERIA_PREFIX)
+                    && !key.equals(CriteriaTranslator.CRITERIA_PREFIX + AlmCommonProperties.PARENT_ID)
+                    && !key.equals(CriteriaTranslator.CRITERIA_PREFIX + AlmCommonProperties.NAME)) {
+                return false;
+            }
+        }
+        return test.get(AlmCommonProperties.NAME) != null;
+    }
+
+    private Map<String, String> findEntityInIndex(AlmProjectCache.EntityIndex index,
+                                                  Map<String, String> testFolder,
+                                                  Map<String, String> test) {
+        test.remove(CriteriaTranslator.CRITERIA_PREFIX + AlmCommonProperties.PARENT_ID);
+        test.remove(CriteriaTranslator.CRITERIA_PREFIX + AlmCommonProperties.NAME);
+
+        Map<String, String> found = index.find(test.get(AlmCommonProperties.NAME));
+        test.put(AlmCommonProperties.PARENT_ID, found != null
+                ? found.get(AlmCommonProperties.PARENT_ID)
+                : testFolder.get(AlmCommonProperties.ID));
+        return found;
+    }
+
+    /**
+     * Load the folders under the root breadth first, a level per query, and then the entities of all of them.
+     */
+    private AlmProjectCache.EntityIndex getEntityIndex(String rootId, String entityPrefix,
+                                                       String folderPrefix, String[] queryFields) {
+        String key = entityPrefix + "|" + folderPrefix + "|" + rootId + "|" + Arrays.toString(queryFields);
+        AlmProjectCache.EntityIndex index = cache.getEntityIndex(key);
+        if (index != null) {
+            return index;
+        }
+
+        index = new AlmProjectCache.EntityIndex(entityPrefix, folderPrefix, rootId, queryFields);
+        List<String> level = Collections.singletonList(rootId);
+        while (!level.isEmpty()) {
+            List<Map<String, String>> subFolders = getAllUnderParents(folderPrefix, level,
+                    new String[]{AlmCommonProperties.ID, AlmCommonProperties.NAME});
+            if (subFolders == null) {
+                return null;
+            }
+            List<String> nextLevel = new ArrayList<>();
+            for (Map<String, String> subFolder : subFolders) {
+                index.addFolder(subFolder.get(AlmCommonProperties.PARENT_ID), subFolder.get(AlmCommonProperties.ID));
+                nextLevel.add(subFolder.get(AlmCommonProperties.ID));
+            }
+            level = nextLevel;
+        }
+
+        List<Map<String, String>> entities = getAllUnderParents(entityPrefix, index.getFolderIds(), queryFields);
+        if (entities == null) {
+            return null;
+        }
+        for (Map<String, String> entity : entities) {
+            index.put(entity);
+        }
+        cache.putEntityIndex(key, index);
+        return index;
+    }
+
+    private List<Map<String, String>> getAllUnderParents(String prefix, List<String> parentIds, String[] fields) {
+        StringBuilder fieldList = new StringBuilder(AlmCommonProperties.PARENT_ID);
+        for (String field : fields) {
+            fieldList.append(",").append(field);
+        }
+
+        List<Map<String, String>> ret = new ArrayList<>();
+        for (int from = 0; from < parentIds.size(); from += PARENTS_PER_QUERY) {
+            StringBuilder parents = new StringBuilder();
+            for (String parentId : parentIds.subList(from, Math.min(from + PARENTS_PER_QUERY, parentIds.size()))) {
+                if (parents.length() > 0) {
+                    parents.append("%20OR%20");
+                }
+                parents.append(parentId);
+            }
+
+            for (int startIndex = 1; ; startIndex += PAGE_SIZE) {
+                String query = String.format("fields=%s&query={parent-id[%s]}&order-by={id[ASC]}&page-size=%d&start-index=%d",
+                        fieldList, parents, PAGE_SIZE, startIndex);
+                List<Map<String, String>> page = restService.get(null, prefix, query);
+                if (page == null) {
+                    return null;
+                }
+                ret.addAll(page);
+                if (page.size() < PAGE_SIZE) {
+                    break;
+                }
+            }
+        }
+        return ret;
+    }
+
     private void findEntityInFolderAndSub(List<Map<String, String>> foundTests,
                                           Map<String, String> test, String entityPrefix,
                                           String folderPrefix, String[] queryFields) {
@@ -70,15 +70,23 @@ public class TestSetUploader {
         for (XmlResultEntity xmlResultEntity : xmlResultEntities) {
             Map<String, String> testset = xmlResultEntity.getValueMap();
 
-            // Find if there is test set with same name in the defined folder
-            Map<String, String> existTestset = folderService.findEntityInFolder(folder, testset,
-                    TEST_SET_REST_PREFIX, TEST_SET_FOLDERS_REST_PREFIX,
-                    new String[]{"id", "name", "subtype-id"});
-
-            uploadOrUpdateTestset(existTestset, testset, xmlResultEntity);
+            if (!uploadOrUpdateTestset(findTestset(folder, testset), testset, xmlResultEntity)
+                    && folderService.forgetFolder(TEST_SET_FOLDERS_REST_PREFIX, folder)) {
+                // The folder was removed since it was cached, look it up once more.
+                logger.log("Test set not uploaded, looking up its folder again: " + testset.get("name"));
+                folder = createOrFindTestsetFolder();
+                uploadOrUpdateTestset(findTestset(folder, testset), testset, xmlResultEntity);
+            }
         }
     }
 
+    private Map<String, String> findTestset(Map<String, String> folder, Map<String, String> testset) {
+        // Find if there is test set with same name in the defined folder
+        return folderService.findEntityInFolder(folder, testset,
+                TEST_SET_REST_PREFIX, TEST_SET_FOLDERS_REST_PREFIX,
+                new String[]{"id", "name", "subtype-id"});
+    }
+
     private boolean uploadOrUpdateTestset(Map<String, String> existTestset,
                                           Map<String, String> testset, XmlResultEntity xmlResultEntity) {
         Map<String, String> newTestset;
@@ -92,9 +100,13 @@ public class TestSetUploader {
             attachemnt = testset.get("attachment");
             testset.remove("attachment");
             newTestset =  restService.create(TEST_SET_REST_PREFIX, testset);
+            folderService.remember(TEST_SET_REST_PREFIX, newTestset);
         }
 
         if (newTestset == null) {
+            if (attachemnt != null) {
+                testset.put("attachment", attachemnt);
+            }
             return false;
         } else {
             if (StringUtils.isNotEmpty(attachemnt)) {
@@ -92,35 +92,25 @@ public class TestUploader {
                     continue;
                 }
 
-                // Find exists test under folder
-                Map<String, String> existsTest = folderService.findEntityInFolder(folder, test,
-                        TEST_REST_PREFIX, TEST_FOLDERS_REST_PREFIX,
-                        new String[]{"id", "name", SUB_TYPE_ID, VC_VERSION_NUMBER});
-                if (existsTest != null) {
-                    // If exists, update the test.
-                    existsTest.putAll(test);
-                    newTest = restService.update(TEST_REST_PREFIX, existsTest);
-                } else {
-                    logger.log("Test not found by criteria:");
-                    for (Map.Entry<String, String> entry : test.entrySet()) {
-                        if (entry.getKey().equals("name") || entry.getKey().startsWith(CriteriaTranslator.CRITERIA_PREFIX)) {
-                            logger.log("----" + entry.getKey() + "=" + entry.getValue());
-                        }
-                    }
-
-                    // If not, create the test under the folder
-                    test.put(AlmCommonProperties.PARENT_ID, folder.get(AlmCommonProperties.ID));
-                    if (params.get(CREATE_NEW_TEST).equals("true")) {
-                        newTest = restService.create(TEST_REST_PREFIX, test);
-                    } else {
-                        newTest = null;
-                        logger.log("Test not found and not created: " + test.toString());
+                Map<String, String> existsTest = findTest(folder, test);
+                newTest = existsTest != null ? updateTest(existsTest, test) : createTest(test);
+                if (newTest == null && (existsTest != null
+                        ? folderService.forgetEntity(TEST_REST_PREFIX, existsTest)
+                        : isCreateNewTest() && folderService.forgetFolder(TEST_FOLDERS_REST_PREFIX, folder))) {
+                    // The test or its folder changed since they were cached, look them up once more.
+                    logger.log("Test not uploaded, looking it up again: " + test.get(AlmCommonProperties.NAME));
+                    folder = folderService.createOrFindPath(
+                            TEST_FOLDERS_REST_PREFIX, "2", params.get(ALM_TEST_FOLDER));
+                    if (folder == null) {
+                        continue;
                     }
+                    existsTest = findTest(folder, test);
+                    newTest = existsTest != null ? updateTest(existsTest, test) : createTest(test);
                 }
             } else {
                 // If no path was specified, put test under root
                 test.put(AlmCommonProperties.PARENT_ID, "0");
-                if (params.get(CREATE_NEW_TEST).equals("true")) {
+                if (isCreateNewTest()) {
                     newTest = restService.create(TEST_REST_PREFIX, test);
                 } else {
                     newTest = null;
@@ -139,6 +129,45 @@ public class TestUploader {
         }
     }
 
+    private Map<String, String> findTest(Map<String, String> folder, Map<String, String> test) {
+        // Find exists test under folder
+        Map<String, String> existsTest = folderService.findEntityInFolder(folder, test,
+                TEST_REST_PREFIX, TEST_FOLDERS_REST_PREFIX,
+                new String[]{"id", "name", SUB_TYPE_ID, VC_VERSION_NUMBER});
+        if (existsTest == null) {
+            logger.log("Test not found by criteria:");
+            for (Map.Entry<String, String> entry : test.entrySet()) {
+                if (entry.getKey().equals("name") || entry.getKey().startsWith(CriteriaTranslator.CRITERIA_PREFIX)) {
+                    logger.log("----" + entry.getKey() + "=" + entry.getValue());
+                }
+            }
+            // If not, the test is created under the folder
+            test.put(AlmCommonProperties.PARENT_ID, folder.get(AlmCommonProperties.ID));
+        }
+        return existsTest;
+    }
+
+    private Map<String, String> updateTest(Map<String, String> existsTest, Map<String, String> test) {
+        existsTest.putAll(test);
+        Map<String, String> newTest = restService.update(TEST_REST_PREFIX, existsTest);
+        folderService.remember(TEST_REST_PREFIX, newTest);
+        return newTest;
+    }
+
+    private Map<String, String> createTest(Map<String, String> test) {
+        if (!isCreateNewTest()) {
+            logger.log("Test not found and not created: " + test.toString());
+            return null;
+        }
+        Map<String, String> newTest = restService.create(TEST_REST_PREFIX, test);
+        folderService.remember(TEST_REST_PREFIX, newTest);
+        return newTest;
+    }
+
+    private boolean isCreateNewTest() {
+        return params.get(CREATE_NEW_TEST).equals("true");
+    }
+
     private void getVersionNumberForVC(Map<String, String> newTest) {
         // Some test type doesn't have version support
         for (String noVersionTest : NO_VERSION_TESTS) {
@@ -28,6 +28,7 @@
 package com.microfocus.application.automation.tools.commonResultUpload.uploader;
 
 import com.microfocus.application.automation.tools.commonResultUpload.CommonUploadLogger;
+import com.microfocus.application.automation.tools.commonResultUpload.service.AlmProjectCache;
 import com.microfocus.application.automation.tools.commonResultUpload.service.CustomizationService;
 import com.microfocus.application.automation.tools.commonResultUpload.service.FolderService;
 import com.microfocus.application.automation.tools.commonResultUpload.service.RestService;
@@ -102,17 +103,21 @@ public class Uploader {
             AlmRestTool almRestTool = new AlmRestTool(restClient, logger);
             params.put(ACTUAL_USER, almRestTool.getActualUsername());
             testSetUploader.upload(xmlResultEntities);
+            logger.info("ALM connections: " + restClient.getTransportStatistics());
         } else {
             logger.error("Login failed.");
         }
     }
 
     private void init() {
-        cs = new CustomizationService(restClient, logger);
+        AlmProjectCache cache = AlmProjectCache.get(params.get(ALM_SERVER_URL),
+                params.get(ALM_DOMAIN),
+                params.get(ALM_PROJECT));
+        cs = new CustomizationService(restClient, logger, cache);
         vs = new VersionControlService(restClient, logger);
         udt = new UDFTranslator(cs, logger);
         rs = new RestService(restClient, logger, udt);
-        fs = new FolderService(rs);
+        fs = new FolderService(rs, cache);
         AttachmentUploadService.init(run, workspace, restClient, logger);
     }
 
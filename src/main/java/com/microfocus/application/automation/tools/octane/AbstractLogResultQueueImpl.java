@@ -0,0 +1,503 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane;
+
+import com.squareup.tape.FileObjectQueue;
+import net.sf.json.JSONObject;
+import net.sf.json.JSONSerializer;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Implementation of ResultQueue backed by an append-only log file, persisted
+ * <p>
+ * Every change is a small JSON record (one per line) appended to the log: add, remove, retry and clear.
+ * Queue content is rebuilt by replaying the log on init, a retry is a record moving the item to the end of the queue,
+ * so items are never rewritten in place. The log is rewritten with live items only once dead records dominate it.
+ * <p>
+ * Writes are group committed: concurrent producers append their records to a shared batch and the first of them
+ * writes and syncs the whole batch, the others wait for that single sync instead of syncing one by one.
+ */
+public abstract class AbstractLogResultQueueImpl implements BatchedResultQueue {
+
+	private static final int RETRIES = 3;
+	private static final int COMPACTION_MIN_RECORDS = 1000;
+	private static final int COMPACTION_RATIO = 4;
+
+	private static final String OP = "op";
+	private static final String ID = "id";
+	private static final String ITEM = "item";
+	private static final String COUNT = "count";
+	private static final String SEND_AFTER = "sendAfter";
+	private static final String OP_ADD = "add";
+	private static final String OP_REMOVE = "remove";
+	private static final String OP_RETRY = "retry";
+	private static final String OP_CLEAR = "clear";
+
+	private final int MAX_RETRIES;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition committed = lock.newCondition();
+
+	//queue content in queue order, and reverse lookup of item ids
+	private final LinkedHashMap<Long, QueueItem> items = new LinkedHashMap<>();
+	private final Map<QueueItem, Long> ids = new IdentityHashMap<>();
+
+	private File logFile;
+	private FileChannel channel;
+	private List<byte[]> pendingRecords = new ArrayList<>();
+	private long nextId;
+	private long logRecords;
+	private long appendedSeq;
+	private long committedSeq;
+	private boolean committing;
+	private IOException failure;
+
+	private QueueItem currentItem;
+
+	public AbstractLogResultQueueImpl() {
+		this.MAX_RETRIES = RETRIES;
+	}
+
+	public AbstractLogResultQueueImpl(int maxRetries) {
+		this.MAX_RETRIES = maxRetries;
+	}
+
+	protected void init(File queueFile) throws IOException {
+		lock.lock();
+		try {
+			logFile = queueFile;
+			long validLength = replay(queueFile);
+			channel = FileChannel.open(queueFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+			if (validLength > channel.size()) {
+				//last record is complete but its line end was not written
+				channel.position(channel.size());
+				write(channel, Collections.singletonList("\n".getBytes(StandardCharsets.UTF_8)));
+			} else {
+				//drop a record torn by a crash in the middle of a write
+				channel.truncate(validLength);
+				channel.position(validLength);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Moves items left in a tape based queue file of AbstractResultQueueImpl (used by previous versions) to this queue
+	 */
+	protected void importTapeQueue(File tapeFile) throws IOException {
+		if (!tapeFile.exists()) {
+			return;
+		}
+		FileObjectQueue<QueueItem> tapeQueue = new FileObjectQueue<>(tapeFile, new AbstractResultQueueImpl.JsonConverter());
+		try {
+			QueueItem item;
+			while ((item = tapeQueue.peek()) != null) {
+				add(item);
+				tapeQueue.remove();
+			}
+		} finally {
+			tapeQueue.close();
+		}
+		Files.deleteIfExists(tapeFile.toPath());
+	}
+
+	@Override
+	public QueueItem peekFirst() {
+		lock.lock();
+		try {
+			if (currentItem == null) {
+				Iterator<QueueItem> iterator = items.values().iterator();
+				currentItem = iterator.hasNext() ? iterator.next() : null;
+			}
+			return currentItem;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public List<QueueItem> peekBatch(int max) {
+		lock.lock();
+		try {
+			List<QueueItem> batch = new ArrayList<>(Math.min(max, items.size()));
+			for (QueueItem item : items.values()) {
+				if (batch.size() >= max) {
+					break;
+				}
+				batch.add(item);
+			}
+			return batch;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public boolean failed() {
+		return failed(takeCurrentItem());
+	}
+
+	@Override
+	public boolean failed(QueueItem item) {
+		lock.lock();
+		try {
+			Long id = ids.get(item);
+			if (id == null) {
+				throw new IllegalStateException("item is not in the queue");
+			}
+			if (item == currentItem) {
+				currentItem = null;
+			}
+			long seq;
+			boolean retry;
+			if (++item.failCount <= MAX_RETRIES) {
+				items.remove(id);
+				items.put(id, item);
+				JSONObject record = newRecord(OP_RETRY, id);
+				record.put(COUNT, item.failCount);
+				record.put(SEND_AFTER, item.sendAfter);
+				seq = append(record);
+				retry = true;
+			} else {
+				seq = append(removeItem(id));
+				retry = false;
+			}
+			awaitCommit(seq);
+			compactIfNeeded();
+			return retry;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void remove() {
+		removeBatch(Collections.singletonList(takeCurrentItem()));
+	}
+
+	//commits must not run with the lock held more than once, it would keep other producers out of the batch
+	private QueueItem takeCurrentItem() {
+		lock.lock();
+		try {
+			if (currentItem != null) {
+				QueueItem item = currentItem;
+				currentItem = null;
+				return item;
+			} else {
+				throw new IllegalStateException("no outstanding item");
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void removeBatch(Collection<QueueItem> batch) {
+		lock.lock();
+		try {
+			long seq = -1;
+			for (QueueItem item : batch) {
+				Long id = ids.get(item);
+				if (id != null) {
+					if (item == currentItem) {
+						currentItem = null;
+					}
+					seq = append(removeItem(id));
+				}
+			}
+			if (seq >= 0) {
+				awaitCommit(seq);
+				compactIfNeeded();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void add(QueueItem item) {
+		lock.lock();
+		try {
+			long id = nextId++;
+			items.put(id, item);
+			ids.put(item, id);
+			JSONObject record = newRecord(OP_ADD, id);
+			record.put(ITEM, AbstractResultQueueImpl.JsonConverter.jsonFromObject(item));
+			awaitCommit(append(record));
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void add(String projectName, int buildNumber) {
+		add(new QueueItem(projectName, buildNumber));
+	}
+
+	@Override
+	public void add(String projectName, String type, int buildNumber) {
+		add(new QueueItem(projectName, type, buildNumber));
+	}
+
+	@Override
+	public void add(String projectName, int buildNumber, String workspace) {
+		add(new QueueItem(projectName, buildNumber, workspace));
+	}
+
+	@Override
+	public void add(String instanceId, String projectName, int buildNumber, String workspace) {
+		QueueItem item = new QueueItem(projectName, buildNumber, workspace);
+		item.setInstanceId(instanceId);
+		add(item);
+	}
+
+	@Override
+	public int size() {
+		lock.lock();
+		try {
+			return items.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void clear() {
+		lock.lock();
+		try {
+			items.clear();
+			ids.clear();
+			currentItem = null;
+			awaitCommit(append(new JSONObject().element(OP, OP_CLEAR)));
+			compactIfNeeded();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void close() {
+		lock.lock();
+		try {
+			while (committing) {
+				committed.awaitUninterruptibly();
+			}
+			if (channel != null) {
+				try {
+					channel.close();
+				} catch (IOException e) {
+					//close quietly
+				}
+				channel = null;
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private JSONObject removeItem(long id) {
+		QueueItem item = items.remove(id);
+		if (item != null) {
+			ids.remove(item);
+		}
+		return newRecord(OP_REMOVE, id);
+	}
+
+	private static JSONObject newRecord(String op, long id) {
+		JSONObject record = new JSONObject();
+		record.put(OP, op);
+		record.put(ID, id);
+		return record;
+	}
+
+	/**
+	 * Adds the record to the pending batch, lock must be held
+	 *
+	 * @return sequence number of the record, to wait for its commit
+	 */
+	private long append(JSONObject record) {
+		pendingRecords.add((record.toString() + "\n").getBytes(StandardCharsets.UTF_8));
+		logRecords++;
+		return ++appendedSeq;
+	}
+
+	/**
+	 * Waits until the record with given sequence number is written and synced, lock must be held.
+	 * If no other thread is committing, the current one writes the whole pending batch on behalf of all waiting threads.
+	 */
+	private void awaitCommit(long seq) {
+		while (committedSeq < seq) {
+			if (failure != null) {
+				throw new IllegalStateException("queue log " + logFile + " is not writable", failure);
+			}
+			if (committing) {
+				committed.awaitUninterruptibly();
+				continue;
+			}
+			committing = true;
+			List<byte[]> batch = pendingRecords;
+			long batchSeq = appendedSeq;
+			pendingRecords = new ArrayList<>();
+			lock.unlock();
+			IOException writeFailure = null;
+			try {
+				write(channel, batch);
+			} catch (IOException e) {
+				writeFailure = e;
+			} finally {
+				lock.lock();
+			}
+			committing = false;
+			if (writeFailure == null) {
+				committedSeq = batchSeq;
+			} else {
+				//in-memory state is ahead of the log now, stop accepting changes
+				failure = writeFailure;
+			}
+			committed.signalAll();
+		}
+	}
+
+	private static void write(FileChannel target, List<byte[]> records) throws IOException {
+		int length = 0;
+		for (byte[] record : records) {
+			length += record.length;
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(length);
+		for (byte[] record : records) {
+			buffer.put(record);
+		}
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			target.write(buffer);
+		}
+		target.force(false);
+	}
+
+	/**
+	 * Rewrites the log with live items only, once dead records dominate it; lock must be held and no batch pending
+	 */
+	private void compactIfNeeded() {
+		if (logRecords < COMPACTION_MIN_RECORDS || logRecords < (long) COMPACTION_RATIO * items.size() || committing || !pendingRecords.isEmpty()) {
+			return;
+		}
+		File compactedFile = new File(logFile.getPath() + ".compact");
+		List<byte[]> records = new ArrayList<>(items.size());
+		for (Map.Entry<Long, QueueItem> entry : items.entrySet()) {
+			JSONObject record = newRecord(OP_ADD, entry.getKey());
+			record.put(ITEM, AbstractResultQueueImpl.JsonConverter.jsonFromObject(entry.getValue()));
+			records.add((record.toString() + "\n").getBytes(StandardCharsets.UTF_8));
+		}
+		try (FileChannel compacted = FileChannel.open(compactedFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			write(compacted, records);
+		} catch (IOException e) {
+			//keep the current log, compaction will be tried again later
+			compactedFile.delete();
+			return;
+		}
+		try {
+			channel.close();
+		} catch (IOException e) {
+			//close quietly, everything written is synced already
+		}
+		try {
+			Files.move(compactedFile.toPath(), logFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			logRecords = records.size();
+		} catch (IOException e) {
+			compactedFile.delete();
+		}
+		try {
+			channel = FileChannel.open(logFile.toPath(), StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+		} catch (IOException e) {
+			failure = e;
+		}
+	}
+
+	/**
+	 * Rebuilds queue content from the log
+	 *
+	 * @return length of the log up to the last complete record
+	 */
+	private long replay(File queueFile) throws IOException {
+		if (!queueFile.exists()) {
+			return 0;
+		}
+		long validLength = 0;
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(queueFile), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				try {
+					applyRecord((JSONObject) JSONSerializer.toJSON(line));
+				} catch (RuntimeException e) {
+					//torn record, can only be the last one
+					break;
+				}
+				logRecords++;
+				validLength += line.getBytes(StandardCharsets.UTF_8).length + 1;
+			}
+		}
+		return validLength;
+	}
+
+	private void applyRecord(JSONObject record) {
+		String op = record.getString(OP);
+		if (OP_CLEAR.equals(op)) {
+			items.clear();
+			ids.clear();
+			return;
+		}
+		long id = record.getLong(ID);
+		nextId = Math.max(nextId, id + 1);
+		if (OP_ADD.equals(op)) {
+			QueueItem item = AbstractResultQueueImpl.JsonConverter.objectFromJson(record.getJSONObject(ITEM));
+			items.put(id, item);
+			ids.put(item, id);
+		} else if (OP_REMOVE.equals(op)) {
+			removeItem(id);
+		} else if (OP_RETRY.equals(op)) {
+			QueueItem item = items.remove(id);
+			if (item != null) {
+				item.failCount = record.getInt(COUNT);
+				item.sendAfter = record.optLong(SEND_AFTER);
+				items.put(id, item);
+			}
+		}
+	}
+}
@@ -145,7 +145,7 @@ public abstract class AbstractResultQueueImpl implements ResultQueue {
 		}
 	}
 
-	private static class JsonConverter implements FileObjectQueue.Converter<QueueItem> {
+	static class JsonConverter implements FileObjectQueue.Converter<QueueItem> {
 
 		public static final String INSTANCE_ID = "instanceId";
 
@@ -163,7 +163,7 @@ public abstract class AbstractResultQueueImpl implements ResultQueue {
 			writer.close();
 		}
 
-		private static QueueItem objectFromJson(JSONObject json) {
+		static QueueItem objectFromJson(JSONObject json) {
 			QueueItem queueItem = json.containsKey("workspace") ?
 					new QueueItem(
 							json.getString("project"),
@@ -186,7 +186,7 @@ public abstract class AbstractResultQueueImpl implements ResultQueue {
 			return queueItem;
 		}
 
-		private static JSONObject jsonFromObject(QueueItem item) {
+		static JSONObject jsonFromObject(QueueItem item) {
 			JSONObject json = new JSONObject();
 			json.put("project", item.projectName);
 			json.put("build", item.buildNumber);
@@ -0,0 +1,152 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane;
+
+import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
+import hudson.console.PlainTextConsoleOutputStream;
+import hudson.model.Computer;
+import hudson.model.Run;
+import hudson.remoting.FastPipedInputStream;
+import hudson.remoting.FastPipedOutputStream;
+import org.apache.logging.log4j.Logger;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports the console log of a build as plain text, stripping the console annotations while the log is read.
+ * The text is written into a pipe on a remoting thread and read by the caller, so neither the whole log nor a copy
+ * of it on disk is needed. A range of the text can be read, to resume a partially sent log, and it can be gzipped.
+ */
+final class BuildLogExport {
+	private static final Logger logger = SDKBasedLoggerProvider.getLogger(BuildLogExport.class);
+	private static final int BUFFER_SIZE = 8192;
+
+	private BuildLogExport() {
+	}
+
+	/**
+	 * Opens the plain text of the build log.
+	 *
+	 * @param offset position in the plain text to start at
+	 * @param length maximal number of bytes of plain text to read, negative to read to the end
+	 * @param gzip   whether the returned stream is gzipped
+	 */
+	static InputStream open(Run run, long offset, long length, boolean gzip) throws IOException {
+		return export(run.getLogInputStream(), true, run.toString(), offset, length, gzip);
+	}
+
+	/**
+	 * Returns a range of a log that is already plain text.
+	 */
+	static InputStream range(InputStream text, String name, long offset, long length, boolean gzip) throws IOException {
+		return export(text, false, name, offset, length, gzip);
+	}
+
+	static InputStream export(InputStream log, boolean annotated, String name, long offset, long length, boolean gzip) throws IOException {
+		FastPipedInputStream in = new FastPipedInputStream();
+		FastPipedOutputStream pipe = new FastPipedOutputStream(in);
+		Computer.threadPoolForRemoting.submit(() -> {
+			try (InputStream logStream = log) {
+				RangeOutputStream range = new RangeOutputStream(gzip ? new GZIPOutputStream(pipe) : pipe, offset, length);
+				// not closed on failure: closing would end the gzip stream and the pipe as if the log was complete
+				OutputStream out = annotated ? new PlainTextConsoleOutputStream(range) : range;
+				byte[] buffer = new byte[BUFFER_SIZE];
+				int read;
+				// the rest of the log is not read once the range was written
+				while (!range.isComplete() && (read = logStream.read(buffer)) >= 0) {
+					out.write(buffer, 0, read);
+				}
+				out.close();
+			} catch (IOException | RuntimeException e) {
+				logger.error("failed to export the log of " + name, e);
+				fail(pipe, e);
+			} finally {
+				closeQuietly(pipe);
+			}
+		});
+		return in;
+	}
+
+	/**
+	 * Closes the pipe so that the reader gets the failure instead of the end of the log.
+	 */
+	private static void fail(FastPipedOutputStream pipe, Throwable failure) {
+		try {
+			pipe.error(failure);
+		} catch (IOException e) {
+			// the reader is gone
+		}
+	}
+
+	private static void closeQuietly(OutputStream out) {
+		try {
+			out.close();
+		} catch (IOException e) {
+			// the reader is gone, or the pipe was already closed on failure
+		}
+	}
+
+	/**
+	 * Passes only the bytes within the range through and drops the others.
+	 */
+	private static final class RangeOutputStream extends FilterOutputStream {
+		private final long start;
+		private final long end;
+		private long position;
+
+		private RangeOutputStream(OutputStream out, long offset, long length) {
+			super(out);
+			this.start = Math.max(0, offset);
+			this.end = length < 0 ? Long.MAX_VALUE : start + length;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[]{(byte) b}, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			long from = Math.max(position, start);
+			long to = Math.min(position + len, end);
+			if (from < to) {
+				out.write(b, off + (int) (from - position), (int) (to - from));
+			}
+			position += len;
+		}
+
+		private boolean isComplete() {
+			return position >= end;
+		}
+	}
+}
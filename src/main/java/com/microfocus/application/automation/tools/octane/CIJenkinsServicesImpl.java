@@ -115,6 +115,7 @@ public class CIJenkinsServicesImpl extends CIPluginServices {
     private static final java.util.logging.Logger systemLogger = java.util.logging.Logger.getLogger(CIJenkinsServicesImpl.class.getName());
 
     private static final String DEFAULT_BRANCHES_SEPARATOR = " ";
+    private static final boolean CACHED_BUILD_LOG = Boolean.getBoolean("CIJenkinsServicesImpl.CachedBuildLog");
 
     @Override
     public CIServerInfo getServerInfo() {
@@ -175,26 +176,24 @@ public class CIJenkinsServicesImpl extends CIPluginServices {
         Map<String, PipelineNode> jobsMap = new HashMap<>();
 
         try {
-            Collection<String> jobNames = Jenkins.get().getJobNames();
-            for (String jobName : jobNames) {
-                String tempJobName = jobName;
+            for (JobCatalog.Entry entry : JobCatalog.getInstance().getReadableEntries()) {
+                Job tmpJob = entry.getJob();
+                String tempJobName = tmpJob.getFullName();
                 try {
-                    Job tmpJob = (Job) Jenkins.get().getItemByFullName(tempJobName);
-
                     if (!isJobIsRelevantForPipelineModule(tmpJob)) {
                         continue;
                     }
 
                     PipelineNode tmpConfig;
-                    if (tmpJob != null && JobProcessorFactory.WORKFLOW_MULTI_BRANCH_JOB_NAME.equals(tmpJob.getParent().getClass().getName())) {
+                    if (JobProcessorFactory.WORKFLOW_MULTI_BRANCH_JOB_NAME.equals(tmpJob.getParent().getClass().getName())) {
                         tempJobName = tmpJob.getParent().getFullName();
-                        WorkflowMultiBranchProject parentItem = (WorkflowMultiBranchProject) Jenkins.get().getItem(tempJobName);
-                        if( (parentItem != null && parentItem.isDisabled()) || jobsMap.containsKey(tempJobName)){
+                        WorkflowMultiBranchProject parentItem = (WorkflowMultiBranchProject) tmpJob.getParent();
+                        if (parentItem.isDisabled() || jobsMap.containsKey(tempJobName)) {
                             continue; //skip redundant creation config for multibranch job
                         }
                         tmpConfig = createPipelineNodeFromJobName(tempJobName);
                     } else {
-                        tmpConfig = createPipelineNode(tempJobName, tmpJob, includeParameters);
+                        tmpConfig = createPipelineNode(tempJobName, entry, includeParameters);
                     }
                     jobsMap.put(tempJobName, tmpConfig);
                 } catch (Throwable e) {
@@ -405,12 +404,23 @@ public class CIJenkinsServicesImpl extends CIPluginServices {
 
     @Override
     public InputStream getBuildLog(String jobId, String buildId) {
+        return getBuildLog(jobId, buildId, 0, -1, false);
+    }
+
+    /**
+     * Returns a range of the plain text build log, so that a partially sent log can be resumed
+     *
+     * @param offset position in the plain text to start at
+     * @param length maximal number of bytes to return, negative to return the rest of the log
+     * @param gzip   whether the returned stream is gzipped
+     */
+    public InputStream getBuildLog(String jobId, String buildId, long offset, long length, boolean gzip) {
         ACLContext originalContext = startImpersonation();
         try {
             InputStream result = null;
             Run run = getRunByRefNames(jobId, buildId);
             if (run != null) {
-                result = getOctaneLogFile(run);
+                result = getOctaneLog(run, offset, length, gzip);
             } else {
                 logger.error("build '" + jobId + " #" + buildId + "' not found");
             }
@@ -643,13 +653,14 @@ public class CIJenkinsServicesImpl extends CIPluginServices {
         ImpersonationUtil.stopImpersonation(impersonatedContext);
     }
 
-    private PipelineNode createPipelineNode(String name, Job job, boolean includeParameters) {
+    private PipelineNode createPipelineNode(String name, JobCatalog.Entry entry, boolean includeParameters) {
+        Job job = entry.getJob();
         PipelineNode tmpConfig = dtoFactory.newDTO(PipelineNode.class)
-                .setJobCiId(JobProcessorFactory.getFlowProcessor(job).getTranslatedJobName())
+                .setJobCiId(entry.getJobCiId())
                 .setName(name);
 
         if (includeParameters) {
-            tmpConfig.setParameters(ParameterProcessors.getConfigs(job));
+            tmpConfig.setParameters(entry.getParameters());
 
             //setIsTestRunner
             if (tmpConfig.getParameters() != null) {
@@ -709,6 +720,26 @@ public class CIJenkinsServicesImpl extends CIPluginServices {
         return tempJob.getDisplayName() != null ? tempJob.getDisplayName() : tempJob.getName();
     }
 
+    private InputStream getOctaneLog(Run run, long offset, long length, boolean gzip) {
+        if (CACHED_BUILD_LOG) {
+            InputStream result = getOctaneLogFile(run);
+            try {
+                return result == null || (offset == 0 && length < 0 && !gzip)
+                        ? result
+                        : BuildLogExport.range(result, run.toString(), offset, length, gzip);
+            } catch (IOException ioe) {
+                logger.error("failed to obtain log for " + run);
+                return null;
+            }
+        }
+        try {
+            return BuildLogExport.open(run, offset, length, gzip);
+        } catch (IOException ioe) {
+            logger.error("failed to obtain log for " + run, ioe);
+            return null;
+        }
+    }
+
     private InputStream getOctaneLogFile(Run run) {
         InputStream result = null;
         String octaneLogFilePath = run.getRootDir() + File.separator + "octane_log";
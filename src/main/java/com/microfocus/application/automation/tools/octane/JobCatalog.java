@@ -0,0 +1,240 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane;
+
+import com.hp.octane.integrations.dto.parameters.CIParameter;
+import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
+import com.microfocus.application.automation.tools.octane.model.processors.parameters.ParameterProcessors;
+import com.microfocus.application.automation.tools.octane.model.processors.projects.JobProcessorFactory;
+import hudson.Extension;
+import hudson.XmlFile;
+import hudson.matrix.MatrixConfiguration;
+import hudson.maven.MavenModule;
+import hudson.model.Item;
+import hudson.model.ItemGroup;
+import hudson.model.Items;
+import hudson.model.Job;
+import hudson.model.Saveable;
+import hudson.model.listeners.ItemListener;
+import hudson.model.listeners.SaveableListener;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import jenkins.model.Jenkins;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In memory catalog of the jobs that may be listed to Octane, kept current by an {@link ItemListener}, so that
+ * listing the jobs does not resolve every job of the instance by name. The parameters of a job are collected once,
+ * on the first listing that includes them, and again only after the job was saved.
+ * Whether a job is enabled and readable by the current user is checked on every listing.
+ */
+public final class JobCatalog {
+    private static final Logger logger = SDKBasedLoggerProvider.getLogger(JobCatalog.class);
+    private static final JobCatalog instance = new JobCatalog();
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    private JobCatalog() {
+    }
+
+    public static JobCatalog getInstance() {
+        return instance;
+    }
+
+    /**
+     * @return the cataloged jobs readable by the current user
+     */
+    public List<Entry> getReadableEntries() {
+        if (!loaded) {
+            load();
+        }
+        List<Entry> result = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (isReadable(entry.job)) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    private synchronized void load() {
+        if (loaded) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try (ACLContext ignored = ACL.as(ACL.SYSTEM)) {
+            entries.clear();
+            for (Job job : Jenkins.get().allItems(Job.class)) {
+                add(job);
+            }
+        }
+        loaded = true;
+        logger.info("job catalog of " + entries.size() + " jobs loaded in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    private synchronized void reload() {
+        loaded = false;
+        load();
+    }
+
+    private synchronized void create(Item item) {
+        if (!loaded) {
+            return;
+        }
+        if (item instanceof Job) {
+            add((Job) item);
+        } else if (item instanceof ItemGroup) {
+            for (Job job : Items.allItems(ACL.SYSTEM, (ItemGroup) item, Job.class)) {
+                add(job);
+            }
+        }
+    }
+
+    private synchronized void update(Item item) {
+        if (loaded && item instanceof Job) {
+            add((Job) item);
+        }
+    }
+
+    /**
+     * Removes the item and, for a folder, all the jobs in it.
+     */
+    private synchronized void remove(String fullName) {
+        if (!loaded) {
+            return;
+        }
+        String folderPrefix = fullName + "/";
+        entries.keySet().removeIf(name -> name.equals(fullName) || name.startsWith(folderPrefix));
+    }
+
+    private void add(Job job) {
+        if (!(job instanceof MatrixConfiguration || job instanceof MavenModule)) {
+            entries.put(job.getFullName(), new Entry(job));
+        }
+    }
+
+    private static boolean isReadable(Item item) {
+        Item current = item;
+        while (current.hasPermission(Item.READ)) {
+            ItemGroup parent = current.getParent();
+            if (!(parent instanceof Item)) {
+                return true;
+            }
+            current = (Item) parent;
+        }
+        return false;
+    }
+
+    /**
+     * Cataloged job, with the details that are collected once per update of the job.
+     */
+    public static final class Entry {
+        private final Job job;
+        private volatile String jobCiId;
+        private volatile List<CIParameter> parameters;
+
+        private Entry(Job job) {
+            this.job = job;
+        }
+
+        public Job getJob() {
+            return job;
+        }
+
+        public String getJobCiId() {
+            if (jobCiId == null) {
+                jobCiId = JobProcessorFactory.getFlowProcessor(job).getTranslatedJobName();
+            }
+            return jobCiId;
+        }
+
+        /**
+         * @return a copy of the parameters of the job
+         */
+        public List<CIParameter> getParameters() {
+            List<CIParameter> result = parameters;
+            if (result == null) {
+                result = ParameterProcessors.getConfigs(job);
+                parameters = result;
+            }
+            return new ArrayList<>(result);
+        }
+    }
+
+    @Extension
+    public static final class CatalogItemListener extends ItemListener {
+
+        @Override
+        public void onLoaded() {
+            instance.reload();
+        }
+
+        @Override
+        public void onCreated(Item item) {
+            instance.create(item);
+        }
+
+        @Override
+        public void onUpdated(Item item) {
+            instance.update(item);
+        }
+
+        @Override
+        public void onDeleted(Item item) {
+            instance.remove(item.getFullName());
+        }
+
+        @Override
+        public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+            // fired for each item in a moved folder too, once the folder itself was moved
+            instance.remove(oldFullName);
+            instance.update(item);
+        }
+    }
+
+    /**
+     * Catches changes of job properties that are saved without an update event, e.g. from scripts.
+     */
+    @Extension
+    public static final class CatalogSaveableListener extends SaveableListener {
+
+        @Override
+        public void onChange(Saveable o, XmlFile file) {
+            if (o instanceof Job) {
+                instance.update((Job) o);
+            }
+        }
+    }
+}
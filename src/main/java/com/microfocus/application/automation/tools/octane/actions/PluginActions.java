@@ -33,6 +33,7 @@ import com.hp.octane.integrations.OctaneSDK;
 import com.hp.octane.integrations.dto.general.CIServerInfo;
 import com.microfocus.application.automation.tools.octane.CIJenkinsServicesImpl;
 import com.microfocus.application.automation.tools.octane.configuration.ConfigurationService;
+import com.microfocus.application.automation.tools.octane.tests.TestResultsProcessor;
 import hudson.Extension;
 import hudson.model.RootAction;
 import jenkins.model.Jenkins;
@@ -154,6 +155,10 @@ public class PluginActions implements RootAction {
                     }
             );
             result.put("metrics", allMetricsJson);
+
+            JSONObject pluginMetricsJson = new JSONObject();
+            addMetrics(TestResultsProcessor.getInstance().getMetrics(), "testResultsProcessor", pluginMetricsJson);
+            result.put("pluginMetrics", pluginMetricsJson);
         }
 
         return result;
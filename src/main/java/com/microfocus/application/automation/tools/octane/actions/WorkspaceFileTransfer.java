@@ -0,0 +1,213 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.actions;
+
+import hudson.FilePath;
+import hudson.Util;
+import hudson.model.Computer;
+import hudson.remoting.FastPipedInputStream;
+import hudson.remoting.FastPipedOutputStream;
+import hudson.remoting.RemoteOutputStream;
+import hudson.remoting.VirtualChannel;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import jenkins.MasterToSlaveFileCallable;
+import org.apache.commons.io.IOUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Copies result files from the workspace node to the controller.
+ * Each file is gzipped on the node and streamed through a fixed size pipe into its target, so neither side holds
+ * the whole file in memory. The SHA-256 digest of the content is computed on both sides and compared.
+ */
+public final class WorkspaceFileTransfer {
+	private static final int THREADS = Integer.getInteger("WorkspaceFileTransfer.Threads", 4);
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final String DIGEST_ALGORITHM = "SHA-256";
+
+	private WorkspaceFileTransfer() {
+	}
+
+	/**
+	 * Copies the file of the workspace node into the target file on the controller.
+	 *
+	 * @return the number of bytes copied
+	 */
+	public static long copy(FilePath workspace, File source, File target) throws IOException, InterruptedException {
+		FastPipedInputStream in = new FastPipedInputStream();
+		FastPipedOutputStream out = new FastPipedOutputStream(in);
+		OutputStream remoteOut = new RemoteOutputStream(out);
+		Future<String> sending = Computer.threadPoolForRemoting.submit(() -> {
+			try {
+				return workspace.act(new GzipFileCallable(source, remoteOut));
+			} finally {
+				out.close();
+			}
+		});
+
+		MessageDigest digest = newDigest();
+		long size;
+		try (InputStream content = new DigestInputStream(new GZIPInputStream(in, BUFFER_SIZE), digest)) {
+			size = Files.copy(content, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			// the node stops writing once the pipe is closed; a failure to read the file there explains the failure here
+			in.close();
+			Files.deleteIfExists(target.toPath());
+			try {
+				sending.get();
+			} catch (ExecutionException readFailure) {
+				throw readFailure(source, readFailure);
+			}
+			throw new IOException("Failed to copy " + source, e);
+		}
+
+		String sourceDigest;
+		try {
+			sourceDigest = sending.get();
+		} catch (ExecutionException e) {
+			Files.deleteIfExists(target.toPath());
+			throw readFailure(source, e);
+		}
+		if (!sourceDigest.equals(Util.toHexString(digest.digest()))) {
+			Files.deleteIfExists(target.toPath());
+			throw new IOException("Content of " + target + " differs from " + source);
+		}
+		return size;
+	}
+
+	/**
+	 * Copies the files of the workspace node into their target files on the controller, a few at a time.
+	 * The first failure is rethrown once all the copies are done.
+	 */
+	public static void copyAll(FilePath workspace, Map<File, File> targetsBySource) throws IOException, InterruptedException {
+		if (targetsBySource.size() <= 1 || THREADS <= 1) {
+			IOException failure = null;
+			for (Map.Entry<File, File> file : targetsBySource.entrySet()) {
+				try {
+					copy(workspace, file.getKey(), file.getValue());
+				} catch (IOException e) {
+					if (failure == null) {
+						failure = e;
+					}
+				}
+			}
+			if (failure != null) {
+				throw failure;
+			}
+			return;
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(THREADS, targetsBySource.size()),
+				new NamingThreadFactory(new DaemonThreadFactory(), "WorkspaceFileTransfer.copy"));
+		try {
+			List<Future<Long>> copies = new ArrayList<>();
+			for (Map.Entry<File, File> file : targetsBySource.entrySet()) {
+				copies.add(executor.submit(() -> copy(workspace, file.getKey(), file.getValue())));
+			}
+			IOException failure = null;
+			for (Future<Long> copy : copies) {
+				try {
+					copy.get();
+				} catch (ExecutionException e) {
+					if (failure == null) {
+						failure = e.getCause() instanceof IOException
+								? (IOException) e.getCause()
+								: new IOException(e.getCause());
+					}
+				}
+			}
+			if (failure != null) {
+				throw failure;
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * The exception of the node as {@link FilePath#act} throws it, e.g. NoSuchFileException for a missing file.
+	 */
+	private static IOException readFailure(File source, ExecutionException e) {
+		return e.getCause() instanceof IOException
+				? (IOException) e.getCause()
+				: new IOException("Failed to read " + source, e.getCause());
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance(DIGEST_ALGORITHM);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(DIGEST_ALGORITHM + " is not supported", e);
+		}
+	}
+
+	/**
+	 * Writes the gzipped content of the file to the stream and returns the digest of the content.
+	 */
+	private static final class GzipFileCallable extends MasterToSlaveFileCallable<String> {
+		private final File file;
+		private final OutputStream out;
+
+		private GzipFileCallable(File file, OutputStream out) {
+			this.file = file;
+			this.out = out;
+		}
+
+		@Override
+		public String invoke(File rootDir, VirtualChannel channel) throws IOException {
+			MessageDigest digest = newDigest();
+			try (InputStream in = new DigestInputStream(Files.newInputStream(file.toPath()), digest)) {
+				// finished, not closed: the pipe is closed by the controller once this call returns
+				GZIPOutputStream gzip = new GZIPOutputStream(out, BUFFER_SIZE);
+				IOUtils.copyLarge(in, gzip, new byte[BUFFER_SIZE]);
+				gzip.finish();
+				gzip.flush();
+			}
+			return Util.toHexString(digest.digest());
+		}
+	}
+}
@@ -34,8 +34,10 @@ import hudson.model.*;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * this action initiate a copy of all coverage reports from workspace to build folder.
@@ -63,14 +65,15 @@ public class CoveragePublisherAction implements Action {
 				String[] files = CoverageService.getCoverageFiles(workspace, filePattern);
 				List<String> matchingReportFiles = filterFilesByFileExtension(files);
 				int index = 0;
+				Map<File, File> targetReportFiles = new LinkedHashMap<>();
 
 				for (String fileName : matchingReportFiles) {
 					File resultFile = new File(workspace.child(fileName).toURI());
 					String nextOutputFilename = CoverageService.getCoverageReportFileName(index++, defaultFileName);
 					result.add(nextOutputFilename);
-					File targetReportFile = new File(build.getRootDir(), nextOutputFilename);
-					CoverageService.copyCoverageFile(resultFile, targetReportFile, workspace);
+					targetReportFiles.put(resultFile, new File(build.getRootDir(), nextOutputFilename));
 				}
+				CoverageService.copyCoverageFiles(targetReportFiles, workspace);
 
 				if (result.isEmpty()) {
 					// most likely a configuration error in the job - e.g. false pattern to match the cucumber result files
@@ -28,6 +28,7 @@
 
 package com.microfocus.application.automation.tools.octane.actions.coverage;
 
+import com.microfocus.application.automation.tools.octane.actions.WorkspaceFileTransfer;
 import hudson.FilePath;
 import hudson.Util;
 import hudson.model.TaskListener;
@@ -37,9 +38,9 @@ import org.apache.tools.ant.DirectoryScanner;
 import org.apache.tools.ant.types.FileSet;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.Map;
 
 /**
  * Helper Service for coverage publisher
@@ -72,31 +73,35 @@ public class CoverageService {
         return workspace.act(new ResultFilesCallable(glob));
     }
 
-    public static void copyCoverageFile(File resultFile, File targetReportFile, final FilePath workspace) throws IOException, InterruptedException {
-        log(String.format("Copying %s to %s", resultFile.getPath(), targetReportFile));
-
-        byte[] content = workspace.act(new FileContentCallable(resultFile));
+    /**
+     * copies the coverage files from the workspace to their target files, all files at once
+     * @param targetReportFiles target file by coverage file
+     */
+    public static void copyCoverageFiles(Map<File, File> targetReportFiles, final FilePath workspace) throws IOException, InterruptedException {
+        for (Map.Entry<File, File> file : targetReportFiles.entrySet()) {
+            log(String.format("Copying %s to %s", file.getKey().getPath(), file.getValue()));
+        }
 
-        if (validateContent(content)) {
-            log("Got coverage file content");
+        WorkspaceFileTransfer.copyAll(workspace, targetReportFiles);
 
-            try (FileOutputStream os = new FileOutputStream(targetReportFile)) {
-                os.write(content);
+        for (File targetReportFile : targetReportFiles.values()) {
+            if (validateContent(targetReportFile)) {
+                log(String.format("coverage file copied successfully to %s", targetReportFile.getPath()));
+            } else {
+                Files.deleteIfExists(targetReportFile.toPath());
+                log("coverage file content corrupted, failed to copy the file to target destination");
             }
-            log(String.format("coverage file copied successfully to %s", targetReportFile.getPath()));
-        } else {
-            log("coverage file content corrupted, failed to copy the file to target destination");
         }
     }
 
     /**
      * most of the validations will be done in octane side
      * this is a place holder to do more validations if needed
-     * @param content of the file
+     * @param file copied file
      * @return status
      */
-    private static boolean validateContent(byte[] content) {
-        return content.length > 0;
+    private static boolean validateContent(File file) {
+        return file.length() > 0;
     }
 
     public static void log(final String message) {
@@ -127,17 +132,4 @@ public class CoverageService {
         }
     }
 
-    private static final class FileContentCallable extends MasterToSlaveFileCallable<byte[]> {
-        private final File file;
-
-        private FileContentCallable(File file) {
-            this.file = file;
-        }
-
-        @Override
-        public byte[] invoke(File rootDir, VirtualChannel channel) throws IOException {
-            return Files.readAllBytes(file.toPath());
-        }
-    }
-
 }
@@ -29,6 +29,7 @@
 package com.microfocus.application.automation.tools.octane.actions.cucumber;
 
 import com.microfocus.application.automation.tools.octane.Messages;
+import com.microfocus.application.automation.tools.octane.actions.WorkspaceFileTransfer;
 import hudson.FilePath;
 import hudson.Util;
 import hudson.model.TaskListener;
@@ -38,9 +39,14 @@ import org.apache.tools.ant.DirectoryScanner;
 import org.apache.tools.ant.types.FileSet;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Helper Service for Gherkin results
@@ -67,31 +73,81 @@ public class CucumberResultsService {
         return workspace.act(new ResultFilesCallable(glob));
     }
 
-    public static void copyResultFile(File resultFile, File destinationFolder, final FilePath workspace) throws IOException, InterruptedException {
+    public static void copyResultFiles(List<File> resultFiles, File destinationFolder, final FilePath workspace) throws IOException, InterruptedException {
+        Map<File, File> targets = new LinkedHashMap<>();
         File existingReportFile;
         int existingResultIndex = -1;
 
-        log("Copying %s to %s", resultFile.getPath(), destinationFolder.getPath());
+        for (File resultFile : resultFiles) {
+            log("Copying %s to %s", resultFile.getPath(), destinationFolder.getPath());
 
-        do {
-            existingReportFile = new File(destinationFolder, getGherkinResultFileName(++existingResultIndex));
-        } while (existingReportFile.exists());
-        log("New file name on destination will be %s", existingReportFile.getPath());
+            do {
+                existingReportFile = new File(destinationFolder, getGherkinResultFileName(++existingResultIndex));
+            } while (existingReportFile.exists());
+            log("New file name on destination will be %s", existingReportFile.getPath());
+            targets.put(resultFile, existingReportFile);
+        }
+
+        IOException copyFailure = null;
+        try {
+            WorkspaceFileTransfer.copyAll(workspace, targets);
+        } catch (IOException e) {
+            copyFailure = e;
+        }
 
-        byte[] content = workspace.act(new FileContentCallable(resultFile));
-        log("Got result file content");
+        IllegalArgumentException invalidContent = null;
+        List<File> copied = new ArrayList<>();
+        for (File target : targets.values()) {
+            if (!target.exists()) {
+                continue;
+            }
+            try {
+                validateContent(target);
+                copied.add(target);
+            } catch (IllegalArgumentException e) {
+                Files.deleteIfExists(target.toPath());
+                invalidContent = e;
+            }
+        }
+        renumberResultFiles(copied, destinationFolder);
 
-        validateContent(content);
+        if (copyFailure != null) {
+            throw copyFailure;
+        }
+        if (invalidContent != null) {
+            throw invalidContent;
+        }
+    }
 
-        File target = existingReportFile;
-        try (FileOutputStream os = new FileOutputStream(target)) {
-            os.write(content);
+    /**
+     * Moves the copied files down into the indexes left free by the dropped ones, the results are read up to the
+     * first missing index.
+     */
+    private static void renumberResultFiles(List<File> copied, File destinationFolder) throws IOException {
+        File reportFile;
+        int resultIndex = -1;
+
+        for (File target : copied) {
+            do {
+                reportFile = new File(destinationFolder, getGherkinResultFileName(++resultIndex));
+            } while (reportFile.exists() && !reportFile.equals(target));
+            if (!reportFile.equals(target)) {
+                Files.move(target.toPath(), reportFile.toPath());
+            }
+            log("Result file copied to %s", reportFile.getPath());
         }
-        log("Result file copied to %s", target.getPath());
     }
 
-    private static void validateContent(byte[] content) {
-        String contentStr = new String(content, 0, Math.min(content.length , 2000));
+    private static void validateContent(File file) throws IOException {
+        byte[] content = new byte[2000];
+        int length = 0;
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            int read;
+            while (length < content.length && (read = in.read(content, length, content.length - length)) > 0) {
+                length += read;
+            }
+        }
+        String contentStr = new String(content, 0, length, StandardCharsets.UTF_8);
         //Heuristic validation. we don't check the whole file structure here - we should be quick.
         if(!contentStr.contains("<features")) {
             throw new IllegalArgumentException("The file is not Octane Gherkin results file");
@@ -124,17 +180,4 @@ public class CucumberResultsService {
         }
     }
 
-    private static final class FileContentCallable extends MasterToSlaveFileCallable<byte[]> {
-        private final File file;
-
-        private FileContentCallable(File file) {
-            this.file = file;
-        }
-
-        @Override
-        public byte[] invoke(File rootDir, VirtualChannel channel) throws IOException {
-            return Files.readAllBytes(file.toPath());
-        }
-    }
-
 }
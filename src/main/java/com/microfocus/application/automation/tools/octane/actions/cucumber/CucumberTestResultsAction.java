@@ -37,7 +37,9 @@ import hudson.model.TaskListener;
 
 import java.io.File;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 /**
  * Created by franksha on 07/12/2016.
@@ -57,12 +59,13 @@ public class CucumberTestResultsAction implements Action {
             CucumberResultsService.log(Messages.CucumberResultsActionCollecting());
             String[] files = CucumberResultsService.getCucumberResultFiles(workspace, glob);
             boolean found = files.length > 0;
+            List<File> resultFiles = new ArrayList<>();
 
             for (String fileName : files) {
                 File resultFile = new File(workspace.child(fileName).toURI());
                 if (resultFile.lastModified() == 0 || run.getStartTimeInMillis() < resultFile.lastModified()) {
                     // for some reason , on some linux machines last modified time for newly create gherkin result file is 0 - lets consider it as valid
-                    CucumberResultsService.copyResultFile(resultFile, build.getRootDir(), workspace);
+                    resultFiles.add(resultFile);
                 } else {
                     String pattern = "yyyy-MM-dd HH:mm:ss";
                     SimpleDateFormat dateFormat = new SimpleDateFormat(pattern);
@@ -72,6 +75,7 @@ public class CucumberTestResultsAction implements Action {
                             dateFormat.format(new Date(resultFile.lastModified())), String.valueOf(resultFile.lastModified()));
                 }
             }
+            CucumberResultsService.copyResultFiles(resultFiles, build.getRootDir(), workspace);
 
             if (!found && build.getResult() != Result.FAILURE) {
                 // most likely a configuration error in the job - e.g. false pattern to match the cucumber result files
@@ -44,7 +44,7 @@ import com.microfocus.application.automation.tools.octane.model.processors.proje
 import com.microfocus.application.automation.tools.octane.model.processors.scm.CommonOriginRevision;
 import com.microfocus.application.automation.tools.octane.model.processors.scm.SCMProcessor;
 import com.microfocus.application.automation.tools.octane.model.processors.scm.SCMProcessors;
-import com.microfocus.application.automation.tools.octane.tests.TestListener;
+import com.microfocus.application.automation.tools.octane.tests.TestResultsProcessor;
 import com.microfocus.application.automation.tools.octane.tests.build.BuildHandlerUtils;
 import hudson.Extension;
 import hudson.model.*;
@@ -69,7 +69,7 @@ public final class AbstractBuildListenerOctaneImpl extends RunListener<AbstractB
 	private static final DTOFactory dtoFactory = DTOFactory.getInstance();
 
 	@Inject
-	private TestListener testListener;
+	private TestResultsProcessor testResultsProcessor;
 
 	@Override
 	public void onStarted(AbstractBuild build, TaskListener listener) {
@@ -113,7 +113,7 @@ public final class AbstractBuildListenerOctaneImpl extends RunListener<AbstractB
 
 	private void publishFinishEvent(AbstractBuild build) {
 		try {
-			boolean hasTests = testListener.processBuild(build);
+			boolean hasTests = testResultsProcessor.process(build);
 			CIEvent event = dtoFactory.newDTO(CIEvent.class)
 					.setEventType(CIEventType.FINISHED)
 					.setProject(BuildHandlerUtils.getJobCiId(build))
@@ -38,6 +38,7 @@ import com.microfocus.application.automation.tools.octane.configuration.Configur
 import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
 import com.microfocus.application.automation.tools.octane.executor.UftTestDiscoveryDispatcher;
 import com.microfocus.application.automation.tools.octane.model.processors.projects.JobProcessorFactory;
+import com.microfocus.application.automation.tools.octane.tests.TestResultsProcessor;
 import com.microfocus.application.automation.tools.octane.tests.build.BuildHandlerUtils;
 import com.microfocus.application.automation.tools.settings.OctaneServerSettingsGlobalConfiguration;
 import hudson.Extension;
@@ -69,6 +70,7 @@ public class GlobalEventsListenerOctaneImpl extends ItemListener {
 		logger.info("CI SDK version " + OctaneSDK.SDK_VERSION);
 
 		OctaneServerSettingsGlobalConfiguration.getInstance().initOctaneClients();
+		TestResultsProcessor.getInstance().resumePending();
 	}
 
 	@Override
@@ -95,6 +97,7 @@ public class GlobalEventsListenerOctaneImpl extends ItemListener {
 		OctaneSDK.getClients().forEach(OctaneSDK::removeClient);
 		UftTestDiscoveryDispatcher dispatcher = Jenkins.get().getExtensionList(UftTestDiscoveryDispatcher.class).get(0);
 		dispatcher.close();
+		TestResultsProcessor.getInstance().shutdown();
 	}
 
 	@Override
@@ -41,12 +41,12 @@ import com.hp.octane.integrations.dto.snapshots.CIBuildResult;
 import com.microfocus.application.automation.tools.octane.CIJenkinsServicesImpl;
 import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
 import com.microfocus.application.automation.tools.octane.model.CIEventCausesFactory;
-import com.microfocus.application.automation.tools.octane.model.processors.parameters.ParameterProcessors;
 import com.microfocus.application.automation.tools.octane.model.processors.projects.JobProcessorFactory;
-import com.microfocus.application.automation.tools.octane.tests.TestListener;
+import com.microfocus.application.automation.tools.octane.tests.TestResultsProcessor;
 import com.microfocus.application.automation.tools.octane.tests.build.BuildHandlerUtils;
 import hudson.Extension;
 import hudson.model.Result;
+import hudson.model.listeners.RunListener;
 import org.apache.logging.log4j.Logger;
 import org.jenkinsci.plugins.workflow.actions.TimingAction;
 import org.jenkinsci.plugins.workflow.actions.WarningAction;
@@ -56,9 +56,7 @@ import org.jenkinsci.plugins.workflow.flow.GraphListener;
 import org.jenkinsci.plugins.workflow.graph.FlowNode;
 import org.jenkinsci.plugins.workflow.job.WorkflowRun;
 
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 /**
  * Octane's listener for WorkflowRun events
@@ -75,12 +73,8 @@ public class WorkflowListenerOctaneImpl implements GraphListener {
 	private static final Logger logger = SDKBasedLoggerProvider.getLogger(WorkflowListenerOctaneImpl.class);
 	private static final DTOFactory dtoFactory = DTOFactory.getInstance();
 
-	//After upgrading Pipeline:Groovy plugin to Version 2.64: receive two start events, therefore
-	// pipeline job shows 2 bars for a single pipeline run.
-	// Here we add job key during start event and remove key in finished event
-	private static Set<String> workflowJobStarted = new HashSet<>();
 	@Inject
-	private TestListener testListener;
+	private TestResultsProcessor testResultsProcessor;
 
 	@Override
 	public void onNewHead(FlowNode flowNode) {
@@ -106,25 +100,25 @@ public class WorkflowListenerOctaneImpl implements GraphListener {
 
 	private void sendPipelineStartedEvent(FlowNode flowNode) {
 		WorkflowRun parentRun = BuildHandlerUtils.extractParentRun(flowNode);
+		WorkflowRunEvents runEvents = WorkflowRunEvents.of(parentRun);
 
-		//Avoid duplicate start events
-		String buildKey = getBuildKey(parentRun);
-		if (workflowJobStarted.contains(buildKey)) {
+		//After upgrading Pipeline:Groovy plugin to Version 2.64: receive two start events, therefore
+		// pipeline job shows 2 bars for a single pipeline run.
+		// Here we send the event on the first start only, the run state is evicted in finished event
+		if (!runEvents.markStarted()) {
 			return;
-		} else {
-			workflowJobStarted.add(buildKey);
 		}
 
 		CIEvent event = dtoFactory.newDTO(CIEvent.class)
 				.setEventType(CIEventType.STARTED)
-				.setProjectDisplayName(BuildHandlerUtils.translateFullDisplayName(parentRun.getParent().getFullDisplayName()))
+				.setProjectDisplayName(runEvents.getProjectDisplayName())
 				.setProject(BuildHandlerUtils.getJobCiId(parentRun))
 				.setBuildCiId(BuildHandlerUtils.getBuildCiId(parentRun))
 				.setNumber(String.valueOf(parentRun.getNumber()))
-				.setParameters(ParameterProcessors.getInstances(parentRun))
+				.setParameters(runEvents.getParameters())
 				.setStartTime(parentRun.getStartTimeInMillis())
 				.setEstimatedDuration(parentRun.getEstimatedDuration())
-				.setCauses(CIEventCausesFactory.processCauses(parentRun));
+				.setCauses(runEvents.getCauses());
 
 		if(isInternal(event.getCauses())){
 			event.setPhaseType(PhaseType.INTERNAL);
@@ -133,7 +127,7 @@ public class WorkflowListenerOctaneImpl implements GraphListener {
 			event
 					.setParentCiId(BuildHandlerUtils.translateFolderJobName(parentRun.getParent().getParent().getFullName()))
 					.setMultiBranchType(MultiBranchType.MULTI_BRANCH_CHILD)
-					.setProjectDisplayName(BuildHandlerUtils.translateFullDisplayName(parentRun.getParent().getFullDisplayName()));
+					.setProjectDisplayName(runEvents.getProjectDisplayName());
 		}
 
 		CIJenkinsServicesImpl.publishEventToRelevantClients(event);
@@ -150,25 +144,21 @@ public class WorkflowListenerOctaneImpl implements GraphListener {
 		return false;
 	}
 
-	private String getBuildKey(WorkflowRun run){
-		return run.getFullDisplayName();
-	}
-
 	private void sendPipelineFinishedEvent(WorkflowRun parentRun) {
-		workflowJobStarted.remove(getBuildKey(parentRun));
-		boolean hasTests = testListener.processBuild(parentRun);
+		WorkflowRunEvents runEvents = WorkflowRunEvents.evict(parentRun);
+		boolean hasTests = testResultsProcessor.process(parentRun);
 
 		CIEvent event = dtoFactory.newDTO(CIEvent.class)
 				.setEventType(CIEventType.FINISHED)
 				.setProject(BuildHandlerUtils.getJobCiId(parentRun))
 				.setBuildCiId(BuildHandlerUtils.getBuildCiId(parentRun))
 				.setNumber(String.valueOf(parentRun.getNumber()))
-				.setParameters(ParameterProcessors.getInstances(parentRun))
+				.setParameters(runEvents.getParameters())
 				.setStartTime(parentRun.getStartTimeInMillis())
 				.setEstimatedDuration(parentRun.getEstimatedDuration())
 				.setDuration(parentRun.getDuration())
 				.setResult(BuildHandlerUtils.translateRunResult(parentRun))
-				.setCauses(CIEventCausesFactory.processCauses(parentRun))
+				.setCauses(runEvents.getCauses())
 				.setTestResultExpected(hasTests)
 				.setEnvironmentOutputtedParameters(OutputEnvironmentParametersHelper.getOutputEnvironmentParams(parentRun));
 		CIJenkinsServicesImpl.publishEventToRelevantClients(event);
@@ -176,14 +166,16 @@ public class WorkflowListenerOctaneImpl implements GraphListener {
 
 	private void sendStageStartedEvent(StepStartNode stepStartNode) {
 		logger.debug("node " + stepStartNode + " detected as Stage Start node");
-		CIEvent event = prepareStageEvent(stepStartNode).setEventType(CIEventType.STARTED);
+		WorkflowRunEvents runEvents = WorkflowRunEvents.of(BuildHandlerUtils.extractParentRun(stepStartNode));
+		CIEvent event = prepareStageEvent(stepStartNode, runEvents).setEventType(CIEventType.STARTED);
 		CIJenkinsServicesImpl.publishEventToRelevantClients(event);
 	}
 
 	private void sendStageFinishedEvent(StepEndNode stepEndNode) {
 		logger.debug("node " + stepEndNode + " detected as Stage End node");
 		StepStartNode stepStartNode = stepEndNode.getStartNode();
-		CIEvent event = prepareStageEvent(stepStartNode)
+		WorkflowRunEvents runEvents = WorkflowRunEvents.of(BuildHandlerUtils.extractParentRun(stepStartNode));
+		CIEvent event = prepareStageEvent(stepStartNode, runEvents)
 				.setEventType(CIEventType.FINISHED)
 				.setDuration(TimingAction.getStartTime(stepEndNode) - TimingAction.getStartTime(stepStartNode))
 				.setResult(extractFlowNodeResult(stepEndNode));
@@ -191,7 +183,7 @@ public class WorkflowListenerOctaneImpl implements GraphListener {
 		CIJenkinsServicesImpl.publishEventToRelevantClients(event);
 	}
 
-	private CIEvent prepareStageEvent(StepStartNode stepStartNode) {
+	private CIEvent prepareStageEvent(StepStartNode stepStartNode, WorkflowRunEvents runEvents) {
 		WorkflowRun parentRun = BuildHandlerUtils.extractParentRun(stepStartNode);
 		return dtoFactory.newDTO(CIEvent.class)
 				.setPhaseType(PhaseType.INTERNAL)
@@ -200,7 +192,7 @@ public class WorkflowListenerOctaneImpl implements GraphListener {
 				.setBuildCiId(BuildHandlerUtils.getBuildCiId(parentRun))
 				.setNumber(String.valueOf(parentRun.getNumber()))
 				.setStartTime(TimingAction.getStartTime(stepStartNode))
-				.setCauses(CIEventCausesFactory.processCauses(stepStartNode));
+				.setCauses(CIEventCausesFactory.processCauses(stepStartNode, runEvents.getCauses()));
 	}
 
 	private CIBuildResult extractFlowNodeResult(FlowNode node) {
@@ -252,4 +244,16 @@ public class WorkflowListenerOctaneImpl implements GraphListener {
         }
 		return false;
     }
-}
\ No newline at end of file
+
+	/**
+	 * Evicts the events state of the runs that completed without reaching their end node
+	 */
+	@Extension
+	public static class RunEventsEvictor extends RunListener<WorkflowRun> {
+
+		@Override
+		public void onFinalized(WorkflowRun run) {
+			WorkflowRunEvents.evict(run);
+		}
+	}
+}
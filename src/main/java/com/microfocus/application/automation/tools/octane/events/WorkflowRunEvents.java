@@ -0,0 +1,100 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.events;
+
+import com.hp.octane.integrations.dto.causes.CIEventCause;
+import com.hp.octane.integrations.dto.parameters.CIParameter;
+import com.microfocus.application.automation.tools.octane.model.CIEventCausesFactory;
+import com.microfocus.application.automation.tools.octane.model.processors.parameters.ParameterProcessors;
+import com.microfocus.application.automation.tools.octane.tests.build.BuildHandlerUtils;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Events state of a running pipeline: the data shared by all the events of the run is computed once.
+ * The state is evicted when the run completes.
+ */
+final class WorkflowRunEvents {
+	private static final ConcurrentMap<String, WorkflowRunEvents> runs = new ConcurrentHashMap<>();
+
+	private final WorkflowRun run;
+	private final AtomicBoolean started = new AtomicBoolean();
+	private List<CIEventCause> causes;
+	private List<CIParameter> parameters;
+	private String projectDisplayName;
+
+	WorkflowRunEvents(WorkflowRun run) {
+		this.run = run;
+	}
+
+	static WorkflowRunEvents of(WorkflowRun run) {
+		return runs.computeIfAbsent(run.getExternalizableId(), k -> new WorkflowRunEvents(run));
+	}
+
+	/**
+	 * Removes the state of the completed run
+	 */
+	static WorkflowRunEvents evict(WorkflowRun run) {
+		WorkflowRunEvents result = runs.remove(run.getExternalizableId());
+		return result == null ? new WorkflowRunEvents(run) : result;
+	}
+
+	/**
+	 * @return true on the first call only, later calls are duplicate starts of the same run
+	 */
+	boolean markStarted() {
+		return started.compareAndSet(false, true);
+	}
+
+	synchronized List<CIEventCause> getCauses() {
+		if (causes == null) {
+			causes = CIEventCausesFactory.processCauses(run);
+		}
+		return new ArrayList<>(causes);
+	}
+
+	synchronized List<CIParameter> getParameters() {
+		if (parameters == null) {
+			parameters = ParameterProcessors.getInstances(run);
+		}
+		return new ArrayList<>(parameters);
+	}
+
+	synchronized String getProjectDisplayName() {
+		if (projectDisplayName == null) {
+			projectDisplayName = BuildHandlerUtils.translateFullDisplayName(run.getParent().getFullDisplayName());
+		}
+		return projectDisplayName;
+	}
+}
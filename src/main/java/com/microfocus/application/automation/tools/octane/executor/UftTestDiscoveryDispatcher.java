@@ -52,12 +52,16 @@ import org.apache.http.HttpStatus;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
  * This class is responsible to send discovered uft tests to Octane.
  * Class uses file-based queue so if octane or jenkins will be down before sending,
  * after connection is up - this dispatcher will send tests to Octane.
+ * While an Octane instance is down, its items are postponed with exponential backoff and items of other instances keep flowing.
  * <p>
  * Actually list of discovered tests are persisted in job run directory. Queue contains only reference to that job run.
  */
@@ -67,11 +71,15 @@ public class UftTestDiscoveryDispatcher extends AbstractSafeLoggingAsyncPeriodWo
     private static final Logger logger = SDKBasedLoggerProvider.getLogger(UftTestDiscoveryDispatcher.class);
 
     private static final int MAX_DISPATCH_TRIALS = 5;
+    private static final long INITIAL_BACKOFF_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final long MAX_BACKOFF_MILLIS = TimeUnit.MINUTES.toMillis(30);
 
     private UftTestDiscoveryQueue queue;
 
     private volatile boolean stopped = false;
 
+    private final Map<String, Backoff> backoffs = new ConcurrentHashMap<>();
+
     public UftTestDiscoveryDispatcher() {
         super("Uft Test Discovery Dispatcher");
     }
@@ -107,7 +115,7 @@ public class UftTestDiscoveryDispatcher extends AbstractSafeLoggingAsyncPeriodWo
             return;
         }
 
-        if (queue.peekFirst() == null) {
+        if (queue.size() == 0) {
             return;
         }
 
@@ -116,83 +124,109 @@ public class UftTestDiscoveryDispatcher extends AbstractSafeLoggingAsyncPeriodWo
             return;
         }
 
-        ResultQueue.QueueItem item = null;
-        try {
-            while ((item = queue.peekFirst()) != null) {
-                if (queueContainsPostponedItems(item)) {
-                    //all postponed items are in the end of queue, so it we encountered one postponed item, other postponed items will come after it, so we do break
-                    break;
+        //items of instances that are backing off stay in place, items of other instances are dispatched in queue order
+        for (ResultQueue.QueueItem item : queue.peekBatch(queue.size())) {
+            if (stopped) {
+                return;
+            }
+            if (item.getSendAfter() > System.currentTimeMillis()) {
+                continue;
+            }
+            if (item.getInstanceId() != null && isBackingOff(item.getInstanceId())) {
+                continue;
+            }
+            try {
+                dispatchItem(item);
+            } catch (OctaneRestException e) {
+                String reasonDesc = StringUtils.isNotEmpty(e.getData().getDescriptionTranslated()) ? e.getData().getDescriptionTranslated() : e.getData().getDescription();
+                if (e.getResponseStatus() == HttpStatus.SC_FORBIDDEN) {
+                    logger.error("Failed to  persist discovery of [" + item.getProjectName() + "#" + item.getBuildNumber() + "]  because of lacking Octane permission : " + reasonDesc);
+                } else {
+                    logger.error("Failed to  persist discovery of [" + item.getProjectName() + "#" + item.getBuildNumber() + "]  : " + reasonDesc);
                 }
-
-                Job project = (Job) Jenkins.get().getItemByFullName(item.getProjectName());
-                if (project == null) {
-                    logger.warn("Project [" + item.getProjectName() + "] no longer exists, pending discovered tests can't be submitted");
-                    queue.remove();
-                    continue;
+                queue.removeBatch(Collections.singletonList(item));
+            } catch (Exception e) {
+                if (!queue.failed(item)) {
+                    logger.error("Failed to  persist discovery of [" + item.getProjectName() + "#" + item.getBuildNumber() + "]  after " + MAX_DISPATCH_TRIALS + " trials", e);
                 }
+            }
+        }
+    }
 
-                AbstractBuild build = (AbstractBuild) project.getBuildByNumber(item.getBuildNumber());
-                if (build == null) {
-                    logger.warn("Build [" + item.getProjectName() + "#" + item.getBuildNumber() + "] no longer exists, pending discovered tests can't be submitted");
-                    queue.remove();
-                    continue;
-                }
+    private void dispatchItem(ResultQueue.QueueItem item) {
+        Job project = (Job) Jenkins.get().getItemByFullName(item.getProjectName());
+        if (project == null) {
+            logger.warn("Project [" + item.getProjectName() + "] no longer exists, pending discovered tests can't be submitted");
+            queue.removeBatch(Collections.singletonList(item));
+            return;
+        }
 
-                UftTestDiscoveryResult result = UFTTestDetectionService.readDetectionResults(build);
-                if (result == null) {
-                    logger.warn("Build [" + item.getProjectName() + "#" + item.getBuildNumber() + "] no longer contains valid detection result file");
-                    queue.remove();
-                    continue;
-                }
+        AbstractBuild build = (AbstractBuild) project.getBuildByNumber(item.getBuildNumber());
+        if (build == null) {
+            logger.warn("Build [" + item.getProjectName() + "#" + item.getBuildNumber() + "] no longer exists, pending discovered tests can't be submitted");
+            queue.removeBatch(Collections.singletonList(item));
+            return;
+        }
 
-                OctaneClient client;
-                try {
-                    client = OctaneSDK.getClientByInstanceId(result.getConfigurationId());
-                } catch (Exception e) {
-                    logger.error("Build [" + item.getProjectName() + "#" + item.getBuildNumber() + "] does not have valid configuration " + result.getConfigurationId() + " : " + e.getMessage());
-                    queue.remove();
-                    continue;
-                }
+        UftTestDiscoveryResult result = UFTTestDetectionService.readDetectionResults(build);
+        if (result == null) {
+            logger.warn("Build [" + item.getProjectName() + "#" + item.getBuildNumber() + "] no longer contains valid detection result file");
+            queue.removeBatch(Collections.singletonList(item));
+            return;
+        }
 
-                if (!client.getConfigurationService().isConnected()) {
-                    logger.info(client.getConfigurationService().getConfiguration().getLocationForLog() +
-                            " - Build [" + item.getProjectName() + "#" + item.getBuildNumber() + "] - octane is down , postponing sending UFT tests ");
-                    //if octane is down - put current item to the end of queue and try wth other items (that might be from another octane)
-                    item.setSendAfter(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1));
-                    queue.remove();
-                    queue.add(item);
-                    continue;
-                }
+        //items queued by older versions have no instance id, it is known only from the detection result
+        String instanceId = result.getConfigurationId();
+        if (instanceId != null && isBackingOff(instanceId)) {
+            return;
+        }
 
-                logger.warn("Persistence [" + item.getProjectName() + "#" + item.getBuildNumber() + "]");
-                dispatchDetectionResults(item, client.getEntitiesService(), result, build);
-                queue.remove();
-            }
-        } catch (OctaneRestException e) {
-            String reasonDesc = StringUtils.isNotEmpty(e.getData().getDescriptionTranslated()) ? e.getData().getDescriptionTranslated() : e.getData().getDescription();
-            if (e.getResponseStatus() == HttpStatus.SC_FORBIDDEN) {
-                logger.error("Failed to  persist discovery of [" + item.getProjectName() + "#" + item.getBuildNumber() + "]  because of lacking Octane permission : " + reasonDesc);
-            } else {
-                logger.error("Failed to  persist discovery of [" + item.getProjectName() + "#" + item.getBuildNumber() + "]  : " + reasonDesc);
-            }
-            queue.remove();
+        OctaneClient client;
+        try {
+            client = OctaneSDK.getClientByInstanceId(instanceId);
         } catch (Exception e) {
-            if (item != null) {
-                item.incrementFailCount();
-                if (item.incrementFailCount() > MAX_DISPATCH_TRIALS) {
-                    queue.remove();
-                    logger.error("Failed to  persist discovery of [" + item.getProjectName() + "#" + item.getBuildNumber() + "]  after " + MAX_DISPATCH_TRIALS + " trials");
-                }
-            }
+            logger.error("Build [" + item.getProjectName() + "#" + item.getBuildNumber() + "] does not have valid configuration " + instanceId + " : " + e.getMessage());
+            queue.removeBatch(Collections.singletonList(item));
+            return;
         }
-    }
 
-    private boolean queueContainsPostponedItems(ResultQueue.QueueItem queueItem) {
-        if (queueItem.getSendAfter() > 0 && queueItem.getSendAfter() > System.currentTimeMillis()) {
-            //all postponed items are in the end of queue, so it we encountered one postponed item, other postponed items will come after it, so we do break
-            return true;
+        if (!client.getConfigurationService().isConnected()) {
+            long delay = backOff(instanceId);
+            logger.info(client.getConfigurationService().getConfiguration().getLocationForLog() +
+                    " - Build [" + item.getProjectName() + "#" + item.getBuildNumber() + "] - octane is down , postponing sending UFT tests for " + TimeUnit.MILLISECONDS.toSeconds(delay) + " seconds");
+            return;
         }
-        return false;
+        backoffs.remove(instanceId);
+
+        logger.warn("Persistence [" + item.getProjectName() + "#" + item.getBuildNumber() + "]");
+        dispatchDetectionResults(item, client.getEntitiesService(), result, build);
+        queue.removeBatch(Collections.singletonList(item));
+    }
+
+    private boolean isBackingOff(String instanceId) {
+        Backoff backoff = backoffs.get(instanceId);
+        return backoff != null && backoff.sendAfter > System.currentTimeMillis();
+    }
+
+    /**
+     * Postpones all items of the Octane instance, doubling the delay on each consecutive failure
+     *
+     * @return delay in milliseconds
+     */
+    private long backOff(String instanceId) {
+        Backoff backoff = backoffs.computeIfAbsent(instanceId, id -> new Backoff());
+        long delay = Math.min(MAX_BACKOFF_MILLIS, INITIAL_BACKOFF_MILLIS << Math.min(backoff.failures, 16));
+        backoff.failures++;
+        backoff.sendAfter = System.currentTimeMillis() + delay;
+        return delay;
+    }
+
+    /**
+     * In-memory only: postponing an Octane instance does not touch the persisted queue
+     */
+    private static class Backoff {
+        private int failures;
+        private long sendAfter;
     }
 
     public void close() {
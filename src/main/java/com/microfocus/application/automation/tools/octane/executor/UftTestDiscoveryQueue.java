@@ -28,7 +28,7 @@
 
 package com.microfocus.application.automation.tools.octane.executor;
 
-import com.microfocus.application.automation.tools.octane.AbstractResultQueueImpl;
+import com.microfocus.application.automation.tools.octane.AbstractLogResultQueueImpl;
 import jenkins.model.Jenkins;
 
 import java.io.File;
@@ -37,10 +37,14 @@ import java.io.IOException;
 /**
  * Queue for uft test discovery before dispatching
  */
-public class UftTestDiscoveryQueue extends AbstractResultQueueImpl {
+public class UftTestDiscoveryQueue extends AbstractLogResultQueueImpl {
+
+    private static final int MAX_DISPATCH_TRIALS = 5;
 
     public UftTestDiscoveryQueue() throws IOException {
-        File queueFile = new File(Jenkins.getInstanceOrNull().getRootDir(), "octane-uft-tests-queue.dat");
-        init(queueFile);
+        super(MAX_DISPATCH_TRIALS);
+        File rootDir = Jenkins.getInstanceOrNull().getRootDir();
+        init(new File(rootDir, "octane-uft-tests-queue.log"));
+        importTapeQueue(new File(rootDir, "octane-uft-tests-queue.dat"));
     }
 }
@@ -49,9 +49,11 @@ import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Causes Factory is a collection of static stateless methods to extract/traverse/transform causes chains of the runs
+ * Causes Factory is a collection of static methods to extract/traverse/transform causes chains of the runs;
+ * the chains of the runs are kept in a bounded cache
  * User: gullery
  * Date: 20/10/14
  */
@@ -60,6 +62,9 @@ public final class CIEventCausesFactory {
 	private static final Logger logger = SDKBasedLoggerProvider.getLogger(CIEventCausesFactory.class);
 	private static final DTOFactory dtoFactory = DTOFactory.getInstance();
 
+	//  causes of a run never change once it started, so their trees are shared between all the events of the run and its downstream runs
+	private static final CausesCache cache = new CausesCache(Integer.getInteger("CIEventCausesFactory.CacheSize", 1000));
+
 	private CIEventCausesFactory() {
 	}
 
@@ -67,71 +72,132 @@ public final class CIEventCausesFactory {
 		if (run == null) {
 			throw new IllegalArgumentException("run MUST NOT be null");
 		}
+		return cache.processCauses(run);
+	}
+
+	public static long getCacheHits() {
+		return cache.getHits();
+	}
 
-		Map<String, CIEventCause> result = new LinkedHashMap();//LinkedHashMap - save order of insertion
+	public static long getCacheMisses() {
+		return cache.getMisses();
+	}
+
+	/**
+	 * Resolves the event causes of each cause of the run, in the order of the causes, reusing the known ones.
+	 * The causes that depend on the current heads of an upstream pipeline are left null in the settled list.
+	 */
+	private static void buildCauses(Run<?, ?> run, List<List<CIEventCause>> known,
+	                                List<List<CIEventCause>> resolved, List<List<CIEventCause>> settled) {
 		List<Cause> causes = run.getCauses();
-		CIEventCause tmpResultCause;
-		Cause.UserIdCause tmpUserCause;
-		Cause.UpstreamCause tmpUpstreamCause;
-
-		for (Cause cause : causes) {
-			tmpResultCause = dtoFactory.newDTO(CIEventCause.class);
-			if (cause instanceof SCMTrigger.SCMTriggerCause) {
-				tmpResultCause.setType(CIEventCauseType.SCM);
-				result.put(tmpResultCause.generateKey(), tmpResultCause);
-			} else if (cause instanceof TimerTrigger.TimerTriggerCause) {
-				tmpResultCause.setType(CIEventCauseType.TIMER);
-				result.put(tmpResultCause.generateKey(), tmpResultCause);
-			} else if (cause instanceof Cause.UserIdCause) {
-				tmpUserCause = (Cause.UserIdCause) cause;
-				tmpResultCause.setType(CIEventCauseType.USER);
-				tmpResultCause.setUser(tmpUserCause.getUserId());
-				result.put(tmpResultCause.generateKey(), tmpResultCause);
-			} else if (cause instanceof Cause.UpstreamCause) {
-				if("RebuildCause".equals(cause.getClass().getSimpleName())){
-					continue;//rebuild reason have upstream of previous build - its confusing octane.(Part of rebuild plugin)
-				}
-				tmpUpstreamCause = (Cause.UpstreamCause) cause;
-
-				boolean succeededToBuildFlowCauses = false;
-				Run upstreamRun = tmpUpstreamCause.getUpstreamRun();
-				if (upstreamRun != null && JobProcessorFactory.WORKFLOW_RUN_NAME.equals(upstreamRun.getClass().getName())) {
-
-					//  for the child of the Workflow - break aside and calculate the causes chain of the stages
-					WorkflowRun rootWFRun = (WorkflowRun) upstreamRun;
-					if (rootWFRun.getExecution() != null && rootWFRun.getExecution().getCurrentHeads() != null) {
-						FlowNode enclosingNode = lookupJobEnclosingNode(run, rootWFRun);
-						if (enclosingNode != null) {
-							List<CIEventCause> flowCauses = processCauses(enclosingNode);
-							flowCauses.forEach(fc -> result.put(fc.generateKey(), fc));
-							succeededToBuildFlowCauses = true;
-						}
+		for (int i = 0; i < causes.size(); i++) {
+			List<CIEventCause> part = known != null ? known.get(i) : null;
+			if (part != null) {
+				settled.add(part);
+			} else {
+				boolean isSettled = isSettled(run, causes.get(i));
+				part = Collections.unmodifiableList(buildCauses(run, causes.get(i)));
+				settled.add(isSettled ? part : null);
+			}
+			resolved.add(part);
+		}
+	}
+
+	private static List<CIEventCause> buildCauses(Run<?, ?> run, Cause cause) {
+		List<CIEventCause> result = new ArrayList<>();
+		CIEventCause tmpResultCause = dtoFactory.newDTO(CIEventCause.class);
+		if (cause instanceof SCMTrigger.SCMTriggerCause) {
+			tmpResultCause.setType(CIEventCauseType.SCM);
+			result.add(tmpResultCause);
+		} else if (cause instanceof TimerTrigger.TimerTriggerCause) {
+			tmpResultCause.setType(CIEventCauseType.TIMER);
+			result.add(tmpResultCause);
+		} else if (cause instanceof Cause.UserIdCause) {
+			Cause.UserIdCause tmpUserCause = (Cause.UserIdCause) cause;
+			tmpResultCause.setType(CIEventCauseType.USER);
+			tmpResultCause.setUser(tmpUserCause.getUserId());
+			result.add(tmpResultCause);
+		} else if (cause instanceof Cause.UpstreamCause) {
+			if (isRebuildCause(cause)) {
+				return result;//rebuild reason have upstream of previous build - its confusing octane.(Part of rebuild plugin)
+			}
+			Cause.UpstreamCause tmpUpstreamCause = (Cause.UpstreamCause) cause;
+
+			boolean succeededToBuildFlowCauses = false;
+			Run upstreamRun = tmpUpstreamCause.getUpstreamRun();
+			if (isWorkflowRun(upstreamRun)) {
+
+				//  for the child of the Workflow - break aside and calculate the causes chain of the stages
+				WorkflowRun rootWFRun = (WorkflowRun) upstreamRun;
+				if (rootWFRun.getExecution() != null && rootWFRun.getExecution().getCurrentHeads() != null) {
+					FlowNode enclosingNode = lookupJobEnclosingNode(run, rootWFRun);
+					if (enclosingNode != null) {
+						result.addAll(processCauses(enclosingNode));
+						succeededToBuildFlowCauses = true;
 					}
 				}
+			}
 
-				if (upstreamRun != null && !succeededToBuildFlowCauses) {
-					//  proceed with regular UPSTREAM calculation logic as usual
-					tmpResultCause.setType(CIEventCauseType.UPSTREAM);
-					tmpResultCause.setProject(resolveJobCiId(tmpUpstreamCause.getUpstreamProject()));
-					tmpResultCause.setBuildCiId(String.valueOf(tmpUpstreamCause.getUpstreamBuild()));
-					tmpResultCause.setCauses(processCauses(upstreamRun));
-					result.put(tmpResultCause.generateKey(), tmpResultCause);
-				}
-			} else { //  TODO: add support to Cause.RemoteCause execution in SDK/DTOs/Octane
-				tmpResultCause.setType(CIEventCauseType.UNDEFINED);
-				result.put(tmpResultCause.generateKey(), tmpResultCause);
+			if (upstreamRun != null && !succeededToBuildFlowCauses) {
+				//  proceed with regular UPSTREAM calculation logic as usual
+				tmpResultCause.setType(CIEventCauseType.UPSTREAM);
+				tmpResultCause.setProject(resolveJobCiId(tmpUpstreamCause.getUpstreamProject()));
+				tmpResultCause.setBuildCiId(String.valueOf(tmpUpstreamCause.getUpstreamBuild()));
+				tmpResultCause.setCauses(processCauses(upstreamRun));
+				result.add(tmpResultCause);
+			}
+		} else { //  TODO: add support to Cause.RemoteCause execution in SDK/DTOs/Octane
+			tmpResultCause.setType(CIEventCauseType.UNDEFINED);
+			result.add(tmpResultCause);
+		}
+		return result;
+	}
+
+	/**
+	 * The stages chain of a run triggered by a pipeline is looked up among the current heads of the pipeline
+	 * until the node that triggered the run is known or the pipeline is over; all the other causes are fixed.
+	 */
+	private static boolean isSettled(Run<?, ?> run, Cause cause) {
+		if (!(cause instanceof Cause.UpstreamCause) || isRebuildCause(cause)) {
+			return true;
+		}
+		Run upstreamRun = ((Cause.UpstreamCause) cause).getUpstreamRun();
+		return !isWorkflowRun(upstreamRun) || !upstreamRun.isBuilding() || run.getAction(OctaneParentNodeAction.class) != null;
+	}
+
+	private static boolean isRebuildCause(Cause cause) {
+		return "RebuildCause".equals(cause.getClass().getSimpleName());
+	}
+
+	private static boolean isWorkflowRun(Run run) {
+		return run != null && JobProcessorFactory.WORKFLOW_RUN_NAME.equals(run.getClass().getName());
+	}
+
+	private static List<CIEventCause> merge(List<List<CIEventCause>> parts) {
+		Map<String, CIEventCause> result = new LinkedHashMap<>();//LinkedHashMap - save order of insertion
+		for (List<CIEventCause> part : parts) {
+			for (CIEventCause cause : part) {
+				result.put(cause.generateKey(), cause);
 			}
 		}
 		return new ArrayList<>(result.values());
 	}
 
 	public static List<CIEventCause> processCauses(FlowNode flowNode) {
+		return processCauses(flowNode, null);
+	}
+
+	/**
+	 * @param flowNode  node to calculate the causes chain for
+	 * @param runCauses causes of the run the node belongs to, if already known; calculated when null
+	 */
+	public static List<CIEventCause> processCauses(FlowNode flowNode, List<CIEventCause> runCauses) {
 		List<CIEventCause> causes = new LinkedList<>();
-		processCauses(flowNode, causes, new LinkedHashSet<>(),new HashSet<>());
+		processCauses(flowNode, causes, new LinkedHashSet<>(), new HashSet<>(), runCauses);
 		return causes;
 	}
 
-	private static void processCauses(FlowNode flowNode, List<CIEventCause> causes, Set<FlowNode> startStagesToSkip,Set<FlowNode> visitedParents) {
+	private static void processCauses(FlowNode flowNode, List<CIEventCause> causes, Set<FlowNode> startStagesToSkip,Set<FlowNode> visitedParents, List<CIEventCause> runCauses) {
 		//  we reached the start of the flow - add WorkflowRun as an initial UPSTREAM cause
 		if (flowNode.getParents().isEmpty() && !visitedParents.contains(flowNode)) {
 			WorkflowRun parentRun = BuildHandlerUtils.extractParentRun(flowNode);
@@ -139,7 +205,7 @@ public final class CIEventCausesFactory {
 					.setType(CIEventCauseType.UPSTREAM)
 					.setProject(BuildHandlerUtils.getJobCiId(parentRun))
 					.setBuildCiId(BuildHandlerUtils.getBuildCiId(parentRun))
-					.setCauses(CIEventCausesFactory.processCauses((parentRun)));
+					.setCauses(runCauses != null ? new ArrayList<>(runCauses) : CIEventCausesFactory.processCauses(parentRun));
 				visitedParents.add(flowNode);
 				causes.add(cause);
 		}
@@ -152,7 +218,7 @@ public final class CIEventCausesFactory {
 		for (FlowNode parent : flowNode.getParents()) {
 			if (BuildHandlerUtils.isStageEndNode(parent)) {
 				startStagesToSkip.add(((StepEndNode) parent).getStartNode());
-				processCauses(parent, causes, startStagesToSkip,visitedParents);
+				processCauses(parent, causes, startStagesToSkip,visitedParents, runCauses);
 			} else if (BuildHandlerUtils.isStageStartNode(parent)) {
 				if (!startStagesToSkip.contains(parent) && !visitedParents.contains(parent)) {
 					visitedParents.add(parent);
@@ -161,13 +227,13 @@ public final class CIEventCausesFactory {
 							.setProject(parent.getDisplayName())
 							.setBuildCiId(String.valueOf(BuildHandlerUtils.extractParentRun(parent).getNumber()));
 					causes.add(cause);
-					processCauses(parent, cause.getCauses(), startStagesToSkip, visitedParents);
+					processCauses(parent, cause.getCauses(), startStagesToSkip, visitedParents, runCauses);
 				} else if (startStagesToSkip.contains(parent)){
 					startStagesToSkip.remove(parent);
-					processCauses(parent, causes, startStagesToSkip, visitedParents);
+					processCauses(parent, causes, startStagesToSkip, visitedParents, runCauses);
 				}
 			} else {
-				processCauses(parent, causes, startStagesToSkip, visitedParents);
+				processCauses(parent, causes, startStagesToSkip, visitedParents, runCauses);
 			}
 		}
 	}
@@ -218,6 +284,76 @@ public final class CIEventCausesFactory {
 		return result;
 	}
 
+	/**
+	 * Bounded LRU cache of the causes of the runs, keyed by job, build number and start time,
+	 * so that a recreated job does not get the causes of the builds of its deleted predecessor
+	 */
+	static final class CausesCache {
+		private final int maxSize;
+		private final Map<String, List<List<CIEventCause>>> runsCauses;
+		private final AtomicLong hits = new AtomicLong();
+		private final AtomicLong misses = new AtomicLong();
+
+		CausesCache(final int maxSize) {
+			this.maxSize = maxSize;
+			this.runsCauses = new LinkedHashMap<String, List<List<CIEventCause>>>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, List<List<CIEventCause>>> eldest) {
+					return size() > maxSize;
+				}
+			};
+		}
+
+		List<CIEventCause> processCauses(Run<?, ?> run) {
+			List<List<CIEventCause>> resolved = new ArrayList<>();
+			List<List<CIEventCause>> settled = new ArrayList<>();
+			if (maxSize <= 0) {
+				buildCauses(run, null, resolved, settled);
+				return merge(resolved);
+			}
+
+			String key = run.getParent().getFullName() + "#" + run.getNumber() + "@" + run.getTimeInMillis();
+			List<List<CIEventCause>> known;
+			synchronized (runsCauses) {
+				known = runsCauses.get(key);
+			}
+			if (known != null && known.size() != run.getCauses().size()) {
+				known = null;
+			}
+			if (known == null) {
+				misses.incrementAndGet();
+			} else {
+				hits.incrementAndGet();
+				if (!known.contains(null)) {
+					return merge(known);
+				}
+			}
+
+			buildCauses(run, known, resolved, settled);
+			synchronized (runsCauses) {
+				runsCauses.put(key, Collections.unmodifiableList(settled));
+			}
+			if (known == null) {
+				logger.debug("causes of " + key + " cached; hits: " + hits.get() + ", misses: " + misses.get());
+			}
+			return merge(resolved);
+		}
+
+		long getHits() {
+			return hits.get();
+		}
+
+		long getMisses() {
+			return misses.get();
+		}
+
+		int size() {
+			synchronized (runsCauses) {
+				return runsCauses.size();
+			}
+		}
+	}
+
 	private final static class OctaneParentNodeAction extends InvisibleAction {
 		private final String parentFlowNodeId;
 
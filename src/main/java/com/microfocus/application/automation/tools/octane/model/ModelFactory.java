@@ -50,8 +50,19 @@ public class ModelFactory {
 	private static final Logger logger = SDKBasedLoggerProvider.getLogger(ModelFactory.class);
 	private static final DTOFactory dtoFactory = DTOFactory.getInstance();
 
+	/**
+	 * @return structure of the job and the jobs it triggers, shared with other callers through
+	 * {@link PipelineStructureCache} and so not to be modified
+	 */
 	public static PipelineNode createStructureItem(Job job) {
-		return createStructureItem(job, new HashSet<>());
+		PipelineNode result = PipelineStructureCache.get(job);
+		if (result == null) {
+			long generation = PipelineStructureCache.getGeneration();
+			ReachedJobsSet processedJobs = new ReachedJobsSet();
+			result = createStructureItem(job, processedJobs);
+			PipelineStructureCache.put(job, result, processedJobs.reachedJobs, generation);
+		}
+		return result;
 	}
 
 	public static PipelinePhase createStructurePhase(String name, boolean blocking, List<AbstractProject> items, Set<Job> processedJobs) {
@@ -176,4 +187,17 @@ public class ModelFactory {
 		}
 		return subBuildName.toString();
 	}
+
+	/**
+	 * Set of the jobs on the currently processed path, which also remembers the full names of all the jobs it held
+	 */
+	private static final class ReachedJobsSet extends HashSet<Job> {
+		private final Set<String> reachedJobs = new HashSet<>();
+
+		@Override
+		public boolean add(Job job) {
+			reachedJobs.add(job.getFullName());
+			return super.add(job);
+		}
+	}
 }
@@ -0,0 +1,167 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.model;
+
+import com.hp.octane.integrations.dto.pipelines.PipelineNode;
+import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
+import hudson.Extension;
+import hudson.XmlFile;
+import hudson.model.Item;
+import hudson.model.Job;
+import hudson.model.Saveable;
+import hudson.model.listeners.ItemListener;
+import hudson.model.listeners.SaveableListener;
+import jenkins.model.Jenkins;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of the pipeline structures built by {@link ModelFactory#createStructureItem(Job)}, keyed by the full name of
+ * the root job and by the user, since the jobs triggered by name are looked up with the user's permissions. A structure is dropped once any of the jobs it reaches is saved; creating, deleting or moving an item
+ * may change which jobs the structures reach by name, so it drops them all.
+ * The cached structures are shared between the callers and must not be modified.
+ */
+public final class PipelineStructureCache {
+	private static final Logger logger = SDKBasedLoggerProvider.getLogger(PipelineStructureCache.class);
+	private static final boolean DISABLED = Boolean.getBoolean("PipelineStructureCache.Disabled");
+	private static final Map<String, Structure> structures = new ConcurrentHashMap<>();
+	//  bumped on every invalidation, a structure built meanwhile may be stale and is not stored
+	private static final AtomicLong generation = new AtomicLong();
+
+	private PipelineStructureCache() {
+	}
+
+	static PipelineNode get(Job job) {
+		if (DISABLED) {
+			return null;
+		}
+		Structure structure = structures.get(getKey(job));
+		return structure == null ? null : structure.node;
+	}
+
+	static long getGeneration() {
+		return generation.get();
+	}
+
+	/**
+	 * @param reachedJobs full names of all the jobs the structure was built from, the root job included
+	 * @param generation  value of {@link #getGeneration()} taken before the structure was built
+	 */
+	static void put(Job job, PipelineNode node, Set<String> reachedJobs, long generation) {
+		if (DISABLED) {
+			return;
+		}
+		synchronized (structures) {
+			if (generation == PipelineStructureCache.generation.get()) {
+				structures.put(getKey(job), new Structure(node, reachedJobs));
+			}
+		}
+	}
+
+	private static String getKey(Job job) {
+		//  ':' is not allowed in item names
+		return job.getFullName() + ":" + Jenkins.getAuthentication2().getName();
+	}
+
+	static void invalidate(String jobFullName) {
+		synchronized (structures) {
+			generation.incrementAndGet();
+			structures.values().removeIf(structure -> structure.reachedJobs.contains(jobFullName));
+		}
+		logger.debug("pipeline structures reaching " + jobFullName + " invalidated");
+	}
+
+	static void invalidateAll() {
+		synchronized (structures) {
+			generation.incrementAndGet();
+			structures.clear();
+		}
+	}
+
+	private static final class Structure {
+		private final PipelineNode node;
+		private final Set<String> reachedJobs;
+
+		private Structure(PipelineNode node, Set<String> reachedJobs) {
+			this.node = node;
+			this.reachedJobs = reachedJobs;
+		}
+	}
+
+	@Extension
+	public static final class StructureItemListener extends ItemListener {
+
+		@Override
+		public void onLoaded() {
+			invalidateAll();
+		}
+
+		@Override
+		public void onCreated(Item item) {
+			invalidateAll();
+		}
+
+		@Override
+		public void onUpdated(Item item) {
+			invalidate(item.getFullName());
+		}
+
+		@Override
+		public void onDeleted(Item item) {
+			invalidateAll();
+		}
+
+		@Override
+		public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+			invalidateAll();
+		}
+	}
+
+	/**
+	 * Catches the configuration changes that are saved without an update event, e.g. from scripts,
+	 * the saves of folders, whose display names are a part of the structure, and of the global configuration,
+	 * which may change the permissions the jobs are looked up with.
+	 */
+	@Extension
+	public static final class StructureSaveableListener extends SaveableListener {
+
+		@Override
+		public void onChange(Saveable o, XmlFile file) {
+			if (o instanceof Job) {
+				invalidate(((Job) o).getFullName());
+			} else if (o instanceof Item || o instanceof Jenkins) {
+				invalidateAll();
+			}
+		}
+	}
+}
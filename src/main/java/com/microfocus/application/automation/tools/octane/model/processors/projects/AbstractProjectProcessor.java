@@ -48,6 +48,7 @@ import hudson.tasks.Publisher;
 import jenkins.model.Jenkins;
 import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -144,17 +145,10 @@ public abstract class AbstractProjectProcessor<T extends Job> {
 				});
 			});
 
-			job.getBuilds().forEach(build -> {
-				if (!foundInfo.found) {
-					Run run = (Run)build;
-					run.getActions(ParametersAction.class).forEach(action -> {
-						if (checkIfParamExistAndEqual(action, paramToSearch, paramValueToSearch)) {
-							stopBuild(run);
-							foundInfo.found = true;
-						}
-					});
-				}
-			});
+			Run run = foundInfo.found ? null : findBuildByParameter(paramToSearch, paramValueToSearch);
+			if (run != null) {
+				stopBuild(run);
+			}
 		}
 	}
 
@@ -200,30 +194,61 @@ public abstract class AbstractProjectProcessor<T extends Job> {
 				});
 			}
 
-			job.getBuilds().forEach(build -> {
-				if (!foundInfo.found) {
-					Run aBuild = (Run) build;
-					aBuild.getActions(ParametersAction.class).forEach(action -> {
-						if (checkIfParamExistAndEqual(action, paramName, paramValue)) {
-							if (aBuild.isBuilding()) {
-								status.setBuildStatus(CIBuildStatus.RUNNING);
-							} else {
-								status.setBuildStatus(CIBuildStatus.FINISHED);
-								status.setResult(BuildHandlerUtils.translateRunResult(aBuild));
-								status.setEnvironmentOutputtedParameters(OutputEnvironmentParametersHelper.getOutputEnvironmentParams(aBuild));
-							}
-							status.setAllBuildParams(ParameterProcessors.getInstances(aBuild));
-							status.setBuildCiId(BuildHandlerUtils.getBuildCiId(aBuild));
-							foundInfo.found = true;
-						}
-					});
+			Run aBuild = foundInfo.found ? null : findBuildByParameter(paramName, paramValue);
+			if (aBuild != null) {
+				if (aBuild.isBuilding()) {
+					status.setBuildStatus(CIBuildStatus.RUNNING);
+				} else {
+					status.setBuildStatus(CIBuildStatus.FINISHED);
+					status.setResult(BuildHandlerUtils.translateRunResult(aBuild));
+					status.setEnvironmentOutputtedParameters(OutputEnvironmentParametersHelper.getOutputEnvironmentParams(aBuild));
 				}
-			});
+				status.setAllBuildParams(ParameterProcessors.getInstances(aBuild));
+				status.setBuildCiId(BuildHandlerUtils.getBuildCiId(aBuild));
+			}
 		}
 
 		return status;
 	}
 
+	/**
+	 * Finds the newest build having the parameter value, through the {@link BuildParametersIndex} for the Octane
+	 * execution parameters, otherwise, or when the index has no match, by going over the builds from the newest one
+	 * until a match.
+	 */
+	private Run findBuildByParameter(String paramName, String paramValue) {
+		if (BuildParametersIndex.isIndexed(paramName) && SdkStringUtils.isNotEmpty(paramValue)) {
+			try {
+				for (int buildNumber : BuildParametersIndex.of(job).find(job, paramName, paramValue)) {
+					Run aBuild = job.getBuildByNumber(buildNumber);
+					if (aBuild != null && hasParameter(aBuild, paramName, paramValue)) {
+						return aBuild;
+					}
+				}
+				logger.debug("no build of " + job.getFullName() + " with " + paramName + "=" + paramValue + " in the build parameters index, going over the builds");
+			} catch (IOException e) {
+				logger.warn("Failed to read the build parameters index of " + job.getFullName() + ", going over the builds", e);
+			}
+		}
+
+		for (Object build : job.getBuilds()) {
+			Run aBuild = (Run) build;
+			if (hasParameter(aBuild, paramName, paramValue)) {
+				return aBuild;
+			}
+		}
+		return null;
+	}
+
+	private boolean hasParameter(Run aBuild, String paramName, String paramValue) {
+		for (ParametersAction action : aBuild.getActions(ParametersAction.class)) {
+			if (checkIfParamExistAndEqual(action, paramName, paramValue)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	private String getParameterValueIfExist(ParametersAction parametersAction, String paramName) {
 		ParameterValue pv = parametersAction.getParameter(paramName);
 		if (pv != null) {
@@ -0,0 +1,236 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.model.processors.projects;
+
+import com.hp.octane.integrations.utils.SdkConstants;
+import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
+import hudson.Extension;
+import hudson.model.Item;
+import hudson.model.Job;
+import hudson.model.ParameterValue;
+import hudson.model.ParametersAction;
+import hudson.model.Run;
+import hudson.model.listeners.ItemListener;
+import hudson.model.listeners.RunListener;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only file in the job directory mapping the values of the Octane execution parameters (suite run id,
+ * execution ids) to the numbers of the builds that got them, so that the status of the build started for
+ * an Octane execution is found without loading the builds of the job.
+ * <p>
+ * The index is created from the builds of the job on its first use, then each build is added when it starts.
+ * Each line holds a build number, a parameter name and its value: {@code <number> <name>=<value>}.
+ */
+public final class BuildParametersIndex {
+	private static final Logger logger = SDKBasedLoggerProvider.getLogger(BuildParametersIndex.class);
+	private static final String FILE_NAME = "octaneBuildParameters.idx";
+	private static final Set<String> INDEXED_PARAMETERS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+			SdkConstants.JobParameters.SUITE_RUN_ID_PARAMETER_NAME,
+			SdkConstants.JobParameters.EXECUTION_ID_PARAMETER_NAME,
+			SdkConstants.JobParameters.OCTANE_AUTO_ACTION_EXECUTION_ID_PARAMETER_NAME)));
+	private static final Map<String, BuildParametersIndex> INDEXES = new ConcurrentHashMap<>();
+
+	private final File file;
+	private Map<String, List<Integer>> buildNumbers;
+
+	private BuildParametersIndex(File file) {
+		this.file = file;
+	}
+
+	public static BuildParametersIndex of(Job<?, ?> job) {
+		File file = new File(job.getRootDir(), FILE_NAME);
+		return INDEXES.computeIfAbsent(file.getAbsolutePath(), path -> new BuildParametersIndex(file));
+	}
+
+	public static boolean isIndexed(String paramName) {
+		return INDEXED_PARAMETERS.contains(paramName);
+	}
+
+	/**
+	 * Finds the builds that got the parameter value, creating the index from the builds of the job if it does not
+	 * exist yet. Deleted builds may still be listed.
+	 *
+	 * @return build numbers, newest first
+	 */
+	public synchronized List<Integer> find(Job<?, ?> job, String paramName, String value) throws IOException {
+		if (buildNumbers != null && !file.exists()) {
+			// the job directory was deleted, possibly with a job of the same name created since
+			buildNumbers = null;
+		}
+		if (buildNumbers == null) {
+			if (!file.exists()) {
+				create(job);
+			}
+			load();
+		}
+		List<Integer> numbers = buildNumbers.get(key(paramName, value));
+		if (numbers == null) {
+			return Collections.emptyList();
+		}
+		List<Integer> result = new ArrayList<>(numbers);
+		Collections.reverse(result);
+		return result;
+	}
+
+	/**
+	 * Adds a started build. Nothing is done while the index does not exist, it will include the build when it is created.
+	 */
+	public synchronized void add(Run<?, ?> run) throws IOException {
+		if (!file.exists()) {
+			buildNumbers = null;
+			return;
+		}
+		List<String> records = new ArrayList<>();
+		addRecords(run, records);
+		if (records.isEmpty()) {
+			return;
+		}
+		Files.write(file.toPath(), records, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+		if (buildNumbers != null) {
+			records.forEach(this::loadRecord);
+		}
+	}
+
+	private void create(Job<?, ?> job) throws IOException {
+		long start = System.currentTimeMillis();
+		List<String> records = new ArrayList<>();
+		for (Run<?, ?> run : job.getBuilds()) {
+			addRecords(run, records);
+		}
+		// oldest first, like the records added later
+		Collections.reverse(records);
+
+		File tmp = new File(file.getParentFile(), FILE_NAME + ".tmp");
+		try (Writer writer = Files.newBufferedWriter(tmp.toPath(), StandardCharsets.UTF_8)) {
+			for (String record : records) {
+				writer.write(record);
+				writer.write('\n');
+			}
+		}
+		Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		logger.info("build parameters index of " + job.getFullName() + " created in " + (System.currentTimeMillis() - start) + " ms");
+	}
+
+	private void load() throws IOException {
+		buildNumbers = new HashMap<>();
+		try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				loadRecord(line);
+			}
+		}
+	}
+
+	private void loadRecord(String record) {
+		int numberEnd = record.indexOf(' ');
+		if (numberEnd <= 0 || record.indexOf('=', numberEnd) < 0) {
+			return;
+		}
+		try {
+			Integer number = Integer.valueOf(record.substring(0, numberEnd));
+			buildNumbers.computeIfAbsent(record.substring(numberEnd + 1), key -> new ArrayList<>(1)).add(number);
+		} catch (NumberFormatException e) {
+			// e.g. a record cut off by a crash while appending
+		}
+	}
+
+	private static void addRecords(Run<?, ?> run, List<String> records) {
+		for (ParametersAction action : run.getActions(ParametersAction.class)) {
+			for (String paramName : INDEXED_PARAMETERS) {
+				ParameterValue pv = action.getParameter(paramName);
+				if (pv != null && pv.getValue() instanceof String) {
+					String value = (String) pv.getValue();
+					if (!value.isEmpty() && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+						records.add(run.getNumber() + " " + key(paramName, value));
+					}
+				}
+			}
+		}
+	}
+
+	private static String key(String paramName, String value) {
+		return paramName + "=" + value;
+	}
+
+	/**
+	 * Forgets the indexes of the jobs whose directory is gone, e.g. after the job or its folder was deleted or moved.
+	 */
+	@Extension
+	public static class Evictor extends ItemListener {
+
+		@Override
+		public void onDeleted(Item item) {
+			evictRemoved();
+		}
+
+		@Override
+		public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+			evictRemoved();
+		}
+
+		private static void evictRemoved() {
+			INDEXES.values().removeIf(index -> !index.file.getParentFile().exists());
+		}
+	}
+
+	/**
+	 * Adds the builds to the index of their job as they start.
+	 */
+	@Extension
+	public static class Updater extends RunListener<Run<?, ?>> {
+
+		@Override
+		public void onInitialize(Run<?, ?> run) {
+			try {
+				BuildParametersIndex.of(run.getParent()).add(run);
+			} catch (IOException e) {
+				logger.warn("failed to add " + run + " to the build parameters index", e);
+			}
+		}
+	}
+}
@@ -0,0 +1,147 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.model.processors.scm;
+
+import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.jgit.lib.ObjectId;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Git blame results of files by path and blob id, kept in a file on the agent between builds so that files not
+ * changed since an earlier build are not blamed again. The least recently used results are dropped past the maximal
+ * size. Each line of the file holds the blob id, the line ranges by revision, then the path.
+ */
+final class GitBlameCache {
+	private static final Logger logger = SDKBasedLoggerProvider.getLogger(GitBlameCache.class);
+	private static final String NO_RANGES = "-";
+	private static final Pattern RANGES = Pattern.compile("-|[0-9a-f]+:\\d+-\\d+(,[0-9a-f]+:\\d+-\\d+)*");
+
+	private final File file;
+	private final int maxSize;
+	private final Map<String, String> blames;
+	private boolean changed;
+	private int hits;
+
+	private GitBlameCache(File file, final int maxSize) {
+		this.file = file;
+		this.maxSize = maxSize;
+		this.blames = new LinkedHashMap<String, String>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	/**
+	 * Reads the cache from the file, an empty cache if the file does not exist or cannot be read.
+	 */
+	static GitBlameCache load(File file, int maxSize) {
+		GitBlameCache cache = new GitBlameCache(file, maxSize);
+		if (maxSize > 0 && file.isFile()) {
+			try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					int blobEnd = line.indexOf(' ');
+					int rangesEnd = line.indexOf(' ', blobEnd + 1);
+					String ranges = rangesEnd > blobEnd && blobEnd > 0 ? line.substring(blobEnd + 1, rangesEnd) : null;
+					if (ranges != null && RANGES.matcher(ranges).matches()) {
+						cache.blames.put(line.substring(0, blobEnd) + ' ' + line.substring(rangesEnd + 1),
+								NO_RANGES.equals(ranges) ? "" : ranges);
+					}
+				}
+			} catch (IOException e) {
+				logger.warn("failed to read git blame cache " + file + ", blaming all files", e);
+				cache.blames.clear();
+			}
+		}
+		return cache;
+	}
+
+	/**
+	 * Returns the line ranges by revision of the file with the given content, or null if it was not blamed yet.
+	 */
+	synchronized String get(String path, ObjectId blobId) {
+		String ranges = blames.get(blobId.getName() + ' ' + path);
+		if (ranges != null) {
+			hits++;
+		}
+		return ranges;
+	}
+
+	synchronized void put(String path, ObjectId blobId, String ranges) {
+		if (maxSize > 0 && path.indexOf('\n') < 0 && path.indexOf('\r') < 0) {
+			blames.put(blobId.getName() + ' ' + path, ranges);
+			changed = true;
+		}
+	}
+
+	synchronized int getHits() {
+		return hits;
+	}
+
+	/**
+	 * Writes the cache to its file if a result was added, replacing the file once complete.
+	 */
+	synchronized void save() {
+		if (!changed) {
+			return;
+		}
+		File tmp = new File(file.getPath() + ".tmp");
+		try {
+			try (BufferedWriter writer = Files.newBufferedWriter(tmp.toPath(), StandardCharsets.UTF_8)) {
+				for (Map.Entry<String, String> blame : blames.entrySet()) {
+					String key = blame.getKey();
+					int blobEnd = key.indexOf(' ');
+					writer.write(key, 0, blobEnd);
+					writer.write(' ');
+					writer.write(blame.getValue().isEmpty() ? NO_RANGES : blame.getValue());
+					writer.write(key, blobEnd, key.length() - blobEnd);
+					writer.newLine();
+				}
+			}
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			changed = false;
+		} catch (IOException e) {
+			logger.warn("failed to write git blame cache " + file, e);
+			tmp.delete();
+		}
+	}
+}
@@ -48,7 +48,9 @@ import hudson.remoting.VirtualChannel;
 import hudson.scm.ChangeLogSet;
 import hudson.scm.SCM;
 import hudson.tasks.Mailer;
+import hudson.util.DaemonThreadFactory;
 import hudson.util.DescribableList;
+import hudson.util.NamingThreadFactory;
 import jenkins.MasterToSlaveFileCallable;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.reflect.FieldUtils;
@@ -66,6 +68,9 @@ import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.revwalk.RevWalk;
 import org.eclipse.jgit.revwalk.filter.RevFilter;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
 import org.eclipse.jgit.util.io.DisabledOutputStream;
 import org.jenkinsci.plugins.workflow.job.WorkflowRun;
 
@@ -73,6 +78,8 @@ import java.io.File;
 import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.*;
+import java.util.Queue;
+import java.util.concurrent.*;
 
 /**
  * Created by gullery on 31/03/2015.
@@ -82,13 +89,21 @@ class GitSCMProcessor implements SCMProcessor {
 	private static final Logger logger = SDKBasedLoggerProvider.getLogger(GitSCMProcessor.class);
 	private static final DTOFactory dtoFactory = DTOFactory.getInstance();
 	private static final String MASTER = "refs/remotes/origin/master";
+	private static final String BLAME_CACHE_FILE = "octane-blame-cache";
+	private static final int BLAME_THREADS = Integer.getInteger("GitSCMProcessor.BlameThreads", Math.min(8, Runtime.getRuntime().availableProcessors()));
+	private static final int BLAME_CACHE_SIZE = Integer.getInteger("GitSCMProcessor.BlameCacheSize", 50000);
 
 	@Override
 	public SCMData getSCMData(AbstractBuild build, SCM scm) {
+		return getSCMData(build, scm, TaskListener.NULL);
+	}
+
+	@Override
+	public SCMData getSCMData(AbstractBuild build, SCM scm, TaskListener listener) {
 		List<ChangeLogSet<? extends ChangeLogSet.Entry>> changes = new ArrayList<>();
 		changes.add(build.getChangeSet());
 		SCMData scmData = extractSCMData(build, scm, changes);
-		scmData = enrichLinesOnSCMData(scmData, build);
+		scmData = enrichLinesOnSCMData(scmData, build, listener);
 		return scmData;
 	}
 
@@ -97,15 +112,16 @@ class GitSCMProcessor implements SCMProcessor {
 	 * into existing scm events, so that the new enriched events will have line ranges.
 	 * in addition, for each renamed file, we enrich inside delete event the 'renamed to' file
 	 *
-	 * @param scmData SCM data as an input
-	 * @param build   build context
+	 * @param scmData  SCM data as an input
+	 * @param build    build context
+	 * @param listener build listener, the time taken by each phase is reported to its log
 	 */
-	private SCMData enrichLinesOnSCMData(SCMData scmData, AbstractBuild build) {
+	private SCMData enrichLinesOnSCMData(SCMData scmData, AbstractBuild build, TaskListener listener) {
 		long startTime = System.currentTimeMillis();
 		try {
 			FilePath workspace = build.getWorkspace();
 			if (workspace != null) {
-				scmData = workspace.act(new LineEnricherCallable(getCheckoutDir(build), scmData));
+				scmData = workspace.act(new LineEnricherCallable(getCheckoutDir(build), scmData, listener));
 				logger.debug("Line enricher: process took: " + ((System.currentTimeMillis() - startTime) / 1000) + " seconds");
 			} else {
 				logger.warn("Line enricher: workspace is null");
@@ -350,14 +366,16 @@ class GitSCMProcessor implements SCMProcessor {
 	private static final class LineEnricherCallable extends MasterToSlaveFileCallable<SCMData> {
 		private final String checkoutDir;
 		private final SCMData scmData;
+		private final TaskListener listener;
 
-		private LineEnricherCallable(String checkoutDir, SCMData scmData) {
+		private LineEnricherCallable(String checkoutDir, SCMData scmData, TaskListener listener) {
 			this.checkoutDir = checkoutDir;
 			this.scmData = scmData;
+			this.listener = listener;
 		}
 
 		@Override
-		public SCMData invoke(File rootDir, VirtualChannel channel) throws IOException {
+		public SCMData invoke(File rootDir, VirtualChannel channel) throws IOException, InterruptedException {
 			File repoDir = new File(rootDir, checkoutDir + File.separator + ".git");
 			try (Git git = Git.open(repoDir);
 			     Repository repo = git.getRepository()) {
@@ -372,9 +390,16 @@ class GitSCMProcessor implements SCMProcessor {
 					df.setDetectRenames(true);
 
 					//add blame data to scm data
+					long startTime = System.currentTimeMillis();
 					Set<String> committedFiles = getAddedOrEditedFiles(scmData);
-					List<SCMFileBlame> fileBlameList = getBlameData(repo, committedFiles);
+					GitBlameCache blameCache = GitBlameCache.load(new File(repo.getDirectory(), BLAME_CACHE_FILE), BLAME_CACHE_SIZE);
+					List<SCMFileBlame> fileBlameList = getBlameData(repo, committedFiles, blameCache);
+					blameCache.save();
 					scmData.setFileBlameList(fileBlameList);
+					listener.getLogger().println("Line enricher: blame of " + committedFiles.size() + " files (" + blameCache.getHits() +
+							" from cache) took " + (System.currentTimeMillis() - startTime) + " ms");
+
+					startTime = System.currentTimeMillis();
 
 					for (SCMCommit curCommit : scmData.getCommits()) {
 						Map<String, SCMChange> fileChanges = new HashMap<>();
@@ -415,6 +440,8 @@ class GitSCMProcessor implements SCMProcessor {
 							}
 						}
 					}
+					listener.getLogger().println("Line enricher: diff of " + scmData.getCommits().size() + " commits took " +
+							(System.currentTimeMillis() - startTime) + " ms");
 					return scmData;
 				}
 			}
@@ -429,45 +456,144 @@ class GitSCMProcessor implements SCMProcessor {
 		return filesCommittedInPPR;
 	}
 
-	private static List<SCMFileBlame> getBlameData(Repository repo, Set<String> files) {
-		BlameCommand blamer = new BlameCommand(repo);
+	/**
+	 * Blames the files as of HEAD, reusing the cached blame of files whose content was already blamed and blaming
+	 * the rest in parallel, each thread reading the repository through its own {@link Repository} instance.
+	 */
+	private static List<SCMFileBlame> getBlameData(Repository repo, Set<String> files, GitBlameCache blameCache) throws InterruptedException {
 		List<SCMFileBlame> fileBlameList = new ArrayList<>();
 		ObjectId commitID;
+		Map<String, ObjectId> blobIds;
 		try {
 			commitID = repo.resolve(Constants.HEAD);
-			for (String filePath : files) {
-				blamer.setStartCommit(commitID);
-				blamer.setFilePath(filePath);
-				BlameResult blameResult = blamer.call();
-				if (blameResult == null) {
-					continue;
+			blobIds = getBlobIds(repo, commitID, files);
+		} catch (IOException e) {
+			logger.error("failed to resolve repo head", e);
+			return fileBlameList;
+		}
+
+		Map<String, String> blames = new ConcurrentHashMap<>();
+		Queue<String> filesToBlame = new ConcurrentLinkedQueue<>();
+		for (Map.Entry<String, ObjectId> blobId : blobIds.entrySet()) {
+			String ranges = blameCache.get(blobId.getKey(), blobId.getValue());
+			if (ranges != null) {
+				blames.put(blobId.getKey(), ranges);
+			} else {
+				filesToBlame.add(blobId.getKey());
+			}
+		}
+		blameFiles(repo, commitID, filesToBlame, blobIds, blames, blameCache);
+
+		for (String filePath : files) {
+			String ranges = blames.get(filePath);
+			if (ranges != null) {
+				fileBlameList.add(new SCMFileBlameImpl(filePath, toRevisionsMap(ranges)));
+			}
+		}
+		return fileBlameList;
+	}
+
+	private static Map<String, ObjectId> getBlobIds(Repository repo, ObjectId commitID, Set<String> files) throws IOException {
+		Map<String, ObjectId> blobIds = new HashMap<>();
+		if (commitID == null || files.isEmpty()) {
+			return blobIds;
+		}
+		try (RevWalk rw = new RevWalk(repo);
+		     TreeWalk tw = new TreeWalk(repo)) {
+			tw.addTree(rw.parseCommit(commitID).getTree());
+			tw.setRecursive(true);
+			tw.setFilter(PathFilterGroup.createFromStrings(files));
+			while (tw.next()) {
+				if (tw.getFileMode(0).getObjectType() == Constants.OBJ_BLOB) {
+					blobIds.put(tw.getPathString(), tw.getObjectId(0));
 				}
-				RawText rawText = blameResult.getResultContents();
-				int fileSize = rawText.size();
-
-				RevisionsMap revisionsMap = new RevisionsMap();
-
-				if (fileSize > 0) {
-					String startRangeRevision = blameResult.getSourceCommit(0).getName();
-					int startRange = 1;
-					for (int i = 1; i < fileSize; i++) {
-						String currentRevision = blameResult.getSourceCommit(i).getName();
-						if (!currentRevision.equals(startRangeRevision)) {
-							LineRange range = new LineRange(startRange, i);//line numbers starting from 1 not from 0.
-							revisionsMap.addRangeToRevision(startRangeRevision, range);
-							startRange = i + 1;
-							startRangeRevision = currentRevision;
+			}
+		}
+		return blobIds;
+	}
+
+	private static void blameFiles(Repository repo, ObjectId commitID, Queue<String> filesToBlame, Map<String, ObjectId> blobIds,
+	                               Map<String, String> blames, GitBlameCache blameCache) throws InterruptedException {
+		if (filesToBlame.isEmpty()) {
+			return;
+		}
+		int threads = Math.max(1, Math.min(BLAME_THREADS, filesToBlame.size()));
+		ExecutorService executor = Executors.newFixedThreadPool(threads, new NamingThreadFactory(new DaemonThreadFactory(), "GitSCMProcessor.blame"));
+		try {
+			List<Future<Void>> workers = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				workers.add(executor.submit(() -> {
+					try (Repository workerRepo = new FileRepositoryBuilder().setGitDir(repo.getDirectory()).build()) {
+						BlameCommand blamer = new BlameCommand(workerRepo);
+						String filePath;
+						while (!Thread.currentThread().isInterrupted() && (filePath = filesToBlame.poll()) != null) {
+							try {
+								blamer.setStartCommit(commitID);
+								blamer.setFilePath(filePath);
+								BlameResult blameResult = blamer.call();
+								if (blameResult != null) {
+									String ranges = toRanges(blameResult);
+									blames.put(filePath, ranges);
+									blameCache.put(filePath, blobIds.get(filePath), ranges);
+								}
+							} catch (GitAPIException e) {
+								logger.error("failed to get blame result from git for " + filePath, e);
+							}
 						}
 					}
+					return null;
+				}));
+			}
+			for (Future<Void> worker : workers) {
+				try {
+					worker.get();
+				} catch (ExecutionException e) {
+					logger.error("failed to get blame result from git", e.getCause());
 				}
-				fileBlameList.add(new SCMFileBlameImpl(filePath, revisionsMap));
 			}
-		} catch (IOException e) {
-			logger.error("failed to resolve repo head", e);
-		} catch (GitAPIException e) {
-			logger.error("failed to get blame result from git", e);
+		} finally {
+			executor.shutdownNow();
 		}
-		return fileBlameList;
+	}
+
+	/**
+	 * Encodes the line ranges of each revision as comma separated 'revision:start-end' items.
+	 */
+	private static String toRanges(BlameResult blameResult) {
+		StringBuilder ranges = new StringBuilder();
+		RawText rawText = blameResult.getResultContents();
+		int fileSize = rawText.size();
+
+		if (fileSize > 0) {
+			String startRangeRevision = blameResult.getSourceCommit(0).getName();
+			int startRange = 1;
+			for (int i = 1; i < fileSize; i++) {
+				String currentRevision = blameResult.getSourceCommit(i).getName();
+				if (!currentRevision.equals(startRangeRevision)) {
+					//line numbers starting from 1 not from 0.
+					if (ranges.length() > 0) {
+						ranges.append(',');
+					}
+					ranges.append(startRangeRevision).append(':').append(startRange).append('-').append(i);
+					startRange = i + 1;
+					startRangeRevision = currentRevision;
+				}
+			}
+		}
+		return ranges.toString();
+	}
+
+	private static RevisionsMap toRevisionsMap(String ranges) {
+		RevisionsMap revisionsMap = new RevisionsMap();
+		if (!ranges.isEmpty()) {
+			for (String range : ranges.split(",")) {
+				int revisionEnd = range.indexOf(':');
+				int startEnd = range.indexOf('-', revisionEnd);
+				revisionsMap.addRangeToRevision(range.substring(0, revisionEnd), new LineRange(
+						Integer.parseInt(range.substring(revisionEnd + 1, startEnd)), Integer.parseInt(range.substring(startEnd + 1))));
+			}
+		}
+		return revisionsMap;
 	}
 
 	private static void handleModifyDiff(EditList fileEdits, SCMChange scmChange) {
@@ -31,6 +31,7 @@ package com.microfocus.application.automation.tools.octane.model.processors.scm;
 import com.hp.octane.integrations.dto.scm.SCMData;
 import hudson.model.AbstractBuild;
 import hudson.model.Run;
+import hudson.model.TaskListener;
 import hudson.scm.SCM;
 import org.jenkinsci.plugins.workflow.job.WorkflowRun;
 
@@ -42,6 +43,13 @@ import org.jenkinsci.plugins.workflow.job.WorkflowRun;
 public interface SCMProcessor {
     SCMData getSCMData(AbstractBuild build, SCM scm);
 
+    /**
+     * Same as {@link #getSCMData(AbstractBuild, SCM)}, the processor may report its progress to the build listener
+     */
+    default SCMData getSCMData(AbstractBuild build, SCM scm, TaskListener listener) {
+        return getSCMData(build, scm);
+    }
+
     SCMData getSCMData(WorkflowRun run, SCM scm);
 
     CommonOriginRevision getCommonOriginRevision(Run run);
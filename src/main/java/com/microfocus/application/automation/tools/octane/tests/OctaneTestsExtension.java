@@ -44,6 +44,13 @@ public abstract class OctaneTestsExtension implements ExtensionPoint {
 	public abstract boolean supports(Run<?, ?> build) throws IOException, InterruptedException;
 
 
+	/**
+	 * Cheap check whether test results are expected for the build, without converting them
+	 */
+	public boolean hasTestResults(Run<?, ?> build) throws IOException, InterruptedException {
+		return supports(build);
+	}
+
 	public abstract TestResultContainer getTestResults(Run<?, ?> build, String jenkinsRootUrl) throws IOException, InterruptedException, TestProcessingException;
 
 	public static ExtensionList<OctaneTestsExtension> all() {
@@ -51,6 +51,25 @@ public class TestListener {
 	public static final String TEST_RESULT_FILE = "mqmTests.xml";
 
 
+	/**
+	 * Tells whether any of the test extensions expects test results for the build, without converting them
+	 */
+	public boolean hasTestResults(Run run) {
+		try {
+			for (OctaneTestsExtension ext : OctaneTestsExtension.all()) {
+				if (ext.supports(run) && ext.hasTestResults(run)) {
+					return true;
+				}
+			}
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			logger.error("interrupted while checking test results of " + run, ie);
+		} catch (Exception e) {
+			logger.error("failed to check test results of " + run, e);
+		}
+		return false;
+	}
+
 	public boolean processBuild(Run run) {
 		FilePath resultPath = new FilePath(new FilePath(run.getRootDir()), TEST_RESULT_FILE);
 		TestResultXmlWriter resultWriter = new TestResultXmlWriter(resultPath, run);
@@ -62,9 +81,15 @@ public class TestListener {
 			for (OctaneTestsExtension ext : OctaneTestsExtension.all()) {
 				if (ext.supports(run)) {
 					TestResultContainer testResultContainer = ext.getTestResults(run, jenkinsRootUrl);
-					if (testResultContainer != null && testResultContainer.getIterator().hasNext()) {
-						resultWriter.writeResults(testResultContainer);
-						hasTests = true;
+					if (testResultContainer != null) {
+						try {
+							if (testResultContainer.getIterator().hasNext()) {
+								resultWriter.writeResults(testResultContainer);
+								hasTests = true;
+							}
+						} finally {
+							testResultContainer.close();
+						}
 					}
 				}
 			}
@@ -31,9 +31,11 @@ package com.microfocus.application.automation.tools.octane.tests;
 import com.hp.octane.integrations.testresults.XmlWritableTestResult;
 import com.microfocus.application.automation.tools.octane.tests.detection.ResultFields;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.util.Iterator;
 
-public class TestResultContainer {
+public class TestResultContainer implements Closeable {
 
     private Iterator<XmlWritableTestResult> iterator;
     private ResultFields resultFields;
@@ -50,4 +52,14 @@ public class TestResultContainer {
     public ResultFields getResultFields() {
         return resultFields;
     }
+
+    /**
+     * Releases the resources held by a streaming iterator, if the iterator was not fully consumed
+     */
+    @Override
+    public void close() throws IOException {
+        if (iterator instanceof Closeable) {
+            ((Closeable) iterator).close();
+        }
+    }
 }
@@ -0,0 +1,270 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.tests;
+
+import com.google.inject.Inject;
+import com.hp.octane.integrations.utils.SdkStringUtils;
+import com.microfocus.application.automation.tools.octane.ResultQueue;
+import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
+import hudson.Extension;
+import hudson.ExtensionList;
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import jenkins.model.Jenkins;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Converts test results of finished builds (junitResult.xml->mqmTests.xml) on a bounded worker pool,
+ * so the thread finalizing the build only decides whether test results are expected and goes on with the FINISHED event.
+ * Builds waiting for conversion are journaled in a file based queue, conversions interrupted by a restart are resumed on load.
+ * <p>
+ * The number of workers is set by system property TestResultsProcessor.Threads (default 2), 0 disables the pool and conversion runs inline.
+ * When the pool backlog (TestResultsProcessor.Capacity, default 1000) is full, conversion runs inline as well.
+ */
+@Extension
+public class TestResultsProcessor {
+	private static final Logger logger = SDKBasedLoggerProvider.getLogger(TestResultsProcessor.class);
+
+	private static final String THREADS_PROPERTY = "TestResultsProcessor.Threads";
+	private static final int DEFAULT_THREADS = 2;
+	private static final String CAPACITY_PROPERTY = "TestResultsProcessor.Capacity";
+	private static final int DEFAULT_CAPACITY = 1000;
+
+	@Inject
+	private TestListener testListener;
+
+	private final Object journalLock = new Object();
+	private final Set<String> completed = ConcurrentHashMap.newKeySet();
+	private TestResultsProcessingQueue journal;
+	private ThreadPoolExecutor executor;
+	private volatile boolean stopped;
+
+	private final AtomicLong processedCount = new AtomicLong();
+	private final AtomicLong failedCount = new AtomicLong();
+	private final AtomicLong totalWaitMillis = new AtomicLong();
+	private final AtomicLong totalProcessingMillis = new AtomicLong();
+	private final AtomicLong maxLatencyMillis = new AtomicLong();
+
+	public static TestResultsProcessor getInstance() {
+		return ExtensionList.lookupSingleton(TestResultsProcessor.class);
+	}
+
+	/**
+	 * Converts test results of the build, or schedules the conversion if the worker pool is enabled
+	 *
+	 * @param run finished build
+	 * @return whether test results are expected for the build (test result flag of FINISHED event)
+	 */
+	public boolean process(Run<?, ?> run) {
+		if (!isEnabled() || stopped) {
+			return testListener.processBuild(run);
+		}
+		if (!testListener.hasTestResults(run)) {
+			return false;
+		}
+
+		ResultQueue.QueueItem item = new ResultQueue.QueueItem(run.getParent().getFullName(), run.getNumber());
+		try {
+			synchronized (journalLock) {
+				getJournal().add(item);
+			}
+		} catch (Exception e) {
+			logger.error("failed to journal test results processing of " + run + ", processing inline", e);
+			return testListener.processBuild(run);
+		}
+		submit(item);
+		return true;
+	}
+
+	/**
+	 * Re-schedules builds whose test results conversion was not completed before the last shutdown
+	 */
+	public void resumePending() {
+		if (!isEnabled()) {
+			return;
+		}
+		List<ResultQueue.QueueItem> pending = new ArrayList<>();
+		try {
+			synchronized (journalLock) {
+				TestResultsProcessingQueue queue = getJournal();
+				//the journal can be read only from its head, rotate it to collect the items
+				for (int i = queue.size(); i > 0; i--) {
+					ResultQueue.QueueItem item = queue.peekFirst();
+					queue.remove();
+					queue.add(item);
+					pending.add(item);
+				}
+			}
+		} catch (Exception e) {
+			logger.error("failed to read pending test results processing journal", e);
+			return;
+		}
+		if (!pending.isEmpty()) {
+			logger.info("resuming test results processing of " + pending.size() + " build(s)");
+			pending.forEach(this::submit);
+		}
+	}
+
+	public void shutdown() {
+		stopped = true;
+		synchronized (journalLock) {
+			if (executor != null) {
+				//interrupted conversions stay in the journal and are resumed on next start
+				executor.shutdownNow();
+			}
+			if (journal != null) {
+				journal.close();
+			}
+		}
+	}
+
+	public Map<String, Object> getMetrics() {
+		Map<String, Object> metrics = new HashMap<>();
+		long processed = processedCount.get();
+		metrics.put("threads", getThreads());
+		metrics.put("queueDepth", executor == null ? 0 : executor.getQueue().size() + executor.getActiveCount());
+		metrics.put("journalSize", journal == null ? 0 : journal.size());
+		metrics.put("processedCount", processed);
+		metrics.put("failedCount", failedCount.get());
+		metrics.put("averageWaitMillis", processed == 0 ? 0 : totalWaitMillis.get() / processed);
+		metrics.put("averageProcessingMillis", processed == 0 ? 0 : totalProcessingMillis.get() / processed);
+		metrics.put("maxLatencyMillis", maxLatencyMillis.get());
+		return metrics;
+	}
+
+	private void submit(ResultQueue.QueueItem item) {
+		long enqueuedAt = System.currentTimeMillis();
+		try {
+			getExecutor().execute(() -> convert(item, enqueuedAt));
+		} catch (RejectedExecutionException e) {
+			logger.warn("test results processing of " + getKey(item) + " was not scheduled, it will be resumed on next start");
+		}
+	}
+
+	private void convert(ResultQueue.QueueItem item, long enqueuedAt) {
+		long startedAt = System.currentTimeMillis();
+		try (ACLContext ignored = ACL.as(ACL.SYSTEM)) {
+			Job<?, ?> job = Jenkins.get().getItemByFullName(item.getProjectName(), Job.class);
+			Run<?, ?> run = job == null ? null : job.getBuildByNumber(item.getBuildNumber());
+			if (run == null) {
+				logger.warn("Build [" + getKey(item) + "] no longer exists, test results can't be processed");
+			} else if (!testListener.processBuild(run)) {
+				failedCount.incrementAndGet();
+			}
+		} catch (Throwable t) {
+			failedCount.incrementAndGet();
+			logger.error("failed to process test results of " + getKey(item), t);
+		} finally {
+			long finishedAt = System.currentTimeMillis();
+			processedCount.incrementAndGet();
+			totalWaitMillis.addAndGet(startedAt - enqueuedAt);
+			totalProcessingMillis.addAndGet(finishedAt - startedAt);
+			maxLatencyMillis.accumulateAndGet(finishedAt - enqueuedAt, Math::max);
+			completed.add(getKey(item));
+			compactJournal();
+		}
+	}
+
+	/**
+	 * Conversions may complete out of order, the journal is trimmed only up to the first pending item
+	 */
+	private void compactJournal() {
+		synchronized (journalLock) {
+			if (stopped) {
+				return;
+			}
+			ResultQueue.QueueItem head;
+			while ((head = journal.peekFirst()) != null && completed.remove(getKey(head))) {
+				journal.remove();
+			}
+		}
+	}
+
+	private TestResultsProcessingQueue getJournal() throws IOException {
+		synchronized (journalLock) {
+			if (journal == null) {
+				journal = new TestResultsProcessingQueue();
+			}
+			return journal;
+		}
+	}
+
+	private synchronized ThreadPoolExecutor getExecutor() {
+		if (executor == null) {
+			int threads = getThreads();
+			executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<>(getIntProperty(CAPACITY_PROPERTY, DEFAULT_CAPACITY)),
+					new NamingThreadFactory(new DaemonThreadFactory(), "Octane test results processor"),
+					new ThreadPoolExecutor.CallerRunsPolicy());
+			executor.allowCoreThreadTimeOut(true);
+		}
+		return executor;
+	}
+
+	private boolean isEnabled() {
+		return getThreads() > 0;
+	}
+
+	private static int getThreads() {
+		return getIntProperty(THREADS_PROPERTY, DEFAULT_THREADS);
+	}
+
+	private static int getIntProperty(String name, int defaultValue) {
+		String value = System.getProperty(name);
+		if (!SdkStringUtils.isEmpty(value)) {
+			try {
+				return Integer.parseInt(value.trim());
+			} catch (NumberFormatException e) {
+				logger.warn("invalid value of " + name + " : " + value);
+			}
+		}
+		return defaultValue;
+	}
+
+	private static String getKey(ResultQueue.QueueItem item) {
+		return item.getProjectName() + "#" + item.getBuildNumber();
+	}
+}
@@ -33,19 +33,26 @@ import hudson.FilePath;
 import org.apache.logging.log4j.Logger;
 
 import java.io.BufferedInputStream;
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
-public class ObjectStreamIterator<E> implements Iterator<E> {
+public class ObjectStreamIterator<E> implements Iterator<E>, Closeable {
     private static Logger logger = SDKBasedLoggerProvider.getLogger(ObjectStreamIterator.class);
 
     private ObjectInputStream ois;
     private E next;
+    private boolean ended;
 
     public ObjectStreamIterator(FilePath filePath) throws IOException, InterruptedException {
-        this.ois = new ObjectInputStream(new BufferedInputStream(filePath.read()));
+        this(filePath.read());
+    }
+
+    public ObjectStreamIterator(InputStream inputStream) throws IOException {
+        this.ois = new ObjectInputStream(new BufferedInputStream(inputStream));
     }
 
     @Override
@@ -53,6 +60,9 @@ public class ObjectStreamIterator<E> implements Iterator<E> {
         if (next != null) {
             return true;
         }
+        if (ended) {
+            return false;
+        }
         try {
             next = (E) ois.readObject();
             return true;
@@ -62,6 +72,8 @@ public class ObjectStreamIterator<E> implements Iterator<E> {
             } catch (IOException ioe) {
                 logger.error("Failed to close the stream", ioe); // NON-NLS
             }
+            ended = true;
+            onEndOfStream();
             return false;
         }
     }
@@ -77,6 +89,22 @@ public class ObjectStreamIterator<E> implements Iterator<E> {
         }
     }
 
+    /**
+     * Called once the underlying stream is exhausted (or broken), before hasNext() reports the end of iteration.
+     * Subclasses may verify here that the producer of the stream completed successfully.
+     */
+    protected void onEndOfStream() {
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!ended) {
+            ended = true;
+            next = null;
+            ois.close();
+        }
+    }
+
     @Override
     public void remove() {
         throw new UnsupportedOperationException();
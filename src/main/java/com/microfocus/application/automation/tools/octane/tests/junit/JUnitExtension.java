@@ -31,6 +31,7 @@ package com.microfocus.application.automation.tools.octane.tests.junit;
 import com.google.inject.Inject;
 import com.hp.octane.integrations.OctaneClient;
 import com.hp.octane.integrations.OctaneSDK;
+import com.hp.octane.integrations.testresults.XmlWritableTestResult;
 import com.microfocus.application.automation.tools.JenkinsUtils;
 import com.microfocus.application.automation.tools.octane.actions.cucumber.CucumberTestResultsAction;
 import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
@@ -52,6 +53,7 @@ import hudson.maven.MavenBuild;
 import hudson.maven.MavenModule;
 import hudson.maven.MavenModuleSetBuild;
 import hudson.model.*;
+import hudson.remoting.Pipe;
 import hudson.remoting.VirtualChannel;
 import hudson.tasks.test.AbstractTestResultAction;
 import org.apache.commons.lang.StringUtils;
@@ -66,6 +68,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.regex.Pattern;
 
 import static com.hp.octane.integrations.utils.SdkConstants.JobParameters.OCTANE_CONFIG_ID_PARAMETER_NAME;
@@ -78,6 +82,7 @@ public class JUnitExtension extends OctaneTestsExtension {
 	private static Logger logger = SDKBasedLoggerProvider.getLogger(JUnitExtension.class);
 
 	private static final String JUNIT_RESULT_XML = "junitResult.xml"; // NON-NLS
+	//results are streamed now, prefix is kept to clean up temp files left in build folders by previous versions
 	public static final String TEMP_TEST_RESULTS_FILE_NAME_PREFIX = "GetJUnitTestResults";
 	private static final String TEST_RESULT_NAME_REGEX_PATTERN_PARAMETER_NAME = "octane_test_result_name_run_regex_pattern";
 
@@ -97,6 +102,12 @@ public class JUnitExtension extends OctaneTestsExtension {
 		}
 	}
 
+	@Override
+	public boolean hasTestResults(Run<?, ?> build) {
+		AbstractTestResultAction action = build.getAction(AbstractTestResultAction.class);
+		return supports(build) && action != null && action.getTotalCount() > 0;
+	}
+
 	@Override
 	public TestResultContainer getTestResults(Run<?, ?> run, String jenkinsRootUrl) throws IOException, InterruptedException {
 		logger.debug("Collecting JUnit results");
@@ -116,9 +127,9 @@ public class JUnitExtension extends OctaneTestsExtension {
 			if(hpRunnerType.equals(HPRunnerType.UFT) || hpRunnerType.equals(HPRunnerType.UFT_MBT)){
 				getResultsOnController = true;
 			}
-			FilePath filePath = getTestResultsFromWorkspace(run, jenkinsRootUrl, getResultsOnController, workspace, Collections.singletonList(resultFile),hpRunnerType);
+			Iterator<XmlWritableTestResult> testResults = getTestResultsFromWorkspace(run, jenkinsRootUrl, getResultsOnController, workspace, Collections.singletonList(resultFile),hpRunnerType);
 			ResultFields detectedFields = getResultFields(run);
-			return new TestResultContainer(new ObjectStreamIterator<>(filePath), detectedFields);
+			return new TestResultContainer(testResults, detectedFields);
 		} else {
 			//avoid java.lang.NoClassDefFoundError when maven plugin is not present
 			if ("hudson.maven.MavenModuleSetBuild".equals(run.getClass().getName())) {
@@ -138,8 +149,8 @@ public class JUnitExtension extends OctaneTestsExtension {
 				}
 				if (!resultFiles.isEmpty()) {
 					ResultFields detectedFields = getResultFields(run);
-					FilePath filePath = getTestResultsFromWorkspace(run, jenkinsRootUrl, getResultsOnController, workspace, resultFiles,HPRunnerType.NONE);
-					return new TestResultContainer(new ObjectStreamIterator<>(filePath), detectedFields);
+					Iterator<XmlWritableTestResult> testResults = getTestResultsFromWorkspace(run, jenkinsRootUrl, getResultsOnController, workspace, resultFiles,HPRunnerType.NONE);
+					return new TestResultContainer(testResults, detectedFields);
 				}
 			}
 			logger.debug("No JUnit result report found");
@@ -147,15 +158,20 @@ public class JUnitExtension extends OctaneTestsExtension {
 		}
 	}
 
-	private FilePath getTestResultsFromWorkspace(Run<?, ?> run, String jenkinsRootUrl, boolean getResultsOnController, FilePath workspace, List<FilePath> resultFiles,HPRunnerType runnerType) throws IOException, InterruptedException {
-		FilePath filePath;
+	/**
+	 * Results are not materialized anywhere: on controller the junitResult.xml reader is iterated lazily by the
+	 * mqmTests.xml writer, on agent the parsed results are piped back to the controller while the writer consumes them.
+	 * Fallback to the other side is possible only as long as nothing was consumed yet, i.e. when opening the stream fails.
+	 */
+	private Iterator<XmlWritableTestResult> getTestResultsFromWorkspace(Run<?, ?> run, String jenkinsRootUrl, boolean getResultsOnController, FilePath workspace, List<FilePath> resultFiles,HPRunnerType runnerType) throws IOException, InterruptedException {
+		Iterator<XmlWritableTestResult> testResults;
 		try {
 			if (getResultsOnController) {
 				logger.info("Get results from controller");
-				filePath = (new GetJUnitTestResults(run, runnerType, resultFiles, false, jenkinsRootUrl)).invoke(null, null);
+				testResults = (new GetJUnitTestResults(run, runnerType, resultFiles, false, jenkinsRootUrl)).streamOnController();
 			} else {
 				logger.info("Get results from agent");
-				filePath = workspace.act(new GetJUnitTestResults(run, runnerType, resultFiles, false, jenkinsRootUrl));
+				testResults = (new GetJUnitTestResults(run, runnerType, resultFiles, false, jenkinsRootUrl)).streamFromAgent(workspace);
 			}
 		}catch (Exception e){
 			//if failed on controller/agent retrying from agent/controller
@@ -166,27 +182,30 @@ public class JUnitExtension extends OctaneTestsExtension {
 					e);
 			if (getResultsOnController) {
 				logger.info("Get results from agent");
-				filePath = workspace.act(new GetJUnitTestResults(run, runnerType, resultFiles, false, jenkinsRootUrl));
+				testResults = (new GetJUnitTestResults(run, runnerType, resultFiles, false, jenkinsRootUrl)).streamFromAgent(workspace);
 			} else {
 				logger.info("Get results from controller");
-				filePath = (new GetJUnitTestResults(run, runnerType, resultFiles, false, jenkinsRootUrl)).invoke(null, null);
+				testResults = (new GetJUnitTestResults(run, runnerType, resultFiles, false, jenkinsRootUrl)).streamOnController();
 			}
 		}
-		return filePath;
+		return testResults;
 	}
 
 	private ResultFields getResultFields(Run<?, ?> build) throws InterruptedException {
 		return resultFieldsDetectionService.getDetectedFields(build);
 	}
 
-	private static class GetJUnitTestResults implements FilePath.FileCallable<FilePath> {
+	static class GetJUnitTestResults implements FilePath.FileCallable<Integer> {
+
+		//ObjectOutputStream keeps a back reference to every written object, reset it periodically to keep agent memory flat
+		private static final int STREAM_RESET_INTERVAL = 1000;
 
 		private final List<FilePath> reports;
 		private final String jobName;
 		private final String buildId;
 		private final String jenkinsRootUrl;
 		private final HPRunnerType hpRunnerType;
-		private FilePath filePath;
+		private Pipe pipe;
 		private List<ModuleDetection> moduleDetection;
 		private long buildStarted;
 		private FilePath workspace;
@@ -199,10 +218,11 @@ public class JUnitExtension extends OctaneTestsExtension {
 		//this object pass some master2slave data
 		private Object additionalContext;
 		private String nodeName;
+		private int parallelism;
 
 		public GetJUnitTestResults(Run<?, ?> build, HPRunnerType hpRunnerType, List<FilePath> reports, boolean stripPackageAndClass, String jenkinsRootUrl) throws IOException, InterruptedException {
 			this.reports = reports;
-			this.filePath = new FilePath(build.getRootDir()).createTempFile(TEMP_TEST_RESULTS_FILE_NAME_PREFIX, null);
+			this.parallelism = reports.size() > 1 ? RunnerMiscSettingsGlobalConfiguration.getInstance().getJunitParsingParallelism() : 1;
 			this.buildStarted = build.getStartTimeInMillis();
 			this.workspace = BuildHandlerUtils.getWorkspace(build);
 			this.stripPackageAndClass = stripPackageAndClass;
@@ -280,31 +300,182 @@ public class JUnitExtension extends OctaneTestsExtension {
 			}
 		}
 
-		@Override
-		public FilePath invoke(File f, VirtualChannel channel) throws IOException, InterruptedException {
-			OutputStream os = filePath.write();
-			BufferedOutputStream bos = new BufferedOutputStream(os);
-			ObjectOutputStream oos = new ObjectOutputStream(bos);
+		Iterator<XmlWritableTestResult> streamOnController() throws IOException, InterruptedException {
+			return readReports();
+		}
 
-			try {
-				for (FilePath report : reports) {
-					JUnitXmlIterator iterator = new JUnitXmlIterator(report.read(), moduleDetection, workspace, sharedCheckOutDirectory, jobName, buildId, buildStarted, stripPackageAndClass, hpRunnerType, jenkinsRootUrl, additionalContext,testParserRegEx, octaneSupportsSteps,nodeName);
-					while (iterator.hasNext()) {
-						oos.writeObject(iterator.next());
+		Iterator<XmlWritableTestResult> streamFromAgent(FilePath workspace) throws IOException, InterruptedException {
+			if (!workspace.isRemote()) {
+				//the built-in node runs the callable in place without serializing it, so there is no pipe to stream over
+				logger.debug("Workspace is on the controller, reading results in place");
+				return readReports();
+			}
+			pipe = Pipe.createRemoteToLocal();
+			Future<Integer> future = workspace.actAsync(this);
+			return new RemoteTestResultsIterator(pipe.getIn(), future);
+		}
+
+		/**
+		 * Maven module sets produce one report per module, those may be parsed concurrently and merged back in order
+		 */
+		private Iterator<XmlWritableTestResult> readReports() throws IOException, InterruptedException {
+			if (parallelism > 1 && reports.size() > 1) {
+				logger.debug("Reading " + reports.size() + " JUnit reports with parallelism " + parallelism);
+				return new ParallelJUnitXmlReader(reports, parallelism, this::openReport);
+			}
+			return new SequentialTestResultsIterator(this);
+		}
+
+		JUnitXmlIterator openReport(FilePath report) throws IOException, InterruptedException, XMLStreamException {
+			return new JUnitXmlIterator(report.read(), moduleDetection, workspace, sharedCheckOutDirectory, jobName, buildId, buildStarted, stripPackageAndClass, hpRunnerType, jenkinsRootUrl, additionalContext,testParserRegEx, octaneSupportsSteps,nodeName);
+		}
+
+		@Override
+		public Integer invoke(File f, VirtualChannel channel) throws IOException, InterruptedException {
+			int count = 0;
+			try (ObjectOutputStream oos = new ObjectOutputStream(new BufferedOutputStream(pipe.getOut()))) {
+				//push the stream header right away, the controller side blocks on it
+				oos.flush();
+				Iterator<XmlWritableTestResult> results = readReports();
+				try {
+					while (results.hasNext()) {
+						oos.writeObject(results.next());
+						if (++count % STREAM_RESET_INTERVAL == 0) {
+							oos.reset();
+						}
 					}
+				} catch (IllegalStateException e) {
+					throw new IOException(e.getMessage(), e.getCause());
+				} finally {
+					((Closeable) results).close();
 				}
+			}
+			return count;
+		}
+
+		@Override
+		public void checkRoles(RoleChecker roleChecker) throws SecurityException {
+			roleChecker.check(this, Role.UNKNOWN);
+		}
+	}
+
+	/**
+	 * Iterates the junitResult.xml files in place, one report after another, without any intermediate storage
+	 */
+	private static class SequentialTestResultsIterator implements Iterator<XmlWritableTestResult>, Closeable {
+
+		private final GetJUnitTestResults source;
+		private final Iterator<FilePath> reports;
+		private JUnitXmlIterator current;
+
+		SequentialTestResultsIterator(GetJUnitTestResults source) throws IOException, InterruptedException {
+			this.source = source;
+			this.reports = source.reports.iterator();
+			try {
+				//open and probe the first report eagerly, so failures are reported while fallback is still possible
+				advance();
 			} catch (XMLStreamException e) {
 				throw new IOException(e);
 			}
-			os.flush();
+		}
+
+		private boolean advance() throws XMLStreamException, IOException, InterruptedException {
+			while (current == null || !current.hasNext()) {
+				if (!reports.hasNext()) {
+					current = null;
+					return false;
+				}
+				current = source.openReport(reports.next());
+			}
+			return true;
+		}
 
-			oos.close();
-			return filePath;
+		@Override
+		public boolean hasNext() {
+			try {
+				return current != null && advance();
+			} catch (XMLStreamException | IOException e) {
+				throw new IllegalStateException("Failed to read JUnit results", e);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while reading JUnit results", e);
+			}
 		}
 
 		@Override
-		public void checkRoles(RoleChecker roleChecker) throws SecurityException {
-			roleChecker.check(this, Role.UNKNOWN);
+		public XmlWritableTestResult next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			try {
+				return current.next();
+			} catch (XMLStreamException | IOException e) {
+				throw new IllegalStateException("Failed to read JUnit results", e);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while reading JUnit results", e);
+			}
+		}
+
+		@Override
+		public void close() {
+			if (current != null) {
+				current.close();
+				current = null;
+			}
+		}
+	}
+
+	/**
+	 * Consumes results parsed on agent while they are being produced, and checks the agent side outcome at the end,
+	 * so a failure in the middle of the stream is not mistaken for a complete (truncated) result set
+	 */
+	private static class RemoteTestResultsIterator extends ObjectStreamIterator<XmlWritableTestResult> {
+
+		private static final long STREAM_OPEN_POLL_MILLIS = 50;
+		private final Future<Integer> future;
+
+		RemoteTestResultsIterator(InputStream inputStream, Future<Integer> future) throws IOException, InterruptedException {
+			super(openStream(inputStream, future));
+			this.future = future;
+		}
+
+		private static InputStream openStream(InputStream inputStream, Future<Integer> future) throws IOException, InterruptedException {
+			//the agent pushes the stream header before parsing; if the agent call completes without it, it has failed
+			while (inputStream.available() == 0 && !future.isDone()) {
+				Thread.sleep(STREAM_OPEN_POLL_MILLIS);
+			}
+			if (inputStream.available() == 0) {
+				getOutcome(future);
+				throw new IOException("Agent completed without sending test results stream");
+			}
+			return inputStream;
+		}
+
+		private static int getOutcome(Future<Integer> future) throws IOException, InterruptedException {
+			try {
+				return future.get();
+			} catch (ExecutionException e) {
+				throw new IOException("Failed to get test results from agent", e.getCause());
+			}
+		}
+
+		@Override
+		protected void onEndOfStream() {
+			try {
+				logger.debug(getOutcome(future) + " test results received from agent");
+			} catch (IOException e) {
+				throw new IllegalStateException(e.getMessage(), e.getCause());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting for agent test results", e);
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			super.close();
+			future.cancel(true);
 		}
 	}
 
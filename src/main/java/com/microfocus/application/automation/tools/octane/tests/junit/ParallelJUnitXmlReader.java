@@ -0,0 +1,166 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.tests.junit;
+
+import com.hp.octane.integrations.testresults.XmlWritableTestResult;
+import hudson.FilePath;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Parses several junitResult.xml reports concurrently and exposes their results as one stream, in reports order.
+ * At most 'parallelism' reports are parsed at a time and each of them buffers a bounded number of results ahead
+ * of the consumer, so memory does not depend on the number or the size of the reports.
+ * Reports are started in order, hence the report currently consumed is always being parsed or already done.
+ */
+class ParallelJUnitXmlReader implements Iterator<XmlWritableTestResult>, Closeable {
+
+	private static final int REPORT_BUFFER_SIZE = 500;
+	private static final Object END_OF_REPORT = new Object();
+
+	private final ExecutorService executor;
+	private final Queue<ReportTask> tasks = new LinkedList<>();
+	private ReportTask current;
+	private XmlWritableTestResult next;
+
+	ParallelJUnitXmlReader(List<FilePath> reports, int parallelism, ReportOpener opener) {
+		int threads = Math.max(1, Math.min(parallelism, reports.size()));
+		executor = Executors.newFixedThreadPool(threads, new NamingThreadFactory(new DaemonThreadFactory(), "JUnit results parser"));
+		for (FilePath report : reports) {
+			ReportTask task = new ReportTask(report, opener);
+			tasks.add(task);
+			executor.execute(task);
+		}
+		executor.shutdown();
+	}
+
+	@Override
+	public boolean hasNext() {
+		while (next == null) {
+			if (current == null) {
+				current = tasks.poll();
+				if (current == null) {
+					return false;
+				}
+			}
+			Object item;
+			try {
+				item = current.results.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				close();
+				throw new IllegalStateException("Interrupted while reading JUnit results", e);
+			}
+			if (item == END_OF_REPORT) {
+				if (current.failure != null) {
+					Exception failure = current.failure;
+					String report = current.report.getRemote();
+					close();
+					throw new IllegalStateException("Failed to read JUnit results from " + report, failure);
+				}
+				current = null;
+			} else {
+				next = (XmlWritableTestResult) item;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public XmlWritableTestResult next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		XmlWritableTestResult value = next;
+		next = null;
+		return value;
+	}
+
+	@Override
+	public void close() {
+		executor.shutdownNow();
+		tasks.clear();
+		current = null;
+		next = null;
+	}
+
+	interface ReportOpener {
+		JUnitXmlIterator open(FilePath report) throws IOException, InterruptedException, XMLStreamException;
+	}
+
+	private static class ReportTask implements Runnable {
+		private final FilePath report;
+		private final ReportOpener opener;
+		private final BlockingQueue<Object> results = new LinkedBlockingQueue<>(REPORT_BUFFER_SIZE);
+		private volatile Exception failure;
+
+		private ReportTask(FilePath report, ReportOpener opener) {
+			this.report = report;
+			this.opener = opener;
+		}
+
+		@Override
+		public void run() {
+			try {
+				JUnitXmlIterator iterator = opener.open(report);
+				try {
+					while (iterator.hasNext()) {
+						results.put(iterator.next());
+					}
+				} finally {
+					iterator.close();
+				}
+			} catch (InterruptedException e) {
+				//reader was closed, nobody waits for the rest of this report
+				Thread.currentThread().interrupt();
+				return;
+			} catch (Exception e) {
+				failure = e;
+			}
+			try {
+				results.put(END_OF_REPORT);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+}
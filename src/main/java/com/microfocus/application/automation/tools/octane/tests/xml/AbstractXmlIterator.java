@@ -84,6 +84,22 @@ public abstract class AbstractXmlIterator<E> {
         }
     }
 
+    /**
+     * Releases the underlying reader and stream when iteration is abandoned before the end of the document
+     */
+    public void close() {
+        if (!closed) {
+            try {
+                reader.close();
+            } catch (XMLStreamException e) {
+                // close quietly
+            }
+            IOUtils.closeQuietly(is);
+            closed = true;
+            queue.clear();
+        }
+    }
+
     protected abstract void onEvent(XMLEvent event) throws XMLStreamException, IOException, InterruptedException;
 
     protected void addItem(E item) {
@@ -35,6 +35,7 @@
 package com.microfocus.application.automation.tools.pc;
 
 import com.cloudbees.plugins.credentials.common.UsernamePasswordCredentials;
+import com.microfocus.application.automation.tools.common.PollInterval;
 import com.microfocus.application.automation.tools.pc.helper.DateFormatter;
 import com.microfocus.application.automation.tools.run.PcBuilder;
 import hudson.FilePath;
@@ -403,6 +404,7 @@ public class PcClient {
         RunState[] states = {RunState.BEFORE_COLLATING_RESULTS,RunState.BEFORE_CREATING_ANALYSIS_DATA};
         PcRunResponse response = null;
         RunState lastState = RunState.UNDEFINED;
+        PollInterval pollInterval = new PollInterval(interval);
         int threeStrikes = 3;
         do {
             try {
@@ -447,7 +449,7 @@ public class PcClient {
                     }
                 } else {
                     counter = 0;
-                    Thread.sleep(interval);
+                    Thread.sleep(pollInterval.next(currentState.value(), 0, 0));
                 }
                 threeStrikes = 3;
             }
@@ -0,0 +1,330 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.rest;
+
+import com.microfocus.application.automation.tools.common.SSEException;
+import com.microfocus.application.automation.tools.sse.sdk.Response;
+import hudson.ProxyConfiguration;
+import hudson.init.Terminator;
+import jenkins.model.Jenkins;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHost;
+import org.apache.http.auth.AuthScope;
+import org.apache.http.auth.UsernamePasswordCredentials;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.CredentialsProvider;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.LayeredConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Sends requests over persistent connections, pooled per ALM host and shared by all the clients of that host.
+ * Responses are decoded from gzip when the server compresses them. Cookies are left to the {@link RestClient}, which
+ * keeps one session per client while the connections are shared.
+ */
+public class PooledHttpTransport implements HttpTransport {
+
+    /**
+     * Maximum number of open connections to one ALM host.
+     */
+    private static final int MAX_CONNECTIONS_PER_HOST = Integer.getInteger("RestClient.MaxConnectionsPerHost", 10);
+    /**
+     * Seconds after which an idle pooled connection is closed.
+     */
+    private static final int IDLE_TIMEOUT_SECONDS = Integer.getInteger("RestClient.IdleConnectionTimeout", 60);
+    /**
+     * Seconds to wait for the response data of the ALM host before the request fails.
+     */
+    private static final int SOCKET_TIMEOUT_SECONDS = Integer.getInteger("RestClient.SocketTimeout", 300);
+    /**
+     * Connecting and waiting for a pooled connection give up after the Jenkins default, as the connections opened by
+     * {@link ProxyConfiguration#open} do.
+     */
+    private static final RequestConfig REQUEST_CONFIG = RequestConfig.custom()
+            .setConnectTimeout(ProxyConfiguration.DEFAULT_CONNECT_TIMEOUT_MILLIS)
+            .setConnectionRequestTimeout(ProxyConfiguration.DEFAULT_CONNECT_TIMEOUT_MILLIS)
+            .setSocketTimeout((int) TimeUnit.SECONDS.toMillis(SOCKET_TIMEOUT_SECONDS))
+            .build();
+
+    private static final Logger LOGGER = Logger.getLogger(PooledHttpTransport.class.getName());
+
+    private static final ConcurrentMap<String, CloseableHttpClient> CLIENTS = new ConcurrentHashMap<>();
+    private static final String STATISTICS_ATTRIBUTE = PooledHttpTransport.class.getName() + ".statistics";
+    private static final String URI_EXCLUDED = "\"<>\\^`{|}[]";
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final CloseableHttpClient httpClient;
+    private final RequestConfig requestConfig;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong connections = new AtomicLong();
+
+    public PooledHttpTransport(String serverUrl) {
+        this(serverUrl, REQUEST_CONFIG);
+    }
+
+    PooledHttpTransport(String serverUrl, RequestConfig requestConfig) {
+        this.httpClient = getHttpClient(serverUrl);
+        this.requestConfig = requestConfig;
+    }
+
+    /**
+     * Closes the pooled connections of all the ALM hosts and stops their idle connection evictors.
+     */
+    @Terminator
+    public static void closeAll() {
+        for (String key : CLIENTS.keySet()) {
+            CloseableHttpClient client = CLIENTS.remove(key);
+            if (client == null) {
+                continue;
+            }
+            try {
+                client.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to close the connection pool of " + key, e);
+            }
+        }
+    }
+
+    @Override
+    public Response execute(String method, String url, Map<String, String> headers, byte[] data) {
+
+        RequestBuilder builder = RequestBuilder.create(method).setUri(toUri(url)).setConfig(requestConfig);
+        if (headers != null) {
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                builder.addHeader(header.getKey(), header.getValue());
+            }
+        }
+        if (data != null && data.length > 0) {
+            builder.setEntity(new ByteArrayEntity(data));
+        }
+        HttpClientContext context = HttpClientContext.create();
+        context.setAttribute(STATISTICS_ATTRIBUTE, this);
+
+        requests.incrementAndGet();
+        try (CloseableHttpResponse httpResponse = httpClient.execute(builder.build(), context)) {
+            Response ret = new Response();
+            int statusCode = httpResponse.getStatusLine().getStatusCode();
+            ret.setStatusCode(statusCode);
+            ret.setHeaders(getHeaders(httpResponse));
+            // reading the whole entity gives the connection back to the pool
+            HttpEntity entity = httpResponse.getEntity();
+            ret.setData(entity == null ? new byte[0] : EntityUtils.toByteArray(entity));
+            if (statusCode >= 400) {
+                // same failure as HttpURLConnection.getInputStream() for an error status
+                ret.setFailure(new IOException(String.format("Server returned HTTP response code: %d for URL: %s",
+                        statusCode, url)));
+            }
+            return ret;
+        } catch (IOException cause) {
+            throw new SSEException(cause);
+        }
+    }
+
+    /**
+     * ALM queries are built with characters such as braces and quotes that {@link java.net.URI} rejects while
+     * {@link java.net.HttpURLConnection} sends them as they are. Percent-encode these characters and leave the rest,
+     * including existing escapes and the authority, untouched.
+     */
+    static String toUri(String url) {
+        int scheme = url.indexOf("://");
+        int path = url.indexOf('/', scheme < 0 ? 0 : scheme + 3);
+        if (path < 0) {
+            return url;
+        }
+        StringBuilder ret = null;
+        for (int i = path; i < url.length(); i++) {
+            char c = url.charAt(i);
+            if (c > 0x20 && c < 0x7f && URI_EXCLUDED.indexOf(c) < 0) {
+                if (ret != null) {
+                    ret.append(c);
+                }
+                continue;
+            }
+            if (ret == null) {
+                ret = new StringBuilder(url.length() + 16).append(url, 0, i);
+            }
+            int end = Character.isHighSurrogate(c) && i + 1 < url.length() ? i + 2 : i + 1;
+            for (byte b : url.substring(i, end).getBytes(StandardCharsets.UTF_8)) {
+                ret.append('%').append(HEX[(b >> 4) & 0xf]).append(HEX[b & 0xf]);
+            }
+            i = end - 1;
+        }
+        return ret == null ? url : ret.toString();
+    }
+
+    @Override
+    public String getStatistics() {
+        long requestCount = requests.get();
+        long connectionCount = connections.get();
+        return String.format("%d requests over %d connections (%d reused)", requestCount, connectionCount,
+                Math.max(0, requestCount - connectionCount));
+    }
+
+    private static Map<String, List<String>> getHeaders(CloseableHttpResponse httpResponse) {
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Header header : httpResponse.getAllHeaders()) {
+            List<String> values = headers.get(header.getName());
+            if (values == null) {
+                values = new ArrayList<>(1);
+                headers.put(header.getName(), values);
+            }
+            values.add(header.getValue());
+        }
+        return headers;
+    }
+
+    private static CloseableHttpClient getHttpClient(String serverUrl) {
+        URL url;
+        try {
+            url = new URL(serverUrl);
+        } catch (IOException e) {
+            throw new SSEException(e);
+        }
+        HttpHost proxy = null;
+        UsernamePasswordCredentials proxyCredentials = null;
+        Jenkins jenkins = Jenkins.getInstanceOrNull();
+        ProxyConfiguration proxyConfiguration = jenkins == null ? null : jenkins.proxy;
+        if (proxyConfiguration != null) {
+            Proxy javaProxy = proxyConfiguration.createProxy(url.getHost());
+            if (javaProxy.type() == Proxy.Type.HTTP && javaProxy.address() instanceof InetSocketAddress) {
+                InetSocketAddress address = (InetSocketAddress) javaProxy.address();
+                proxy = new HttpHost(address.getHostString(), address.getPort());
+                if (proxyConfiguration.getUserName() != null) {
+                    proxyCredentials = new UsernamePasswordCredentials(proxyConfiguration.getUserName(),
+                            proxyConfiguration.getPassword());
+                }
+            }
+        }
+
+        // the proxy settings are part of the key, a new pool is used when they change
+        String key = String.format("%s://%s:%d|%s|%s", url.getProtocol(), url.getHost(), url.getPort(), proxy,
+                proxyCredentials == null ? null : proxyCredentials.getUserName());
+        HttpHost clientProxy = proxy;
+        UsernamePasswordCredentials clientProxyCredentials = proxyCredentials;
+        return CLIENTS.computeIfAbsent(key, k -> createHttpClient(clientProxy, clientProxyCredentials));
+    }
+
+    private static CloseableHttpClient createHttpClient(HttpHost proxy, UsernamePasswordCredentials proxyCredentials) {
+        // same trust policy as the HttpsURLConnection defaults set by RestClient
+        SSLConnectionSocketFactory sslSocketFactory =
+                new SSLConnectionSocketFactory(RestClient.createTrustAllSslContext(), NoopHostnameVerifier.INSTANCE);
+        Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", new CountingSocketFactory(PlainConnectionSocketFactory.getSocketFactory()))
+                .register("https", new CountingSocketFactory(sslSocketFactory))
+                .build();
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(registry);
+        connectionManager.setMaxTotal(MAX_CONNECTIONS_PER_HOST);
+        connectionManager.setDefaultMaxPerRoute(MAX_CONNECTIONS_PER_HOST);
+
+        HttpClientBuilder builder = HttpClientBuilder.create()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(REQUEST_CONFIG)
+                .disableCookieManagement()
+                .evictExpiredConnections()
+                .evictIdleConnections(IDLE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        if (proxy != null) {
+            builder.setProxy(proxy);
+            if (proxyCredentials != null) {
+                CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
+                credentialsProvider.setCredentials(new AuthScope(proxy), proxyCredentials);
+                builder.setDefaultCredentialsProvider(credentialsProvider);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Counts the connections opened for the transport of the request being executed.
+     */
+    private static class CountingSocketFactory implements LayeredConnectionSocketFactory {
+
+        private final ConnectionSocketFactory delegate;
+
+        private CountingSocketFactory(ConnectionSocketFactory delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Socket createSocket(HttpContext context) throws IOException {
+            return delegate.createSocket(context);
+        }
+
+        @Override
+        public Socket connectSocket(int connectTimeout, Socket sock, HttpHost host, InetSocketAddress remoteAddress,
+                                    InetSocketAddress localAddress, HttpContext context) throws IOException {
+            Socket socket = delegate.connectSocket(connectTimeout, sock, host, remoteAddress, localAddress, context);
+            Object transport = context == null ? null : context.getAttribute(STATISTICS_ATTRIBUTE);
+            if (transport instanceof PooledHttpTransport) {
+                ((PooledHttpTransport) transport).connections.incrementAndGet();
+            }
+            return socket;
+        }
+
+        @Override
+        public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context)
+                throws IOException {
+            if (!(delegate instanceof LayeredConnectionSocketFactory)) {
+                throw new IOException("Cannot layer a socket over " + target);
+            }
+            return ((LayeredConnectionSocketFactory) delegate).createLayeredSocket(socket, target, port, context);
+        }
+    }
+}
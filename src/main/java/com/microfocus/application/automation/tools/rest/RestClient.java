@@ -28,20 +28,16 @@
 
 package com.microfocus.application.automation.tools.rest;
 
-import java.io.ByteArrayOutputStream;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.HttpsURLConnection;
@@ -54,7 +50,6 @@ import com.microfocus.application.automation.tools.common.SSEException;
 import com.microfocus.application.automation.tools.sse.sdk.Client;
 import com.microfocus.application.automation.tools.sse.sdk.ResourceAccessLevel;
 import com.microfocus.application.automation.tools.sse.sdk.Response;
-import hudson.ProxyConfiguration;
 
 import com.microfocus.application.automation.tools.sse.sdk.HttpRequestDecorator;
 
@@ -68,44 +63,25 @@ import com.microfocus.adm.performancecenter.plugins.common.rest.RESTConstants;
  */
 public class RestClient implements Client {
 
+    /**
+     * Sends the requests over pooled keep-alive connections. false opens a new connection per request, as before.
+     */
+    private static final boolean POOLED_TRANSPORT =
+            Boolean.parseBoolean(System.getProperty("RestClient.PooledTransport", "true"));
+
     private final String _serverUrl;
-    protected Map<String, String> _cookies = new HashMap<String, String>();
+    protected Map<String, String> _cookies = new ConcurrentHashMap<String, String>();
     private final String _restPrefix;
     private final String _webuiPrefix;
     private final String _username;
     private final String XSRF_TOKEN_VALUE;
+    private final HttpTransport _transport;
 
     /**
      * Configure SSL context for the client.
      */
     static {
-        // First create a trust manager that won't care.
-        X509TrustManager trustManager = new X509TrustManager() {
-            @Override
-            public void checkClientTrusted(X509Certificate[] chain, String authType) throws CertificateException {
-                // Don't do anything.
-            }
-            @Override
-            public void checkServerTrusted(X509Certificate[] chain, String authType) throws CertificateException {
-                // Don't do anything.
-            }
-            @Override
-            public X509Certificate[] getAcceptedIssuers() {
-                // Don't do anything.
-                return null;
-            }
-
-        };
-        // Now put the trust manager into an SSLContext.
-        SSLContext sslcontext;
-        try {
-            sslcontext = SSLContext.getInstance("SSL");
-            sslcontext.init(null, new TrustManager[] { trustManager }, null);
-        } catch (KeyManagementException | NoSuchAlgorithmException e) {
-            throw new SSEException(e);
-        }
-        
-        HttpsURLConnection.setDefaultSSLSocketFactory(sslcontext.getSocketFactory());
+        HttpsURLConnection.setDefaultSSLSocketFactory(createTrustAllSslContext().getSocketFactory());
         
         //Ignore hostname verify
         HttpsURLConnection.setDefaultHostnameVerifier(
@@ -121,6 +97,14 @@ public class RestClient implements Client {
      * Constructor for setting rest client properties.
      */
     public RestClient(String url, String domain, String project, String username) {
+        this(url, domain, project, username, null);
+    }
+
+    /**
+     * Constructor for setting rest client properties and the transport of its requests.
+     * @param transport sends the requests, null for the default one
+     */
+    public RestClient(String url, String domain, String project, String username, HttpTransport transport) {
 
         if (!url.endsWith("/")) {
             url = String.format("%s/", url);
@@ -136,6 +120,43 @@ public class RestClient implements Client {
 
         XSRF_TOKEN_VALUE = UUID.randomUUID().toString();
         _cookies.put("XSRF-TOKEN", XSRF_TOKEN_VALUE);
+
+        if (transport == null) {
+            transport = POOLED_TRANSPORT ? new PooledHttpTransport(_serverUrl) : new UrlConnectionTransport();
+        }
+        _transport = transport;
+    }
+
+    /**
+     * Trust manager that won't care, put into an SSLContext.
+     */
+    static SSLContext createTrustAllSslContext() {
+        // First create a trust manager that won't care.
+        X509TrustManager trustManager = new X509TrustManager() {
+            @Override
+            public void checkClientTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+                // Don't do anything.
+            }
+            @Override
+            public void checkServerTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+                // Don't do anything.
+            }
+            @Override
+            public X509Certificate[] getAcceptedIssuers() {
+                // Don't do anything.
+                return null;
+            }
+
+        };
+        // Now put the trust manager into an SSLContext.
+        SSLContext sslcontext;
+        try {
+            sslcontext = SSLContext.getInstance("SSL");
+            sslcontext.init(null, new TrustManager[] { trustManager }, null);
+        } catch (KeyManagementException | NoSuchAlgorithmException e) {
+            throw new SSEException(e);
+        }
+        return sslcontext;
     }
 
     public String getXsrfTokenValue() {
@@ -263,9 +284,6 @@ public class RestClient implements Client {
             url += "?" + queryString;
         }
         try {
-            HttpURLConnection connection = (HttpURLConnection)ProxyConfiguration.open(new URL(url));
-            connection.setRequestMethod(type);
-
             Map<String, String> decoratedHeaders = new HashMap<String, String>();
             if (headers != null) {
                 decoratedHeaders.putAll(headers);
@@ -276,110 +294,17 @@ public class RestClient implements Client {
                     getUsername(),
                     resourceAccessLevel);
 
-            prepareHttpRequest(connection, decoratedHeaders, data);
-            connection.connect();
-            ret = retrieveHtmlResponse(connection);
-            updateCookies(ret);
-        } catch (Exception cause) {
-            throw new SSEException(cause);
-        }
-
-        return ret;
-    }
-
-    /**
-     * Prepare http request
-     */
-    private void prepareHttpRequest(
-            HttpURLConnection connnection,
-            Map<String, String> headers,
-            byte[] bytes) {
-
-        // set all cookies for request
-        connnection.setRequestProperty(RESTConstants.COOKIE, getCookiesString());
-
-        setConnectionHeaders(connnection, headers);
-
-        setConnectionData(connnection, bytes);
-    }
-
-    /**
-     * Set connection data
-     */
-    private void setConnectionData(HttpURLConnection connnection, byte[] bytes) {
-
-        if (bytes != null && bytes.length > 0) {
-            connnection.setDoOutput(true);
-            try {
-                OutputStream out = connnection.getOutputStream();
-                out.write(bytes);
-                out.flush();
-                out.close();
-            } catch (Exception cause) {
-                throw new SSEException(cause);
-            }
-        }
-    }
-
-    /**
-     * Set connection headers
-     */
-    private void setConnectionHeaders(HttpURLConnection connnection, Map<String, String> headers) {
-
-        if (headers != null) {
-            Iterator<Entry<String, String>> headersIterator = headers.entrySet().iterator();
-            while (headersIterator.hasNext()) {
-                Entry<String, String> header = headersIterator.next();
-                connnection.setRequestProperty(header.getKey(), header.getValue());
-            }
-        }
-    }
-
-    /**
-     * Retrieve Html Response
-     * @param connection
-     *            that is already connected to its url with an http request, and that should contain
-     *            a response for us to retrieve
-     * @return a response from the server to the previously submitted http request
-     */
-    private Response retrieveHtmlResponse(HttpURLConnection connection) {
+            // set all cookies for request
+            decoratedHeaders.put(RESTConstants.COOKIE, getCookiesString());
 
-        Response ret = new Response();
-
-        try {
-            ret.setStatusCode(connection.getResponseCode());
-            ret.setHeaders(connection.getHeaderFields());
+            ret = _transport.execute(type, url, decoratedHeaders, data);
+            updateCookies(ret);
+        } catch (SSEException e) {
+            throw e;
         } catch (Exception cause) {
             throw new SSEException(cause);
         }
 
-        InputStream inputStream;
-        // select the source of the input bytes, first try 'regular' input
-        try {
-            inputStream = connection.getInputStream();
-        }
-        // if the connection to the server somehow failed, for example 404 or 500,
-        // con.getInputStream() will throw an exception, which we'll keep.
-        // we'll also store the body of the exception page, in the response data. */
-        catch (Exception e) {
-            inputStream = connection.getErrorStream();
-            ret.setFailure(e);
-        }
-
-        // this takes data from the previously set stream (error or input)
-        // and stores it in a byte[] inside the response
-        ByteArrayOutputStream container = new ByteArrayOutputStream();
-        byte[] buf = new byte[1024];
-        int read;
-        try {
-            while ((read = inputStream.read(buf, 0, 1024)) > 0) {
-                container.write(buf, 0, read);
-            }
-            ret.setData(container.toByteArray());
-        } catch (Exception ex) {
-            throw new SSEException(ex);
-        }
-
         return ret;
     }
 
@@ -388,13 +313,19 @@ public class RestClient implements Client {
      */
     private void updateCookies(Response response) {
 
-        Iterable<String> newCookies = response.getHeaders().get(RESTConstants.SET_COOKIE);
-        if (newCookies != null) {
+        List<String> newCookies = response.getHeaders() == null
+                ? null
+                : response.getHeaders().get(RESTConstants.SET_COOKIE);
+        if (newCookies != null && !newCookies.isEmpty()) {
             for (String cookie : newCookies) {
                 int equalIndex = cookie.indexOf('=');
                 int semicolonIndex = cookie.indexOf(';');
+                if (equalIndex < 0) {
+                    continue;
+                }
                 String cookieKey = cookie.substring(0, equalIndex);
-                String cookieValue = cookie.substring(equalIndex + 1, semicolonIndex);
+                String cookieValue = cookie.substring(equalIndex + 1,
+                        semicolonIndex < 0 ? cookie.length() : semicolonIndex);
                 _cookies.put(cookieKey, cookieValue);
             }
         }
@@ -405,10 +336,8 @@ public class RestClient implements Client {
      */
     private String getCookiesString() {
         StringBuilder ret = new StringBuilder();
-        if (!_cookies.isEmpty()) {
-            for (Entry<String, String> entry : _cookies.entrySet()) {
-                ret.append(entry.getKey()).append("=").append(entry.getValue()).append(";");
-            }
+        for (Entry<String, String> entry : _cookies.entrySet()) {
+            ret.append(entry.getKey()).append("=").append(entry.getValue()).append(";");
         }
 
         return ret.toString();
@@ -426,4 +355,11 @@ public class RestClient implements Client {
     public Map<String, String> getCookies() {
         return _cookies;
     }
+
+    /**
+     * Get a summary of the requests sent by this client and of the connections they used, for the build log.
+     */
+    public String getTransportStatistics() {
+        return _transport.getStatistics();
+    }
 }
@@ -41,17 +41,19 @@ import com.microfocus.application.automation.tools.results.projectparser.perform
 import hudson.model.Action;
 import hudson.model.Job;
 import hudson.model.Run;
-import hudson.util.RunList;
 import net.sf.json.JSONArray;
 import net.sf.json.JSONObject;
 import org.kohsuke.stapler.bind.JavaScriptMethod;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import static com.microfocus.application.automation.tools.results.projectparser.performance.JobLrScenarioResult
@@ -70,6 +72,20 @@ public class PerformanceProjectAction implements Action {
     private static final Logger LOGGER = Logger
             .getLogger(PerformanceProjectAction.class.getName());
     private static final int MAX_DISPLAY_BUILDS = 20;
+    /**
+     * Number of the job's last builds with LoadRunner results read from the trend index.
+     */
+    private static final int TREND_ENTRIES = Integer.getInteger("PerformanceProjectAction.TrendEntries", 100);
+    private static final int MAX_CACHED_JOBS = 50;
+    /**
+     * Joined results per job, valid as long as neither the last build nor the trend index have changed.
+     */
+    private static final Map<String, CachedTrend> TREND_CACHE = new LinkedHashMap<String, CachedTrend>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedTrend> eldest) {
+            return size() > MAX_CACHED_JOBS;
+        }
+    };
     /**
      * The Current project.
      */
@@ -123,11 +139,24 @@ public class PerformanceProjectAction implements Action {
      */
     @JavaScriptMethod
     public JSONObject getGraphData() {
-        JSONObject projectDataSet = new JSONObject();
         if (_projectResult == null) {
 //            getUpdatedData();
             return new JSONObject();
         }
+        CachedTrend cachedTrend = getCachedTrend();
+        if (cachedTrend != null && cachedTrend.result == _projectResult) {
+            synchronized (cachedTrend) {
+                if (cachedTrend.graphData == null) {
+                    cachedTrend.graphData = buildGraphData();
+                }
+                return cachedTrend.graphData;
+            }
+        }
+        return buildGraphData();
+    }
+
+    private JSONObject buildGraphData() {
+        JSONObject projectDataSet = new JSONObject();
 
 
         for (SortedMap.Entry<String, LrProjectScenarioResults> scenarioResults : _projectResult.getScenarioResults()
@@ -233,24 +262,30 @@ public class PerformanceProjectAction implements Action {
             return;
         }
 
+        CachedTrend cachedTrend = getCachedTrend();
+        if (cachedTrend != null) {
+            this._projectResult = cachedTrend.result;
+            this._workedBuilds = cachedTrend.workedBuilds;
+            return;
+        }
+
         this._projectResult = new ProjectLrResults();
 
         _workedBuilds = new ArrayList<Integer>();
 
-        RunList<? extends Run> projectBuilds = currentProject.getBuilds();
+        PerformanceTrendIndex trendIndex = PerformanceTrendIndex.of(currentProject);
+        List<Map.Entry<Integer, LrJobResults>> projectBuilds;
+        try {
+            projectBuilds = trendIndex.read(currentProject, TREND_ENTRIES);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to read the LoadRunner trend index of " + currentProject.getFullName(), e);
+            return;
+        }
 
         // updateLastBuild();
 
-        for (Run run : projectBuilds) {
-            PerformanceJobReportAction performanceJobReportAction = run.getAction(PerformanceJobReportAction.class);
-            if (performanceJobReportAction == null) {
-                continue;
-            }
-            if (run.isBuilding()) {
-                continue;
-            }
-
-            int runNumber = run.getNumber();
+        for (Map.Entry<Integer, LrJobResults> build : projectBuilds) {
+            int runNumber = build.getKey();
             if (_workedBuilds.contains(runNumber)) {
                 continue;
             }
@@ -258,7 +293,7 @@ public class PerformanceProjectAction implements Action {
 
 
             _workedBuilds.add(runNumber);
-            LrJobResults jobLrResult = performanceJobReportAction.getLrResultBuildDataset();
+            LrJobResults jobLrResult = build.getValue();
 
             // get all the ran scenario results from this run and insert them into the project
             for (Map.Entry<String, JobLrScenarioResult> runResult : jobLrResult.getLrScenarioResults().entrySet()) {
@@ -289,6 +324,45 @@ public class PerformanceProjectAction implements Action {
             }
 
         }
+
+        synchronized (TREND_CACHE) {
+            TREND_CACHE.put(currentProject.getFullName(),
+                    new CachedTrend(getLastBuildNumber(), trendIndex.length(), _projectResult, _workedBuilds));
+        }
+    }
+
+    private int getLastBuildNumber() {
+        Run<?, ?> lastBuild = currentProject.getLastBuild();
+        return lastBuild == null ? -1 : lastBuild.getNumber();
+    }
+
+    private CachedTrend getCachedTrend() {
+        CachedTrend cachedTrend;
+        synchronized (TREND_CACHE) {
+            cachedTrend = TREND_CACHE.get(currentProject.getFullName());
+        }
+        if (cachedTrend == null
+                || cachedTrend.lastBuildNumber != getLastBuildNumber()
+                || cachedTrend.indexLength != PerformanceTrendIndex.of(currentProject).length()) {
+            return null;
+        }
+        return cachedTrend;
+    }
+
+    private static final class CachedTrend {
+        private final int lastBuildNumber;
+        private final long indexLength;
+        private final ProjectLrResults result;
+        private final ArrayList<Integer> workedBuilds;
+        private JSONObject graphData;
+
+        private CachedTrend(int lastBuildNumber, long indexLength, ProjectLrResults result,
+                            ArrayList<Integer> workedBuilds) {
+            this.lastBuildNumber = lastBuildNumber;
+            this.indexLength = indexLength;
+            this.result = result;
+            this.workedBuilds = workedBuilds;
+        }
     }
 
     private void joinDurationStats(int runNumber, LrProjectScenarioResults lrProjectScenarioResults,
@@ -0,0 +1,306 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.results;
+
+import com.microfocus.application.automation.tools.results.projectparser.performance.LrJobResults;
+import hudson.Extension;
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+
+import javax.annotation.Nonnull;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Append-only file in the job directory holding the LoadRunner results of the job's builds,
+ * one record per completed build, so the project report reads the last builds from a single file
+ * instead of loading every build of the job.
+ * <p>
+ * Record layout: payload length, record type, build number, payload (the build's {@link LrJobResults}
+ * as XML), and the payload length again so the file can be read backwards from its end.
+ * A deleted build gets a tombstone record.
+ */
+public final class PerformanceTrendIndex {
+
+    private static final Logger LOGGER = Logger.getLogger(PerformanceTrendIndex.class.getName());
+    private static final String FILE_NAME = "lrTrendIndex.dat";
+    private static final int MAGIC = 0x4C525449;
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 9;
+    private static final int RECORD_TRAILER_SIZE = 4;
+    private static final byte TYPE_BUILD = 1;
+    private static final byte TYPE_DELETED = 2;
+    private static final Map<String, PerformanceTrendIndex> INDEXES = new ConcurrentHashMap<>();
+
+    private final File file;
+
+    private PerformanceTrendIndex(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Gets the index of a job.
+     *
+     * @param job the job
+     * @return the index, which may not exist on disk yet
+     */
+    public static PerformanceTrendIndex of(Job<?, ?> job) {
+        File file = new File(job.getRootDir(), FILE_NAME);
+        PerformanceTrendIndex index = INDEXES.get(file.getAbsolutePath());
+        if (index == null) {
+            index = new PerformanceTrendIndex(file);
+            PerformanceTrendIndex existing = INDEXES.putIfAbsent(file.getAbsolutePath(), index);
+            if (existing != null) {
+                index = existing;
+            }
+        }
+        return index;
+    }
+
+    public synchronized boolean exists() {
+        return file.exists();
+    }
+
+    /**
+     * Size of the index, which changes with every record; used to tell whether cached trends are still valid.
+     */
+    public synchronized long length() {
+        return file.length();
+    }
+
+    /**
+     * Creates the index of a job that has none yet from its last builds having LoadRunner results.
+     *
+     * @param job        the job
+     * @param maxEntries the number of builds to index
+     */
+    public synchronized void create(Job<?, ?> job, int maxEntries) throws IOException {
+        if (file.exists()) {
+            return;
+        }
+
+        List<Run<?, ?>> runs = new ArrayList<>();
+        for (Run<?, ?> run : job.getBuilds()) {
+            if (runs.size() >= maxEntries) {
+                break;
+            }
+            if (!run.isBuilding() && run.getAction(PerformanceJobReportAction.class) != null) {
+                runs.add(run);
+            }
+        }
+        Collections.reverse(runs);
+
+        File tmp = new File(file.getParentFile(), FILE_NAME + ".tmp");
+        try (RandomAccessFile raf = new RandomAccessFile(tmp, "rw")) {
+            raf.setLength(0);
+            raf.writeInt(MAGIC);
+            raf.writeInt(VERSION);
+            for (Run<?, ?> run : runs) {
+                raf.write(record(TYPE_BUILD, run.getNumber(),
+                        run.getAction(PerformanceJobReportAction.class).getLrResultBuildDataset()));
+            }
+        }
+        if (!tmp.renameTo(file)) {
+            throw new IOException("Failed to create " + file);
+        }
+    }
+
+    /**
+     * Adds the results of a completed build. Nothing is done while the index does not exist,
+     * it will include the build when it is created.
+     */
+    public synchronized void append(int buildNumber, LrJobResults results) throws IOException {
+        appendRecord(TYPE_BUILD, buildNumber, results);
+    }
+
+    /**
+     * Marks a build as deleted.
+     */
+    public synchronized void remove(int buildNumber) throws IOException {
+        appendRecord(TYPE_DELETED, buildNumber, null);
+    }
+
+    /**
+     * Reads the results of the last builds of a job, newest first, creating the index when needed.
+     * A corrupted index is created again from the builds.
+     *
+     * @param job        the job
+     * @param maxEntries the number of builds to read
+     * @return the build numbers and their results
+     */
+    public synchronized List<Map.Entry<Integer, LrJobResults>> read(Job<?, ?> job, int maxEntries) throws IOException {
+        create(job, maxEntries);
+        List<Map.Entry<Integer, LrJobResults>> ret = readLast(maxEntries);
+        if (!file.exists()) {
+            create(job, maxEntries);
+            ret = readLast(maxEntries);
+        }
+        return ret;
+    }
+
+    /**
+     * Reads the results of the last builds, newest first.
+     * A corrupted index is dropped, the records read before the corruption are returned.
+     *
+     * @param maxEntries the number of builds to read
+     * @return the build numbers and their results
+     */
+    public synchronized List<Map.Entry<Integer, LrJobResults>> readLast(int maxEntries) throws IOException {
+        List<Map.Entry<Integer, LrJobResults>> ret = new ArrayList<>();
+        if (!file.exists()) {
+            return ret;
+        }
+
+        Set<Integer> skipped = new HashSet<>();
+        boolean corrupted = false;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            long end = raf.length();
+            corrupted = end < FILE_HEADER_SIZE || raf.readInt() != MAGIC || raf.readInt() != VERSION;
+            while (!corrupted && end > FILE_HEADER_SIZE && ret.size() < maxEntries) {
+                raf.seek(end - RECORD_TRAILER_SIZE);
+                int length = raf.readInt();
+                long start = end - RECORD_TRAILER_SIZE - length - RECORD_HEADER_SIZE;
+                if (length < 0 || start < FILE_HEADER_SIZE) {
+                    corrupted = true;
+                    break;
+                }
+                raf.seek(start);
+                if (raf.readInt() != length) {
+                    corrupted = true;
+                    break;
+                }
+                byte type = raf.readByte();
+                int buildNumber = raf.readInt();
+                if (type == TYPE_BUILD && skipped.add(buildNumber)) {
+                    byte[] payload = new byte[length];
+                    raf.readFully(payload);
+                    LrJobResults results;
+                    try {
+                        results = (LrJobResults) Run.XSTREAM2.fromXML(new String(payload, StandardCharsets.UTF_8));
+                    } catch (RuntimeException e) {
+                        LOGGER.log(Level.FINE, "Unreadable record of build " + buildNumber + " in " + file, e);
+                        corrupted = true;
+                        break;
+                    }
+                    ret.add(new AbstractMap.SimpleImmutableEntry<>(buildNumber, results));
+                } else if (type == TYPE_BUILD || type == TYPE_DELETED) {
+                    // a tombstone hides the older record of the same build
+                    skipped.add(buildNumber);
+                } else {
+                    corrupted = true;
+                    break;
+                }
+                end = start;
+            }
+        } catch (EOFException e) {
+            corrupted = true;
+        }
+
+        if (corrupted) {
+            // e.g. a crash while appending; the index is created again from the builds
+            LOGGER.log(Level.WARNING, "Dropping corrupted LoadRunner trend index " + file);
+            if (!file.delete()) {
+                LOGGER.log(Level.WARNING, "Failed to delete " + file);
+            }
+        }
+        return ret;
+    }
+
+    private void appendRecord(byte type, int buildNumber, LrJobResults results) throws IOException {
+        if (!file.exists()) {
+            return;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length());
+            raf.write(record(type, buildNumber, results));
+        }
+    }
+
+    private static byte[] record(byte type, int buildNumber, LrJobResults results) {
+        byte[] payload = results == null
+                ? new byte[0]
+                : Run.XSTREAM2.toXML(results).getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.length + RECORD_TRAILER_SIZE);
+        buffer.putInt(payload.length);
+        buffer.put(type);
+        buffer.putInt(buildNumber);
+        buffer.put(payload);
+        buffer.putInt(payload.length);
+        return buffer.array();
+    }
+
+    /**
+     * Keeps the indexes of the jobs up to date with their builds.
+     */
+    @Extension
+    public static class Updater extends RunListener<Run<?, ?>> {
+
+        @Override
+        public void onCompleted(Run<?, ?> run, @Nonnull TaskListener listener) {
+            PerformanceJobReportAction action = run.getAction(PerformanceJobReportAction.class);
+            if (action == null) {
+                return;
+            }
+            try {
+                PerformanceTrendIndex.of(run.getParent()).append(run.getNumber(), action.getLrResultBuildDataset());
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to add " + run + " to the LoadRunner trend index", e);
+            }
+        }
+
+        @Override
+        public void onDeleted(Run<?, ?> run) {
+            if (run.getAction(PerformanceJobReportAction.class) == null) {
+                return;
+            }
+            try {
+                PerformanceTrendIndex.of(run.getParent()).remove(run.getNumber());
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to remove " + run + " from the LoadRunner trend index", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.results;
+
+import hudson.FilePath;
+import hudson.model.Computer;
+import hudson.remoting.FastPipedInputStream;
+import hudson.remoting.FastPipedOutputStream;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import org.apache.commons.io.input.CountingInputStream;
+import org.apache.commons.io.output.CountingOutputStream;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Moves report folders from the node that ran the tests to the controller as a zip stream.
+ * The zip is written straight into the target file, or extracted entry by entry while it arrives,
+ * so the memory used does not depend on the size of the report.
+ */
+final class ReportFolderTransfer {
+
+	private static final double MB = 1024 * 1024;
+
+	private ReportFolderTransfer() {
+	}
+
+	/**
+	 * Zips the source folder into the target file.
+	 *
+	 * @return the size of the zip
+	 */
+	static long zipTo(FilePath source, FilePath target, PrintStream logger) throws IOException, InterruptedException {
+		long start = System.nanoTime();
+		CountingOutputStream out = new CountingOutputStream(target.write());
+		try {
+			// don't use FileFilter for zip, or it will cause bug when files are on slave
+			source.zip(out);
+		} finally {
+			out.close();
+		}
+		logThroughput(logger, source, out.getByteCount(), start);
+		return out.getByteCount();
+	}
+
+	/**
+	 * Zips the source folder and extracts it into the target directory, like zipping it to a file and unzipping
+	 * that file would, without the intermediate file.
+	 *
+	 * @return the number of zipped bytes received
+	 */
+	static long extractTo(final FilePath source, File targetDir, PrintStream logger) throws IOException, InterruptedException {
+		long start = System.nanoTime();
+		FastPipedInputStream in = new FastPipedInputStream();
+		final FastPipedOutputStream out = new FastPipedOutputStream(in);
+		Future<Void> zipping = Computer.threadPoolForRemoting.submit(new Callable<Void>() {
+			@Override
+			public Void call() throws Exception {
+				try {
+					source.zip(out);
+				} finally {
+					out.close();
+				}
+				return null;
+			}
+		});
+
+		CountingInputStream counting = new CountingInputStream(in);
+		try (ZipInputStream zip = new ZipInputStream(counting)) {
+			extract(zip, targetDir);
+			// read the central directory too, so the zipping side is not cut off before it finishes
+			drain(counting);
+		} catch (IOException e) {
+			zipping.cancel(true);
+			throw e;
+		}
+
+		try {
+			zipping.get();
+		} catch (ExecutionException e) {
+			throw new IOException("Failed to zip " + source, e.getCause());
+		}
+		logThroughput(logger, source, counting.getByteCount(), start);
+		return counting.getByteCount();
+	}
+
+	private static void extract(ZipInputStream zip, File targetDir) throws IOException {
+		String root = targetDir.getCanonicalPath() + File.separator;
+		ZipEntry entry;
+		while ((entry = zip.getNextEntry()) != null) {
+			File target = new File(targetDir, entry.getName());
+			if (!target.getCanonicalPath().startsWith(root)) {
+				throw new IOException("Zip entry is outside of the target directory: " + entry.getName());
+			}
+			if (entry.isDirectory()) {
+				target.mkdirs();
+				continue;
+			}
+			target.getParentFile().mkdirs();
+			Files.copy(zip, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			if (entry.getTime() >= 0) {
+				target.setLastModified(entry.getTime());
+			}
+		}
+	}
+
+	private static void drain(InputStream in) throws IOException {
+		byte[] buffer = new byte[8192];
+		while (in.read(buffer) >= 0) {
+			// discard
+		}
+	}
+
+	private static void logThroughput(PrintStream logger, FilePath source, long bytes, long startNanos) {
+		double seconds = (System.nanoTime() - startNanos) / 1e9;
+		double megabytes = bytes / MB;
+		logger.println(String.format("Transferred %s: %.1f MB in %.1f s (%.1f MB/s)",
+				source.getRemote(), megabytes, seconds, seconds > 0 ? megabytes / seconds : megabytes));
+	}
+
+	/**
+	 * Runs the archive transfers of a build inline, or on a few threads when more than one is configured.
+	 */
+	static final class Transfers {
+
+		private final ExecutorService executor;
+		private final PrintStream logger;
+		private final List<Future<Long>> pending = new ArrayList<Future<Long>>();
+
+		Transfers(int threads, PrintStream logger) {
+			this.logger = logger;
+			this.executor = threads > 1
+					? Executors.newFixedThreadPool(threads, new NamingThreadFactory(new DaemonThreadFactory(), "RunResultRecorder.transfer"))
+					: null;
+		}
+
+		void zipTo(final FilePath source, final FilePath target) throws IOException, InterruptedException {
+			if (executor == null) {
+				ReportFolderTransfer.zipTo(source, target, logger);
+				return;
+			}
+			pending.add(executor.submit(new Callable<Long>() {
+				@Override
+				public Long call() throws Exception {
+					return ReportFolderTransfer.zipTo(source, target, logger);
+				}
+			}));
+		}
+
+		/**
+		 * Waits for all the transfers; the first failure is rethrown once all of them are done.
+		 */
+		void await() throws IOException, InterruptedException {
+			IOException failure = null;
+			for (Future<Long> transfer : pending) {
+				try {
+					transfer.get();
+				} catch (ExecutionException e) {
+					if (failure == null) {
+						failure = e.getCause() instanceof IOException
+								? (IOException) e.getCause()
+								: new IOException(e.getCause());
+					}
+				}
+			}
+			pending.clear();
+			if (failure != null) {
+				throw failure;
+			}
+		}
+
+		void shutdown() {
+			if (executor != null) {
+				executor.shutdownNow();
+			}
+		}
+	}
+}
@@ -73,6 +73,7 @@ import javax.annotation.Nonnull;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
@@ -118,6 +119,14 @@ public class RunResultRecorder extends Recorder implements Serializable, MatrixA
 	private static final String REPORT_ARCHIVE_SUFFIX = "_Report.zip";
 	private static final String RUN_RESULTS_XML = "run_results.xml";
 	private static final String RESULT = "Result";
+	/**
+	 * Number of report folders archived in parallel, e.g. one per LoadRunner scenario. 1 archives them one by one.
+	 */
+	private static final int TRANSFER_THREADS = Integer.getInteger("RunResultRecorder.TransferThreads", 1);
+	/**
+	 * Parses RunReport.xml into a DOM tree instead of streaming it, as before. Needs the whole report in memory.
+	 */
+	private static final boolean DOM_RUN_REPORT_PARSER = Boolean.getBoolean("RunResultRecorder.DomRunReportParser");
 
 	private final ResultsPublisherModel _resultsPublisherModel;
 	private List<FilePath> runReportList;
@@ -321,10 +330,22 @@ public class RunResultRecorder extends Recorder implements Serializable, MatrixA
 	 * @throws IOException
 	 * @throws InterruptedException
 	 */
-	@SuppressWarnings({ "squid:S134", "squid:S135" })
 	private void archiveTestsReport(Run<?, ?> build, TaskListener listener, List<String> resultFiles,
 	                                TestResult testResult, FilePath runWorkspace)
 			throws ParserConfigurationException, SAXException, IOException, InterruptedException {
+		ReportFolderTransfer.Transfers transfers = new ReportFolderTransfer.Transfers(TRANSFER_THREADS, listener.getLogger());
+		try {
+			archiveTestsReport(build, listener, resultFiles, testResult, runWorkspace, transfers);
+			transfers.await();
+		} finally {
+			transfers.shutdown();
+		}
+	}
+
+	@SuppressWarnings({ "squid:S134", "squid:S135" })
+	private void archiveTestsReport(Run<?, ?> build, TaskListener listener, List<String> resultFiles,
+	                                TestResult testResult, FilePath runWorkspace, ReportFolderTransfer.Transfers transfers)
+			throws ParserConfigurationException, SAXException, IOException, InterruptedException {
 
 		if ((resultFiles == null) || (resultFiles.isEmpty())) { return; }
 
@@ -427,13 +448,13 @@ public class RunResultRecorder extends Recorder implements Serializable, MatrixA
 						String zipFileName = getUniqueZipFileNameInFolder(zipFileNames, testFolder.getName(), "LR");
 						FilePath archivedFile = new FilePath(new FilePath(artifactsDir), zipFileName);
 
-						if (archiveFolder(reportFolder, testStatus, archivedFile, listener)) {
+						if (archiveFolder(reportFolder, testStatus, archivedFile, listener, transfers)) {
 							zipFileNames.add(zipFileName);
 						}
 
 						createRichReports(reportFolder, testFolderPath, artifactsDir, reportNames, testResult,
 								listener);
-						createHtmlReport(reportFolder, testFolderPath, artifactsDir, reportNames, testResult);
+						createHtmlReport(reportFolder, testFolderPath, artifactsDir, reportNames, testResult, listener);
 						createTransactionSummary(reportFolder, testFolderPath, artifactsDir, reportNames, testResult);
 						try {
 							FilePath testSla = copyRunReport(reportFolder, build.getRootDir(), testFolder.getName());
@@ -549,25 +570,8 @@ public class RunResultRecorder extends Recorder implements Serializable, MatrixA
 								FilePath testFolder = new FilePath(channel, testFolderPath);
 								String zipFileName = getUniqueZipFileNameInFolder(zipFileNames, (StringUtils.isBlank(nodeName) ? "" : nodeName + "_") + testFolder.getName(), "UFT");
 								zipFileNames.add(zipFileName);
-								ByteArrayOutputStream outstr = new ByteArrayOutputStream();
-
-								// don't use FileFilter for zip, or it will cause bug when files are on slave
-								reportFolder.zip(outstr);
-
-								/*
-								 * I did't use copyRecursiveTo or copyFrom due to bug in
-								 * jekins:https://issues.jenkins-ci.org/browse /JENKINS-9189 //(which is
-								 * cleaimed to have been fixed, but not. So I zip the folder to stream and copy
-								 * it to the master.
-								 */
-
-								ByteArrayInputStream instr = new ByteArrayInputStream(outstr.toByteArray());
-
 								FilePath archivedFile = new FilePath(new FilePath(artifactsDir), zipFileName);
-								archivedFile.copyFrom(instr);
-
-								outstr.close();
-								instr.close();
+								transfers.zipTo(reportFolder, archivedFile);
 
 								// add to Report list
 								String zipFileUrlName = "artifact/" + zipFileName;
@@ -696,7 +700,7 @@ public class RunResultRecorder extends Recorder implements Serializable, MatrixA
 						String testFolderPath = dir.getPath().substring(0, dir.getPath().lastIndexOf('\\'));
 						String stResPath = new File(testFolderPath, subdir).getAbsolutePath();
 						if (UftToolUtils.getFilePath(nodeName, stResPath).exists()) {
-							archiveAndCopyReportFolder(runWorkspace, reportDir, stResPath);
+							archiveAndCopyReportFolder(runWorkspace, reportDir, stResPath, listener);
 						}
 					}
 				} catch (Exception e){
@@ -705,7 +709,7 @@ public class RunResultRecorder extends Recorder implements Serializable, MatrixA
 				//for example:  C:\Program Files (x86)\Jenkins\workspace\job_name
 
 				// archive and copy to the subdirs of master
-				archiveAndCopyReportFolder(runWorkspace, reportDir, htmlReportDir);
+				archiveAndCopyReportFolder(runWorkspace, reportDir, htmlReportDir, listener);
 				// zip copy and unzip
 				// now,all the files are in the C:\Program Files (x86)
 				// \Jenkins\jobs\testAction\builds\35\archive\UFTReport\Report
@@ -756,29 +760,11 @@ public class RunResultRecorder extends Recorder implements Serializable, MatrixA
 		return true;
 	}
 
-	private void archiveAndCopyReportFolder(FilePath runWorkspace, File reportDir, String htmlReportDir) throws IOException, InterruptedException {
-		FilePath rootTarget = new FilePath(reportDir);
-
+	private void archiveAndCopyReportFolder(FilePath runWorkspace, File reportDir, String htmlReportDir, TaskListener listener) throws IOException, InterruptedException {
 		FilePath source  = new FilePath(runWorkspace, htmlReportDir);
 
-		ByteArrayOutputStream outStr = new ByteArrayOutputStream();
-		source.zip(outStr);
-
-		ByteArrayInputStream inStr= new ByteArrayInputStream(outStr.toByteArray());
-		String zipFileName = "UFT_Report_HTML_tmp.zip";
-		FilePath archivedFile = new FilePath(rootTarget, zipFileName);
-
-		//copy from slave to master
-		archivedFile.copyFrom(inStr);
-
-		// end zip copy and unzip
-		archivedFile.unzip(rootTarget);
-
-		//delete temporary archive UFT_Report_HTML_tmp.zip
-		archivedFile.delete();
-
-		outStr.close();
-		inStr.close();
+		// zip on the slave and unzip on the master while the zip is streamed
+		ReportFolderTransfer.extractTo(source, reportDir, listener.getLogger());
 	}
 
 	/**
@@ -796,24 +782,13 @@ public class RunResultRecorder extends Recorder implements Serializable, MatrixA
 			throws IOException, InterruptedException {
 		FilePath slaReportFilePath = new FilePath(reportFolder, "RunReport.xml");
 		if (slaReportFilePath.exists()) {
-			ByteArrayOutputStream baos = new ByteArrayOutputStream();
-			slaReportFilePath.zip(baos);
 			File slaDirectory = new File(buildDir, "RunReport");
 			if (!slaDirectory.exists()) {
 				slaDirectory.mkdir();
 			}
-			ByteArrayInputStream bais = new ByteArrayInputStream(baos.toByteArray());
 			FilePath slaDirectoryFilePath = new FilePath(slaDirectory);
-			FilePath tmpZipFile = new FilePath(slaDirectoryFilePath, "runReport.zip");
-			tmpZipFile.copyFrom(bais);
-			bais.close();
-			baos.close();
-			tmpZipFile.unzip(slaDirectoryFilePath);
-			FilePath slaFile = new FilePath(slaDirectoryFilePath, "RunReport.xml");
-			slaFile.getBaseName();
-			slaFile.renameTo(new FilePath(slaDirectoryFilePath, scenarioName + ".xml"));
-
-			slaFile = new FilePath(slaDirectoryFilePath, scenarioName + ".xml");
+			FilePath slaFile = new FilePath(slaDirectoryFilePath, scenarioName + ".xml");
+			slaReportFilePath.copyTo(slaFile);
 
 			return slaFile;
 		}
@@ -821,7 +796,7 @@ public class RunResultRecorder extends Recorder implements Serializable, MatrixA
 	}
 
 	private boolean archiveFolder(FilePath reportFolder, String testStatus, FilePath archivedFile,
-	                              TaskListener listener) throws IOException, InterruptedException {
+	                              TaskListener listener, ReportFolderTransfer.Transfers transfers) throws IOException, InterruptedException {
 		String archiveTestResultMode = _resultsPublisherModel.getArchiveTestResultsMode();
 		boolean archiveTestResult;
 
@@ -833,22 +808,13 @@ public class RunResultRecorder extends Recorder implements Serializable, MatrixA
 
 				listener.getLogger().println("Zipping report folder: " + reportFolder);
 
-				ByteArrayOutputStream outstr = new ByteArrayOutputStream();
-				reportFolder.zip(outstr);
-
 				/*
 				 * I did't use copyRecursiveTo or copyFrom due to bug in
 				 * jekins:https://issues.jenkins-ci.org/browse /JENKINS-9189 //(which is
 				 * cleaimed to have been fixed, but not. So I zip the folder to stream and copy
 				 * it to the master.
 				 */
-
-				ByteArrayInputStream instr = new ByteArrayInputStream(outstr.toByteArray());
-
-				archivedFile.copyFrom(instr);
-
-				outstr.close();
-				instr.close();
+				transfers.zipTo(reportFolder, archivedFile);
 				return true;
 			} else {
 				listener.getLogger().println("No report folder was found in: " + reportFolder);
@@ -885,7 +851,7 @@ public class RunResultRecorder extends Recorder implements Serializable, MatrixA
 	 */
 	@SuppressWarnings("squid:S134")
 	private void createHtmlReport(FilePath reportFolder, String testFolderPath, File artifactsDir,
-	                              List<String> reportNames, TestResult testResult) throws IOException, InterruptedException {
+	                              List<String> reportNames, TestResult testResult, TaskListener listener) throws IOException, InterruptedException {
 		String archiveTestResultMode = _resultsPublisherModel.getArchiveTestResultsMode();
 		boolean createReport = archiveTestResultMode.equals(ResultsPublisherModel.CreateHtmlReportResults.getValue());
 
@@ -895,23 +861,14 @@ public class RunResultRecorder extends Recorder implements Serializable, MatrixA
 			if (srcDirectoryFilePath.exists()) {
 				FilePath srcFilePath = new FilePath(srcDirectoryFilePath, IE_REPORT_FOLDER);
 				if (srcFilePath.exists()) {
-					ByteArrayOutputStream baos = new ByteArrayOutputStream();
-					srcFilePath.zip(baos);
 					File reportDirectory = new File(artifactsDir.getParent(), PERFORMANCE_REPORT_FOLDER);
 					if (!reportDirectory.exists()) {
 						reportDirectory.mkdir();
 					}
-					ByteArrayInputStream bais = new ByteArrayInputStream(baos.toByteArray());
-					FilePath reportDirectoryFilePath = new FilePath(reportDirectory);
-					FilePath tmpZipFile = new FilePath(reportDirectoryFilePath, "tmp.zip");
-					tmpZipFile.copyFrom(bais);
-					bais.close();
-					baos.close();
-					tmpZipFile.unzip(reportDirectoryFilePath);
+					ReportFolderTransfer.extractTo(srcFilePath, reportDirectory, listener.getLogger());
 					String newFolderName = org.apache.commons.io.FilenameUtils.getName(testFolderPathFile.getPath());
 					FileUtils.moveDirectory(new File(reportDirectory, IE_REPORT_FOLDER),
 							new File(reportDirectory, newFolderName));
-					tmpZipFile.delete();
 					outputReportFiles(reportNames, reportDirectory, testResult, "Performance Report",
 							HTML_REPORT_FOLDER);
 				}
@@ -1240,12 +1197,27 @@ public class RunResultRecorder extends Recorder implements Serializable, MatrixA
 
 	private JobLrScenarioResult parseScenarioResults(FilePath slaFilePath)
 			throws ParserConfigurationException, SAXException, IOException, InterruptedException {
-		JobLrScenarioResult jobLrScenarioResult = new JobLrScenarioResult(slaFilePath.getBaseName());
+		try (InputStream in = slaFilePath.read()) {
+			if (DOM_RUN_REPORT_PARSER) {
+				return parseScenarioResultsDom(in, slaFilePath.getBaseName());
+			}
+			return RunReportStaxParser.parse(in, slaFilePath.getBaseName());
+		} catch (XMLStreamException e) {
+			throw new SAXException(e);
+		}
+	}
+
+	/**
+	 * Former parsing of RunReport.xml into a DOM tree, kept as a fallback of {@link RunReportStaxParser}.
+	 */
+	static JobLrScenarioResult parseScenarioResultsDom(InputStream in, String scenarioName)
+			throws ParserConfigurationException, SAXException, IOException {
+		JobLrScenarioResult jobLrScenarioResult = new JobLrScenarioResult(scenarioName);
 
 		DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
 		DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
 
-		Document doc = dBuilder.parse(slaFilePath.read());
+		Document doc = dBuilder.parse(in);
 
 		processSLA(jobLrScenarioResult, doc);
 		processLrScenarioStats(jobLrScenarioResult, doc);
@@ -1253,7 +1225,7 @@ public class RunResultRecorder extends Recorder implements Serializable, MatrixA
 		return jobLrScenarioResult;
 	}
 
-	private void processLrScenarioStats(JobLrScenarioResult jobLrScenarioResult, Document doc) {
+	private static void processLrScenarioStats(JobLrScenarioResult jobLrScenarioResult, Document doc) {
 
 		NodeList rootNodes = doc.getChildNodes();
 		Node root = getNode("Runs", rootNodes);
@@ -1266,19 +1238,19 @@ public class RunResultRecorder extends Recorder implements Serializable, MatrixA
 		extractDuration(jobLrScenarioResult, generalNodeChildren);
 	}
 
-	private void extractDuration(JobLrScenarioResult jobLrScenarioResult, NodeList generalNodeChildren) {
+	private static void extractDuration(JobLrScenarioResult jobLrScenarioResult, NodeList generalNodeChildren) {
 		Node ScenrioDurationNode = getNode("Time", generalNodeChildren);
 		String scenarioDurationAttr = getNodeAttr("Duration", ScenrioDurationNode);
 		jobLrScenarioResult.setScenarioDuration(Long.valueOf(scenarioDurationAttr));
 	}
 
-	private void extractConnectionsScenarioResult(JobLrScenarioResult jobLrScenarioResult,
+	private static void extractConnectionsScenarioResult(JobLrScenarioResult jobLrScenarioResult,
 	                                              NodeList generalNodeChildren) {
 		Node connections = getNode("Connections", generalNodeChildren);
 		jobLrScenarioResult.setConnectionMax(Integer.valueOf(getNodeAttr("MaxCount", connections)));
 	}
 
-	private void extractTransactionScenarioResult(JobLrScenarioResult jobLrScenarioResult,
+	private static void extractTransactionScenarioResult(JobLrScenarioResult jobLrScenarioResult,
 	                                              NodeList generalNodeChildren) {
 		int atrrCount;
 		Node transactions = getNode("Transactions", generalNodeChildren);
@@ -1303,7 +1275,7 @@ public class RunResultRecorder extends Recorder implements Serializable, MatrixA
 		}
 	}
 
-	private void extractVUserScenarioReult(JobLrScenarioResult jobLrScenarioResult, NodeList generalNodeChildren) {
+	private static void extractVUserScenarioReult(JobLrScenarioResult jobLrScenarioResult, NodeList generalNodeChildren) {
 		Node vUser = getNode("VUsers", generalNodeChildren);
 		int atrrCount = vUser.getAttributes().getLength();
 		for (int atrrIndx = 0; atrrIndx < atrrCount; atrrIndx++) {
@@ -1312,7 +1284,7 @@ public class RunResultRecorder extends Recorder implements Serializable, MatrixA
 		}
 	}
 
-	private void processSLA(JobLrScenarioResult jobLrScenarioResult, Document doc) {
+	private static void processSLA(JobLrScenarioResult jobLrScenarioResult, Document doc) {
 		Node slaRuleNode;
 		Element slaRuleElement;
 
@@ -1335,7 +1307,7 @@ public class RunResultRecorder extends Recorder implements Serializable, MatrixA
 
 	}
 
-	private void processSlaRule(JobLrScenarioResult jobLrScenarioResult, Element slaRuleElement,
+	private static void processSlaRule(JobLrScenarioResult jobLrScenarioResult, Element slaRuleElement,
 	                            LrTest.SLA_GOAL slaGoal) {
 		switch (slaGoal) {
 			case AverageThroughput:
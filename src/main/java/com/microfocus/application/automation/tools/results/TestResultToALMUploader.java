@@ -360,6 +360,7 @@ public class TestResultToALMUploader extends Recorder implements Serializable, M
                     build.setResult(Result.UNSTABLE);
                 }
             }
+            logger.log("INFO: ALM connections: " + almRestTool.getRestClient().getTransportStatistics());
         }
         logger.log("INFO: 'Upload test result to ALM' Completed.");
     }
@@ -28,11 +28,23 @@
 
 package com.microfocus.application.automation.tools.results.parser;
 
+import java.io.ByteArrayInputStream;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.commons.io.IOUtils;
+
+import com.ctc.wstx.stax.WstxInputFactory;
 import com.microfocus.application.automation.tools.results.parser.antjunit.AntJUnitReportParserImpl;
 import com.microfocus.application.automation.tools.results.parser.jenkinsjunit.JenkinsJUnitReportParserImpl;
 import com.microfocus.application.automation.tools.results.parser.mavensurefire.MavenSureFireReportParserImpl;
@@ -44,10 +56,18 @@ import com.microfocus.application.automation.tools.sse.sdk.Logger;
 import hudson.FilePath;
 
 public class ReportParserManager {
-	
+
+	/**
+	 * Number of bytes read from the head of a report to find its root element, enough for an XML declaration
+	 * followed by a license comment.
+	 */
+	private static final int SNIFF_SIZE = Integer.getInteger("ReportParserManager.SniffSize", 4096);
+	private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
 	private static ReportParserManager instance = new ReportParserManager();
 
 	private List<ReportParser> parserList;
+	private Map<String, List<ReportParser>> parsersByRootElement;
 	private FilePath workspace;
 	private Logger logger;
 
@@ -66,9 +86,8 @@ public class ReportParserManager {
 	public List<AlmTestSet> parseTestSets(String reportFilePath, String testingFramework, String testingTool) {
 		init();
 		List<AlmTestSet> testsets = null;
-		for (ReportParser reportParser : parserList) {
-			try {
-				InputStream in = new FileInputStream(reportFilePath);
+		for (ReportParser reportParser : getParsers(reportFilePath)) {
+			try (InputStream in = new FileInputStream(reportFilePath)) {
 				testsets = reportParser.parseTestSets(in, testingFramework, testingTool);
 				break;
 			} catch (Exception e) {
@@ -78,18 +97,116 @@ public class ReportParserManager {
 		return testsets;
 	}
 
-	private void init() {
+	/**
+	 * Parses the report to the consumer with the first streaming parser bound to its root element, one test case in
+	 * memory at a time. Returns false without calling the consumer if there is none, the report is then parsed
+	 * whole by {@link #parseTestSets(String, String, String)}.
+	 */
+	public boolean parseTestSets(String reportFilePath, String testingFramework, String testingTool,
+			ReportConsumer consumer) throws ReportParseException {
+		init();
+		List<ReportParser> matching = getMatchingParsers(reportFilePath);
+		if (matching != null) {
+			for (ReportParser reportParser : matching) {
+				if (reportParser instanceof StreamingReportParser) {
+					try (InputStream in = new FileInputStream(reportFilePath)) {
+						((StreamingReportParser) reportParser).parseTestSets(in, testingFramework, testingTool, consumer);
+					} catch (IOException e) {
+						throw new ReportParseException(e);
+					}
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the parsers bound to the root element of the report first, followed by the others in their usual
+	 * order for reports that do not match their root element.
+	 */
+	private List<ReportParser> getParsers(String reportFilePath) {
+		List<ReportParser> matching = getMatchingParsers(reportFilePath);
+		if (matching == null) {
+			return parserList;
+		}
+		List<ReportParser> parsers = new ArrayList<ReportParser>(matching);
+		for (ReportParser reportParser : parserList) {
+			if (!parsers.contains(reportParser)) {
+				parsers.add(reportParser);
+			}
+		}
+		return parsers;
+	}
+
+	private List<ReportParser> getMatchingParsers(String reportFilePath) {
+		String rootElement = null;
+		try (InputStream in = new FileInputStream(reportFilePath)) {
+			rootElement = sniffRootElement(in);
+		} catch (IOException e) {
+			// the parsers report the file
+		}
+		return rootElement == null ? null : parsersByRootElement.get(rootElement);
+	}
+
+	/**
+	 * Returns the name of the root element found in the head of the report, or null if the head ends before it,
+	 * is not well formed or the root element has a namespace, none of the parsers binding one.
+	 */
+	static String sniffRootElement(InputStream in) throws IOException {
+		byte[] head = new byte[SNIFF_SIZE];
+		int length = IOUtils.read(in, head);
+		try {
+			XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(new ByteArrayInputStream(head, 0, length));
+			try {
+				while (reader.hasNext()) {
+					if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+						String namespace = reader.getNamespaceURI();
+						return namespace == null || namespace.isEmpty() ? reader.getLocalName() : null;
+					}
+				}
+			} finally {
+				reader.close();
+			}
+		} catch (XMLStreamException e) {
+			// not a report of any known format, or a too long prolog
+		}
+		return null;
+	}
+
+	private synchronized void init() {
 		if (parserList == null) {
 			parserList = new ArrayList<ReportParser>();
+			parsersByRootElement = new HashMap<String, List<ReportParser>>();
 		}
 
 		if (parserList.isEmpty()) {
-			parserList.add(new JenkinsJUnitReportParserImpl());
-			parserList.add(new MavenSureFireReportParserImpl());
-			parserList.add(new TestNGXmlReportParserImpl());
-			parserList.add(new NUnit3ReportParserImpl(workspace));
-			parserList.add(new NUnitReportParserImpl());
-			parserList.add(new AntJUnitReportParserImpl());
+			addParser(new JenkinsJUnitReportParserImpl(), "result");
+			addParser(new MavenSureFireReportParserImpl(), "testsuite");
+			addParser(new TestNGXmlReportParserImpl(), "testng-results");
+			// the NUnit 3 stylesheet also converts NUnit 2 reports, it was always tried first on them
+			addParser(new NUnit3ReportParserImpl(workspace), "test-run", "test-results");
+			addParser(new NUnitReportParserImpl(), "test-results");
+			addParser(new AntJUnitReportParserImpl(), "testsuites");
 		}
 	}
+
+	private void addParser(ReportParser reportParser, String... rootElements) {
+		parserList.add(reportParser);
+		for (String rootElement : rootElements) {
+			List<ReportParser> parsers = parsersByRootElement.get(rootElement);
+			if (parsers == null) {
+				parsers = new ArrayList<ReportParser>();
+				parsersByRootElement.put(rootElement, parsers);
+			}
+			parsers.add(reportParser);
+		}
+	}
+
+	private static XMLInputFactory createXmlInputFactory() {
+		XMLInputFactory xmlFactory = new WstxInputFactory();
+		xmlFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		xmlFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		return xmlFactory;
+	}
 }
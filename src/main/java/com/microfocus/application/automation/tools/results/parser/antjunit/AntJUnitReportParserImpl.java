@@ -33,13 +33,14 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
 
 import com.microfocus.application.automation.tools.results.parser.ReportParseException;
-import com.microfocus.application.automation.tools.results.parser.ReportParser;
+import com.microfocus.application.automation.tools.results.parser.ReportConsumer;
+import com.microfocus.application.automation.tools.results.parser.StreamingReportParser;
 import com.microfocus.application.automation.tools.results.parser.util.ParserUtil;
+import com.microfocus.application.automation.tools.results.parser.util.ReportStreamReader;
 import com.microfocus.application.automation.tools.results.service.almentities.AlmRun;
 import com.microfocus.application.automation.tools.results.service.almentities.AlmTest;
 import com.microfocus.application.automation.tools.results.service.almentities.AlmTestInstance;
@@ -50,7 +51,7 @@ import com.microfocus.application.automation.tools.results.service.almentities.E
 import com.microfocus.application.automation.tools.results.service.almentities.IAlmConsts;
 import com.microfocus.application.automation.tools.sse.sdk.Base64Encoder;
 
-public class AntJUnitReportParserImpl implements ReportParser {
+public class AntJUnitReportParserImpl implements StreamingReportParser {
 
 	public List<AlmTestSet> parseTestSets(InputStream reportInputStream,
                                           String testingFramework, String testingTool) throws ReportParseException {
@@ -71,18 +72,33 @@ public class AntJUnitReportParserImpl implements ReportParser {
 			}
 		}
 	}	
+
+	public void parseTestSets(InputStream reportInputStream, String testingFramework, String testingTool,
+			ReportConsumer consumer) throws ReportParseException {
+
+		try (ReportStreamReader reader = new ReportStreamReader(reportInputStream, Testsuites.class)) {
+			String timestamp = null;
+			AlmTestSet testSet = null;
+			while (reader.next()) {
+				// like the unmarshalled report, only the test suites of the root and their own test cases count
+				if (reader.getDepth() == 2 && reader.isStartElement("testsuite")) {
+					timestamp = reader.getAttributeValue("timestamp");
+					testSet = createTestSet(reader.getAttributeValue("name"));
+					consumer.testSet(testSet);
+				} else if (reader.getDepth() == 2 && reader.isEndElement("testsuite")) {
+					testSet = null;
+				} else if (testSet != null && reader.getDepth() == 3 && reader.isStartElement("testcase")) {
+					Testcase tc = reader.unmarshal(Testcase.class);
+					consumer.testInstance(testSet, createTestInstance(tc, timestamp, testingFramework, testingTool));
+				}
+			}
+		} catch (Exception e) {
+			throw new ReportParseException(e);
+		}
+	}
 	
 	private Testsuites parseFromAntJUnitReport(InputStream reportInputStream) throws JAXBException {
-		JAXBContext jaxbContext;
-		Thread t = Thread.currentThread();
-		ClassLoader orig = t.getContextClassLoader();
-		t.setContextClassLoader(AntJUnitReportParserImpl.class.getClassLoader());
-		try {
-			jaxbContext = JAXBContext.newInstance(Testsuites.class);
-		} finally {
-			t.setContextClassLoader(orig);
-		}
-		Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
+		Unmarshaller unmarshaller = ParserUtil.getJAXBContext(Testsuites.class).createUnmarshaller();
 		return (Testsuites)unmarshaller.unmarshal(reportInputStream);
 	}
 	
@@ -103,29 +119,39 @@ public class AntJUnitReportParserImpl implements ReportParser {
 		ArrayList<AlmTestSet> testSets = new ArrayList<AlmTestSet>();
 		
 		for(Testsuite ts : testsuites.getTestsuite()) {
-			AlmTestSet testSet = new AlmTestSetImpl();
-			testSet.setFieldValue(AlmTestSet.TESTSET_NAME, ParserUtil.replaceInvalidCharsForTestSetName(ts.getName()));
-			testSet.setFieldValue(AlmTestSet.TESTSET_SUB_TYPE_ID, EXTERNAL_TEST_SET_TYPE_ID);
+			AlmTestSet testSet = createTestSet(ts.getName());
 			testSets.add(testSet);
 
 			for (Testcase tc: ts.getTestcase()) {
-				AlmTestInstance testInstance = new AlmTestInstanceImpl();
-				testInstance.setFieldValue(AlmTestInstance.TEST_INSTANCE_SUBTYPE_ID, EXTERNAL_TEST_INSTANCE_TYPE_ID);
+				AlmTestInstance testInstance = createTestInstance(tc, ts.getTimestamp(), testingFramework, testingTool);
 				testSet.addRelatedEntity(EntityRelation.TESTSET_TO_TESTINSTANCE_CONTAINMENT_RELATION, testInstance);
-				
-				AlmTest test = createExternalTestForAntJUnit(tc, testingFramework, testingTool);
-				testInstance.addRelatedEntity(EntityRelation.TEST_TO_TESTINSTANCE_REALIZATION_RELATION, test);
-				
-				AlmRun run = ParserUtil.createRun(getRunStatus(tc),
-												ts.getTimestamp(),  
-												tc.getTime(), 
-												getRunDetail (tc));
-				testInstance.addRelatedEntity(EntityRelation.TESTINSTANCE_TO_RUN_REALIZATION_RELATION, run);
 			}			
 		}
 		
 		return testSets;
 	}
+
+	private AlmTestSet createTestSet(String testsuiteName) {
+		AlmTestSet testSet = new AlmTestSetImpl();
+		testSet.setFieldValue(AlmTestSet.TESTSET_NAME, ParserUtil.replaceInvalidCharsForTestSetName(testsuiteName));
+		testSet.setFieldValue(AlmTestSet.TESTSET_SUB_TYPE_ID, EXTERNAL_TEST_SET_TYPE_ID);
+		return testSet;
+	}
+
+	private AlmTestInstance createTestInstance(Testcase tc, String timestamp, String testingFramework, String testingTool) {
+		AlmTestInstance testInstance = new AlmTestInstanceImpl();
+		testInstance.setFieldValue(AlmTestInstance.TEST_INSTANCE_SUBTYPE_ID, EXTERNAL_TEST_INSTANCE_TYPE_ID);
+
+		AlmTest test = createExternalTestForAntJUnit(tc, testingFramework, testingTool);
+		testInstance.addRelatedEntity(EntityRelation.TEST_TO_TESTINSTANCE_REALIZATION_RELATION, test);
+
+		AlmRun run = ParserUtil.createRun(getRunStatus(tc),
+										timestamp,  
+										tc.getTime(), 
+										getRunDetail (tc));
+		testInstance.addRelatedEntity(EntityRelation.TESTINSTANCE_TO_RUN_REALIZATION_RELATION, run);
+		return testInstance;
+	}
 	
 	private String getRunStatus(Testcase testcase) {
 		if (testcase.getError().size() > 0) {
@@ -32,13 +32,14 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
 
 import com.microfocus.application.automation.tools.results.parser.ReportParseException;
-import com.microfocus.application.automation.tools.results.parser.ReportParser;
+import com.microfocus.application.automation.tools.results.parser.ReportConsumer;
+import com.microfocus.application.automation.tools.results.parser.StreamingReportParser;
 import com.microfocus.application.automation.tools.results.parser.util.ParserUtil;
+import com.microfocus.application.automation.tools.results.parser.util.ReportStreamReader;
 import com.microfocus.application.automation.tools.results.service.almentities.AlmRun;
 import com.microfocus.application.automation.tools.results.service.almentities.AlmTest;
 import com.microfocus.application.automation.tools.results.service.almentities.AlmTestInstance;
@@ -49,7 +50,7 @@ import com.microfocus.application.automation.tools.results.service.almentities.E
 import com.microfocus.application.automation.tools.results.service.almentities.IAlmConsts;
 import com.microfocus.application.automation.tools.sse.sdk.Base64Encoder;
 
-public class JenkinsJUnitReportParserImpl implements ReportParser {
+public class JenkinsJUnitReportParserImpl implements StreamingReportParser {
 
 	public List<AlmTestSet> parseTestSets(InputStream reportInputStream,
                                           String testingFramework, String testingTool) throws ReportParseException {
@@ -62,18 +63,41 @@ public class JenkinsJUnitReportParserImpl implements ReportParser {
 			throw new ReportParseException();
 		}
 	}	
+
+	public void parseTestSets(InputStream reportInputStream, String testingFramework, String testingTool,
+			ReportConsumer consumer) throws ReportParseException {
+
+		try (ReportStreamReader reader = new ReportStreamReader(reportInputStream, Result.class)) {
+			String suiteName = null;
+			String timestamp = null;
+			AlmTestSet testSet = null;
+			while (reader.next()) {
+				if (reader.isStartElement("suite")) {
+					suiteName = null;
+					timestamp = null;
+					testSet = null;
+				} else if (testSet == null && reader.isStartElement("name")) {
+					suiteName = reader.getElementText();
+				} else if (testSet == null && reader.isStartElement("timestamp")) {
+					timestamp = reader.getElementText();
+				} else if (reader.isStartElement("case")) {
+					if (testSet == null) {
+						testSet = createTestSet(suiteName);
+						consumer.testSet(testSet);
+					}
+					Result.Suites.Suite.Cases.Case c = reader.unmarshal(Result.Suites.Suite.Cases.Case.class);
+					consumer.testInstance(testSet, createTestInstance(c, timestamp, testingFramework, testingTool));
+				} else if (testSet == null && reader.isEndElement("suite")) {
+					consumer.testSet(createTestSet(suiteName));
+				}
+			}
+		} catch (Exception e) {
+			throw new ReportParseException(e);
+		}
+	}
 	
 	private Result parseFromJenkinsPluginJUnitReport(InputStream reportInputStream) throws JAXBException {
-		JAXBContext jaxbContext;
-		Thread t = Thread.currentThread();
-		ClassLoader orig = t.getContextClassLoader();
-		t.setContextClassLoader(JenkinsJUnitReportParserImpl.class.getClassLoader());
-		try {
-			jaxbContext = JAXBContext.newInstance(Result.class);
-		} finally {
-			t.setContextClassLoader(orig);
-		}
-		Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
+		Unmarshaller unmarshaller = ParserUtil.getJAXBContext(Result.class).createUnmarshaller();
 		return (Result)unmarshaller.unmarshal(reportInputStream);		
 	}
 	
@@ -93,25 +117,13 @@ public class JenkinsJUnitReportParserImpl implements ReportParser {
 		
 		for (Result.Suites suites : result.getSuites()) {
 			for (Result.Suites.Suite suite : suites.getSuite()) {
-				AlmTestSet testSet = new AlmTestSetImpl();
-				testSet.setFieldValue(AlmTestSet.TESTSET_NAME, ParserUtil.replaceInvalidCharsForTestSetName(suite.getName()));
-				testSet.setFieldValue(AlmTestSet.TESTSET_SUB_TYPE_ID, EXTERNAL_TEST_SET_TYPE_ID);
+				AlmTestSet testSet = createTestSet(suite.getName());
 				testSets.add(testSet);
 				
 				for (Result.Suites.Suite.Cases cases : suite.getCases()) {
 					for (Result.Suites.Suite.Cases.Case c : cases.getCase()){
-						AlmTestInstance testInstance = new AlmTestInstanceImpl();
-						testInstance.setFieldValue(AlmTestInstance.TEST_INSTANCE_SUBTYPE_ID, EXTERNAL_TEST_INSTANCE_TYPE_ID);
+						AlmTestInstance testInstance = createTestInstance(c, suite.getTimestamp(), testingFramework, testingTool);
 						testSet.addRelatedEntity(EntityRelation.TESTSET_TO_TESTINSTANCE_CONTAINMENT_RELATION, testInstance);
-						
-						AlmTest test = createExternalTestForJenkinsPluginJUnit(c, testingFramework, testingTool);
-						testInstance.addRelatedEntity(EntityRelation.TEST_TO_TESTINSTANCE_REALIZATION_RELATION, test);
-						
-						AlmRun run = ParserUtil.createRun(getRunStatus(c),
-														suite.getTimestamp(),  
-														c.getDuration(), 
-														getRunDetail (c));
-						testInstance.addRelatedEntity(EntityRelation.TESTINSTANCE_TO_RUN_REALIZATION_RELATION, run);
 					}
 				}
 			}
@@ -119,6 +131,28 @@ public class JenkinsJUnitReportParserImpl implements ReportParser {
 		
 		return testSets;
 	}
+
+	private AlmTestSet createTestSet(String suiteName) {
+		AlmTestSet testSet = new AlmTestSetImpl();
+		testSet.setFieldValue(AlmTestSet.TESTSET_NAME, ParserUtil.replaceInvalidCharsForTestSetName(suiteName));
+		testSet.setFieldValue(AlmTestSet.TESTSET_SUB_TYPE_ID, EXTERNAL_TEST_SET_TYPE_ID);
+		return testSet;
+	}
+
+	private AlmTestInstance createTestInstance(Result.Suites.Suite.Cases.Case c, String timestamp, String testingFramework, String testingTool) {
+		AlmTestInstance testInstance = new AlmTestInstanceImpl();
+		testInstance.setFieldValue(AlmTestInstance.TEST_INSTANCE_SUBTYPE_ID, EXTERNAL_TEST_INSTANCE_TYPE_ID);
+
+		AlmTest test = createExternalTestForJenkinsPluginJUnit(c, testingFramework, testingTool);
+		testInstance.addRelatedEntity(EntityRelation.TEST_TO_TESTINSTANCE_REALIZATION_RELATION, test);
+
+		AlmRun run = ParserUtil.createRun(getRunStatus(c),
+										timestamp,
+										c.getDuration(), 
+										getRunDetail (c));
+		testInstance.addRelatedEntity(EntityRelation.TESTINSTANCE_TO_RUN_REALIZATION_RELATION, run);
+		return testInstance;
+	}
 	
 	private String getRunStatus(Result.Suites.Suite.Cases.Case c) {
 		String result;
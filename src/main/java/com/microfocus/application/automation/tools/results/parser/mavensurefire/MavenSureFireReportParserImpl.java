@@ -32,13 +32,14 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
 
 import com.microfocus.application.automation.tools.results.parser.ReportParseException;
-import com.microfocus.application.automation.tools.results.parser.ReportParser;
+import com.microfocus.application.automation.tools.results.parser.ReportConsumer;
+import com.microfocus.application.automation.tools.results.parser.StreamingReportParser;
 import com.microfocus.application.automation.tools.results.parser.util.ParserUtil;
+import com.microfocus.application.automation.tools.results.parser.util.ReportStreamReader;
 import com.microfocus.application.automation.tools.results.service.almentities.AlmRun;
 import com.microfocus.application.automation.tools.results.service.almentities.AlmTest;
 import com.microfocus.application.automation.tools.results.service.almentities.AlmTestInstance;
@@ -49,7 +50,7 @@ import com.microfocus.application.automation.tools.results.service.almentities.E
 import com.microfocus.application.automation.tools.results.service.almentities.IAlmConsts;
 import com.microfocus.application.automation.tools.sse.sdk.Base64Encoder;
 
-public class MavenSureFireReportParserImpl implements ReportParser {
+public class MavenSureFireReportParserImpl implements StreamingReportParser {
 
 	public List<AlmTestSet> parseTestSets(InputStream reportInputStream,
                                           String testingFramework, String testingTool) throws ReportParseException {
@@ -61,18 +62,30 @@ public class MavenSureFireReportParserImpl implements ReportParser {
 			throw new ReportParseException();
 		}
 	}	
+
+	public void parseTestSets(InputStream reportInputStream, String testingFramework, String testingTool,
+			ReportConsumer consumer) throws ReportParseException {
+
+		try (ReportStreamReader reader = new ReportStreamReader(reportInputStream, Testsuite.class)) {
+			String timestamp = null;
+			AlmTestSet testSet = null;
+			while (reader.next()) {
+				if (testSet == null && reader.isStartElement("testsuite")) {
+					timestamp = reader.getAttributeValue("timestamp");
+					testSet = createTestSet(reader.getAttributeValue("name"));
+					consumer.testSet(testSet);
+				} else if (testSet != null && reader.isStartElement("testcase")) {
+					Testcase tc = reader.unmarshal(Testcase.class);
+					consumer.testInstance(testSet, createTestInstance(tc, timestamp, testingFramework, testingTool));
+				}
+			}
+		} catch (Exception e) {
+			throw new ReportParseException(e);
+		}
+	}
     
 	private Testsuite parseFromMavenSurefirePluginJUnitReport(InputStream reportInputStream) throws JAXBException {
-		JAXBContext jaxbContext;
-		Thread t = Thread.currentThread();
-		ClassLoader orig = t.getContextClassLoader();
-		t.setContextClassLoader(MavenSureFireReportParserImpl.class.getClassLoader());
-		try {
-			jaxbContext = JAXBContext.newInstance(Testsuite.class);
-		} finally {
-			t.setContextClassLoader(orig);
-		}
-		Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
+		Unmarshaller unmarshaller = ParserUtil.getJAXBContext(Testsuite.class).createUnmarshaller();
 		return (Testsuite)unmarshaller.unmarshal(reportInputStream);
 	}
 
@@ -85,29 +98,39 @@ public class MavenSureFireReportParserImpl implements ReportParser {
 		Testsuite testsuite = parseFromMavenSurefirePluginJUnitReport(reportInputStream);		
 		ArrayList<AlmTestSet> testSets = new ArrayList<AlmTestSet>();
 		
-		AlmTestSet testSet = new AlmTestSetImpl();
-		testSet.setFieldValue( AlmTestSet.TESTSET_NAME, testsuite.getName());
-		testSet.setFieldValue( AlmTestSet.TESTSET_SUB_TYPE_ID, EXTERNAL_TEST_SET_TYPE_ID);
+		AlmTestSet testSet = createTestSet(testsuite.getName());
 		testSets.add(testSet);
 		
 		for (Testcase tc: testsuite.getTestcase()) {
-			AlmTestInstance testInstance = new AlmTestInstanceImpl();
-			testInstance.setFieldValue( AlmTestInstance.TEST_INSTANCE_SUBTYPE_ID, EXTERNAL_TEST_INSTANCE_TYPE_ID);
+			AlmTestInstance testInstance = createTestInstance(tc, testsuite.getTimestamp(), testingFramework, testingTool);
 			testSet.addRelatedEntity(EntityRelation.TESTSET_TO_TESTINSTANCE_CONTAINMENT_RELATION, testInstance);
-			
-			AlmTest test = createExternalTestForMavenSurefirePluginJUnit(tc, testingFramework, testingTool);
-			testInstance.addRelatedEntity(EntityRelation.TEST_TO_TESTINSTANCE_REALIZATION_RELATION, test);
-			
-			AlmRun run = ParserUtil.createRun(getRunStatus(tc),
-												testsuite.getTimestamp(), 
-												tc.getTime(), 
-												getRunDetail(tc));
-			testInstance.addRelatedEntity(EntityRelation.TESTINSTANCE_TO_RUN_REALIZATION_RELATION, run);
 		}
 		
 		return testSets;
 	}
 
+	private AlmTestSet createTestSet(String testsuiteName) {
+		AlmTestSet testSet = new AlmTestSetImpl();
+		testSet.setFieldValue( AlmTestSet.TESTSET_NAME, testsuiteName);
+		testSet.setFieldValue( AlmTestSet.TESTSET_SUB_TYPE_ID, EXTERNAL_TEST_SET_TYPE_ID);
+		return testSet;
+	}
+
+	private AlmTestInstance createTestInstance(Testcase tc, String timestamp, String testingFramework, String testingTool) {
+		AlmTestInstance testInstance = new AlmTestInstanceImpl();
+		testInstance.setFieldValue( AlmTestInstance.TEST_INSTANCE_SUBTYPE_ID, EXTERNAL_TEST_INSTANCE_TYPE_ID);
+
+		AlmTest test = createExternalTestForMavenSurefirePluginJUnit(tc, testingFramework, testingTool);
+		testInstance.addRelatedEntity(EntityRelation.TEST_TO_TESTINSTANCE_REALIZATION_RELATION, test);
+
+		AlmRun run = ParserUtil.createRun(getRunStatus(tc),
+											timestamp, 
+											tc.getTime(), 
+											getRunDetail(tc));
+		testInstance.addRelatedEntity(EntityRelation.TESTINSTANCE_TO_RUN_REALIZATION_RELATION, run);
+		return testInstance;
+	}
+
 	private String getRunStatus(Testcase testcase) {
 		if (testcase.getError().size() > 0) {
 			return IAlmConsts.IStatuses.FAILED.value();
@@ -34,13 +34,14 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
 
 import com.microfocus.application.automation.tools.results.parser.ReportParseException;
-import com.microfocus.application.automation.tools.results.parser.ReportParser;
+import com.microfocus.application.automation.tools.results.parser.ReportConsumer;
+import com.microfocus.application.automation.tools.results.parser.StreamingReportParser;
 import com.microfocus.application.automation.tools.results.parser.util.ParserUtil;
+import com.microfocus.application.automation.tools.results.parser.util.ReportStreamReader;
 import com.microfocus.application.automation.tools.results.parser.util.TimeUtil;
 import com.microfocus.application.automation.tools.results.service.almentities.AlmRun;
 import com.microfocus.application.automation.tools.results.service.almentities.AlmTest;
@@ -52,7 +53,7 @@ import com.microfocus.application.automation.tools.results.service.almentities.E
 import com.microfocus.application.automation.tools.results.service.almentities.IAlmConsts;
 import com.microfocus.application.automation.tools.sse.sdk.Base64Encoder;
 
-public class NUnitReportParserImpl implements ReportParser {
+public class NUnitReportParserImpl implements StreamingReportParser {
 
 	public List<AlmTestSet> parseTestSets(InputStream reportInputStream,
                                           String testingFramework, String testingTool) throws ReportParseException {
@@ -63,18 +64,44 @@ public class NUnitReportParserImpl implements ReportParser {
 			throw new ReportParseException();
 		}
 	}	
+
+	public void parseTestSets(InputStream reportInputStream, String testingFramework, String testingTool,
+			ReportConsumer consumer) throws ReportParseException {
+
+		try (ReportStreamReader reader = new ReportStreamReader(reportInputStream, ResultType.class)) {
+			String[] execDateAndTime = null;
+			// test set names and test sets of the enclosing suites, a test set is created with its first test case
+			List<String> testsetNames = new ArrayList<String>();
+			List<AlmTestSet> testSets = new ArrayList<AlmTestSet>();
+			while (reader.next()) {
+				if (reader.isStartElement("test-results")) {
+					execDateAndTime = convertDateAndTime(reader.getAttributeValue("date"), reader.getAttributeValue("time"));
+				} else if (reader.isStartElement("test-suite")) {
+					String uplevelSuiteName = testsetNames.isEmpty() ? "" : testsetNames.get(testsetNames.size() - 1);
+					testsetNames.add(getTestSetName(reader.getAttributeValue("name"), uplevelSuiteName));
+					testSets.add(null);
+				} else if (reader.isEndElement("test-suite")) {
+					testsetNames.remove(testsetNames.size() - 1);
+					testSets.remove(testSets.size() - 1);
+				} else if (!testSets.isEmpty() && reader.isStartElement("test-case")) {
+					int current = testSets.size() - 1;
+					AlmTestSet testSet = testSets.get(current);
+					if (testSet == null) {
+						testSet = createTestSet(testsetNames.get(current));
+						testSets.set(current, testSet);
+						consumer.testSet(testSet);
+					}
+					TestCaseType testcase = reader.unmarshal(TestCaseType.class);
+					consumer.testInstance(testSet, createTestInstance(testcase, execDateAndTime[0], execDateAndTime[1], testingFramework, testingTool));
+				}
+			}
+		} catch (Exception e) {
+			throw new ReportParseException(e);
+		}
+	}
     
 	private ResultType parseFromNUnitReport(InputStream reportInputStream) throws JAXBException {
-		JAXBContext jaxbContext;
-		Thread t = Thread.currentThread();
-		ClassLoader orig = t.getContextClassLoader();
-		t.setContextClassLoader(NUnitReportParserImpl.class.getClassLoader());
-		try {
-			jaxbContext = JAXBContext.newInstance(ResultType.class);
-		} finally {
-			t.setContextClassLoader(orig);
-		}
-		Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
+		Unmarshaller unmarshaller = ParserUtil.getJAXBContext(ResultType.class).createUnmarshaller();
 		return (ResultType)unmarshaller.unmarshal(reportInputStream);
 	}
 
@@ -103,41 +130,15 @@ public class NUnitReportParserImpl implements ReportParser {
 		List<TestSuiteType> testSuites = resultsOfSuite.getTestSuite();
 		
 
-		String currentSuiteName = testSuite.getName();
-		int index = currentSuiteName.lastIndexOf("\\");
-		if(index >=0 ) {
-			currentSuiteName = currentSuiteName.substring(index+1);
-		}
-		
-		String testsetName = currentSuiteName;
-		
-		if(uplevelSuiteName!=null && uplevelSuiteName.length() >0) {
-			testsetName = uplevelSuiteName+"_"+currentSuiteName;
-		}
+		String testsetName = getTestSetName(testSuite.getName(), uplevelSuiteName);
 		
 		if(testcases != null && testcases.size() >0) {
-			AlmTestSet testSet = new AlmTestSetImpl();
-			testSet.setFieldValue( AlmTestSet.TESTSET_NAME,testsetName );
-			testSet.setFieldValue( AlmTestSet.TESTSET_SUB_TYPE_ID, EXTERNAL_TEST_SET_TYPE_ID);
+			AlmTestSet testSet = createTestSet(testsetName);
 			testsets.add(testSet);
 			
 			for(TestCaseType testcase: testcases) {
-				AlmTestInstance testInstance = new AlmTestInstanceImpl();
-				testInstance.setFieldValue( AlmTestInstance.TEST_INSTANCE_SUBTYPE_ID, EXTERNAL_TEST_INSTANCE_TYPE_ID);
+				AlmTestInstance testInstance = createTestInstance(testcase, execDate, execTime, testingFramework, testingTool);
 				testSet.addRelatedEntity(EntityRelation.TESTSET_TO_TESTINSTANCE_CONTAINMENT_RELATION, testInstance);
-				
-				AlmTest test = createExternalTestForNUnitReport( testcase, testingFramework, testingTool);
-				testInstance.addRelatedEntity(EntityRelation.TEST_TO_TESTINSTANCE_REALIZATION_RELATION, test);
-				
-				String execDateTime = "";
-				if(execDate != null && execTime != null){
-					execDateTime = execDate +" " +execTime;
-				}
-				AlmRun run = ParserUtil.createRun(getRunStatus(testcase),
-													execDateTime, 
-													String.valueOf(testcase.getTime()), 
-													getRunDetail(testcase));
-				testInstance.addRelatedEntity(EntityRelation.TESTINSTANCE_TO_RUN_REALIZATION_RELATION, run);
 			}
 		}
 		
@@ -146,6 +147,47 @@ public class NUnitReportParserImpl implements ReportParser {
 		}
 	}
 	
+	private String getTestSetName(String suiteName, String uplevelSuiteName) {
+		String currentSuiteName = suiteName;
+		int index = currentSuiteName.lastIndexOf("\\");
+		if(index >=0 ) {
+			currentSuiteName = currentSuiteName.substring(index+1);
+		}
+		
+		String testsetName = currentSuiteName;
+		
+		if(uplevelSuiteName!=null && uplevelSuiteName.length() >0) {
+			testsetName = uplevelSuiteName+"_"+currentSuiteName;
+		}
+		return testsetName;
+	}
+
+	private AlmTestSet createTestSet(String testsetName) {
+		AlmTestSet testSet = new AlmTestSetImpl();
+		testSet.setFieldValue( AlmTestSet.TESTSET_NAME,testsetName );
+		testSet.setFieldValue( AlmTestSet.TESTSET_SUB_TYPE_ID, EXTERNAL_TEST_SET_TYPE_ID);
+		return testSet;
+	}
+
+	private AlmTestInstance createTestInstance(TestCaseType testcase, String execDate, String execTime, String testingFramework, String testingTool) {
+		AlmTestInstance testInstance = new AlmTestInstanceImpl();
+		testInstance.setFieldValue( AlmTestInstance.TEST_INSTANCE_SUBTYPE_ID, EXTERNAL_TEST_INSTANCE_TYPE_ID);
+
+		AlmTest test = createExternalTestForNUnitReport( testcase, testingFramework, testingTool);
+		testInstance.addRelatedEntity(EntityRelation.TEST_TO_TESTINSTANCE_REALIZATION_RELATION, test);
+
+		String execDateTime = "";
+		if(execDate != null && execTime != null){
+			execDateTime = execDate +" " +execTime;
+		}
+		AlmRun run = ParserUtil.createRun(getRunStatus(testcase),
+											execDateTime, 
+											String.valueOf(testcase.getTime()), 
+											getRunDetail(testcase));
+		testInstance.addRelatedEntity(EntityRelation.TESTINSTANCE_TO_RUN_REALIZATION_RELATION, run);
+		return testInstance;
+	}
+
 	private Date getDate( int dateFormat, String dateStr) {
 
 		DateFormat df = DateFormat.getDateInstance(dateFormat);
@@ -264,8 +306,14 @@ public class NUnitReportParserImpl implements ReportParser {
 		ResultType results = parseFromNUnitReport(reportInputStream);
 		
 		TestSuiteType testSuite = results.getTestSuite();
-		String dateStr = results.getDate();
-		String timeStr = results.getTime();
+		String[] execDateAndTime = convertDateAndTime(results.getDate(), results.getTime());
+		
+		ArrayList<AlmTestSet> testSets = new ArrayList<AlmTestSet>();
+		createTestSetAndTest(testSuite, "", execDateAndTime[0], execDateAndTime[1], testSets, testingFramework, testingTool);
+		return testSets;
+	}
+
+	private String[] convertDateAndTime(String dateStr, String timeStr) {
 		String convertedDate = convertDateString(dateStr);
 		String convertedTime = convertTimeString(timeStr);
 		
@@ -274,10 +322,7 @@ public class NUnitReportParserImpl implements ReportParser {
 			convertedDate = TimeUtil.dateToString(executeDate);
 			convertedTime = TimeUtil.timeToString(executeDate);
 		}
-		
-		ArrayList<AlmTestSet> testSets = new ArrayList<AlmTestSet>();
-		createTestSetAndTest(testSuite, "", convertedDate, convertedTime, testSets, testingFramework, testingTool);
-		return testSets;
+		return new String[] {convertedDate, convertedTime};
 	}
 
 	private String getRunStatus(TestCaseType testcase) {		
@@ -29,7 +29,8 @@
 package com.microfocus.application.automation.tools.results.parser.nunit3;
 
 import com.microfocus.application.automation.tools.results.parser.ReportParseException;
-import com.microfocus.application.automation.tools.results.parser.ReportParser;
+import com.microfocus.application.automation.tools.results.parser.ReportConsumer;
+import com.microfocus.application.automation.tools.results.parser.StreamingReportParser;
 import com.microfocus.application.automation.tools.results.parser.antjunit.AntJUnitReportParserImpl;
 import com.microfocus.application.automation.tools.results.service.almentities.AlmTestSet;
 import hudson.FilePath;
@@ -48,8 +49,9 @@ import java.util.List;
 /**
  * NUnit3 Report Parser implement.
  * It will convert Nunit 3 report to Junit report with xsl then start AntJunit parser.
+ * When streaming, only the converted report is read one test case at a time, the transformation holds the source tree.
  */
-public class NUnit3ReportParserImpl implements ReportParser {
+public class NUnit3ReportParserImpl implements StreamingReportParser {
 
     private static final String TEMP_JUNIT_FILE_PREFIX = "temp-junit";
     private static final String TEMP_JUNIT_FILE_SUFFIX = ".xml";
@@ -65,6 +67,20 @@ public class NUnit3ReportParserImpl implements ReportParser {
     public List<AlmTestSet> parseTestSets(InputStream reportInputStream, String testingFramework, String testingTool)
             throws ReportParseException {
 
+        InputStream in = transformToJUnit(reportInputStream);
+        return new AntJUnitReportParserImpl().parseTestSets(in, testingFramework, testingTool);
+    }
+
+    @Override
+    public void parseTestSets(InputStream reportInputStream, String testingFramework, String testingTool,
+            ReportConsumer consumer) throws ReportParseException {
+
+        InputStream in = transformToJUnit(reportInputStream);
+        new AntJUnitReportParserImpl().parseTestSets(in, testingFramework, testingTool, consumer);
+    }
+
+    private InputStream transformToJUnit(InputStream reportInputStream) throws ReportParseException {
+
         // Use the xsl to convert the nunit3 and nunit to junit and then parse with junit logic.
         // This can be extended to cover all kinds of result format.
         // When new format comes, only need to provide a xsl, no need to change any code.
@@ -77,9 +93,7 @@ public class NUnit3ReportParserImpl implements ReportParser {
             File junitTargetFile = new File(workspace.createTempFile(TEMP_JUNIT_FILE_PREFIX, TEMP_JUNIT_FILE_SUFFIX).toURI());
             fileOutputStream = new FileOutputStream(junitTargetFile);
             nunitTransformer.transform(new StreamSource(reportInputStream), new StreamResult(fileOutputStream));
-
-            InputStream in = new FileInputStream(junitTargetFile);
-            return new AntJUnitReportParserImpl().parseTestSets(in, testingFramework, testingTool);
+            return new FileInputStream(junitTargetFile);
 
         } catch (Exception e) {
             throw new ReportParseException(e);
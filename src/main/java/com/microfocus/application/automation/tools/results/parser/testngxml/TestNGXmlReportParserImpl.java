@@ -32,16 +32,17 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
 
 import com.microfocus.application.automation.tools.results.parser.ReportParseException;
-import com.microfocus.application.automation.tools.results.parser.ReportParser;
+import com.microfocus.application.automation.tools.results.parser.ReportConsumer;
+import com.microfocus.application.automation.tools.results.parser.StreamingReportParser;
 import com.microfocus.application.automation.tools.results.parser.testngxml.TestngResults.Suite;
 import com.microfocus.application.automation.tools.results.parser.testngxml.TestngResults.Suite.Test;
 import com.microfocus.application.automation.tools.results.parser.testngxml.TestngResults.Suite.Test.Class.TestMethod;
 import com.microfocus.application.automation.tools.results.parser.util.ParserUtil;
+import com.microfocus.application.automation.tools.results.parser.util.ReportStreamReader;
 import com.microfocus.application.automation.tools.results.service.almentities.AlmRun;
 import com.microfocus.application.automation.tools.results.service.almentities.AlmTest;
 import com.microfocus.application.automation.tools.results.service.almentities.AlmTestInstance;
@@ -52,7 +53,7 @@ import com.microfocus.application.automation.tools.results.service.almentities.E
 import com.microfocus.application.automation.tools.results.service.almentities.IAlmConsts;
 import com.microfocus.application.automation.tools.sse.sdk.Base64Encoder;
 
-public class TestNGXmlReportParserImpl implements ReportParser {
+public class TestNGXmlReportParserImpl implements StreamingReportParser {
 	
 	public List<AlmTestSet> parseTestSets(InputStream reportInputStream,
                                           String testingFramework, String testingTool) throws ReportParseException {
@@ -64,18 +65,31 @@ public class TestNGXmlReportParserImpl implements ReportParser {
 			throw new ReportParseException();
 		}
 	}	
+
+	public void parseTestSets(InputStream reportInputStream, String testingFramework, String testingTool,
+			ReportConsumer consumer) throws ReportParseException {
+
+		try (ReportStreamReader reader = new ReportStreamReader(reportInputStream, TestngResults.class)) {
+			AlmTestSet testSet = null;
+			String className = null;
+			while (reader.next()) {
+				if (reader.isStartElement("suite")) {
+					testSet = createTestSet(reader.getAttributeValue("name"));
+					consumer.testSet(testSet);
+				} else if (reader.isStartElement("class")) {
+					className = reader.getAttributeValue("name");
+				} else if (testSet != null && reader.isStartElement("test-method")) {
+					TestMethod tm = reader.unmarshal(TestMethod.class);
+					consumer.testInstance(testSet, createTestInstance(className, tm, testingFramework, testingTool));
+				}
+			}
+		} catch (Exception e) {
+			throw new ReportParseException(e);
+		}
+	}
     
 	private TestngResults parseFromTestNGXmlReport(InputStream reportInputStream) throws JAXBException {
-		JAXBContext jaxbContext;
-		Thread t = Thread.currentThread();
-		ClassLoader orig = t.getContextClassLoader();
-		t.setContextClassLoader(TestNGXmlReportParserImpl.class.getClassLoader());
-		try {
-			jaxbContext = JAXBContext.newInstance(TestngResults.class);
-		} finally {
-			t.setContextClassLoader(orig);
-		}
-		Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
+		Unmarshaller unmarshaller = ParserUtil.getJAXBContext(TestngResults.class).createUnmarshaller();
 		return (TestngResults)unmarshaller.unmarshal(reportInputStream);
 	}
 
@@ -90,9 +104,7 @@ public class TestNGXmlReportParserImpl implements ReportParser {
 		
 		ArrayList<AlmTestSet> testSets = new ArrayList<AlmTestSet>();
 		for( Suite suite : testngresults.suite) {
-			AlmTestSet testSet = new AlmTestSetImpl();
-			testSet.setFieldValue( AlmTestSet.TESTSET_NAME, suite.getName());
-			testSet.setFieldValue( AlmTestSet.TESTSET_SUB_TYPE_ID, EXTERNAL_TEST_SET_TYPE_ID);
+			AlmTestSet testSet = createTestSet(suite.getName());
 			testSets.add(testSet);
 			
 			
@@ -101,15 +113,8 @@ public class TestNGXmlReportParserImpl implements ReportParser {
 				for(TestngResults.Suite.Test.Class c: t.getClazz() ) {
 					
 					for(TestMethod tm : c.getTestMethod()) {
-						AlmTestInstance testInstance = new AlmTestInstanceImpl();
-						testInstance.setFieldValue( AlmTestInstance.TEST_INSTANCE_SUBTYPE_ID, EXTERNAL_TEST_INSTANCE_TYPE_ID);
+						AlmTestInstance testInstance = createTestInstance(c.getName(), tm, testingFramework, testingTool);
 						testSet.addRelatedEntity(EntityRelation.TESTSET_TO_TESTINSTANCE_CONTAINMENT_RELATION, testInstance);
-						
-						AlmTest test = createExternalTestForTestNGXmlReport( c.getName(), tm.getName(), testingFramework, testingTool);
-						testInstance.addRelatedEntity(EntityRelation.TEST_TO_TESTINSTANCE_REALIZATION_RELATION, test);
-						
-						AlmRun run = ParserUtil.createRun(getRunStatus(tm), tm.getStartedAt(), String.valueOf(tm.getDurationMs()), getRunDetail(tm));
-						testInstance.addRelatedEntity(EntityRelation.TESTINSTANCE_TO_RUN_REALIZATION_RELATION, run);
 					}
 				}
 			}
@@ -117,6 +122,25 @@ public class TestNGXmlReportParserImpl implements ReportParser {
 		return testSets;
 	}
 
+	private AlmTestSet createTestSet(String suiteName) {
+		AlmTestSet testSet = new AlmTestSetImpl();
+		testSet.setFieldValue( AlmTestSet.TESTSET_NAME, suiteName);
+		testSet.setFieldValue( AlmTestSet.TESTSET_SUB_TYPE_ID, EXTERNAL_TEST_SET_TYPE_ID);
+		return testSet;
+	}
+
+	private AlmTestInstance createTestInstance(String className, TestMethod tm, String testingFramework, String testingTool) {
+		AlmTestInstance testInstance = new AlmTestInstanceImpl();
+		testInstance.setFieldValue( AlmTestInstance.TEST_INSTANCE_SUBTYPE_ID, EXTERNAL_TEST_INSTANCE_TYPE_ID);
+
+		AlmTest test = createExternalTestForTestNGXmlReport( className, tm.getName(), testingFramework, testingTool);
+		testInstance.addRelatedEntity(EntityRelation.TEST_TO_TESTINSTANCE_REALIZATION_RELATION, test);
+
+		AlmRun run = ParserUtil.createRun(getRunStatus(tm), tm.getStartedAt(), String.valueOf(tm.getDurationMs()), getRunDetail(tm));
+		testInstance.addRelatedEntity(EntityRelation.TESTINSTANCE_TO_RUN_REALIZATION_RELATION, run);
+		return testInstance;
+	}
+
 	private String getRunStatus(TestMethod tm) {		
 		String status = tm.getStatus();
 		if(status != null && status.length()>0){
@@ -30,8 +30,11 @@ package com.microfocus.application.automation.tools.results.parser.util;
 
 import java.io.StringWriter;
 import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
 
 import com.microfocus.application.automation.tools.results.parser.ReportParser;
@@ -45,6 +48,31 @@ public class ParserUtil {
 	public static char[] testNameInvalidChars = new char[] { '\\', '/', ':', '"', '?', '\'', '<', '>', '|', '*', '%' };
 	public static char[] testSetNameInvalidChars = new char[] { '\\', '^', ',', '"', '*' };
 
+	private static final ConcurrentMap<Class<?>, JAXBContext> jaxbContexts = new ConcurrentHashMap<Class<?>, JAXBContext>();
+
+	/**
+	 * Returns the JAXB context of the given class, built once per process with the plugin class loader.
+	 * The context is thread safe, the marshallers and unmarshallers created from it are not.
+	 */
+	public static JAXBContext getJAXBContext(Class<?> c) throws JAXBException {
+		JAXBContext jaxbContext = jaxbContexts.get(c);
+		if (jaxbContext == null) {
+			Thread t = Thread.currentThread();
+			ClassLoader orig = t.getContextClassLoader();
+			t.setContextClassLoader(ParserUtil.class.getClassLoader());
+			try {
+				jaxbContext = JAXBContext.newInstance(c);
+			} finally {
+				t.setContextClassLoader(orig);
+			}
+			JAXBContext existing = jaxbContexts.putIfAbsent(c, jaxbContext);
+			if (existing != null) {
+				jaxbContext = existing;
+			}
+		}
+		return jaxbContext;
+	}
+
 	public static String repaceInvalidChars(char[] invalidChars, char newChar, String source)
     {
 		StringBuffer temp = new StringBuffer(source);
@@ -98,17 +126,7 @@ public class ParserUtil {
 	public static String marshallerObject(Class c, Object o){
 		String s = "<?xml version=\"1.0\" ?>";
 		try {
-			JAXBContext jaxbContext;
-			Thread t = Thread.currentThread();
-			ClassLoader orig = t.getContextClassLoader();
-			t.setContextClassLoader(ParserUtil.class.getClassLoader());
-			try {
-				jaxbContext = JAXBContext.newInstance(c);
-			} finally {
-				t.setContextClassLoader(orig);
-			}
-
-			Marshaller marshaller =  jaxbContext.createMarshaller();
+			Marshaller marshaller =  getJAXBContext(c).createMarshaller();
 			marshaller.setProperty(Marshaller.JAXB_ENCODING,"utf-8");
 			marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
 			marshaller.setProperty(Marshaller.JAXB_FRAGMENT, true);
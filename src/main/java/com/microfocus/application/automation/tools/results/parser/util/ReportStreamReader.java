@@ -0,0 +1,138 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.results.parser.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+
+import org.codehaus.stax2.XMLStreamReader2;
+
+import com.ctc.wstx.stax.WstxInputFactory;
+
+/**
+ * Walks the elements of a report with StAX and unmarshals the ones asked for with JAXB, so that only one of them
+ * is in memory at a time.
+ */
+public class ReportStreamReader implements Closeable {
+
+	private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+	private final InputStream in;
+	private final XMLStreamReader2 reader;
+	private final Unmarshaller unmarshaller;
+	private boolean unmarshalled;
+
+	/**
+	 * @param contextClass the root class of the report binding, whose JAXB context unmarshals the elements
+	 */
+	public ReportStreamReader(InputStream in, Class<?> contextClass) throws XMLStreamException, JAXBException {
+		this.in = in;
+		this.reader = (XMLStreamReader2) XML_INPUT_FACTORY.createXMLStreamReader(in);
+		this.unmarshaller = ParserUtil.getJAXBContext(contextClass).createUnmarshaller();
+	}
+
+	/**
+	 * Moves to the next start or end element, returns false at the end of the report.
+	 */
+	public boolean next() throws XMLStreamException {
+		if (unmarshalled) {
+			// the unmarshaller leaves the reader on the event following the element
+			unmarshalled = false;
+			if (reader.isStartElement() || reader.isEndElement()) {
+				return true;
+			}
+		}
+		while (reader.hasNext()) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT || event == XMLStreamConstants.END_ELEMENT) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public boolean isStartElement(String localName) {
+		return reader.isStartElement() && localName.equals(reader.getLocalName());
+	}
+
+	public boolean isEndElement(String localName) {
+		return reader.isEndElement() && localName.equals(reader.getLocalName());
+	}
+
+	/**
+	 * Returns the number of elements enclosing the current one, counting itself, 1 for the root.
+	 */
+	public int getDepth() {
+		return reader.getDepth();
+	}
+
+	public String getAttributeValue(String localName) {
+		return reader.getAttributeValue(null, localName);
+	}
+
+	/**
+	 * Returns the text of the current text-only element and moves to its end.
+	 */
+	public String getElementText() throws XMLStreamException {
+		return reader.getElementText();
+	}
+
+	/**
+	 * Unmarshals the current element and moves past its end.
+	 */
+	public <T> T unmarshal(Class<T> type) throws JAXBException {
+		unmarshalled = true;
+		return unmarshaller.unmarshal(reader, type).getValue();
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			reader.close();
+		} catch (XMLStreamException e) {
+			throw new IOException(e);
+		} finally {
+			in.close();
+		}
+	}
+
+	private static XMLInputFactory createXmlInputFactory() {
+		XMLInputFactory xmlFactory = new WstxInputFactory();
+		xmlFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		xmlFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		return xmlFactory;
+	}
+}
@@ -0,0 +1,367 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.results.projectparser.performance;
+
+import com.ctc.wstx.stax.WstxInputFactory;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.TreeMap;
+
+/**
+ * Streaming reader of a LoadRunner RunReport.xml.
+ * Fills the same {@link JobLrScenarioResult} as the DOM parsing in RunResultRecorder in a single pass, without
+ * keeping the document in memory, so that only the extracted SLA results grow with the report size.
+ */
+public final class RunReportStaxParser {
+
+    private static final String SLA_ACTUAL_VALUE_LABEL = "ActualValue";
+    private static final String SLA_GOAL_VALUE_LABEL = "GoalValue";
+    private static final String SLA_FULL_NAME = "FullName";
+    private static final String SLA_LOAD_THRESHOLD = "SLALoadThresholdValue";
+    private static final String TIME_RANGE_INFO = "TimeRangeInfo";
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+    private final XMLStreamReader reader;
+    private final JobLrScenarioResult result;
+
+    private RunReportStaxParser(XMLStreamReader reader, String scenarioName) {
+        this.reader = reader;
+        this.result = new JobLrScenarioResult(scenarioName);
+    }
+
+    /**
+     * Parses a RunReport.xml. The stream is not closed.
+     *
+     * @param in           the report content
+     * @param scenarioName the scenario name of the result
+     * @return the scenario result
+     * @throws XMLStreamException if the report is not well formed
+     */
+    public static JobLrScenarioResult parse(InputStream in, String scenarioName) throws XMLStreamException {
+        XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(in);
+        try {
+            RunReportStaxParser parser = new RunReportStaxParser(reader, scenarioName);
+            parser.readRuns();
+            return parser.result;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private void readRuns() throws XMLStreamException {
+        if (reader.nextTag() != XMLStreamConstants.START_ELEMENT || !isElement("Runs")) {
+            return;
+        }
+        boolean generalRead = false;
+        boolean slaRead = false;
+        while (nextChildElement()) {
+            if (!generalRead && isElement("General")) {
+                generalRead = true;
+                readGeneral();
+            } else if (!slaRead && isElement("SLA")) {
+                slaRead = true;
+                readSla();
+            } else {
+                skipElement();
+            }
+        }
+    }
+
+    private void readGeneral() throws XMLStreamException {
+        boolean vUsersRead = false;
+        boolean transactionsRead = false;
+        boolean connectionsRead = false;
+        boolean timeRead = false;
+        while (nextChildElement()) {
+            if (!vUsersRead && isElement("VUsers")) {
+                vUsersRead = true;
+                for (int i = 0; i < reader.getAttributeCount(); i++) {
+                    result.vUserSum.put(reader.getAttributeLocalName(i), Integer.valueOf(reader.getAttributeValue(i)));
+                }
+                skipElement();
+            } else if (!transactionsRead && isElement("Transactions")) {
+                transactionsRead = true;
+                readTransactions();
+            } else if (!connectionsRead && isElement("Connections")) {
+                connectionsRead = true;
+                result.setConnectionMax(Integer.valueOf(attributeIgnoreCase("MaxCount")));
+                skipElement();
+            } else if (!timeRead && isElement("Time")) {
+                timeRead = true;
+                result.setScenarioDuration(Long.valueOf(attributeIgnoreCase("Duration")));
+                skipElement();
+            } else {
+                skipElement();
+            }
+        }
+    }
+
+    private void readTransactions() throws XMLStreamException {
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            result.transactionSum.put(reader.getAttributeLocalName(i), Integer.valueOf(reader.getAttributeValue(i)));
+        }
+        while (nextChildElement()) {
+            TreeMap<String, Integer> transactionData = new TreeMap<String, Integer>();
+            transactionData.put("Pass", Integer.valueOf(attribute("Pass")));
+            transactionData.put("Fail", Integer.valueOf(attribute("Fail")));
+            transactionData.put("Stop", Integer.valueOf(attribute("Stop")));
+            result.transactionData.put(attribute("Name"), transactionData);
+            skipElement();
+        }
+    }
+
+    private void readSla() throws XMLStreamException {
+        while (nextChildElement()) {
+            GoalResult goalResult = createGoalResult(LrTest.SLA_GOAL.checkGoal(attribute("Measurement")));
+            if (goalResult == null) {
+                skipElement();
+                continue;
+            }
+            String lastChildText = readSlaRuleContent(
+                    goalResult instanceof TimeRangeResult ? (TimeRangeResult) goalResult : null);
+            goalResult.setStatus(LrTest.SLA_STATUS.checkStatus(lastChildText.trim()));
+            result.scenarioSlaResults.add(goalResult);
+        }
+    }
+
+    private GoalResult createGoalResult(LrTest.SLA_GOAL slaGoal) {
+        switch (slaGoal) {
+            case AverageThroughput:
+            case TotalThroughput:
+            case AverageHitsPerSecond:
+            case TotalHits:
+                WholeRunResult wholeRunResult = new WholeRunResult();
+                wholeRunResult.setSlaGoal(slaGoal);
+                wholeRunResult.setActualValue(Double.valueOf(attribute(SLA_ACTUAL_VALUE_LABEL)));
+                wholeRunResult.setGoalValue(Double.valueOf(attribute(SLA_GOAL_VALUE_LABEL)));
+                wholeRunResult.setFullName(attribute(SLA_FULL_NAME));
+                return wholeRunResult;
+            case ErrorsPerSecond:
+                TimeRangeResult errPerSec = new AvgTransactionResponseTime();
+                errPerSec.setSlaGoal(slaGoal);
+                errPerSec.setFullName(attribute(SLA_FULL_NAME));
+                errPerSec.setLoadThrashold(attribute(SLA_LOAD_THRESHOLD));
+                return errPerSec;
+            case PercentileTRT:
+                PercentileTransactionWholeRun percentileTransactionWholeRun = new PercentileTransactionWholeRun();
+                percentileTransactionWholeRun.setSlaGoal(slaGoal);
+                percentileTransactionWholeRun.setName(attribute("TransactionName"));
+                percentileTransactionWholeRun.setActualValue(Double.valueOf(attribute(SLA_ACTUAL_VALUE_LABEL)));
+                percentileTransactionWholeRun.setGoalValue(Double.valueOf(attribute(SLA_GOAL_VALUE_LABEL)));
+                percentileTransactionWholeRun.setFullName(attribute(SLA_FULL_NAME));
+                percentileTransactionWholeRun.setPrecentage(Double.valueOf(attribute("Percentile")));
+                return percentileTransactionWholeRun;
+            case AverageTRT:
+                AvgTransactionResponseTime transactionTimeRange = new AvgTransactionResponseTime();
+                transactionTimeRange.setSlaGoal(slaGoal);
+                transactionTimeRange.setName(attribute("TransactionName"));
+                transactionTimeRange.setFullName(attribute(SLA_FULL_NAME));
+                transactionTimeRange.setLoadThrashold(attribute(SLA_LOAD_THRESHOLD));
+                return transactionTimeRange;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Reads the content of an SLA rule element up to its end tag, adding its time ranges if requested.
+     *
+     * @return the text content of the last child node of the rule, which holds the rule status
+     */
+    private String readSlaRuleContent(TimeRangeResult timeRangeResult) throws XMLStreamException {
+        StringBuilder lastChildText = new StringBuilder();
+        StringBuilder childText = new StringBuilder();
+        boolean lastChildIsText = false;
+        boolean firstTimeRange = true;
+        int depth = 0;
+        while (true) {
+            int event = reader.next();
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT:
+                    if (depth == 0) {
+                        childText.setLength(0);
+                    }
+                    if (timeRangeResult != null && TIME_RANGE_INFO.equals(reader.getLocalName())) {
+                        childText.append(readTimeRange(timeRangeResult, firstTimeRange));
+                        firstTimeRange = false;
+                        if (depth == 0) {
+                            lastChildIsText = false;
+                            lastChildText.setLength(0);
+                            lastChildText.append(childText);
+                        }
+                    } else {
+                        depth++;
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    if (depth == 0) {
+                        return lastChildText.toString();
+                    }
+                    depth--;
+                    if (depth == 0) {
+                        lastChildIsText = false;
+                        lastChildText.setLength(0);
+                        lastChildText.append(childText);
+                    }
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    if (depth > 0) {
+                        childText.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    } else {
+                        if (!lastChildIsText) {
+                            lastChildIsText = true;
+                            lastChildText.setLength(0);
+                        }
+                        lastChildText.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    }
+                    break;
+                case XMLStreamConstants.END_DOCUMENT:
+                    throw new XMLStreamException("Unexpected end of document in SLA rule", reader.getLocation());
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Reads a TimeRangeInfo element up to its end tag and adds it to the time range result.
+     *
+     * @return the text content of the element
+     */
+    private String readTimeRange(TimeRangeResult timeRangeResult, boolean first) throws XMLStreamException {
+        double actualValue = Double.parseDouble(attribute(SLA_ACTUAL_VALUE_LABEL));
+        double goalValue = Double.parseDouble(attribute(SLA_GOAL_VALUE_LABEL));
+        int loadValue = Integer.parseInt(attribute("LoadValue"));
+        double startTime = Double.parseDouble(attribute("StartTime"));
+        double endTime = Double.parseDouble(attribute("EndTime"));
+        if (first) {
+            // Taking the goal per transaction -
+            timeRangeResult.setGoalValue(goalValue);
+        }
+
+        StringBuilder text = new StringBuilder();
+        // the status is the text of the first child node, either leading text or the first child element
+        int firstChildEnd = -1;
+        boolean firstChildIsElement = false;
+        int depth = 0;
+        while (true) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (firstChildEnd < 0 && depth == 0 && text.length() == 0) {
+                    firstChildIsElement = true;
+                } else if (firstChildEnd < 0 && !firstChildIsElement) {
+                    firstChildEnd = text.length();
+                }
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                if (depth == 0) {
+                    break;
+                }
+                depth--;
+                if (depth == 0 && firstChildIsElement && firstChildEnd < 0) {
+                    firstChildEnd = text.length();
+                }
+            } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA
+                    || event == XMLStreamConstants.SPACE) {
+                text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+            } else if (event == XMLStreamConstants.END_DOCUMENT) {
+                throw new XMLStreamException("Unexpected end of document in time range", reader.getLocation());
+            }
+        }
+        String status = text.substring(0, firstChildEnd < 0 ? text.length() : firstChildEnd);
+
+        timeRangeResult.incActualValue(actualValue);
+        TimeRange timeRange = new TimeRange(actualValue, goalValue, LrTest.SLA_STATUS.checkStatus(status), loadValue,
+                startTime, endTime);
+        timeRangeResult.getTimeRanges().add(timeRange);
+        return text.toString();
+    }
+
+    /**
+     * Moves to the next child element of the current element.
+     *
+     * @return false when the end tag of the current element was reached instead
+     */
+    private boolean nextChildElement() throws XMLStreamException {
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            }
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private void skipElement() throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private boolean isElement(String name) {
+        return reader.getLocalName().equalsIgnoreCase(name);
+    }
+
+    private String attribute(String name) {
+        String value = reader.getAttributeValue(null, name);
+        return value == null ? "" : value;
+    }
+
+    private String attributeIgnoreCase(String name) {
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            if (reader.getAttributeLocalName(i).equalsIgnoreCase(name)) {
+                return reader.getAttributeValue(i);
+            }
+        }
+        return "";
+    }
+
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory xmlFactory = new WstxInputFactory();
+        xmlFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return xmlFactory;
+    }
+}
@@ -37,6 +37,7 @@ import java.util.Map;
 import com.microfocus.application.automation.tools.common.Pair;
 import com.microfocus.application.automation.tools.rest.RestClient;
 import com.microfocus.application.automation.tools.results.service.almentities.AlmEntity;
+import com.microfocus.application.automation.tools.results.service.rest.CreateAlmEntitiesRequest;
 import com.microfocus.application.automation.tools.results.service.rest.CreateAlmEntityRequest;
 import com.microfocus.application.automation.tools.results.service.rest.GetAlmEntityRequest;
 import com.microfocus.application.automation.tools.results.service.rest.UpdateAlmEntityRequest;
@@ -199,7 +200,7 @@ public class AlmRestTool {
 			GetAlmEntityRequest getRequest = new GetAlmEntityRequest(entity, getRestClient(), getEntityUnderParentFolderQuery);
 			Response response = getRequest.perform();
 			if(response.isOk() ) {
-				List<Map<String, String>> entities2 = XPathUtils.toEntities(response.toString());
+				List<Map<String, String>> entities2 = XPathUtils.toEntities(response.getData());
 				List<E> entities = getAlmEntityList(entities2, entityClass);
 	
 				if(entities.size()>0){
@@ -229,7 +230,7 @@ public class AlmRestTool {
 			GetAlmEntityRequest getRequest = new GetAlmEntityRequest(entity, getRestClient(), queryString);
 			Response response = getRequest.perform();
 			if(response.isOk() && !response.toString().equals("")) {
-				List<Map<String, String>> entities2 = XPathUtils.toEntities(response.toString());
+				List<Map<String, String>> entities2 = XPathUtils.toEntities(response.getData());
 				List entities = getAlmEntityList(entities2, entity.getClass());
 				return entities;
 			} else {
@@ -252,7 +253,7 @@ public class AlmRestTool {
 		CreateAlmEntityRequest createRequest = new CreateAlmEntityRequest(getRestClient(), entity, getPairListForAlmEntityFields(entity, fieldsForCreation) );
 		Response response = createRequest.perform();	
 		if(response.isOk() && !response.toString().equals("")){
-			List<Map<String, String>> entities2 = XPathUtils.toEntities(response.toString());
+			List<Map<String, String>> entities2 = XPathUtils.toEntities(response.getData());
 			List entities = getAlmEntityList(entities2, entity.getClass());
 	
 			if(entities.size()>0){
@@ -269,6 +270,62 @@ public class AlmRestTool {
 		
 	}
 
+    /**
+     * Get all ALM entities matching the query, walking the result pages with page-size and start-index.
+     * Unlike getAlmEntity a failed page is reported instead of being returned as an empty list,
+     * so callers can rely on the result being complete.
+     */
+	public <E extends AlmEntity> List<E> getAllAlmEntities(E entity, String queryString, int pageSize) throws ExternalEntityUploadException {
+
+		List<E> ret = new ArrayList<E>();
+		int startIndex = 1;
+		while (true) {
+			String pageQuery = String.format("%s&page-size=%d&start-index=%d", queryString, pageSize, startIndex);
+			GetAlmEntityRequest getRequest = new GetAlmEntityRequest(entity, getRestClient(), pageQuery);
+			Response response = getRequest.execute();
+			if (!response.isOk()) {
+				_logger.log("Failed to get Entity:" + entity.toString() + " with query string:" + pageQuery);
+				throw new ExternalEntityUploadException("Failed to get Entity:" + entity.toString());
+			}
+			List<E> page = response.toString().equals("")
+					? new ArrayList<E>()
+					: (List<E>) getAlmEntityList(XPathUtils.toEntities(response.getData()), entity.getClass());
+			ret.addAll(page);
+			if (page.size() < pageSize) {
+				return ret;
+			}
+			startIndex += pageSize;
+		}
+	}
+
+    /**
+     * Create ALM entities of the same type with one bulk request.
+     * The created entities are returned in the order of the given list.
+     */
+	public <E extends AlmEntity> List<E> createAlmEntities(List<E> entities, String[] fieldsForCreation) throws ExternalEntityUploadException {
+
+		if (entities.isEmpty()) {
+			return new ArrayList<E>();
+		}
+
+		E first = entities.get(0);
+		List<List<Pair<String, String>>> attrForCreation = new ArrayList<List<Pair<String, String>>>(entities.size());
+		for (E entity : entities) {
+			attrForCreation.add(getPairListForAlmEntityFields(entity, fieldsForCreation));
+		}
+
+		CreateAlmEntitiesRequest createRequest = new CreateAlmEntitiesRequest(getRestClient(), first, attrForCreation);
+		Response response = createRequest.execute();
+		if (response.isOk() && !response.toString().equals("")) {
+			List created = getAlmEntityList(XPathUtils.toEntities(response.getData()), first.getClass());
+			if (created.size() == entities.size()) {
+				return (List<E>) created;
+			}
+		}
+		_logger.log("Failed to create " + entities.size() + " entities of type: " + first.getRestPrefix());
+		throw new ExternalEntityUploadException("Failed to create " + entities.size() + " entities of type: " + first.getRestPrefix());
+	}
+
     /**
      * Update ALM entity
      */
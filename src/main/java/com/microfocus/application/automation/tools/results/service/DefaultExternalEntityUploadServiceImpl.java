@@ -28,18 +28,25 @@
 
 package com.microfocus.application.automation.tools.results.service;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.GregorianCalendar;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.StringTokenizer;
 
+import com.microfocus.application.automation.tools.results.parser.ReportConsumer;
+import com.microfocus.application.automation.tools.results.parser.ReportParseException;
 import com.microfocus.application.automation.tools.results.parser.ReportParserManager;
 import com.microfocus.application.automation.tools.results.service.almentities.AlmCommonProperties;
 import com.microfocus.application.automation.tools.results.service.almentities.AlmEntity;
 import com.microfocus.application.automation.tools.results.service.almentities.AlmRun;
+import com.microfocus.application.automation.tools.results.service.almentities.AlmRunImpl;
 import com.microfocus.application.automation.tools.results.service.almentities.AlmTest;
 import com.microfocus.application.automation.tools.results.service.almentities.AlmTestConfig;
 import com.microfocus.application.automation.tools.results.service.almentities.AlmTestConfigImpl;
@@ -60,9 +67,24 @@ import hudson.FilePath;
 public class DefaultExternalEntityUploadServiceImpl implements
 		IExternalEntityUploadService {
 
+	/**
+	 * Entities sent per bulk create request; 0 keeps the one-request-per-entity upload.
+	 */
+	private static final int DEFAULT_BULK_CHUNK_SIZE = Math.max(0, Integer.getInteger("DefaultExternalEntityUploadServiceImpl.BulkChunkSize", 0));
+	private static final int PREFETCH_PAGE_SIZE = 2000;
+	private static final String[] TEST_KEY_FIELDS = {AlmTest.TEST_NAME, AlmTest.TS_UT_CLASS_NAME, AlmTest.TS_UT_METHOD_NAME};
+	private static final String[] TEST_INSTANCE_KEY_FIELDS = {AlmTestInstance.TEST_INSTANCE_TEST_ID, AlmTestInstance.TEST_INSTANCE_CONFIG_ID};
+	private static final String[] RUN_KEY_FIELDS = {AlmRun.RUN_TESTCYCL_UNIQUE_ID, AlmCommonProperties.NAME, AlmRun.RUN_JENKINS_URL};
+	/**
+	 * Reports of at least this many bytes are uploaded while they are parsed, one test case in memory at a time,
+	 * unless uploading in bulk; a negative size turns it off.
+	 */
+	private static final long STREAMING_THRESHOLD = Long.getLong("DefaultExternalEntityUploadServiceImpl.StreamingThreshold", 32L * 1024 * 1024);
+
 	Logger logger;
 	private AlmRestTool restTool;
 	private FilePath workspace;
+	private int bulkChunkSize = DEFAULT_BULK_CHUNK_SIZE;
 	
 	public DefaultExternalEntityUploadServiceImpl(AlmRestTool restTool, FilePath workspace, Logger logger) {
 		this.restTool = restTool;
@@ -70,6 +92,18 @@ public class DefaultExternalEntityUploadServiceImpl implements
 		this.workspace = workspace;
 	}
 
+	public int getBulkChunkSize() {
+		return bulkChunkSize;
+	}
+
+	/**
+	 * Switches to the batched upload: existing tests and test instances are prefetched once and
+	 * missing tests, test instances and runs are created with bulk requests of the given size.
+	 */
+	public void setBulkChunkSize(int bulkChunkSize) {
+		this.bulkChunkSize = Math.max(0, bulkChunkSize);
+	}
+
 	private String [] getTestCreationFields() {
 		
 		return new String [] {	AlmTest.TEST_NAME,
@@ -84,52 +118,59 @@ public class DefaultExternalEntityUploadServiceImpl implements
 							};
 	}
 	
-	private AlmTest importTest(AlmTest test , int testFolderId, String testingTool, String testdesigner) throws ExternalEntityUploadException{
+	/**
+	 * Looks for the test among the existing tests with the same class and method name.
+	 * If it is not there, gives the test a name that does not clash with theirs.
+	 */
+	private AlmTest findOrNameTest(AlmTest test, List<? extends AlmTest> existingTests) {
+
+		if(existingTests == null || existingTests.size() == 0) {
+			return null;
+		}
 
 		String className = (String) test.getFieldValue(AlmTest.TS_UT_CLASS_NAME);
 		String methodName = (String) test.getFieldValue(AlmTest.TS_UT_METHOD_NAME);
 		String packageName = (String) test.getFieldValue(AlmTest.TS_UT_PACKAGE_NAME);
 		String testingFramework = (String) test.getFieldValue(AlmTest.TS_TESTING_FRAMEWORK);
+
+		Map<String, AlmTest> existingTestMap = new HashMap<String, AlmTest> ();
 		
-		String queryString = String.format("query={parent-id[%s];subtype-id[EXTERNAL-TEST];ut-class-name[%s];ut-method-name[%s]}&fields=id,name,ut-package-name,ut-class-name,ut-method-name,testing-framework&page-size=2000", 
-											String.valueOf(testFolderId),
-											AlmRestTool.getEncodedString(className),
-											AlmRestTool.getEncodedString(methodName));		
-		List<AlmTestImpl> existingTests = restTool.getAlmEntity(new AlmTestImpl(), queryString);
-		
-		AlmTestImpl importedTest = null;//restTool.getEntityUnderParentFolder(AlmTestImpl.class, testFolderId, test.getName());
-		
-		if(existingTests != null && existingTests.size() >0) {
-			boolean exists = false;
-			Map<String, AlmTestImpl> existingTestMap = new HashMap<String, AlmTestImpl> ();
-			
-			for(AlmTestImpl existingTest : existingTests) {
-				if(existingTest.getKey().endsWith(test.getKey())) {
-					exists = true;
-					importedTest = existingTest;
-					break;
-				}
-				existingTestMap.put(existingTest.getName(), existingTest);
+		for(AlmTest existingTest : existingTests) {
+			if(existingTest.getKey().endsWith(test.getKey())) {
+				return existingTest;
 			}
-			
-			if(!exists) {
-				String tempName = className + "_" + methodName;
+			existingTestMap.put(existingTest.getName(), existingTest);
+		}
+		
+		String tempName = className + "_" + methodName;
+		if(!existingTestMap.containsKey(tempName)) {
+			test.setFieldValue(AlmTest.TEST_NAME, tempName);
+		} else { 
+			tempName = packageName + "_" +tempName;
+			if(!existingTestMap.containsKey(tempName)) {
+				test.setFieldValue(AlmTest.TEST_NAME, tempName);
+			} else {
+				tempName = tempName +"_" +testingFramework;
 				if(!existingTestMap.containsKey(tempName)) {
 					test.setFieldValue(AlmTest.TEST_NAME, tempName);
-				} else { 
-					tempName = packageName + "_" +tempName;
-					if(!existingTestMap.containsKey(tempName)) {
-						test.setFieldValue(AlmTest.TEST_NAME, tempName);
-					} else {
-						tempName = tempName +"_" +testingFramework;
-						if(!existingTestMap.containsKey(tempName)) {
-							test.setFieldValue(AlmTest.TEST_NAME, tempName);
-						}
-					}
 				}
-				
 			}
 		}
+		return null;
+	}
+	
+	private AlmTest importTest(AlmTest test , int testFolderId, String testingTool, String testdesigner) throws ExternalEntityUploadException{
+
+		String className = (String) test.getFieldValue(AlmTest.TS_UT_CLASS_NAME);
+		String methodName = (String) test.getFieldValue(AlmTest.TS_UT_METHOD_NAME);
+		
+		String queryString = String.format("query={parent-id[%s];subtype-id[EXTERNAL-TEST];ut-class-name[%s];ut-method-name[%s]}&fields=id,name,ut-package-name,ut-class-name,ut-method-name,testing-framework&page-size=2000", 
+											String.valueOf(testFolderId),
+											AlmRestTool.getEncodedString(className),
+											AlmRestTool.getEncodedString(methodName));		
+		List<AlmTestImpl> existingTests = restTool.getAlmEntity(new AlmTestImpl(), queryString);
+		
+		AlmTest importedTest = findOrNameTest(test, existingTests);//restTool.getEntityUnderParentFolder(AlmTestImpl.class, testFolderId, test.getName());
 		
 		if(importedTest	== null) {
 			test.setFieldValue(AlmCommonProperties.PARENT_ID, String.valueOf(testFolderId));	
@@ -252,6 +293,20 @@ public class DefaultExternalEntityUploadServiceImpl implements
 								String jobName,
 								String buildUrl) throws ExternalEntityUploadException{
 		
+		prepareRun(tester, run, testsetId, testId, testInstanceId, testconfigId, subversion, jobName, buildUrl);
+		return restTool.createAlmEntity(run, getRunCreationFields());
+	}
+
+	private void prepareRun(String tester,
+							AlmRun run,
+							String testsetId,
+							String testId,
+							String testInstanceId,
+							String testconfigId,
+							String subversion,
+							String jobName,
+							String buildUrl) {
+
 		run.setFieldValue(AlmRun.RUN_CONFIG_ID, String.valueOf(testconfigId));
 		run.setFieldValue(AlmRun.RUN_CYCLE_ID, String.valueOf(testsetId));
 		run.setFieldValue(AlmRun.RUN_TEST_ID, String.valueOf(testId));
@@ -268,10 +323,6 @@ public class DefaultExternalEntityUploadServiceImpl implements
 		
 		run.setFieldValue(AlmCommonProperties.NAME, generateImportRunName());
 		run.setFieldValue(AlmCommonProperties.OWNER, tester);
-		
-		return restTool.createAlmEntity(run, getRunCreationFields());
-
-
 	}
 
 	private String[] getCreationFieldsForTestFolder() {
@@ -374,6 +425,27 @@ public class DefaultExternalEntityUploadServiceImpl implements
 		List<String> importedTestsetIds = new ArrayList<>();
 		ReportParserManager reportParserManager = ReportParserManager.getInstance(workspace, logger);
 
+		if (bulkChunkSize <= 0 && STREAMING_THRESHOLD >= 0 && new File(reportFilePath).length() >= STREAMING_THRESHOLD) {
+			StreamingUpload upload = new StreamingUpload(testsetFolderPath, testFolderPath, testingTool, subversion, jobName, buildUrl);
+			try {
+				if (reportParserManager.parseTestSets(reportFilePath, testingFramework, testingTool, upload)) {
+					logger.log("INFO: parse resut file succeed.");
+					if (!upload.started) {
+						logger.log("INFO: No testset to upload.");
+					}
+					return upload.importedTestsetIds;
+				}
+			} catch (ReportParseException e) {
+				if (e.getCause() instanceof ExternalEntityUploadException) {
+					throw (ExternalEntityUploadException) e.getCause();
+				}
+				if (upload.started) {
+					throw new ExternalEntityUploadException("Failed to parse file: " + reportFilePath, e);
+				}
+				logger.log("INFO: Failed to stream file, parsing it whole.");
+			}
+		}
+
 		List<AlmTestSet> testsets = reportParserManager.parseTestSets(reportFilePath, testingFramework,  testingTool);
 
 		if(testsets == null) {
@@ -387,31 +459,22 @@ public class DefaultExternalEntityUploadServiceImpl implements
 			return importedTestsetIds;
 		}
 
-		logger.log("INFO: Start to login to ALM Server.");
 		try {
-			if(!restTool.login()) {
-				throw new ExternalEntityUploadException("Failed to login to ALM Server.");
-			}
-
-			// Get the username again if logged in with API key.
-			String actualUser = restTool.getActualUsername();
-			if (actualUser == null || actualUser.length() == 0) {
-				throw new ExternalEntityUploadException("Failed to get actual login user.");
-			}
-
-			logger.log("INFO: Checking test folder...");
-			AlmTestFolder testFolder = createTestFolderPath(2, testFolderPath);
-
-			logger.log("INFO: Checking testset folder...");
-			AlmTestSetFolder testsetFolder = createTestSetFolderPath (0, testsetFolderPath);
-
-			if(testFolder != null && testsetFolder != null) {
-				logger.log("INFO: Uploading ALM Entities...");
-				importedTestsetIds = importExternalTestSet(
+			UploadTarget target = login(testsetFolderPath, testFolderPath);
+			if(target != null) {
+				importedTestsetIds = bulkChunkSize > 0 ? importExternalTestSetInBulk(
 						testsets,
-						actualUser,
-						Integer.valueOf(testsetFolder.getId()),
-						Integer.valueOf(testFolder.getId()),
+						target.tester,
+						target.testsetFolderId,
+						target.testFolderId,
+						testingTool,
+						subversion,
+						jobName,
+						buildUrl) : importExternalTestSet(
+						testsets,
+						target.tester,
+						target.testsetFolderId,
+						target.testFolderId,
 						testingTool,
 						subversion,
 						jobName,
@@ -422,6 +485,95 @@ public class DefaultExternalEntityUploadServiceImpl implements
 		}
 		return importedTestsetIds;
 	}
+
+	/**
+	 * Logs in to ALM and checks the test and test set folders, creating them when missing.
+	 * Returns null if one of them could not be created.
+	 */
+	private UploadTarget login(String testsetFolderPath, String testFolderPath) throws ExternalEntityUploadException {
+		logger.log("INFO: Start to login to ALM Server.");
+		if(!restTool.login()) {
+			throw new ExternalEntityUploadException("Failed to login to ALM Server.");
+		}
+
+		// Get the username again if logged in with API key.
+		String actualUser = restTool.getActualUsername();
+		if (actualUser == null || actualUser.length() == 0) {
+			throw new ExternalEntityUploadException("Failed to get actual login user.");
+		}
+
+		logger.log("INFO: Checking test folder...");
+		AlmTestFolder testFolder = createTestFolderPath(2, testFolderPath);
+
+		logger.log("INFO: Checking testset folder...");
+		AlmTestSetFolder testsetFolder = createTestSetFolderPath (0, testsetFolderPath);
+
+		if(testFolder == null || testsetFolder == null) {
+			return null;
+		}
+		logger.log("INFO: Uploading ALM Entities...");
+		return new UploadTarget(actualUser, Integer.valueOf(testsetFolder.getId()), Integer.valueOf(testFolder.getId()));
+	}
+
+	private static class UploadTarget {
+		private final String tester;
+		private final int testsetFolderId;
+		private final int testFolderId;
+
+		UploadTarget(String tester, int testsetFolderId, int testFolderId) {
+			this.tester = tester;
+			this.testsetFolderId = testsetFolderId;
+			this.testFolderId = testFolderId;
+		}
+	}
+
+	/**
+	 * Uploads the test sets and test instances of a report as they are parsed. It logs in with the first test set,
+	 * so that a report without any does not reach ALM, like the upload of a parsed report.
+	 */
+	private class StreamingUpload implements ReportConsumer {
+
+		private final String testsetFolderPath;
+		private final String testFolderPath;
+		private final String testingTool;
+		private final String subversion;
+		private final String jobName;
+		private final String buildUrl;
+		private final List<String> importedTestsetIds = new ArrayList<String>();
+		private boolean started;
+		private UploadTarget target;
+		private AlmTestSet testSet;
+		private AlmTestSet importedTestSet;
+
+		StreamingUpload(String testsetFolderPath, String testFolderPath, String testingTool, String subversion, String jobName, String buildUrl) {
+			this.testsetFolderPath = testsetFolderPath;
+			this.testFolderPath = testFolderPath;
+			this.testingTool = testingTool;
+			this.subversion = subversion;
+			this.jobName = jobName;
+			this.buildUrl = buildUrl;
+		}
+
+		@Override
+		public void testSet(AlmTestSet testSet) throws ExternalEntityUploadException {
+			if (!started) {
+				started = true;
+				target = login(testsetFolderPath, testFolderPath);
+			}
+			this.testSet = testSet;
+			importedTestSet = target == null ? null : importTestSet(testSet, target.testsetFolderId);
+			if (importedTestSet != null) {
+				importedTestsetIds.add(importedTestSet.getId());
+			}
+		}
+
+		@Override
+		public void testInstance(AlmTestSet testSet, AlmTestInstance testInstance) throws ExternalEntityUploadException {
+			if (testSet == this.testSet && importedTestSet != null) {
+				uploadTestInstance(testInstance, importedTestSet.getId(), target.tester, target.testFolderId, testingTool, subversion, jobName, buildUrl);
+			}
+		}
+	}
 	
 	
 	private List<String> importExternalTestSet(List<AlmTestSet> testsets, String tester, int testsetFolderId, int testFolderId, String testingTool, String subversion, String jobName, String buildUrl ) throws ExternalEntityUploadException{
@@ -441,45 +593,342 @@ public class DefaultExternalEntityUploadServiceImpl implements
 				continue;
 			}
 
+			for(AlmEntity testinstanceEntity: testinstances){
+				uploadTestInstance((AlmTestInstance) testinstanceEntity, importedTestSet.getId(), tester, testFolderId, testingTool, subversion, jobName, buildUrl);
+			}
+		}
+
+		return importedTestsetIds;
+	}
+
+	private void uploadTestInstance(AlmTestInstance testInstance, String testsetId, String tester, int testFolderId, String testingTool, String subversion, String jobName, String buildUrl) throws ExternalEntityUploadException {
+		List<AlmEntity> tests = testInstance.getRelatedEntities().get(EntityRelation.TEST_TO_TESTINSTANCE_REALIZATION_RELATION);
+		if(tests == null || tests.size() <= 0) {
+			return;
+		}
+
+		AlmTest test = (AlmTest) tests.get(0);
+		AlmTest importedTest = importTest(test, testFolderId, testingTool, tester);
+		if(importedTest == null) {
+			return;
+		}
+		
+		AlmTestConfig mainTestConfig = getMainTestConfig(importedTest);
+		if(mainTestConfig == null) {
+			return;
+		}
+
+		AlmTestInstance importedTestInstance = importTestInstance(testInstance, testsetId, importedTest.getId(), mainTestConfig.getId(), tester);
+		List<AlmEntity> runs = testInstance.getRelatedEntities().get(EntityRelation.TESTINSTANCE_TO_RUN_REALIZATION_RELATION);
+		if(runs == null || runs.size() <= 0) {
+			return;
+		}
+		
+		AlmRun run = (AlmRun) runs.get(0);
+		generateRun(tester, 
+					run,  
+					testsetId,
+					importedTest.getId(), 
+					importedTestInstance.getId(), 
+					mainTestConfig.getId(), 
+					subversion,
+					jobName,
+					buildUrl
+					);
+	}
+
+	private List<String> importExternalTestSetInBulk(List<AlmTestSet> testsets, String tester, int testsetFolderId, int testFolderId, String testingTool, String subversion, String jobName, String buildUrl ) throws ExternalEntityUploadException{
+
+		List<String> importedTestsetIds = new ArrayList<String>();
+		Map<String, List<AlmTest>> testsByClassAndMethod = prefetchTests(testFolderId);
+		Map<String, String> mainTestConfigIds = new HashMap<String, String>();
+
+		for (AlmTestSet testset : testsets){
+			AlmTestSet importedTestSet = importTestSet(testset, testsetFolderId);
+			if(importedTestSet == null ) {
+				continue;
+			}
+
+			importedTestsetIds.add(importedTestSet.getId());
+
+			List<AlmEntity> testinstances = testset.getRelatedEntities().get(EntityRelation.TESTSET_TO_TESTINSTANCE_CONTAINMENT_RELATION);
+			if(testinstances == null || testinstances.size() <=0) {
+				continue;
+			}
+
+			List<AlmTestInstance> instances = new ArrayList<AlmTestInstance>();
+			List<AlmTest> tests = new ArrayList<AlmTest>();
 			for(AlmEntity testinstanceEntity: testinstances){
 				AlmTestInstance testInstance = (AlmTestInstance) testinstanceEntity;
-				List<AlmEntity> tests = testInstance.getRelatedEntities().get(EntityRelation.TEST_TO_TESTINSTANCE_REALIZATION_RELATION);
-				if(tests == null || tests.size() <= 0) {
+				List<AlmEntity> relatedTests = testInstance.getRelatedEntities().get(EntityRelation.TEST_TO_TESTINSTANCE_REALIZATION_RELATION);
+				if(relatedTests == null || relatedTests.size() <= 0) {
 					continue;
 				}
+				instances.add(testInstance);
+				tests.add((AlmTest) relatedTests.get(0));
+			}
 
-				AlmTest test = (AlmTest) tests.get(0);
-				AlmTest importedTest = importTest(test, testFolderId, testingTool, tester);
-				if(importedTest == null) {
-					continue;
-				}
-				
-				AlmTestConfig mainTestConfig = getMainTestConfig(importedTest);
-				if(mainTestConfig == null) {
+			List<AlmTest> importedTests = importTestsInBulk(tests, testFolderId, testingTool, tester, testsByClassAndMethod);
+			fetchMainTestConfigs(importedTests, mainTestConfigIds);
+			List<AlmTestInstance> importedInstances = importTestInstancesInBulk(instances, importedTests, importedTestSet.getId(), mainTestConfigIds, tester);
+
+			List<AlmRun> runsToCreate = new ArrayList<AlmRun>();
+			for (int i = 0; i < instances.size(); i++) {
+				AlmTestInstance importedTestInstance = importedInstances.get(i);
+				if(importedTestInstance == null) {
 					continue;
 				}
-
-				AlmTestInstance importedTestInstance = importTestInstance(testInstance, importedTestSet.getId(), importedTest.getId(), mainTestConfig.getId(), tester);
-				List<AlmEntity> runs = testInstance.getRelatedEntities().get(EntityRelation.TESTINSTANCE_TO_RUN_REALIZATION_RELATION);
+				List<AlmEntity> runs = instances.get(i).getRelatedEntities().get(EntityRelation.TESTINSTANCE_TO_RUN_REALIZATION_RELATION);
 				if(runs == null || runs.size() <= 0) {
 					continue;
 				}
-				
+
 				AlmRun run = (AlmRun) runs.get(0);
-				generateRun(tester, 
-							run,  
-							importedTestSet.getId(),
-							importedTest.getId(), 
-							importedTestInstance.getId(), 
-							mainTestConfig.getId(), 
-							subversion,
-							jobName,
-							buildUrl
-							);
+				AlmTest importedTest = importedTests.get(i);
+				prepareRun(tester,
+						run,
+						importedTestSet.getId(),
+						importedTest.getId(),
+						importedTestInstance.getId(),
+						mainTestConfigIds.get(importedTest.getId()),
+						subversion,
+						jobName,
+						buildUrl);
+				runsToCreate.add(run);
 			}
+			createInChunks(runsToCreate, getRunCreationFields(), "runs", RUN_KEY_FIELDS, runs -> {
+				StringBuilder testInstanceIds = new StringBuilder();
+				for (AlmRun run : runs) {
+					if (testInstanceIds.length() > 0) {
+						testInstanceIds.append("%20OR%20");
+					}
+					testInstanceIds.append(run.getFieldValue(AlmRun.RUN_TESTCYCL_UNIQUE_ID));
+				}
+				return restTool.getAllAlmEntities(new AlmRunImpl(), String.format(
+						"query={cycle-id[%s];testcycl-id[%s]}&fields=id,name,testcycl-id,jenkins-url",
+						importedTestSet.getId(), testInstanceIds), PREFETCH_PAGE_SIZE);
+			});
 		}
 
 		return importedTestsetIds;
 	}
-	
+
+	private static String getClassAndMethodKey(AlmEntity test) {
+		return test.getFieldValue(AlmTest.TS_UT_CLASS_NAME) + "#" + test.getFieldValue(AlmTest.TS_UT_METHOD_NAME);
+	}
+
+	/**
+	 * Loads every external test under the folder with one paged query, grouped by class and method name.
+	 */
+	private Map<String, List<AlmTest>> prefetchTests(int testFolderId) throws ExternalEntityUploadException {
+
+		long start = System.currentTimeMillis();
+		String queryString = String.format("query={parent-id[%s];subtype-id[EXTERNAL-TEST]}&fields=id,name,ut-package-name,ut-class-name,ut-method-name,testing-framework",
+				String.valueOf(testFolderId));
+		List<AlmTestImpl> existingTests = restTool.getAllAlmEntities(new AlmTestImpl(), queryString, PREFETCH_PAGE_SIZE);
+
+		Map<String, List<AlmTest>> testsByClassAndMethod = new HashMap<String, List<AlmTest>>();
+		for (AlmTestImpl existingTest : existingTests) {
+			String key = getClassAndMethodKey(existingTest);
+			List<AlmTest> group = testsByClassAndMethod.get(key);
+			if (group == null) {
+				group = new ArrayList<AlmTest>();
+				testsByClassAndMethod.put(key, group);
+			}
+			group.add(existingTest);
+		}
+		logger.log(String.format("INFO: Loaded %d existing tests in %d ms.", existingTests.size(), System.currentTimeMillis() - start));
+		return testsByClassAndMethod;
+	}
+
+	/**
+	 * Resolves each test against the prefetched index and creates the missing ones in bulk.
+	 * The returned list is aligned with the given one.
+	 */
+	private List<AlmTest> importTestsInBulk(List<AlmTest> tests, int testFolderId, String testingTool, String testdesigner, Map<String, List<AlmTest>> testsByClassAndMethod) throws ExternalEntityUploadException {
+
+		List<AlmTest> importedTests = new ArrayList<AlmTest>(tests.size());
+		List<AlmTest> testsToCreate = new ArrayList<AlmTest>();
+
+		for (AlmTest test : tests) {
+			String key = getClassAndMethodKey(test);
+			List<AlmTest> group = testsByClassAndMethod.get(key);
+			AlmTest importedTest = findOrNameTest(test, group);
+			if (importedTest == null) {
+				test.setFieldValue(AlmCommonProperties.PARENT_ID, String.valueOf(testFolderId));
+				test.setFieldValue(AlmTest.TS_TESTING_TOOL, testingTool);
+				test.setFieldValue(AlmTest.TEST_RESPONSIBLE, testdesigner);
+				testsToCreate.add(test);
+				// later occurrences of the same test in this upload resolve to this one
+				if (group == null) {
+					group = new ArrayList<AlmTest>();
+					testsByClassAndMethod.put(key, group);
+				}
+				group.add(test);
+				importedTest = test;
+			}
+			importedTests.add(importedTest);
+		}
+
+		createInChunks(testsToCreate, getTestCreationFields(), "tests", TEST_KEY_FIELDS, created ->
+				restTool.getAllAlmEntities(new AlmTestImpl(), String.format(
+						"query={parent-id[%s];subtype-id[EXTERNAL-TEST]}&fields=id,name,ut-class-name,ut-method-name",
+						String.valueOf(testFolderId)), PREFETCH_PAGE_SIZE));
+		return importedTests;
+	}
+
+	/**
+	 * Queries the main test configuration of the tests not seen before, a chunk of tests per request.
+	 */
+	private void fetchMainTestConfigs(List<AlmTest> tests, Map<String, String> mainTestConfigIds) throws ExternalEntityUploadException {
+
+		List<String> testIds = new ArrayList<String>();
+		for (AlmTest test : tests) {
+			if (!mainTestConfigIds.containsKey(test.getId()) && !testIds.contains(test.getId())) {
+				testIds.add(test.getId());
+			}
+		}
+
+		for (int from = 0; from < testIds.size(); from += bulkChunkSize) {
+			List<String> chunk = testIds.subList(from, Math.min(from + bulkChunkSize, testIds.size()));
+			StringBuilder parentIds = new StringBuilder();
+			for (String testId : chunk) {
+				if (parentIds.length() > 0) {
+					parentIds.append("%20OR%20");
+				}
+				parentIds.append(testId);
+			}
+			String queryString = String.format("query={parent-id[%s]}&fields=id,name,parent-id", parentIds);
+			for (AlmTestConfigImpl testConfig : restTool.getAllAlmEntities(new AlmTestConfigImpl(), queryString, PREFETCH_PAGE_SIZE)) {
+				String testId = (String) testConfig.getFieldValue(AlmCommonProperties.PARENT_ID);
+				if (!mainTestConfigIds.containsKey(testId)) {
+					mainTestConfigIds.put(testId, testConfig.getId());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Resolves the test instances against the ones already in the test set and creates the missing ones in bulk.
+	 * The returned list is aligned with the given one and holds null where the test has no configuration.
+	 */
+	private List<AlmTestInstance> importTestInstancesInBulk(List<AlmTestInstance> instances, List<AlmTest> importedTests, String testsetId, Map<String, String> mainTestConfigIds, String tester) throws ExternalEntityUploadException {
+
+		String queryString = String.format("query={cycle-id[%s]}&fields=id,name,test-id,test-config-id", testsetId);
+		Map<String, AlmTestInstance> instancesByTestAndConfig = new LinkedHashMap<String, AlmTestInstance>();
+		for (AlmTestInstanceImpl existingInstance : restTool.getAllAlmEntities(new AlmTestInstanceImpl(), queryString, PREFETCH_PAGE_SIZE)) {
+			String key = existingInstance.getFieldValue(AlmTestInstance.TEST_INSTANCE_TEST_ID) + "#" + existingInstance.getFieldValue(AlmTestInstance.TEST_INSTANCE_CONFIG_ID);
+			if (!instancesByTestAndConfig.containsKey(key)) {
+				instancesByTestAndConfig.put(key, existingInstance);
+			}
+		}
+
+		List<AlmTestInstance> importedInstances = new ArrayList<AlmTestInstance>(instances.size());
+		List<AlmTestInstance> instancesToCreate = new ArrayList<AlmTestInstance>();
+		for (int i = 0; i < instances.size(); i++) {
+			String testId = importedTests.get(i).getId();
+			String testconfigId = mainTestConfigIds.get(testId);
+			if (testconfigId == null) {
+				importedInstances.add(null);
+				continue;
+			}
+
+			String key = testId + "#" + testconfigId;
+			AlmTestInstance importedInstance = instancesByTestAndConfig.get(key);
+			if (importedInstance == null) {
+				importedInstance = instances.get(i);
+				importedInstance.setFieldValue(AlmTestInstance.TEST_INSTANCE_TESTSET_ID, String.valueOf(testsetId));
+				importedInstance.setFieldValue(AlmTestInstance.TEST_INSTANCE_CONFIG_ID, String.valueOf(testconfigId));
+				importedInstance.setFieldValue(AlmTestInstance.TEST_INSTANCE_TEST_ID, String.valueOf(testId));
+				importedInstance.setFieldValue(AlmTestInstance.TEST_INSTANCE_TESTER_NAME, tester);
+				instancesToCreate.add(importedInstance);
+				instancesByTestAndConfig.put(key, importedInstance);
+			}
+			importedInstances.add(importedInstance);
+		}
+
+		createInChunks(instancesToCreate, getTestInstanceCreationFields(), "test instances", TEST_INSTANCE_KEY_FIELDS, created ->
+				restTool.getAllAlmEntities(new AlmTestInstanceImpl(), queryString, PREFETCH_PAGE_SIZE));
+		return importedInstances;
+	}
+
+	/**
+	 * Creates the entities with bulk requests of bulkChunkSize entities and stores the new ids on them.
+	 * ALM may create part of a chunk before refusing it, so the entities of a refused chunk are looked up by their
+	 * key fields first and only the ones not found are created one at a time.
+	 */
+	<E extends AlmEntity> void createInChunks(List<E> entities, String[] fieldsForCreation, String description, String[] keyFields, CreatedEntitiesQuery<E> createdQuery) throws ExternalEntityUploadException {
+
+		int chunks = (entities.size() + bulkChunkSize - 1) / bulkChunkSize;
+		for (int from = 0, chunk = 1; from < entities.size(); from += bulkChunkSize, chunk++) {
+			List<E> slice = entities.subList(from, Math.min(from + bulkChunkSize, entities.size()));
+			long start = System.currentTimeMillis();
+
+			List<String> ids;
+			try {
+				ids = new ArrayList<String>(slice.size());
+				for (E created : restTool.createAlmEntities(slice, fieldsForCreation)) {
+					ids.add(created.getId());
+				}
+			} catch (ExternalEntityUploadException e) {
+				ids = findCreatedIds(slice, keyFields, createdQuery.load(slice));
+				int missing = Collections.frequency(ids, null);
+				logger.log(String.format("WARN: Bulk creation of %s failed, %d of %d were created, creating the others one by one.",
+						description, slice.size() - missing, slice.size()));
+				for (int i = 0; i < slice.size(); i++) {
+					if (ids.get(i) == null) {
+						ids.set(i, restTool.createAlmEntity(slice.get(i), fieldsForCreation).getId());
+					}
+				}
+			}
+
+			for (int i = 0; i < slice.size(); i++) {
+				slice.get(i).setId(ids.get(i));
+			}
+			logger.log(String.format("INFO: Created %d %s in %d ms (chunk %d of %d).",
+					slice.size(), description, System.currentTimeMillis() - start, chunk, chunks));
+		}
+	}
+
+	/**
+	 * Matches the entities to the existing ones with the same key fields, each existing entity at most once.
+	 * The returned ids are aligned with the given entities and null where no entity matches.
+	 */
+	private static List<String> findCreatedIds(List<? extends AlmEntity> entities, String[] keyFields, List<? extends AlmEntity> existingEntities) {
+
+		Map<String, LinkedList<String>> idsByKey = new HashMap<String, LinkedList<String>>();
+		for (AlmEntity existing : existingEntities) {
+			String key = getKey(existing, keyFields);
+			LinkedList<String> ids = idsByKey.get(key);
+			if (ids == null) {
+				ids = new LinkedList<String>();
+				idsByKey.put(key, ids);
+			}
+			ids.add(existing.getId());
+		}
+
+		List<String> createdIds = new ArrayList<String>(entities.size());
+		for (AlmEntity entity : entities) {
+			LinkedList<String> ids = idsByKey.get(getKey(entity, keyFields));
+			createdIds.add(ids == null || ids.isEmpty() ? null : ids.removeFirst());
+		}
+		return createdIds;
+	}
+
+	private static String getKey(AlmEntity entity, String[] keyFields) {
+		StringBuilder key = new StringBuilder();
+		for (String field : keyFields) {
+			Object value = entity.getFieldValue(field);
+			key.append(value == null ? "" : value).append('#');
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Loads the entities that a refused bulk request of the given entities may have created.
+	 */
+	interface CreatedEntitiesQuery<E extends AlmEntity> {
+		List<? extends AlmEntity> load(List<E> entities) throws ExternalEntityUploadException;
+	}
+
 }
@@ -30,24 +30,18 @@ package com.microfocus.application.automation.tools.run;
 
 import java.io.IOException;
 import java.io.PrintStream;
-import java.io.StringWriter;
 import java.text.Format;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
-import javax.xml.bind.JAXBContext;
-import javax.xml.bind.Marshaller;
-
 import com.microfocus.application.automation.tools.model.AlmServerSettingsModel;
 import com.microfocus.application.automation.tools.model.CdaDetails;
 import com.microfocus.application.automation.tools.model.EnumDescription;
 import com.microfocus.application.automation.tools.model.SseModel;
 import com.microfocus.application.automation.tools.settings.AlmServerSettingsGlobalConfiguration;
-import com.microfocus.application.automation.tools.sse.result.model.junit.Testcase;
-import com.microfocus.application.automation.tools.sse.result.model.junit.Testsuite;
-import com.microfocus.application.automation.tools.sse.result.model.junit.Testsuites;
+import com.microfocus.application.automation.tools.sse.result.TestsuitesWriter;
 import com.microfocus.application.automation.tools.sse.sdk.Logger;
 import org.apache.commons.lang.StringUtils;
 import org.jenkinsci.Symbol;
@@ -190,11 +184,16 @@ public class SseBuilder extends Builder implements SimpleBuildStep {
         _sseModel.setAlmServerUrl(getServerUrl(_sseModel.getAlmServerName()));
 
         VariableResolver<String> varResolver = new VariableResolver.ByMap<String>(build.getEnvironment(listener));
-        Testsuites testsuites = execute(build, logger, varResolver);
-
         String resultsFilename = generateResultsFilename();
         FilePath resultsFilePath = workspace.child(resultsFilename);
-        Result resultStatus = createRunResults(resultsFilePath, testsuites, logger);
+        TestsuitesWriter resultsWriter = new TestsuitesWriter(resultsFilePath);
+        boolean resultsClosed;
+        try {
+            execute(build, logger, varResolver, resultsWriter);
+        } finally {
+            resultsClosed = closeRunResults(resultsWriter, build, logger);
+        }
+        Result resultStatus = resultsClosed ? createRunResults(resultsWriter, logger) : Result.FAILURE;
         provideStepResultStatus(resultStatus, build, logger);
 
         //params used when run with Pipeline
@@ -245,16 +244,16 @@ public class SseBuilder extends Builder implements SimpleBuildStep {
 
     }
 
-    private Testsuites execute(
+    private void execute(
             Run<?, ?> build,
             PrintStream logger,
-            VariableResolver<String> buildVariableResolver) throws InterruptedException {
+            VariableResolver<String> buildVariableResolver,
+            TestsuitesWriter resultsWriter) throws InterruptedException {
 
-        Testsuites ret = null;
         SSEBuilderPerformer performer = null;
         try {
             performer = new SSEBuilderPerformer();
-            ret = execute(performer, logger, buildVariableResolver);
+            execute(performer, logger, buildVariableResolver, resultsWriter);
         } catch (InterruptedException e) {
             build.setResult(Result.ABORTED);
             stop(performer, logger);
@@ -263,54 +262,32 @@ public class SseBuilder extends Builder implements SimpleBuildStep {
             build.setResult(Result.FAILURE);
             logger.print(String.format("Failed to execute test, Exception: %s", cause.getMessage()));
         }
-
-        return ret;
     }
 
-    private Result createRunResults(FilePath filePath, Testsuites testsuites, PrintStream logger) {
-        Result ret = Result.SUCCESS;
+    private boolean closeRunResults(TestsuitesWriter resultsWriter, Run<?, ?> build, PrintStream logger) {
+        boolean ret = true;
         try {
-            if (testsuites != null && !testsuites.getTestsuite().isEmpty()) {
-                StringWriter writer = new StringWriter();
-                JAXBContext context;
-                Thread t = Thread.currentThread();
-                ClassLoader orig = t.getContextClassLoader();
-                t.setContextClassLoader(SseBuilder.class.getClassLoader());
-                try {
-                    context = JAXBContext.newInstance(Testsuites.class);
-                } finally {
-                    t.setContextClassLoader(orig);
-                }
-                Marshaller marshaller = context.createMarshaller();
-                marshaller.marshal(testsuites, writer);
-                filePath.write(writer.toString(), null);
-                if (containsErrors(testsuites.getTestsuite())) {
-                    ret = Result.UNSTABLE;
-                }
-            } else {
-                logger.println("Empty Results");
-                ret = Result.FAILURE;
-            }
-        } catch (Exception cause) {
+            resultsWriter.close();
+        } catch (IOException cause) {
+            build.setResult(Result.FAILURE);
             logger.print(String.format(
                     "Failed to create run results, Exception: %s",
                     cause.getMessage()));
-            ret = Result.FAILURE;
+            ret = false;
         }
 
         return ret;
     }
 
-    private boolean containsErrors(List<Testsuite> testsuites) {
-
-        boolean ret = false;
-        for (Testsuite testsuite : testsuites) {
-            for (Testcase testcase : testsuite.getTestcase()) {
-                if ("error".equals(testcase.getStatus())) {
-                    ret = true;
-                    break;
-                }
+    private Result createRunResults(TestsuitesWriter resultsWriter, PrintStream logger) {
+        Result ret = Result.SUCCESS;
+        if (resultsWriter.getTestcaseCount() > 0) {
+            if (resultsWriter.hasErrors()) {
+                ret = Result.UNSTABLE;
             }
+        } else {
+            logger.println("Empty Results");
+            ret = Result.FAILURE;
         }
 
         return ret;
@@ -335,10 +312,11 @@ public class SseBuilder extends Builder implements SimpleBuildStep {
         }
     }
 
-    private Testsuites execute(
+    private int execute(
             SSEBuilderPerformer performer,
             final PrintStream logger,
-            VariableResolver<String> buildVariableResolver) throws InterruptedException,
+            VariableResolver<String> buildVariableResolver,
+            TestsuitesWriter resultsWriter) throws InterruptedException,
             IOException {
 
         return performer.start(_sseModel, new Logger() {
@@ -353,7 +331,7 @@ public class SseBuilder extends Builder implements SimpleBuildStep {
             public void error(String message) {
                 log(message);
             }
-        }, buildVariableResolver);
+        }, buildVariableResolver, resultsWriter);
     }
 
     public String getServerUrl(String almServerName) {
@@ -35,6 +35,7 @@ import hudson.util.FormValidation;
 import jenkins.model.GlobalConfiguration;
 import com.microfocus.application.automation.tools.sse.common.StringUtils;
 import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
 import org.kohsuke.stapler.QueryParameter;
 
 import java.io.Serializable;
@@ -55,11 +56,14 @@ public class RunnerMiscSettingsGlobalConfiguration extends GlobalConfiguration i
 
     public static final String DEFAULT_BRANCHES = "master main trunk mainline";
     public static final String DEFAULT_OUTPUT_ENVIRONMENT_PARAMETERS = "BUILD_DISPLAY_NAME BUILD_TAG BUILD_URL";
+    public static final int DEFAULT_JUNIT_PARSING_PARALLELISM = 1;
+    public static final int MAX_JUNIT_PARSING_PARALLELISM = 16;
 
     private String dateFormat;
     private String defaultBranches;
     private String outputEnvironmentParameters;
     private boolean agentToControllerEnabled;
+    private int junitParsingParallelism = DEFAULT_JUNIT_PARSING_PARALLELISM;
 
     @DataBoundConstructor
     public RunnerMiscSettingsGlobalConfiguration(String mfDateFormat, String defaultBranches, String outputEnvironmentParameters, boolean agentToControllerEnabled) {
@@ -150,6 +154,20 @@ public class RunnerMiscSettingsGlobalConfiguration extends GlobalConfiguration i
         save();
     }
 
+    public int getJunitParsingParallelism() {
+        return junitParsingParallelism > 0 ? junitParsingParallelism : DEFAULT_JUNIT_PARSING_PARALLELISM;
+    }
+
+    @DataBoundSetter
+    public void setJunitParsingParallelism(int junitParsingParallelism) {
+        if (junitParsingParallelism < 1) {
+            this.junitParsingParallelism = DEFAULT_JUNIT_PARSING_PARALLELISM;
+        } else {
+            this.junitParsingParallelism = Math.min(junitParsingParallelism, MAX_JUNIT_PARSING_PARALLELISM);
+        }
+        save();
+    }
+
     public FormValidation doCheckDateFormat(@QueryParameter String value) {
         if (!StringUtils.isNullOrEmpty(value)) {
             try {
@@ -172,4 +190,20 @@ public class RunnerMiscSettingsGlobalConfiguration extends GlobalConfiguration i
         return FormValidation.warning("Will fallback to default pattern.");
     }
 
+    public FormValidation doCheckJunitParsingParallelism(@QueryParameter String value) {
+        if (StringUtils.isNullOrEmpty(value)) {
+            return FormValidation.warning("Will fallback to sequential parsing.");
+        }
+        try {
+            int parallelism = Integer.parseInt(value.trim());
+            if (parallelism < 1 || parallelism > MAX_JUNIT_PARSING_PARALLELISM) {
+                return FormValidation.error("Value should be between 1 and " + MAX_JUNIT_PARSING_PARALLELISM + ".");
+            }
+        } catch (NumberFormatException ignored) {
+            return FormValidation.error("Value should be a number.");
+        }
+
+        return FormValidation.ok();
+    }
+
 }
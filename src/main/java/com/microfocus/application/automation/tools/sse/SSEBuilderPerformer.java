@@ -30,12 +30,15 @@ package com.microfocus.application.automation.tools.sse;
 
 import com.microfocus.application.automation.tools.model.SseModel;
 import com.microfocus.application.automation.tools.rest.RestClient;
+import com.microfocus.application.automation.tools.sse.result.TestsuitesWriter;
 import com.microfocus.application.automation.tools.sse.result.model.junit.Testsuites;
 import com.microfocus.application.automation.tools.sse.sdk.Args;
 import com.microfocus.application.automation.tools.sse.sdk.Logger;
 import com.microfocus.application.automation.tools.sse.sdk.RunManager;
 import hudson.util.VariableResolver;
 
+import java.io.IOException;
+
 /***
  * 
  * @author Effi Bar-She'an
@@ -51,22 +54,36 @@ public class SSEBuilderPerformer {
             Logger logger,
             VariableResolver<String> buildVariableResolver) throws InterruptedException {
         
-        Testsuites ret;
-
         Args args = new ArgsFactory().createResolved(model, buildVariableResolver);
-
-        RestClient restClient;
-
-        restClient = new RestClient(args.getUrl(),
-                args.getDomain(),
-                args.getProject(),
-                args.getUsername());
-
-        ret = _runManager.execute(restClient, args, logger);
-        return ret;
+        
+        return _runManager.execute(createRestClient(args), args, logger);
+    }
+    
+    /**
+     * Start, writing the test results while the run is executing
+     * 
+     * @return the number of test cases written
+     */
+    public int start(
+            SseModel model,
+            Logger logger,
+            VariableResolver<String> buildVariableResolver,
+            TestsuitesWriter resultsWriter) throws InterruptedException, IOException {
+        
+        Args args = new ArgsFactory().createResolved(model, buildVariableResolver);
+        
+        return _runManager.execute(createRestClient(args), args, logger, resultsWriter);
     }
     
     public void stop() {
         _runManager.stop();
     }
+    
+    private RestClient createRestClient(Args args) {
+        
+        return new RestClient(args.getUrl(),
+                args.getDomain(),
+                args.getProject(),
+                args.getUsername());
+    }
 }
@@ -125,7 +125,7 @@ public class AUTEnvironmentParametersManager {
                     response.getFailure());
         }
 
-        List<Map<String, String>> parameters = XPathUtils.toEntities(response.toString());
+        List<Map<String, String>> parameters = XPathUtils.toEntities(response.getData());
 
         for (Map<String, String> parameter : parameters) {
 
@@ -163,7 +163,7 @@ public class AUTEnvironmentParametersManager {
                     response.getFailure());
         }
 
-        List<Map<String, String>> folders = XPathUtils.toEntities(response.toString());
+        List<Map<String, String>> folders = XPathUtils.toEntities(response.getData());
 
         for (Map<String, String> folder : folders) {
 
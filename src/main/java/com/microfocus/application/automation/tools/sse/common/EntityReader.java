@@ -0,0 +1,460 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.sse.common;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.ctc.wstx.stax.WstxInputFactory;
+import com.microfocus.application.automation.tools.common.SSEException;
+
+/***
+ * Streams the {@code <Entity>} elements of an ALM REST response, reading their {@code <Field>} values as
+ * {@link XPathUtils} does from a DOM but without building one. Entities are returned in document order, each as a
+ * map of field name to the first value of the field. When field names are given, only these fields are read.
+ */
+public class EntityReader implements Closeable {
+
+    private static final String ENTITY = "Entity";
+    private static final String FIELDS = "Fields";
+    private static final String FIELD = "Field";
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+    private final XMLStreamReader reader;
+    private final Collection<String> fieldNames;
+    private final Deque<Map<String, String>> openEntities = new ArrayDeque<Map<String, String>>();
+    private final List<Map<String, String>> pendingEntities = new ArrayList<Map<String, String>>();
+    private final LinkedList<Map<String, String>> readyEntities = new LinkedList<Map<String, String>>();
+    private boolean closed;
+
+    private EntityReader(XMLStreamReader reader, Collection<String> fieldNames) {
+        this.reader = reader;
+        this.fieldNames = fieldNames;
+    }
+
+    /**
+     * Open a reader over the entities of a response.
+     * @param xml response data
+     * @param fieldNames names of the fields to read, null for all fields
+     */
+    public static EntityReader open(byte[] xml, Collection<String> fieldNames) {
+        return open(new ByteArrayInputStream(xml), fieldNames);
+    }
+
+    /**
+     * Open a reader over the entities of a response. The stream is not closed by the reader.
+     * @param in response data
+     * @param fieldNames names of the fields to read, null for all fields
+     */
+    public static EntityReader open(InputStream in, Collection<String> fieldNames) {
+        return new EntityReader(createReader(in), fieldNames);
+    }
+
+    static EntityReader open(Reader in, Collection<String> fieldNames) {
+        return new EntityReader(createReader(in), fieldNames);
+    }
+
+    /**
+     * Read all the entities of a response.
+     * @param fieldNames names of the fields to read, null for all fields
+     */
+    public static List<Map<String, String>> readEntities(byte[] xml, Collection<String> fieldNames) {
+        List<Map<String, String>> ret = new ArrayList<Map<String, String>>();
+        readEntities(xml, fieldNames, ret::add);
+        return ret;
+    }
+
+    /**
+     * Pass the entities of a response one by one to a callback.
+     * @param fieldNames names of the fields to read, null for all fields
+     */
+    public static void readEntities(
+            byte[] xml,
+            Collection<String> fieldNames,
+            Consumer<Map<String, String>> callback) {
+
+        try (EntityReader entityReader = open(xml, fieldNames)) {
+            while (entityReader.hasNext()) {
+                callback.accept(entityReader.next());
+            }
+        }
+    }
+
+    public boolean hasNext() {
+        try {
+            while (readyEntities.isEmpty() && !closed) {
+                if (!reader.hasNext()) {
+                    close();
+                    break;
+                }
+                onEvent(reader.next());
+            }
+        } catch (XMLStreamException cause) {
+            close();
+            throw new SSEException(cause);
+        }
+
+        return !readyEntities.isEmpty();
+    }
+
+    public Map<String, String> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        return readyEntities.removeFirst();
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            try {
+                reader.close();
+            } catch (XMLStreamException e) {
+                // close quietly
+            }
+        }
+    }
+
+    private void onEvent(int event) throws XMLStreamException {
+        if (event == XMLStreamConstants.START_ELEMENT) {
+            String name = reader.getLocalName();
+            if (ENTITY.equals(name)) {
+                Map<String, String> entity = new HashMap<String, String>();
+                openEntities.push(entity);
+                // an entity comes before the entities nested in it, as in document order
+                pendingEntities.add(entity);
+            } else if (FIELD.equals(name) && !openEntities.isEmpty()) {
+                readField();
+            }
+        } else if (event == XMLStreamConstants.END_ELEMENT && ENTITY.equals(reader.getLocalName())) {
+            openEntities.pop();
+            if (openEntities.isEmpty()) {
+                readyEntities.addAll(pendingEntities);
+                pendingEntities.clear();
+            }
+        }
+    }
+
+    private void readField() throws XMLStreamException {
+        String fieldName = getFirstAttributeValue(reader);
+        if (fieldNames != null && !fieldNames.contains(fieldName)) {
+            skipElement(reader);
+            return;
+        }
+        String value = readFieldValue(reader);
+        // a field belongs to all the entities it is nested in
+        for (Map<String, String> entity : openEntities) {
+            entity.put(fieldName, value);
+        }
+    }
+
+    /**
+     * Value of the field named attrName of a single entity response, the first
+     * {@code Entity/Fields/Field[@Name=attrName]} of the document. Stops reading at the field.
+     * @return the value, null for a field without value or an empty string when there is no such field
+     */
+    public static String readFieldValue(byte[] xml, String attrName) {
+        return readFieldValue(createReader(new ByteArrayInputStream(xml)), attrName);
+    }
+
+    static String readFieldValue(Reader xml, String attrName) {
+        return readFieldValue(createReader(xml), attrName);
+    }
+
+    private static String readFieldValue(XMLStreamReader reader, String attrName) {
+        try {
+            try {
+                if (!moveToRoot(reader) || !ENTITY.equals(reader.getLocalName())) {
+                    return StringUtils.EMPTY_STRING;
+                }
+                while (nextChildElement(reader)) {
+                    if (!FIELDS.equals(reader.getLocalName())) {
+                        skipElement(reader);
+                        continue;
+                    }
+                    while (nextChildElement(reader)) {
+                        if (FIELD.equals(reader.getLocalName())
+                                && attrName.equals(getNecessaryAttribute(reader, "Name"))) {
+                            return readFieldValue(reader);
+                        }
+                        skipElement(reader);
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException cause) {
+            throw new SSEException(cause);
+        }
+
+        return StringUtils.EMPTY_STRING;
+    }
+
+    /**
+     * True when the root of the response has a positive TotalResults attribute or when it contains an entity.
+     * Stops reading at the first entity.
+     */
+    public static boolean hasResults(byte[] xml) {
+        return hasResults(createReader(new ByteArrayInputStream(xml)));
+    }
+
+    static boolean hasResults(Reader xml) {
+        return hasResults(createReader(xml));
+    }
+
+    private static boolean hasResults(XMLStreamReader reader) {
+        try {
+            try {
+                if (!moveToRoot(reader)) {
+                    return false;
+                }
+                String totalResults = reader.getAttributeValue(null, "TotalResults");
+                if ((totalResults != null && Integer.parseInt(totalResults) > 0)
+                        || ENTITY.equals(reader.getLocalName())) {
+                    return true;
+                }
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT && ENTITY.equals(reader.getLocalName())) {
+                        return true;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException | NumberFormatException cause) {
+            throw new SSEException(cause);
+        }
+
+        return false;
+    }
+
+    /**
+     * Values of the cycle-id fields that come first in their {@code <Fields>} element.
+     */
+    public static List<String> readTestSetIds(byte[] xml) {
+        return readTestSetIds(createReader(new ByteArrayInputStream(xml)));
+    }
+
+    static List<String> readTestSetIds(Reader xml) {
+        return readTestSetIds(createReader(xml));
+    }
+
+    private static List<String> readTestSetIds(XMLStreamReader reader) {
+        List<String> ids = new LinkedList<>();
+        try {
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT && FIELDS.equals(reader.getLocalName())
+                            && nextChildElement(reader)) {
+                        if ("cycle-id".equals(reader.getAttributeValue(null, "Name"))) {
+                            ids.add(readFieldValue(reader));
+                        } else {
+                            skipElement(reader);
+                        }
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException cause) {
+            throw new SSEException(cause);
+        }
+
+        return ids;
+    }
+
+    /**
+     * Read the value of the field the reader is on and move to the end of the field.
+     * As with the DOM, the value is the text that starts the first child element of the field.
+     */
+    private static String readFieldValue(XMLStreamReader reader) throws XMLStreamException {
+        String ret = null;
+        int depth = 1;
+        if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+            depth = 2;
+            if (isText(reader.next())) {
+                ret = readText(reader);
+            }
+        }
+        skipToEnd(reader, depth);
+
+        return ret;
+    }
+
+    /**
+     * Read the text events starting at the current one, leaving the reader on the next event.
+     */
+    private static String readText(XMLStreamReader reader) throws XMLStreamException {
+        StringBuilder ret = new StringBuilder(reader.getText());
+        if (reader.getEventType() == XMLStreamConstants.CDATA) {
+            reader.next();
+            return ret.toString();
+        }
+        int event;
+        while ((event = reader.next()) == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.SPACE) {
+            ret.append(reader.getText());
+        }
+
+        return ret.toString();
+    }
+
+    private static boolean isText(int event) {
+        return event == XMLStreamConstants.CHARACTERS
+                || event == XMLStreamConstants.CDATA
+                || event == XMLStreamConstants.SPACE;
+    }
+
+    private static boolean moveToRoot(XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Move to the next child element of the current element.
+     * @return false when the end of the current element was reached instead
+     */
+    private static boolean nextChildElement(XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            }
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                return false;
+            }
+        }
+
+        return false;
+    }
+
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        skipToEnd(reader, 0);
+    }
+
+    /**
+     * Move to the end of the element enclosing the current event, depth levels up.
+     */
+    private static void skipToEnd(XMLStreamReader reader, int depth) throws XMLStreamException {
+        int event = reader.getEventType();
+        if (event == XMLStreamConstants.START_ELEMENT) {
+            depth++;
+        } else if (event == XMLStreamConstants.END_ELEMENT) {
+            depth--;
+        }
+        while (depth > 0 && reader.hasNext()) {
+            event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * The attribute that comes first by name, like the first item of a DOM attribute map.
+     */
+    private static String getFirstAttributeValue(XMLStreamReader reader) {
+        String ret = null;
+        String first = null;
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String name = reader.getAttributeLocalName(i);
+            if (first == null || name.compareTo(first) < 0) {
+                first = name;
+                ret = reader.getAttributeValue(i);
+            }
+        }
+
+        return ret;
+    }
+
+    private static String getNecessaryAttribute(XMLStreamReader reader, String attributeName) {
+        String ret = reader.getAttributeValue(null, attributeName);
+        if (ret == null) {
+            throw new SSEException(String.format(
+                    "Error parsing XML, missing mandatory attribute '%s'",
+                    attributeName));
+        }
+        if (StringUtils.isNullOrEmpty(ret)) {
+            throw new SSEException(String.format(
+                    "Error parsing XML, mandatory attribute '%s' cannot be empty", //$NON-NLS-1$
+                    attributeName));
+        }
+
+        return ret;
+    }
+
+    private static XMLStreamReader createReader(InputStream in) {
+        try {
+            return XML_INPUT_FACTORY.createXMLStreamReader(in);
+        } catch (XMLStreamException cause) {
+            throw new SSEException(cause);
+        }
+    }
+
+    private static XMLStreamReader createReader(Reader in) {
+        try {
+            return XML_INPUT_FACTORY.createXMLStreamReader(in);
+        } catch (XMLStreamException cause) {
+            throw new SSEException(cause);
+        }
+    }
+
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory xmlFactory = new WstxInputFactory();
+        xmlFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return xmlFactory;
+    }
+}
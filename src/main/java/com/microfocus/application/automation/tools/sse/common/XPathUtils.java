@@ -33,15 +33,10 @@ import java.util.*;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathExpression;
-import javax.xml.xpath.XPathFactory;
 
 import com.microfocus.application.automation.tools.common.SSEException;
-import com.microfocus.application.automation.tools.sse.sdk.Logger;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
-import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import org.xml.sax.InputSource;
 
@@ -78,92 +73,47 @@ public class XPathUtils {
     
     public static List<Map<String, String>> toEntities(String xml) {
         
-        Document document = getDocument(xml);
-        
-        List<Map<String, String>> ret = new ArrayList<Map<String, String>>();
-        NodeList entities = document.getElementsByTagName("Entity");
-        for (int i = 0; i < entities.getLength(); i++) {
-            Map<String, String> currEntity = new HashMap<String, String>();
-            NodeList fields = ((Element) entities.item(i)).getElementsByTagName("Field");
-            for (int j = 0; j < fields.getLength(); j++) {
-                Node item = fields.item(j);
-                currEntity.put(item.getAttributes().item(0).getNodeValue(), getFieldValue(item));
-            }
-            ret.add(currEntity);
-        }
-        
-        return ret;
+        return toEntities(EntityReader.open(new StringReader(xml), null));
     }
-    
-    public static String getAttributeValue(String xml, String attrName) {
+
+    /**
+     * Entities of a response, streamed from its data.
+     */
+    public static List<Map<String, String>> toEntities(byte[] xml) {
         
-        NodeList nodes = getChildNodes(xml, "Entity/Fields/Field");
-        String ret = StringUtils.EMPTY_STRING;
-        for (int i = 0; i < nodes.getLength(); i++) {
-            Node currNode = nodes.item(i);
-            String attr;
-            try {
-                attr = getNecessaryAttribute(currNode, "Name");
-            } catch (Throwable cause) {
-                throw new SSEException(cause);
-            }
-            if (attr.equals(attrName)) {
-                ret = getFieldValue(currNode);
-                break;
-            }
-        }
+        return EntityReader.readEntities(xml, null);
+    }
+
+    /**
+     * Entities of a response, streamed from its data, with only the given fields.
+     */
+    public static List<Map<String, String>> toEntities(byte[] xml, Collection<String> fieldNames) {
         
-        return ret;
+        return EntityReader.readEntities(xml, fieldNames);
     }
     
-    private static String getFieldValue(Node node) {
+    private static List<Map<String, String>> toEntities(EntityReader reader) {
         
-        String ret = null;
-        Node child = node.getFirstChild();
-        if (child != null) {
-            Node child2 = child.getFirstChild();
-            if (child2 != null) {
-                ret = child2.getNodeValue();
+        List<Map<String, String>> ret = new ArrayList<Map<String, String>>();
+        try {
+            while (reader.hasNext()) {
+                ret.add(reader.next());
             }
+        } finally {
+            reader.close();
         }
         
         return ret;
     }
     
-    private static NodeList getChildNodes(String xml, String xpath) {
-        
-        NodeList ret = null;
-        try {
-            Document document = getDocument(xml);
-            XPathFactory factory = XPathFactory.newInstance();
-            XPathExpression expression = factory.newXPath().compile(xpath);
-            ret = (NodeList) expression.evaluate(document, XPathConstants.NODESET);
-        } catch (Throwable cause) {
-            throw new SSEException(cause);
-        }
+    public static String getAttributeValue(String xml, String attrName) {
         
-        return ret;
+        return EntityReader.readFieldValue(new StringReader(xml), attrName);
     }
     
-    private static String getNecessaryAttribute(Node node, String attributeName) {
+    public static String getAttributeValue(byte[] xml, String attrName) {
         
-        if (!node.hasAttributes()) {
-            return null;
-        }
-        Node attr = node.getAttributes().getNamedItem(attributeName);
-        if (attr == null) {
-            throw new SSEException(String.format(
-                    "Error parsing XML, missing mandatory attribute '%s'",
-                    attributeName));
-        }
-        String ret = attr.getNodeValue();
-        if (StringUtils.isNullOrEmpty(ret)) {
-            throw new SSEException(String.format(
-                    "Error parsing XML, mandatory attribute '%s' cannot be empty", //$NON-NLS-1$
-                    attributeName));
-        }
-        
-        return ret;
+        return EntityReader.readFieldValue(xml, attrName);
     }
     
     public static Document getDocument(String xml) {
@@ -182,44 +132,22 @@ public class XPathUtils {
     }
 
     public static boolean hasResults(String xml) {
-        boolean ok = false;
-
-        try {
-            Document doc = getDocument(xml);
-            if (doc == null) {
-                return ok;
-            }
-
-            Node root = doc.getDocumentElement();
-            if (root == null) {
-                return ok;
-            }
-
-            if ((root.hasAttributes() && Integer.parseInt(root.getAttributes().getNamedItem("TotalResults").getNodeValue()) > 0)
-                || (doc.hasChildNodes() && doc.getElementsByTagName("Entity").getLength() > 0)) {
-                ok = true;
-            }
-        } catch (SSEException | NumberFormatException cause) {
-            throw new SSEException(cause);
-        }
+        
+        return EntityReader.hasResults(new StringReader(xml));
+    }
 
-        return ok;
+    public static boolean hasResults(byte[] xml) {
+        
+        return EntityReader.hasResults(xml);
     }
 
     public static List<String> getTestSetIds(String xml) {
-        Document doc = getDocument(xml);
-        NodeList entities = doc.getElementsByTagName("Fields");
-
-        List<String> ids = new LinkedList<>();
-
-        for (int i = 0; i < entities.getLength(); i++) {
-            Element element = (Element) (entities.item(i)).getFirstChild();
-
-            if (element.getAttribute("Name").equals("cycle-id")) {
-                ids.add(getFieldValue(element));
-            }
-        }
+        
+        return EntityReader.readTestSetIds(new StringReader(xml));
+    }
 
-        return ids;
+    public static List<String> getTestSetIds(byte[] xml) {
+        
+        return EntityReader.readTestSetIds(xml);
     }
 }
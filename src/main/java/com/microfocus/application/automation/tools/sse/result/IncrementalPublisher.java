@@ -0,0 +1,138 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.sse.result;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.microfocus.application.automation.tools.sse.common.XPathUtils;
+import com.microfocus.application.automation.tools.sse.sdk.Logger;
+import com.microfocus.application.automation.tools.sse.sdk.Response;
+import com.microfocus.application.automation.tools.sse.sdk.handler.PollListener;
+
+/**
+ * Publishes the test set runs of a lab run while it is still executing. On each poll only the test set runs changed
+ * since the previous poll are read, and those that are done are appended to the results file. When the run ends,
+ * {@link #publish(Logger)} appends the remaining ones.
+ */
+public class IncrementalPublisher implements PollListener {
+    
+    private static final List<String> FINAL_STATES = Arrays.asList("Finished", "Run Failure");
+    
+    private final LabPublisher _publisher;
+    private final TestsuitesWriter _writer;
+    private final String _nameSuffix;
+    private final String _url;
+    private final String _domain;
+    private final String _project;
+    private final Set<String> _written = new HashSet<String>();
+    private String _entityName;
+    private String _lastChange;
+    
+    public IncrementalPublisher(
+            LabPublisher publisher,
+            TestsuitesWriter writer,
+            String nameSuffix,
+            String url,
+            String domain,
+            String project) {
+        
+        _publisher = publisher;
+        _writer = writer;
+        _nameSuffix = nameSuffix;
+        _url = url;
+        _domain = domain;
+        _project = project;
+    }
+    
+    @Override
+    public void onPoll(Logger logger) {
+        
+        try {
+            Response response = _publisher.getRunEntityTestSetRunsRequest(_lastChange).execute();
+            if (response.isOk() && response.getData() != null && response.getData().length > 0) {
+                write(XPathUtils.toEntities(response.getData()), false, logger);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable cause) {
+            logger.log(String.format("Failed to publish intermediate test results: %s", cause));
+        }
+    }
+    
+    /**
+     * Append the test set runs that were not published yet.
+     * 
+     * @return the number of test cases published by the run
+     */
+    public int publish(Logger logger) throws IOException, InterruptedException {
+        
+        Response response = _publisher.getRunEntityTestSetRunsRequest(null).execute();
+        List<Map<String, String>> testInstanceRun = _publisher.getTestInstanceRun(response, logger);
+        if (testInstanceRun != null) {
+            write(testInstanceRun, true, logger);
+        }
+        
+        return _writer.getTestcaseCount();
+    }
+    
+    private void write(List<Map<String, String>> testInstanceRuns, boolean all, Logger logger)
+            throws IOException, InterruptedException {
+        
+        List<Map<String, String>> done = new ArrayList<Map<String, String>>();
+        for (Map<String, String> testInstanceRun : testInstanceRuns) {
+            String vts = testInstanceRun.get("vts");
+            if (vts != null && (_lastChange == null || vts.compareTo(_lastChange) > 0)) {
+                _lastChange = vts;
+            }
+            if ((all || FINAL_STATES.contains(testInstanceRun.get("state")))
+                    && _written.add(testInstanceRun.get("id"))) {
+                done.add(testInstanceRun);
+            }
+        }
+        if (!done.isEmpty()) {
+            if (_entityName == null) {
+                _entityName = _publisher.getEntityName(_nameSuffix, logger);
+            }
+            _writer.write(new JUnitParser().toModel(
+                    done,
+                    _publisher.getEntityId(),
+                    _entityName,
+                    _publisher.getRunId(),
+                    _url,
+                    _domain,
+                    _project));
+        }
+    }
+}
@@ -55,7 +55,7 @@ public class LabPublisher extends Publisher {
         try {
             Response response = getEntityName(nameSuffix);
             if (response.isOk() && !response.toString().equals("")) {
-                ret = XPathUtils.getAttributeValue(response.toString(), "name");
+                ret = XPathUtils.getAttributeValue(response.getData(), "name");
             } else {
                 Throwable failure = response.getFailure();
                 logger.log(String.format(
@@ -74,4 +74,12 @@ public class LabPublisher extends Publisher {
         
         return new GetLabRunEntityTestSetRunsRequest(_client, _runId);
     }
+    
+    /**
+     * Request for the test set runs changed at or after an ALM time stamp.
+     */
+    GetRequest getRunEntityTestSetRunsRequest(String changedSince) {
+        
+        return new GetLabRunEntityTestSetRunsRequest(_client, _runId, changedSince);
+    }
 }
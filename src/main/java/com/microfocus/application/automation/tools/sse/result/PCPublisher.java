@@ -54,9 +54,9 @@ public class PCPublisher extends Publisher {
         try {
             Response response = getEntityName(nameSuffix);
             if (response.isOk() && !response.toString().equals("")) {
-                String runId = XPathUtils.getAttributeValue(response.toString(), "id");
-                String testId = XPathUtils.getAttributeValue(response.toString(), "testcycl-id");
-                String testSetId = XPathUtils.getAttributeValue(response.toString(), "cycle-id");
+                String runId = XPathUtils.getAttributeValue(response.getData(), "id");
+                String testId = XPathUtils.getAttributeValue(response.getData(), "testcycl-id");
+                String testSetId = XPathUtils.getAttributeValue(response.getData(), "cycle-id");
                 ret =
                         String.format(
                                 "PC Test ID: %s, Run ID: %s, Test Set ID: %s",
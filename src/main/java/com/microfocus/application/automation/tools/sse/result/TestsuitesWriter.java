@@ -0,0 +1,143 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.sse.result;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import com.microfocus.application.automation.tools.results.parser.util.ParserUtil;
+import com.microfocus.application.automation.tools.sse.result.model.junit.JUnitTestCaseStatus;
+import com.microfocus.application.automation.tools.sse.result.model.junit.Testcase;
+import com.microfocus.application.automation.tools.sse.result.model.junit.Testsuite;
+import com.microfocus.application.automation.tools.sse.result.model.junit.Testsuites;
+
+import hudson.FilePath;
+
+/**
+ * Writes a JUnit {@code <testsuites>} document while the results are still coming in. Each call to
+ * {@link #write(Testsuites)} appends its test suites to the file and flushes it, and {@link #close()} only has to
+ * end the document. The file is created with the first results, so a run without results leaves no file behind.
+ */
+public class TestsuitesWriter implements Closeable {
+    
+    private final FilePath _target;
+    private OutputStream _outputStream;
+    private XMLStreamWriter _writer;
+    private Marshaller _marshaller;
+    private int _testcaseCount;
+    private boolean _errors;
+    private boolean _closed;
+    
+    public TestsuitesWriter(FilePath target) {
+        
+        _target = target;
+    }
+    
+    public synchronized void write(Testsuites testsuites) throws IOException, InterruptedException {
+        
+        if (testsuites == null || testsuites.getTestsuite().isEmpty()) {
+            return;
+        }
+        if (_closed) {
+            throw new IOException(String.format("Results file %s is already closed", _target.getRemote()));
+        }
+        try {
+            initialize();
+            for (Testsuite testsuite : testsuites.getTestsuite()) {
+                _marshaller.marshal(testsuite, _writer);
+                for (Testcase testcase : testsuite.getTestcase()) {
+                    ++_testcaseCount;
+                    if (JUnitTestCaseStatus.ERROR.equals(testcase.getStatus())) {
+                        _errors = true;
+                    }
+                }
+            }
+            _writer.flush();
+            _outputStream.flush();
+        } catch (XMLStreamException | JAXBException e) {
+            throw new IOException(e);
+        }
+    }
+    
+    /**
+     * @return the number of test cases written so far
+     */
+    public synchronized int getTestcaseCount() {
+        
+        return _testcaseCount;
+    }
+    
+    /**
+     * @return true if any test case written so far is in error
+     */
+    public synchronized boolean hasErrors() {
+        
+        return _errors;
+    }
+    
+    @Override
+    public synchronized void close() throws IOException {
+        
+        _closed = true;
+        if (_outputStream != null) {
+            try {
+                _writer.writeEndElement(); // testsuites
+                _writer.writeEndDocument();
+                _writer.close();
+            } catch (XMLStreamException e) {
+                throw new IOException(e);
+            } finally {
+                _outputStream.close();
+                _outputStream = null;
+            }
+        }
+    }
+    
+    private void initialize() throws IOException, InterruptedException, XMLStreamException, JAXBException {
+        
+        if (_outputStream == null) {
+            _marshaller = ParserUtil.getJAXBContext(Testsuites.class).createMarshaller();
+            _marshaller.setProperty(Marshaller.JAXB_FRAGMENT, true);
+            _outputStream = _target.write();
+            _writer = XMLOutputFactory.newInstance().createXMLStreamWriter(
+                    _outputStream,
+                    StandardCharsets.UTF_8.name());
+            _writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            _writer.writeStartElement("testsuites");
+        }
+    }
+}
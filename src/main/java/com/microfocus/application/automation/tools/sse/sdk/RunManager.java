@@ -33,7 +33,11 @@ import com.microfocus.application.automation.tools.model.SseModel;
 import com.microfocus.application.automation.tools.rest.RestClient;
 import com.microfocus.application.automation.tools.sse.common.StringUtils;
 import com.microfocus.application.automation.tools.sse.common.XPathUtils;
+import com.microfocus.application.automation.tools.sse.result.IncrementalPublisher;
+import com.microfocus.application.automation.tools.sse.result.LabPublisher;
+import com.microfocus.application.automation.tools.sse.result.Publisher;
 import com.microfocus.application.automation.tools.sse.result.PublisherFactory;
+import com.microfocus.application.automation.tools.sse.result.TestsuitesWriter;
 import com.microfocus.application.automation.tools.sse.result.model.junit.Testsuites;
 import com.microfocus.application.automation.tools.sse.sdk.authenticator.AuthenticationTool;
 import com.microfocus.application.automation.tools.sse.sdk.handler.PollHandler;
@@ -42,7 +46,9 @@ import com.microfocus.application.automation.tools.sse.sdk.handler.RunHandler;
 import com.microfocus.application.automation.tools.sse.sdk.handler.RunHandlerFactory;
 import com.microfocus.application.automation.tools.sse.sdk.request.*;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Effi Bar-She'an
@@ -64,6 +70,32 @@ public class RunManager {
      */
     public Testsuites execute(RestClient client, Args args, Logger logger)
             throws InterruptedException {
+        try {
+            return executeRun(client, args, logger, null);
+        } catch (IOException e) {
+            // only thrown while writing to a results file
+            throw new SSEException(e);
+        }
+    }
+
+    /**
+     * Execute, writing the test results while the run is executing
+     *
+     * @return the number of test cases written
+     */
+    public int execute(RestClient client, Args args, Logger logger, TestsuitesWriter writer)
+            throws InterruptedException, IOException {
+        executeRun(client, args, logger, writer);
+
+        return writer.getTestcaseCount();
+    }
+
+    /**
+     * Runs the entity and publishes its results, to the writer when one is given. Lab results are then written
+     * while the run is executing and are not returned.
+     */
+    private Testsuites executeRun(RestClient client, Args args, Logger logger, TestsuitesWriter writer)
+            throws InterruptedException, IOException {
         Testsuites ret = null;
         _logger = logger;
         _running = true;
@@ -72,18 +104,38 @@ public class RunManager {
 
             if (isValidBvsOrTestSet(client, args) && start(args)) {
                 _polling = true;
-                if (poll()) {
-                    ret =
-                            new PublisherFactory().create(
-                                    client,
-                                    args.getRunType(),
-                                    args.getEntityId(),
-                                    _runHandler.getRunId()).publish(
+                Publisher publisher =
+                        new PublisherFactory().create(
+                                client,
+                                args.getRunType(),
+                                args.getEntityId(),
+                                _runHandler.getRunId());
+                IncrementalPublisher incrementalPublisher = null;
+                if (writer != null && publisher instanceof LabPublisher) {
+                    incrementalPublisher =
+                            new IncrementalPublisher(
+                                    (LabPublisher) publisher,
+                                    writer,
                                     _runHandler.getNameSuffix(),
                                     args.getUrl(),
                                     args.getDomain(),
-                                    args.getProject(),
-                                    logger);
+                                    args.getProject());
+                    _pollHandler.setPollListener(incrementalPublisher);
+                }
+                if (poll()) {
+                    if (incrementalPublisher != null) {
+                        incrementalPublisher.publish(logger);
+                    } else {
+                        ret = publisher.publish(
+                                _runHandler.getNameSuffix(),
+                                args.getUrl(),
+                                args.getDomain(),
+                                args.getProject(),
+                                logger);
+                        if (writer != null) {
+                            writer.write(ret);
+                        }
+                    }
                 }
                 _polling = false;
             } else {
@@ -91,6 +143,7 @@ public class RunManager {
                 this.stop();
             }
         }
+        logger.log(String.format("ALM connections: %s", client.getTransportStatistics()));
 
         return ret;
     }
@@ -118,12 +171,12 @@ public class RunManager {
 
     private boolean isExistingBvs(RestClient client, Args args) {
         Response res = new GetBvsRequest(client, args.getEntityId()).execute();
-        return res != null && res.isOk() && res.getData() != null && XPathUtils.hasResults(res.toString());
+        return res != null && res.isOk() && res.getData() != null && XPathUtils.hasResults(res.getData());
     }
 
     private boolean isExistingTestSet(RestClient client, Args args) {
         Response res = new GetTestSetRequest(client, args.getEntityId()).execute();
-        return res != null && res.isOk() && res.getData() != null && XPathUtils.hasResults(res.toString());
+        return res != null && res.isOk() && res.getData() != null && XPathUtils.hasResults(res.getData());
     }
 
     private boolean isValidBvs(RestClient client, Args args) {
@@ -134,7 +187,7 @@ public class RunManager {
             Response res = new GetTestInstancesRequest(client, ids).execute();
 
             if (res != null && res.isOk() && res.getData() != null) {
-                List<String> nonEmptyIds = XPathUtils.getTestSetIds(res.toString());
+                List<String> nonEmptyIds = XPathUtils.getTestSetIds(res.getData());
                 ids.removeAll(nonEmptyIds);
 
                 if (!ids.isEmpty()) {
@@ -159,12 +212,12 @@ public class RunManager {
             return Collections.emptyList();
         }
 
-        return XPathUtils.getTestSetIds(res.toString());
+        return XPathUtils.getTestSetIds(res.getData());
     }
 
     private boolean hasTestInstances(RestClient client, String id) {
         Response res = new GetTestInstancesRequest(client, id).execute();
-        boolean ok = res.isOk() && res.getData() != null && XPathUtils.hasResults(res.toString());
+        boolean ok = res.isOk() && res.getData() != null && XPathUtils.hasResults(res.getData());
 
         if (!ok) {
             _logger.error(String.format("%s with ID %s is empty or is not of type functional!", TESTSET, id));
@@ -180,6 +233,21 @@ public class RunManager {
         String entityId = args.getEntityId();
         _runHandler = new RunHandlerFactory().create(client, args.getRunType(), entityId);
         _pollHandler = new PollHandlerFactory().create(client, args.getRunType(), entityId);
+        _pollHandler.setEstimatedDuration(getDurationMillis(args.getDuration()));
+    }
+
+    /**
+     * Timeslot duration in minutes to milliseconds, 0 if unknown
+     */
+    private static long getDurationMillis(String duration) {
+        if (StringUtils.isNullOrEmpty(duration)) {
+            return 0;
+        }
+        try {
+            return TimeUnit.MINUTES.toMillis(Long.parseLong(duration.trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
     }
 
     /**
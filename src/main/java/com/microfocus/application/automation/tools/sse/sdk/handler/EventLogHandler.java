@@ -28,11 +28,12 @@
 
 package com.microfocus.application.automation.tools.sse.sdk.handler;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
+import com.microfocus.application.automation.tools.sse.common.EntityReader;
 import com.microfocus.application.automation.tools.sse.common.StringUtils;
-import com.microfocus.application.automation.tools.sse.common.XPathUtils;
 import com.microfocus.application.automation.tools.sse.sdk.Client;
 import com.microfocus.application.automation.tools.sse.sdk.Logger;
 import com.microfocus.application.automation.tools.sse.sdk.Response;
@@ -40,6 +41,12 @@ import com.microfocus.application.automation.tools.sse.sdk.request.EventLogReque
 
 public class EventLogHandler extends Handler {
     
+    private static final List<String> EVENT_FIELDS = Arrays.asList("id", "creation-time", "description");
+    /**
+     * Maximum number of events read by one request. Events beyond it are read by further requests of the same poll.
+     */
+    private static final int PAGE_SIZE = Integer.getInteger("EventLogHandler.PageSize", 500);
+
     private String _timeslotId = StringUtils.EMPTY_STRING;
     private int _lastRead = -1;
     
@@ -54,17 +61,15 @@ public class EventLogHandler extends Handler {
         boolean ret = false;
         Response eventLog = null;
         try {
-            eventLog = getEventLog();
-            String xml = eventLog.toString();
-            List<Map<String, String>> entities = XPathUtils.toEntities(xml);
-            for (Map<String, String> currEntity : entities) {
-                if (isNew(currEntity)) {
-                    logger.log(String.format(
-                            "%s:%s",
-                            currEntity.get("creation-time"),
-                            currEntity.get("description")));
+            int read;
+            do {
+                int lastRead = _lastRead;
+                eventLog = getEventLog();
+                read = logEvents(eventLog, logger);
+                if (_lastRead == lastRead) {
+                    break;
                 }
-            }
+            } while (read >= PAGE_SIZE);
             ret = true;
         } catch (Throwable cause) {
             logger.log(String.format(
@@ -78,6 +83,27 @@ public class EventLogHandler extends Handler {
         return ret;
     }
     
+    /**
+     * Log the events of a response that were not logged yet.
+     * 
+     * @return the number of events in the response
+     */
+    private int logEvents(Response eventLog, Logger logger) {
+        
+        int[] read = {0};
+        EntityReader.readEntities(eventLog.getData(), EVENT_FIELDS, currEntity -> {
+            ++read[0];
+            if (isNew(currEntity)) {
+                logger.log(String.format(
+                        "%s:%s",
+                        currEntity.get("creation-time"),
+                        currEntity.get("description")));
+            }
+        });
+        
+        return read[0];
+    }
+    
     private boolean isNew(Map<String, String> currEntity) {
         
         boolean ret = false;
@@ -92,7 +118,7 @@ public class EventLogHandler extends Handler {
     
     private Response getEventLog() {
         
-        return new EventLogRequest(_client, _timeslotId).execute();
+        return new EventLogRequest(_client, _timeslotId, _lastRead, PAGE_SIZE).execute();
     }
     
 }
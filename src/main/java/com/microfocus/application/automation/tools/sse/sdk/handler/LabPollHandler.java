@@ -77,6 +77,12 @@ public class LabPollHandler extends PollHandler {
         return new PollSSERunRequest(_client, _runId).execute();
     }
     
+    @Override
+    protected String getBatchCollection() {
+        
+        return "procedure-runs";
+    }
+    
     @Override
     protected void log(Logger logger) {
         
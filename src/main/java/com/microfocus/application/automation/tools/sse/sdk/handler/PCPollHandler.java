@@ -64,6 +64,12 @@ public class PCPollHandler extends PollHandler {
         return new GetPCRunEntityDataRequest(_client, _runId).execute();
     }
     
+    @Override
+    protected String getBatchCollection() {
+        
+        return "runs";
+    }
+    
     @Override
     protected boolean isFinished(Response response, Logger logger) {
         
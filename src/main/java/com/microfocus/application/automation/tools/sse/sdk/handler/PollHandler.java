@@ -28,6 +28,7 @@
 
 package com.microfocus.application.automation.tools.sse.sdk.handler;
 
+import com.microfocus.application.automation.tools.sse.common.XPathUtils;
 import com.microfocus.application.automation.tools.sse.sdk.Client;
 import com.microfocus.application.automation.tools.sse.sdk.Logger;
 import com.microfocus.application.automation.tools.sse.sdk.Response;
@@ -35,6 +36,8 @@ import com.microfocus.application.automation.tools.sse.sdk.Response;
 public abstract class PollHandler extends Handler {
     
     private int _interval = 5000; // millisecond
+    private long _estimatedDuration; // millisecond, 0 if unknown
+    private PollListener _pollListener;
     
     public PollHandler(Client client, String entityId) {
         
@@ -60,6 +63,11 @@ public abstract class PollHandler extends Handler {
     }
     
     protected boolean doPoll(Logger logger) throws InterruptedException {
+
+        if (!PollScheduler.DISABLED) {
+            return PollScheduler.getInstance().poll(this, logger);
+        }
+
         boolean ret = false;
         int failures = 0;
 
@@ -72,6 +80,7 @@ public abstract class PollHandler extends Handler {
                     logRunEntityResults(getRunEntityResultsResponse(), logger);
                     break;
                 }
+                polled(logger);
             } else {
                 ++failures;
             }
@@ -83,6 +92,60 @@ public abstract class PollHandler extends Handler {
         return ret;
     }
     
+    /**
+     * @return the REST collection of the polled run, to read it together with other runs of the same project, or
+     *         null if the run should be polled on its own
+     */
+    protected String getBatchCollection() {
+        
+        return null;
+    }
+    
+    /**
+     * @return the state of the run reported by a poll, used to back off while it does not change
+     */
+    protected String getRunState(Response response) {
+        
+        try {
+            return XPathUtils.getAttributeValue(response.getData(), "state");
+        } catch (Throwable cause) {
+            return null;
+        }
+    }
+    
+    public void setPollListener(PollListener pollListener) {
+        
+        _pollListener = pollListener;
+    }
+    
+    /**
+     * Called after each successful poll of a run that is not finished yet.
+     */
+    void polled(Logger logger) {
+        
+        if (_pollListener != null) {
+            _pollListener.onPoll(logger);
+        }
+    }
+    
+    public int getInterval() {
+        
+        return _interval;
+    }
+    
+    public long getEstimatedDuration() {
+        
+        return _estimatedDuration;
+    }
+    
+    /**
+     * @param estimatedDuration how long the run is expected to take, in milliseconds
+     */
+    public void setEstimatedDuration(long estimatedDuration) {
+        
+        _estimatedDuration = estimatedDuration;
+    }
+    
     protected abstract Response getRunEntityResultsResponse();
     
     protected abstract boolean logRunEntityResults(Response response, Logger logger);
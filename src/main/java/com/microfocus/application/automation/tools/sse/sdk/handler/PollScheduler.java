@@ -0,0 +1,347 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.sse.sdk.handler;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang.StringEscapeUtils;
+
+import com.microfocus.application.automation.tools.common.PollInterval;
+import com.microfocus.application.automation.tools.common.SSEException;
+import com.microfocus.application.automation.tools.sse.common.EntityReader;
+import com.microfocus.application.automation.tools.sse.common.StringUtils;
+import com.microfocus.application.automation.tools.sse.sdk.Client;
+import com.microfocus.application.automation.tools.sse.sdk.Logger;
+import com.microfocus.application.automation.tools.sse.sdk.Response;
+import com.microfocus.application.automation.tools.sse.sdk.request.GetRunEntitiesRequest;
+
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+
+/**
+ * Polls the runs of all {@link PollHandler}s on a small shared thread pool instead of one sleeping build thread per
+ * run. Each run is polled at an adaptive {@link PollInterval}, and runs of the same ALM project that are due at about
+ * the same time are read with a single request.
+ */
+final class PollScheduler {
+
+    /** Poll on the build thread with a fixed interval, as before the scheduler existed. */
+    static final boolean DISABLED = Boolean.getBoolean("PollScheduler.Disabled");
+
+    private static final int THREADS = Integer.getInteger("PollScheduler.Threads", 4);
+    private static final long COALESCE_WINDOW = Long.getLong("PollScheduler.CoalesceWindow", 2000L);
+    private static final int MAX_BATCH_SIZE = 50;
+    private static final int MAX_FAILURES = 3;
+    // a run polled through another build's session still refreshes its own session this often
+    private static final long OWN_REQUEST_INTERVAL = TimeUnit.MINUTES.toMillis(5);
+
+    private static final PollScheduler INSTANCE = new PollScheduler();
+
+    private final ScheduledThreadPoolExecutor executor;
+    private final Map<String, Set<Task>> groups = new HashMap<String, Set<Task>>();
+
+    private PollScheduler() {
+        executor = new ScheduledThreadPoolExecutor(
+                THREADS,
+                new NamingThreadFactory(new DaemonThreadFactory(), "PollScheduler.poll"));
+        executor.setRemoveOnCancelPolicy(true);
+    }
+
+    static PollScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Poll the run of the handler until it finishes or fails, blocking the calling thread.
+     *
+     * @return true if the run finished, false if polling failed too many times
+     */
+    boolean poll(PollHandler handler, Logger logger) throws InterruptedException {
+        Task task = new Task(handler, logger, getGroupKey(handler));
+        task.start();
+        try {
+            return task.result.get();
+        } catch (InterruptedException e) {
+            task.cancel();
+            logger.log("Interrupted while polling");
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new SSEException(cause);
+        }
+    }
+
+    private static String getGroupKey(PollHandler handler) {
+        String collection = handler.getBatchCollection();
+        if (collection == null) {
+            return null;
+        }
+        try {
+            Client client = handler._client;
+            String url = client.buildRestRequest(collection);
+            return url == null ? null : url + '|' + client.getUsername();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Claim the tasks of the group that are due soon, so that they are read together with the given one.
+     *
+     * @param generation the generation of the task the firing was scheduled for; a firing of an older generation was
+     *                   already dispatched when its task got claimed or rescheduled, and is dropped
+     */
+    private synchronized List<Task> claimBatch(Task first, long generation) {
+        if (generation != first.generation || first.claimed || first.result.isDone()) {
+            return Collections.emptyList();
+        }
+        first.claimed = true;
+        List<Task> batch = new ArrayList<Task>();
+        batch.add(first);
+        Set<Task> group = first.groupKey == null ? null : groups.get(first.groupKey);
+        if (group != null && first.canShareSession()) {
+            long horizon = System.currentTimeMillis() + COALESCE_WINDOW;
+            for (Task peer : group) {
+                if (batch.size() >= MAX_BATCH_SIZE) {
+                    break;
+                }
+                if (peer != first
+                        && !peer.claimed
+                        && !peer.result.isDone()
+                        && peer.dueAt <= horizon
+                        && peer.canShareSession()) {
+                    peer.claimed = true;
+                    // cancelling does not stop a firing already handed to a pool thread
+                    peer.generation++;
+                    if (peer.scheduled != null) {
+                        peer.scheduled.cancel(false);
+                    }
+                    batch.add(peer);
+                }
+            }
+        }
+        return batch;
+    }
+
+    private synchronized void register(Task task) {
+        if (task.groupKey != null) {
+            Set<Task> group = groups.get(task.groupKey);
+            if (group == null) {
+                group = new LinkedHashSet<Task>();
+                groups.put(task.groupKey, group);
+            }
+            group.add(task);
+        }
+    }
+
+    private synchronized void unregister(Task task) {
+        if (task.scheduled != null) {
+            task.scheduled.cancel(false);
+        }
+        Set<Task> group = task.groupKey == null ? null : groups.get(task.groupKey);
+        if (group != null) {
+            group.remove(task);
+            if (group.isEmpty()) {
+                groups.remove(task.groupKey);
+            }
+        }
+    }
+
+    private synchronized void schedule(Task task, long delay) {
+        if (task.result.isDone()) {
+            return;
+        }
+        task.claimed = false;
+        task.dueAt = System.currentTimeMillis() + delay;
+        final long generation = ++task.generation;
+        task.scheduled = executor.schedule(() -> task.fire(generation), delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Read the runs of a batch with one request. Runs missing from the answer, or all of them if the request failed,
+     * are left out of the returned map and get polled on their own.
+     */
+    private static Map<String, Response> fetch(List<Task> batch) {
+        Task first = batch.get(0);
+        List<String> runIds = new ArrayList<String>(batch.size());
+        for (Task task : batch) {
+            runIds.add(task.handler.getRunId());
+        }
+        Map<String, Response> ret = new HashMap<String, Response>();
+        try {
+            Response response =
+                    new GetRunEntitiesRequest(
+                            first.handler._client,
+                            first.handler.getBatchCollection(),
+                            runIds).execute();
+            if (response.isOk() && response.getData() != null) {
+                for (Map<String, String> entity : EntityReader.readEntities(response.getData(), null)) {
+                    String id = entity.get("id");
+                    if (id != null && runIds.contains(id)) {
+                        ret.put(id, toEntityResponse(response, entity));
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            ret.clear();
+        }
+        return ret;
+    }
+
+    /**
+     * Build the response a request for the single entity would have returned.
+     */
+    private static Response toEntityResponse(Response collection, Map<String, String> entity) {
+        StringBuilder xml = new StringBuilder("<Entity><Fields>");
+        for (Map.Entry<String, String> field : entity.entrySet()) {
+            xml.append("<Field Name=\"").append(StringEscapeUtils.escapeXml(field.getKey())).append('"');
+            if (field.getValue() == null) {
+                xml.append("/>");
+            } else {
+                xml.append("><Value>").append(StringEscapeUtils.escapeXml(field.getValue())).append("</Value></Field>");
+            }
+        }
+        xml.append("</Fields></Entity>");
+        return new Response(
+                collection.getHeaders(),
+                xml.toString().getBytes(StandardCharsets.UTF_8),
+                null,
+                collection.getStatusCode());
+    }
+
+    private final class Task {
+
+        private final PollHandler handler;
+        private final Logger logger;
+        private final String groupKey;
+        private final PollInterval interval;
+        private final CompletableFuture<Boolean> result = new CompletableFuture<Boolean>();
+        private final long startTime = System.currentTimeMillis();
+        private int failures;
+        private long lastOwnRequest = startTime;
+
+        // guarded by the scheduler
+        private ScheduledFuture<?> scheduled;
+        private long dueAt;
+        private boolean claimed;
+        private long generation;
+
+        private Task(PollHandler handler, Logger logger, String groupKey) {
+            this.handler = handler;
+            this.logger = logger;
+            this.groupKey = groupKey;
+            this.interval = new PollInterval(handler.getInterval());
+        }
+
+        private void start() {
+            register(this);
+            schedule(this, 0);
+        }
+
+        private void cancel() {
+            result.cancel(false);
+            unregister(this);
+        }
+
+        private boolean canShareSession() {
+            return !StringUtils.isNullOrEmpty(handler.getRunId())
+                    && System.currentTimeMillis() - lastOwnRequest < OWN_REQUEST_INTERVAL;
+        }
+
+        private void fire(long generation) {
+            List<Task> batch = claimBatch(this, generation);
+            if (batch.isEmpty()) {
+                return;
+            }
+            Map<String, Response> responses =
+                    batch.size() > 1 ? fetch(batch) : Collections.<String, Response>emptyMap();
+            for (Task task : batch) {
+                task.process(responses.get(task.handler.getRunId()));
+            }
+        }
+
+        private void process(Response prefetched) {
+            try {
+                Response response = prefetched;
+                if (response == null) {
+                    response = handler.getResponse();
+                    lastOwnRequest = System.currentTimeMillis();
+                }
+                long delay;
+                if (handler.isOk(response, logger)) {
+                    handler.log(logger);
+                    if (handler.isFinished(response, logger)) {
+                        handler.logRunEntityResults(handler.getRunEntityResultsResponse(), logger);
+                        complete(true);
+                        return;
+                    }
+                    handler.polled(logger);
+                    delay = interval.next(
+                            handler.getRunState(response),
+                            System.currentTimeMillis() - startTime,
+                            handler.getEstimatedDuration());
+                } else {
+                    if (++failures >= MAX_FAILURES) {
+                        complete(false);
+                        return;
+                    }
+                    interval.reset();
+                    delay = interval.next(null, 0, 0);
+                }
+                schedule(this, delay);
+            } catch (Throwable e) {
+                unregister(this);
+                result.completeExceptionally(e);
+            }
+        }
+
+        private void complete(boolean finished) {
+            unregister(this);
+            result.complete(finished);
+        }
+    }
+}
@@ -33,18 +33,40 @@ import com.microfocus.application.automation.tools.sse.sdk.Client;
 public class EventLogRequest extends GetRequest {
     
     private final String _timeslotId;
+    private final int _lastRead;
+    private final int _pageSize;
     
     public EventLogRequest(Client client, String timeslotId) {
         
+        this(client, timeslotId, -1, 0);
+    }
+    
+    /**
+     * @param lastRead only read events with a greater id, -1 to read from the first event
+     * @param pageSize maximum number of events to read, in ascending id order, 0 for no limit
+     */
+    public EventLogRequest(Client client, String timeslotId, int lastRead, int pageSize) {
+        
         super(client, timeslotId);
         _timeslotId = timeslotId;
+        _lastRead = lastRead;
+        _pageSize = pageSize;
     }
     
     @Override
     protected String getSuffix() {
         
-        return String.format(
-                "event-log-reads?query={context[\"*Timeslot:%%20%s%%3B*\"]}&fields=id,event-type,creation-time,action,description",
-                _timeslotId);
+        StringBuilder ret = new StringBuilder(String.format(
+                "event-log-reads?query={context[\"*Timeslot:%%20%s%%3B*\"]",
+                _timeslotId));
+        if (_lastRead >= 0) {
+            ret.append(String.format(";id[%%3E%d]", _lastRead));
+        }
+        ret.append("}&fields=id,creation-time,description");
+        if (_pageSize > 0) {
+            ret.append(String.format("&order-by={id[ASC]}&page-size=%d", _pageSize));
+        }
+        
+        return ret.toString();
     }
-}
\ No newline at end of file
+}
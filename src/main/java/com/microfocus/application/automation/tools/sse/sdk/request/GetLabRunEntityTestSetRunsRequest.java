@@ -41,9 +41,20 @@ import java.util.Map;
  */
 public class GetLabRunEntityTestSetRunsRequest extends GetRequest {
     
+    private final String _changedSince;
+    
     public GetLabRunEntityTestSetRunsRequest(Client client, String runId) {
         
+        this(client, runId, null);
+    }
+    
+    /**
+     * @param changedSince only read the test set runs changed at or after this ALM time stamp (vts), null for all
+     */
+    public GetLabRunEntityTestSetRunsRequest(Client client, String runId, String changedSince) {
+        
         super(client, runId);
+        _changedSince = changedSince;
     }
     
     @Override
@@ -54,7 +65,13 @@ public class GetLabRunEntityTestSetRunsRequest extends GetRequest {
     @Override
     protected String getQueryString() {
         
-        return String.format("query={procedure-run[%s]}&page-size=2000", _runId);
+        if (_changedSince == null) {
+            return String.format("query={procedure-run[%s]}&page-size=2000", _runId);
+        }
+        return String.format(
+                "query={procedure-run[%s];vts[%%3E%%3D\"%s\"]}&page-size=2000",
+                _runId,
+                _changedSince.replace(" ", "%20"));
     }
 
     @Override
@@ -0,0 +1,77 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.common;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestPollInterval {
+
+    @Test
+    public void testZeroIntervalNeverWaits() {
+        PollInterval interval = new PollInterval(0);
+        Assert.assertEquals(0, interval.next("Running", 0, 60000));
+        Assert.assertEquals(0, interval.next("Running", 0, 60000));
+    }
+
+    @Test
+    public void testBacksOffWhileStateIsUnchanged() {
+        PollInterval interval = new PollInterval(1000, 4000);
+        assertAround(1000, interval.next("Running", 0, 0));
+        assertAround(1500, interval.next("Running", 0, 0));
+        assertAround(2250, interval.next("Running", 0, 0));
+        assertAround(3375, interval.next("Running", 0, 0));
+        assertAround(4000, interval.next("Running", 0, 0));
+        assertAround(4000, interval.next("Running", 0, 0));
+        assertAround(1000, interval.next("Finished", 0, 0));
+    }
+
+    @Test
+    public void testWaitsLongerEarlyInTheRun() {
+        PollInterval interval = new PollInterval(1000, 30000);
+        assertAround(30000, interval.next("Running", 0, 3600000));
+        assertAround(10000, interval.next("Waiting", 3500000, 3600000));
+        assertAround(1000, interval.next("Waiting", 3700000, 3600000));
+    }
+
+    @Test
+    public void testResetStartsOverFromBase() {
+        PollInterval interval = new PollInterval(1000, 4000);
+        interval.next("Running", 0, 0);
+        interval.next("Running", 0, 0);
+        interval.reset();
+        assertAround(1000, interval.next("Running", 0, 0));
+    }
+
+    private static void assertAround(long expected, long actual) {
+        Assert.assertTrue(
+                String.format("expected %d +/- 10%% but was %d", expected, actual),
+                Math.abs(expected - actual) <= expected / 10);
+    }
+}
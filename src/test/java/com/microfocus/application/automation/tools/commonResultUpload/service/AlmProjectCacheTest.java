@@ -0,0 +1,258 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.commonResultUpload.service;
+
+import com.microfocus.application.automation.tools.results.service.almentities.AlmCommonProperties;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class AlmProjectCacheTest {
+
+    private static final String FOLDERS = "test-folders";
+    private static final String TESTS = "tests";
+    private static final String[] FIELDS = new String[]{"id", "name", "subtype-id"};
+
+    private FakeAlm alm;
+    private FolderService folderService;
+
+    @Before
+    public void setUp() {
+        alm = new FakeAlm();
+        folderService = new FolderService(alm, new AlmProjectCache());
+    }
+
+    @Test
+    public void testSharedUntilExpired() {
+        AlmProjectCache cache = AlmProjectCache.get("http://alm|expiry|project", 0);
+        assertSame(cache, AlmProjectCache.get("http://alm|expiry|project", AlmProjectCache.TTL_MILLIS - 1));
+        assertNotSame(cache, AlmProjectCache.get("http://alm|expiry|other", AlmProjectCache.TTL_MILLIS - 1));
+
+        AlmProjectCache renewed = AlmProjectCache.get("http://alm|expiry|project", AlmProjectCache.TTL_MILLIS);
+        assertNotSame(cache, renewed);
+        assertSame(renewed, AlmProjectCache.get("http://alm|expiry|project", AlmProjectCache.TTL_MILLIS + 1));
+    }
+
+    @Test
+    public void testFolderHit() {
+        alm.add(FOLDERS, "10", "2", "A");
+        Map<String, String> folder = folderService.createOrFindPath(FOLDERS, "2", "A\\B");
+        assertEquals("10", folder.get(AlmCommonProperties.PARENT_ID));
+
+        int requests = alm.requests;
+        assertEquals(folder.get(AlmCommonProperties.ID),
+                folderService.createOrFindPath(FOLDERS, "2", "A\\B").get(AlmCommonProperties.ID));
+        assertEquals(requests, alm.requests);
+    }
+
+    @Test
+    public void testEntityHit() {
+        Map<String, String> folder = alm.add(FOLDERS, "10", "2", "A");
+        alm.add(FOLDERS, "11", "10", "B");
+        alm.add(TESTS, "100", "11", "t1");
+
+        assertEquals("100", find(folder, "t1").get(AlmCommonProperties.ID));
+        int requests = alm.requests;
+        assertEquals("100", find(folder, "t1").get(AlmCommonProperties.ID));
+        assertNull(find(folder, "t2"));
+        assertEquals(requests, alm.requests);
+
+        // An entity created during the upload is found without asking ALM
+        Map<String, String> created = alm.create(TESTS, entity("11", "t2"));
+        folderService.remember(TESTS, created);
+        assertEquals(created.get(AlmCommonProperties.ID), find(folder, "t2").get(AlmCommonProperties.ID));
+        assertEquals(requests, alm.requests);
+    }
+
+    @Test
+    public void testRemovedFolderIsLookedUpAgain() {
+        alm.add(FOLDERS, "10", "2", "A");
+        Map<String, String> stale = folderService.createOrFindPath(FOLDERS, "2", "A\\B");
+        alm.remove(FOLDERS, "10");
+        alm.remove(FOLDERS, stale.get(AlmCommonProperties.ID));
+        alm.add(FOLDERS, "20", "2", "A");
+
+        // The cached folder is returned until ALM refuses it
+        assertEquals(stale, folderService.createOrFindPath(FOLDERS, "2", "A\\B"));
+        assertTrue(folderService.forgetFolder(FOLDERS, stale));
+        assertFalse(folderService.forgetFolder(FOLDERS, stale));
+
+        // B cannot be created under the removed A which is still cached: the path is walked once more
+        Map<String, String> folder = folderService.createOrFindPath(FOLDERS, "2", "A\\B");
+        assertEquals("20", folder.get(AlmCommonProperties.PARENT_ID));
+        assertFalse(stale.get(AlmCommonProperties.ID).equals(folder.get(AlmCommonProperties.ID)));
+        assertEquals("20", folderService.createOrFindPath(FOLDERS, "2", "A\\C").get(AlmCommonProperties.PARENT_ID));
+    }
+
+    @Test
+    public void testRemovedEntityIsLookedUpAgain() {
+        Map<String, String> folder = alm.add(FOLDERS, "10", "2", "A");
+        alm.add(TESTS, "100", "10", "t1");
+        Map<String, String> stale = find(folder, "t1");
+        alm.remove(TESTS, "100");
+        alm.add(TESTS, "101", "10", "t1");
+
+        assertEquals("100", find(folder, "t1").get(AlmCommonProperties.ID));
+        assertNull(alm.update(TESTS, stale));
+        assertTrue(folderService.forgetEntity(TESTS, stale));
+        assertFalse(folderService.forgetEntity(TESTS, stale));
+        assertEquals("101", find(folder, "t1").get(AlmCommonProperties.ID));
+    }
+
+    private Map<String, String> find(Map<String, String> folder, String name) {
+        Map<String, String> test = new HashMap<>();
+        test.put(AlmCommonProperties.NAME, name);
+        return folderService.findEntityInFolder(folder, test, TESTS, FOLDERS, FIELDS);
+    }
+
+    private static Map<String, String> entity(String parentId, String name) {
+        Map<String, String> entity = new HashMap<>();
+        entity.put(AlmCommonProperties.PARENT_ID, parentId);
+        entity.put(AlmCommonProperties.NAME, name);
+        return entity;
+    }
+
+    /**
+     * Answers the queries of FolderService from entities kept in memory.
+     */
+    private static class FakeAlm extends RestService {
+
+        private static final Pattern PARENTS = Pattern.compile("parent-id\\[([^\\]]*)\\]");
+        private static final Pattern NAME = Pattern.compile("name\\[([^\\]]*)\\]");
+        private static final Pattern START_INDEX = Pattern.compile("start-index=(\\d+)");
+
+        private final Map<String, List<Map<String, String>>> entities = new HashMap<>();
+        private int nextId = 1000;
+        private int requests;
+
+        FakeAlm() {
+            super(null, null, null);
+        }
+
+        Map<String, String> add(String prefix, String id, String parentId, String name) {
+            Map<String, String> entity = entity(parentId, name);
+            entity.put(AlmCommonProperties.ID, id);
+            entities(prefix).add(entity);
+            return new HashMap<>(entity);
+        }
+
+        void remove(String prefix, String id) {
+            Iterator<Map<String, String>> it = entities(prefix).iterator();
+            while (it.hasNext()) {
+                if (id.equals(it.next().get(AlmCommonProperties.ID))) {
+                    it.remove();
+                }
+            }
+        }
+
+        @Override
+        public Map<String, String> create(String restPrefix, Map<String, String> valueMap) {
+            String parentId = valueMap.get(AlmCommonProperties.PARENT_ID);
+            if (!parentId.equals("0") && !parentId.equals("2") && find(FOLDERS, parentId) == null) {
+                return null;
+            }
+            return add(restPrefix, String.valueOf(nextId++), parentId, valueMap.get(AlmCommonProperties.NAME));
+        }
+
+        @Override
+        public Map<String, String> update(String restPrefix, Map<String, String> valueMap) {
+            Map<String, String> entity = find(restPrefix, valueMap.get(AlmCommonProperties.ID));
+            return entity == null ? null : new HashMap<>(entity);
+        }
+
+        @Override
+        public List<Map<String, String>> get(String id, String restPrefix, String queryString) {
+            requests++;
+            List<Map<String, String>> ret = new ArrayList<>();
+            Matcher startIndex = START_INDEX.matcher(queryString);
+            if (startIndex.find() && !startIndex.group(1).equals("1")) {
+                return ret;
+            }
+            Matcher parents = PARENTS.matcher(queryString);
+            Matcher name = NAME.matcher(queryString);
+            List<String> parentIds = new ArrayList<>();
+            if (parents.find()) {
+                for (String parentId : parents.group(1).split("%20OR%20")) {
+                    parentIds.add(parentId);
+                }
+            }
+            String entityName = name.find() ? decode(name.group(1)) : null;
+            for (Map<String, String> entity : entities(restPrefix)) {
+                if (parentIds.contains(entity.get(AlmCommonProperties.PARENT_ID))
+                        && (entityName == null || entityName.equals(entity.get(AlmCommonProperties.NAME)))) {
+                    ret.add(new HashMap<>(entity));
+                }
+            }
+            return ret;
+        }
+
+        private static String decode(String name) {
+            try {
+                String quoted = URLDecoder.decode(name, "UTF-8");
+                return quoted.substring(1, quoted.length() - 1);
+            } catch (UnsupportedEncodingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private Map<String, String> find(String prefix, String id) {
+            for (Map<String, String> entity : entities(prefix)) {
+                if (entity.get(AlmCommonProperties.ID).equals(id)) {
+                    return entity;
+                }
+            }
+            return null;
+        }
+
+        private List<Map<String, String>> entities(String prefix) {
+            List<Map<String, String>> list = entities.get(prefix);
+            if (list == null) {
+                list = new ArrayList<>();
+                entities.put(prefix, list);
+            }
+            return list;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane;
+
+import hudson.console.ConsoleNote;
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests on BuildLogExport
+ */
+public class BuildLogExportTest {
+	private static final String NOTE = ConsoleNote.PREAMBLE_STR + "AAAAnote" + ConsoleNote.POSTAMBLE_STR;
+	private static final String LOG = "Started by " + NOTE + "user\n" + NOTE + "Building\nFinished: SUCCESS\n";
+	private static final String TEXT = "Started by user\nBuilding\nFinished: SUCCESS\n";
+
+	@Test
+	public void testAnnotationsStripped() throws IOException {
+		assertEquals(TEXT, read(BuildLogExport.export(log(LOG), true, "test", 0, -1, false)));
+	}
+
+	@Test
+	public void testRange() throws IOException {
+		assertEquals(TEXT.substring(16), read(BuildLogExport.export(log(LOG), true, "test", 16, -1, false)));
+		assertEquals(TEXT.substring(11, 20), read(BuildLogExport.export(log(LOG), true, "test", 11, 9, false)));
+		assertEquals("", read(BuildLogExport.export(log(LOG), true, "test", TEXT.length() + 1, 5, false)));
+	}
+
+	@Test
+	public void testGzip() throws IOException {
+		assertEquals(TEXT.substring(0, 8), read(new GZIPInputStream(BuildLogExport.export(log(LOG), true, "test", 0, 8, true))));
+	}
+
+	@Test
+	public void testPlainTextRange() throws IOException {
+		assertEquals(TEXT.substring(9), read(BuildLogExport.range(log(TEXT), "test", 9, -1, false)));
+	}
+
+	@Test
+	public void testFailedLogReadReachesReader() {
+		for (boolean gzip : new boolean[]{false, true}) {
+			InputStream failing = new SequenceInputStream(log(LOG), new InputStream() {
+				@Override
+				public int read() throws IOException {
+					throw new IOException("log read failed");
+				}
+			});
+			try {
+				InputStream in = BuildLogExport.export(failing, true, "test", 0, -1, gzip);
+				read(gzip ? new GZIPInputStream(in) : in);
+				fail("a log that failed to be read must not look complete");
+			} catch (IOException e) {
+				// expected
+			}
+		}
+	}
+
+	@Test
+	public void testLargeLog() throws IOException {
+		StringBuilder log = new StringBuilder();
+		for (int i = 0; i < 100000; i++) {
+			log.append(NOTE).append("line ").append(i).append('\n');
+		}
+		String text = read(BuildLogExport.export(log(log.toString()), true, "test", 0, -1, false));
+		assertEquals(log.toString().replace(NOTE, ""), text);
+	}
+
+	private static InputStream log(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String read(InputStream in) throws IOException {
+		try (InputStream stream = in) {
+			return IOUtils.toString(stream, StandardCharsets.UTF_8);
+		}
+	}
+}
@@ -0,0 +1,194 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests on AbstractLogResultQueueImpl
+ */
+@SuppressWarnings({"squid:S2699", "squid:S2925"})
+public class LogResultQueueTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testContentSurvivesReopen() throws IOException {
+		File file = new File(folder.getRoot(), "queue.log");
+		LogQueue queue = new LogQueue(file);
+		queue.add("job-a", 1);
+		queue.add("job-b", 2);
+		queue.add("instance", "job-c", 3, "ws");
+		queue.peekFirst();
+		queue.remove();
+		queue.close();
+
+		queue = new LogQueue(file);
+		assertEquals(2, queue.size());
+		ResultQueue.QueueItem item = queue.peekFirst();
+		assertEquals("job-b", item.getProjectName());
+		assertEquals(2, item.getBuildNumber());
+		queue.remove();
+		item = queue.peekFirst();
+		assertEquals("job-c", item.getProjectName());
+		assertEquals("ws", item.getWorkspace());
+		assertEquals("instance", item.getInstanceId());
+		queue.close();
+	}
+
+	@Test
+	public void testRetryMovesItemToEnd() throws IOException {
+		File file = new File(folder.getRoot(), "queue.log");
+		LogQueue queue = new LogQueue(file);
+		queue.add("job-a", 1);
+		queue.add("job-b", 2);
+
+		queue.peekFirst();
+		assertTrue(queue.failed());
+		assertEquals("job-b", queue.peekFirst().getProjectName());
+		queue.remove();
+		queue.close();
+
+		queue = new LogQueue(file);
+		ResultQueue.QueueItem item = queue.peekFirst();
+		assertEquals("job-a", item.getProjectName());
+		assertEquals(1, item.getFailCount());
+		queue.close();
+	}
+
+	@Test
+	public void testItemDroppedAfterMaxRetries() throws IOException {
+		LogQueue queue = new LogQueue(new File(folder.getRoot(), "queue.log"), 1);
+		queue.add("job-a", 1);
+		queue.peekFirst();
+		assertTrue(queue.failed());
+		queue.peekFirst();
+		assertFalse(queue.failed());
+		assertNull(queue.peekFirst());
+		queue.close();
+	}
+
+	@Test
+	public void testBatches() throws IOException {
+		File file = new File(folder.getRoot(), "queue.log");
+		LogQueue queue = new LogQueue(file);
+		for (int i = 0; i < 10; i++) {
+			queue.add("job", i);
+		}
+		List<ResultQueue.QueueItem> batch = queue.peekBatch(4);
+		assertEquals(4, batch.size());
+		assertEquals(0, batch.get(0).getBuildNumber());
+		assertEquals(3, batch.get(3).getBuildNumber());
+		queue.removeBatch(batch);
+		assertTrue(queue.failed(queue.peekBatch(1).get(0)));
+		queue.close();
+
+		queue = new LogQueue(file);
+		batch = queue.peekBatch(100);
+		assertEquals(6, batch.size());
+		assertEquals(5, batch.get(0).getBuildNumber());
+		assertEquals(4, batch.get(5).getBuildNumber());
+		queue.close();
+	}
+
+	@Test
+	public void testTornLastRecordIsDropped() throws IOException {
+		File file = new File(folder.getRoot(), "queue.log");
+		LogQueue queue = new LogQueue(file);
+		queue.add("job-a", 1);
+		queue.close();
+		try (FileOutputStream out = new FileOutputStream(file, true)) {
+			out.write("{\"op\":\"add\",\"id\":1,\"ite".getBytes(StandardCharsets.UTF_8));
+		}
+
+		queue = new LogQueue(file);
+		assertEquals(1, queue.size());
+		queue.add("job-b", 2);
+		queue.close();
+
+		queue = new LogQueue(file);
+		assertEquals(2, queue.size());
+		queue.close();
+	}
+
+	@Test
+	public void testConcurrentProducersAndCompaction() throws Exception {
+		File file = new File(folder.getRoot(), "queue.log");
+		LogQueue queue = new LogQueue(file);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		for (int t = 0; t < 8; t++) {
+			int thread = t;
+			executor.execute(() -> {
+				for (int i = 0; i < 300; i++) {
+					queue.add("job-" + thread, i);
+				}
+			});
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+		assertEquals(2400, queue.size());
+
+		List<ResultQueue.QueueItem> batch;
+		while ((batch = queue.peekBatch(50)).size() > 10) {
+			queue.removeBatch(batch.subList(0, batch.size() - 10));
+			queue.removeBatch(new ArrayList<>(batch.subList(batch.size() - 10, batch.size())));
+		}
+		int remaining = queue.size();
+		queue.close();
+
+		assertEquals(remaining, new LogQueue(file).size());
+		assertTrue("log should be compacted", file.length() < 2400 * 50);
+	}
+
+	private static class LogQueue extends AbstractLogResultQueueImpl {
+		private LogQueue(File file) throws IOException {
+			init(file);
+		}
+
+		private LogQueue(File file, int maxRetries) throws IOException {
+			super(maxRetries);
+			init(file);
+		}
+	}
+}
@@ -31,6 +31,7 @@ package com.microfocus.application.automation.tools.octane;
 import com.hp.octane.integrations.dto.DTOFactory;
 import com.microfocus.application.automation.tools.model.OctaneServerSettingsModel;
 import com.microfocus.application.automation.tools.octane.configuration.ConfigurationService;
+import com.microfocus.application.automation.tools.octane.tests.TestUtils;
 import hudson.util.Secret;
 import org.junit.BeforeClass;
 import org.junit.ClassRule;
@@ -49,6 +50,8 @@ public abstract class OctanePluginTestBase {
 
 	@BeforeClass
 	public static void init() {
+		//  tests read mqmTests.xml as soon as the build completes
+		TestUtils.processTestResultsInline();
 
 		instanceId = UUID.randomUUID().toString();
 		ssp = UUID.randomUUID().toString();
@@ -0,0 +1,134 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the tape based queue (AbstractResultQueueImpl) with the append-only log queue (AbstractLogResultQueueImpl)
+ * under concurrent producers. Not part of the test suite, run with main() from the test classpath.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ResultQueueBenchmark {
+
+	private static final int CONSUMER_BATCH = 50;
+
+	@Param({"tape", "log"})
+	public String implementation;
+
+	private File folder;
+	private ResultQueue queue;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		folder = Files.createTempDirectory("result-queue-benchmark").toFile();
+		File queueFile = new File(folder, "queue.dat");
+		queue = "tape".equals(implementation) ? new TapeQueue(queueFile) : new LogQueue(queueFile);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		queue.close();
+		File[] files = folder.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+		folder.delete();
+	}
+
+	@Benchmark
+	@Group("produce")
+	@GroupThreads(16)
+	public void produce() {
+		queue.add("benchmark-job", 1);
+	}
+
+	@Benchmark
+	@Group("produceConsume")
+	@GroupThreads(15)
+	public void producer() {
+		queue.add("benchmark-job", 1);
+	}
+
+	@Benchmark
+	@Group("produceConsume")
+	@GroupThreads(1)
+	public int consumer() {
+		if (queue instanceof BatchedResultQueue) {
+			BatchedResultQueue batchedQueue = (BatchedResultQueue) queue;
+			List<ResultQueue.QueueItem> batch = batchedQueue.peekBatch(CONSUMER_BATCH);
+			if (!batch.isEmpty()) {
+				batchedQueue.removeBatch(batch);
+			}
+			return batch.size();
+		}
+		int consumed = 0;
+		while (consumed < CONSUMER_BATCH && queue.peekFirst() != null) {
+			queue.remove();
+			consumed++;
+		}
+		return consumed;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options options = new OptionsBuilder()
+				.include(ResultQueueBenchmark.class.getSimpleName())
+				.build();
+		new Runner(options).run();
+	}
+
+	private static class TapeQueue extends AbstractResultQueueImpl {
+		private TapeQueue(File file) throws IOException {
+			init(file);
+		}
+	}
+
+	private static class LogQueue extends AbstractLogResultQueueImpl {
+		private LogQueue(File file) throws IOException {
+			init(file);
+		}
+	}
+}
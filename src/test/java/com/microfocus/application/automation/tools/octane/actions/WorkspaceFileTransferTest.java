@@ -0,0 +1,152 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.actions;
+
+import hudson.FilePath;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests on WorkspaceFileTransfer
+ */
+public class WorkspaceFileTransferTest {
+
+	@ClassRule
+	public static final JenkinsRule rule = new JenkinsRule();
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testContentAndDigestMatch() throws Exception {
+		File workspace = folder.newFolder("workspace");
+		File source = new File(workspace, "coverage.xml");
+		byte[] content = content(3 * 64 * 1024 + 17);
+		Files.write(source.toPath(), content);
+		File target = new File(folder.newFolder("build"), "coverage.xml");
+
+		assertEquals(content.length, WorkspaceFileTransfer.copy(new FilePath(workspace), source, target));
+		byte[] copied = Files.readAllBytes(target.toPath());
+		assertArrayEquals(content, copied);
+		assertArrayEquals(sha256(content), sha256(copied));
+	}
+
+	@Test
+	public void testEmptyFile() throws Exception {
+		File workspace = folder.newFolder("workspace");
+		File source = new File(workspace, "empty.xml");
+		Files.write(source.toPath(), new byte[0]);
+		File target = new File(folder.newFolder("build"), "empty.xml");
+
+		assertEquals(0, WorkspaceFileTransfer.copy(new FilePath(workspace), source, target));
+		assertTrue(target.exists());
+		assertEquals(0, target.length());
+	}
+
+	@Test
+	public void testCopyAll() throws Exception {
+		File workspace = folder.newFolder("workspace");
+		File build = folder.newFolder("build");
+		Map<File, File> targets = new LinkedHashMap<>();
+		for (int i = 0; i < 6; i++) {
+			File source = new File(workspace, "gherkin" + i + ".xml");
+			Files.write(source.toPath(), ("<features>" + i + "</features>").getBytes(StandardCharsets.UTF_8));
+			targets.put(source, new File(build, "result" + i + ".xml"));
+		}
+
+		WorkspaceFileTransfer.copyAll(new FilePath(workspace), targets);
+		for (Map.Entry<File, File> file : targets.entrySet()) {
+			assertArrayEquals(Files.readAllBytes(file.getKey().toPath()), Files.readAllBytes(file.getValue().toPath()));
+		}
+	}
+
+	@Test
+	public void testMissingFile() throws Exception {
+		File workspace = folder.newFolder("workspace");
+		File source = new File(workspace, "missing.xml");
+		File target = new File(folder.newFolder("build"), "missing.xml");
+
+		// the same failure as reading the file on the node before the transfer streamed it
+		try {
+			WorkspaceFileTransfer.copy(new FilePath(workspace), source, target);
+			fail("missing file copied");
+		} catch (NoSuchFileException e) {
+			assertEquals(source.getPath(), e.getFile());
+		}
+		assertFalse(target.exists());
+
+		File existing = new File(workspace, "existing.xml");
+		Files.write(existing.toPath(), content(1024));
+		Map<File, File> targets = new LinkedHashMap<>();
+		targets.put(existing, new File(target.getParentFile(), "existing.xml"));
+		targets.put(source, target);
+		try {
+			WorkspaceFileTransfer.copyAll(new FilePath(workspace), targets);
+			fail("missing file copied");
+		} catch (NoSuchFileException e) {
+			assertEquals(source.getPath(), e.getFile());
+		}
+		assertTrue(Arrays.equals(Files.readAllBytes(existing.toPath()),
+				Files.readAllBytes(targets.get(existing).toPath())));
+		assertFalse(target.exists());
+	}
+
+	private static byte[] content(int length) {
+		// half random, half repeated, so the gzipped stream is neither trivial nor bigger than the pipe
+		byte[] content = new byte[length];
+		new Random(42).nextBytes(content);
+		for (int i = length / 2; i < length; i++) {
+			content[i] = (byte) ('a' + i % 26);
+		}
+		return content;
+	}
+
+	private static byte[] sha256(byte[] content) throws Exception {
+		return MessageDigest.getInstance("SHA-256").digest(content);
+	}
+}
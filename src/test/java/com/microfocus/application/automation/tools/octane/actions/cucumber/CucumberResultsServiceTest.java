@@ -0,0 +1,133 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.actions.cucumber;
+
+import hudson.FilePath;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests on CucumberResultsService
+ */
+public class CucumberResultsServiceTest {
+
+	@ClassRule
+	public static final JenkinsRule rule = new JenkinsRule();
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testCopyResultFiles() throws Exception {
+		File workspace = folder.newFolder("workspace");
+		File build = folder.newFolder("build");
+		List<File> resultFiles = Arrays.asList(
+				write(workspace, "first.xml", "<features>first</features>"),
+				write(workspace, "second.xml", "<features>second</features>"));
+
+		CucumberResultsService.copyResultFiles(resultFiles, build, new FilePath(workspace));
+
+		assertResults(build, "<features>first</features>", "<features>second</features>");
+	}
+
+	@Test
+	public void testInvalidResultFileInTheMiddle() throws Exception {
+		File workspace = folder.newFolder("workspace");
+		File build = folder.newFolder("build");
+		// the results of an earlier publisher of the build keep their index
+		write(build, CucumberResultsService.getGherkinResultFileName(0), "<features>earlier</features>");
+		List<File> resultFiles = Arrays.asList(
+				write(workspace, "first.xml", "<features>first</features>"),
+				write(workspace, "invalid.xml", "<testsuite/>"),
+				write(workspace, "second.xml", "<features>second</features>"));
+
+		try {
+			CucumberResultsService.copyResultFiles(resultFiles, build, new FilePath(workspace));
+			fail("invalid result file copied");
+		} catch (IllegalArgumentException e) {
+			assertEquals("The file is not Octane Gherkin results file", e.getMessage());
+		}
+
+		assertResults(build, "<features>earlier</features>", "<features>first</features>",
+				"<features>second</features>");
+	}
+
+	@Test
+	public void testMissingResultFileInTheMiddle() throws Exception {
+		File workspace = folder.newFolder("workspace");
+		File build = folder.newFolder("build");
+		List<File> resultFiles = Arrays.asList(
+				write(workspace, "first.xml", "<features>first</features>"),
+				new File(workspace, "missing.xml"),
+				write(workspace, "second.xml", "<features>second</features>"));
+
+		try {
+			CucumberResultsService.copyResultFiles(resultFiles, build, new FilePath(workspace));
+			fail("missing result file copied");
+		} catch (IOException e) {
+			// reported after the other files are kept
+		}
+
+		assertResults(build, "<features>first</features>", "<features>second</features>");
+	}
+
+	private static File write(File folder, String name, String content) throws Exception {
+		File file = new File(folder, name);
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	/**
+	 * Reads the results the way the Gherkin test extension does, up to the first missing index.
+	 */
+	private static void assertResults(File build, String... expected) throws Exception {
+		List<String> results = new ArrayList<>();
+		File resultFile;
+		while ((resultFile = new File(build, CucumberResultsService.getGherkinResultFileName(results.size()))).exists()) {
+			results.add(new String(Files.readAllBytes(resultFile.toPath()), StandardCharsets.UTF_8));
+		}
+		assertEquals(Arrays.asList(expected), results);
+		assertFalse(new File(build, CucumberResultsService.getGherkinResultFileName(expected.length + 1)).exists());
+	}
+}
@@ -46,7 +46,9 @@ import org.xml.sax.SAXException;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.*;
 
@@ -161,4 +163,33 @@ public class PluginActionsTest extends OctanePluginTestBase {
 		assertEquals("file param", response.getJobs()[0].getParameters().get(2).getDescription());
 		assertEquals("", response.getJobs()[0].getParameters().get(2).getDefaultValue());
 	}
+
+	@Test
+	public void testPluginActions_REST_Jobs_RenamedAndDeleted() throws Exception {
+		String projectName = "root-job-" + UUID.randomUUID().toString();
+		String renamedProjectName = projectName + "-renamed";
+
+		FreeStyleProject fsp = rule.createFreeStyleProject(projectName);
+		assertEquals(Arrays.asList(projectName), listJobNames(projectName));
+
+		fsp.renameTo(renamedProjectName);
+		assertEquals(Arrays.asList(renamedProjectName), listJobNames(projectName));
+
+		fsp.disable();
+		assertTrue(listJobNames(projectName).isEmpty());
+
+		fsp.enable();
+		assertEquals(Arrays.asList(renamedProjectName), listJobNames(projectName));
+
+		fsp.delete();
+		assertTrue(listJobNames(projectName).isEmpty());
+	}
+
+	private static List<String> listJobNames(String prefix) {
+		CIJobsList response = TestUtils.sendTask("nga/api/v1/jobs", CIJobsList.class);
+		return Arrays.stream(response.getJobs())
+				.map(PipelineNode::getName)
+				.filter(name -> name.startsWith(prefix))
+				.collect(Collectors.toList());
+	}
 }
@@ -33,6 +33,7 @@ import com.hp.octane.integrations.dto.parameters.CIParameterType;
 import com.hp.octane.integrations.dto.pipelines.PipelineNode;
 import com.hp.octane.integrations.dto.pipelines.PipelinePhase;
 import com.microfocus.application.automation.tools.octane.OctanePluginTestBase;
+import com.microfocus.application.automation.tools.octane.model.ModelFactory;
 import com.microfocus.application.automation.tools.octane.tests.TestUtils;
 import hudson.matrix.MatrixProject;
 import hudson.maven.MavenModuleSet;
@@ -331,4 +332,31 @@ public class PluginFreeStyleTest extends OctanePluginTestBase {
         assertEquals(0, tmpNode.getPhasesInternal().size());
         assertEquals(0, tmpNode.getPhasesPostBuild().size());
     }
+
+    //  Structure test: free-style, structure rebuilt once a downstream job changes
+    //
+    @Test
+    public void testStructureFreeStyleChildUpdated() throws IOException, SAXException {
+        String projectName = "root-job-" + UUID.randomUUID().toString();
+        String childName = "child-job-" + UUID.randomUUID().toString();
+        FreeStyleProject p = rule.createFreeStyleProject(projectName);
+        FreeStyleProject child = rule.createFreeStyleProject(childName);
+        p.getPublishersList().add(new BuildTrigger(childName, Result.SUCCESS));
+
+        PipelineNode structure = ModelFactory.createStructureItem(p);
+        assertSame(structure, ModelFactory.createStructureItem(p));
+        assertEquals(0, structure.getPhasesPostBuild().get(0).getJobs().get(0).getParameters().size());
+
+        child.addProperty(new ParametersDefinitionProperty(Collections.singletonList(
+                (ParameterDefinition) new StringParameterDefinition("ParamA", "str", "string")
+        )));
+
+        String taskUrl = "nga/api/v1/jobs/" + projectName;
+        PipelineNode pipeline = TestUtils.sendTask(taskUrl, PipelineNode.class);
+        assertEquals(1, pipeline.getPhasesPostBuild().size());
+        PipelineNode tmpNode = pipeline.getPhasesPostBuild().get(0).getJobs().get(0);
+        assertEquals(childName, tmpNode.getJobCiId());
+        assertEquals(1, tmpNode.getParameters().size());
+        assertEquals("ParamA", tmpNode.getParameters().get(0).getName());
+    }
 }
@@ -0,0 +1,150 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.model;
+
+import com.hp.octane.integrations.dto.causes.CIEventCause;
+import com.hp.octane.integrations.dto.causes.CIEventCauseType;
+import hudson.Launcher;
+import hudson.model.AbstractBuild;
+import hudson.model.BuildListener;
+import hudson.model.Cause;
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import hudson.model.queue.QueueTaskFuture;
+import hudson.triggers.TimerTrigger;
+import hudson.util.OneShotEvent;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestBuilder;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests on the cache of CIEventCausesFactory
+ */
+public class CIEventCausesFactoryTest {
+
+	@ClassRule
+	public static final JenkinsRule rule = new JenkinsRule();
+
+	@Test
+	public void testHitsAndMisses() throws Exception {
+		CIEventCausesFactory.CausesCache cache = new CIEventCausesFactory.CausesCache(10);
+		FreeStyleProject upstream = rule.createFreeStyleProject();
+		FreeStyleProject downstream = rule.createFreeStyleProject();
+		FreeStyleBuild upstreamBuild = build(upstream, new Cause.UserIdCause());
+		FreeStyleBuild downstreamBuild = build(downstream, new Cause.UpstreamCause(upstreamBuild));
+
+		List<CIEventCause> causes = cache.processCauses(downstreamBuild);
+		assertEquals(2, cache.getMisses());
+		assertEquals(0, cache.getHits());
+		assertEquals(CIEventCauseType.UPSTREAM, causes.get(0).getType());
+		assertEquals(CIEventCauseType.USER, causes.get(0).getCauses().get(0).getType());
+
+		assertEquals(CIEventCauseType.USER, cache.processCauses(upstreamBuild).get(0).getType());
+		List<CIEventCause> cached = cache.processCauses(downstreamBuild);
+		assertEquals(2, cache.getMisses());
+		assertEquals(2, cache.getHits());
+		assertEquals(causes.size(), cached.size());
+		assertEquals(causes.get(0).generateKey(), cached.get(0).generateKey());
+	}
+
+	@Test
+	public void testBuildingRunCached() throws Exception {
+		CIEventCausesFactory.CausesCache cache = new CIEventCausesFactory.CausesCache(10);
+		FreeStyleProject project = rule.createFreeStyleProject();
+		final OneShotEvent release = new OneShotEvent();
+		project.getBuildersList().add(new TestBuilder() {
+			@Override
+			public boolean perform(AbstractBuild<?, ?> build, Launcher launcher, BuildListener listener) throws InterruptedException {
+				release.block();
+				return true;
+			}
+		});
+		QueueTaskFuture<FreeStyleBuild> future = project.scheduleBuild2(0, new Cause.UserIdCause());
+		FreeStyleBuild build = future.waitForStart();
+		assertTrue(build.isBuilding());
+
+		assertEquals(CIEventCauseType.USER, cache.processCauses(build).get(0).getType());
+		assertEquals(CIEventCauseType.USER, cache.processCauses(build).get(0).getType());
+		assertEquals(1, cache.getMisses());
+		assertEquals(1, cache.getHits());
+
+		release.signal();
+		rule.assertBuildStatusSuccess(future);
+		assertEquals(CIEventCauseType.USER, cache.processCauses(build).get(0).getType());
+		assertEquals(1, cache.getMisses());
+		assertEquals(2, cache.getHits());
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEvicted() throws Exception {
+		CIEventCausesFactory.CausesCache cache = new CIEventCausesFactory.CausesCache(2);
+		FreeStyleProject project = rule.createFreeStyleProject();
+		FreeStyleBuild first = build(project, new Cause.UserIdCause());
+		FreeStyleBuild second = build(project, new Cause.UserIdCause());
+		FreeStyleBuild third = build(project, new Cause.UserIdCause());
+
+		cache.processCauses(first);
+		cache.processCauses(second);
+		cache.processCauses(first);
+		cache.processCauses(third);
+		assertEquals(2, cache.size());
+		assertEquals(3, cache.getMisses());
+
+		cache.processCauses(first);
+		assertEquals(3, cache.getMisses());
+		cache.processCauses(second);
+		assertEquals(4, cache.getMisses());
+		assertEquals(2, cache.size());
+	}
+
+	@Test
+	public void testJobDeletedAndRecreated() throws Exception {
+		CIEventCausesFactory.CausesCache cache = new CIEventCausesFactory.CausesCache(10);
+		FreeStyleProject project = rule.createFreeStyleProject("recreated-causes");
+		FreeStyleBuild old = build(project, new Cause.UserIdCause());
+		assertEquals(CIEventCauseType.USER, cache.processCauses(old).get(0).getType());
+		project.delete();
+
+		project = rule.createFreeStyleProject("recreated-causes");
+		FreeStyleBuild recreated = build(project, new TimerTrigger.TimerTriggerCause());
+		assertEquals(old.getNumber(), recreated.getNumber());
+		assertEquals(CIEventCauseType.TIMER, cache.processCauses(recreated).get(0).getType());
+		assertEquals(2, cache.getMisses());
+	}
+
+	private FreeStyleBuild build(FreeStyleProject project, Cause cause) throws Exception {
+		return rule.assertBuildStatusSuccess(project.scheduleBuild2(0, cause));
+	}
+}
@@ -0,0 +1,135 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.model.processors.projects;
+
+import com.hp.octane.integrations.dto.general.CIBuildStatusInfo;
+import com.hp.octane.integrations.dto.snapshots.CIBuildStatus;
+import com.hp.octane.integrations.utils.SdkConstants;
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import hudson.model.ParametersAction;
+import hudson.model.ParametersDefinitionProperty;
+import hudson.model.StringParameterDefinition;
+import hudson.model.StringParameterValue;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Tests on BuildParametersIndex
+ */
+public class BuildParametersIndexTest {
+	private static final String SUITE_RUN_ID = SdkConstants.JobParameters.SUITE_RUN_ID_PARAMETER_NAME;
+
+	@ClassRule
+	public static final JenkinsRule rule = new JenkinsRule();
+
+	@Test
+	public void testIndexCreatedFromBuildsAndUpdated() throws Exception {
+		FreeStyleProject project = rule.createFreeStyleProject();
+		project.addProperty(new ParametersDefinitionProperty(new StringParameterDefinition(SUITE_RUN_ID, "")));
+		FreeStyleBuild first = build(project, "1001");
+		FreeStyleBuild second = build(project, "1002");
+		FreeStyleBuild rerun = build(project, "1001");
+		assertFalse(new File(project.getRootDir(), "octaneBuildParameters.idx").exists());
+
+		BuildParametersIndex index = BuildParametersIndex.of(project);
+		assertEquals(Arrays.asList(rerun.getNumber(), first.getNumber()), index.find(project, SUITE_RUN_ID, "1001"));
+		assertEquals(Collections.singletonList(second.getNumber()), index.find(project, SUITE_RUN_ID, "1002"));
+		assertEquals(Collections.emptyList(), index.find(project, SUITE_RUN_ID, "1003"));
+
+		FreeStyleBuild third = build(project, "1003");
+		assertEquals(Collections.singletonList(third.getNumber()), index.find(project, SUITE_RUN_ID, "1003"));
+	}
+
+	@Test
+	public void testBuildStatusByParameter() throws Exception {
+		FreeStyleProject project = rule.createFreeStyleProject();
+		project.addProperty(new ParametersDefinitionProperty(new StringParameterDefinition(SUITE_RUN_ID, "")));
+		build(project, "2001");
+		FreeStyleBuild rerun = build(project, "2001");
+		rerun.delete();
+		FreeStyleBuild first = project.getBuildByNumber(1);
+
+		CIBuildStatusInfo status = JobProcessorFactory.getFlowProcessor(project).getBuildStatus(SUITE_RUN_ID, "2001");
+		assertEquals(CIBuildStatus.FINISHED, status.getBuildStatus());
+		assertEquals(String.valueOf(first.getNumber()), status.getBuildCiId());
+
+		status = JobProcessorFactory.getFlowProcessor(project).getBuildStatus(SUITE_RUN_ID, "2002");
+		assertEquals(CIBuildStatus.UNAVAILABLE, status.getBuildStatus());
+	}
+
+	@Test
+	public void testJobDeletedAndRecreated() throws Exception {
+		FreeStyleProject project = rule.createFreeStyleProject("recreated-job");
+		project.addProperty(new ParametersDefinitionProperty(new StringParameterDefinition(SUITE_RUN_ID, "")));
+		FreeStyleBuild old = build(project, "3001");
+		assertEquals(Collections.singletonList(old.getNumber()), BuildParametersIndex.of(project).find(project, SUITE_RUN_ID, "3001"));
+		project.delete();
+
+		project = rule.createFreeStyleProject("recreated-job");
+		project.addProperty(new ParametersDefinitionProperty(new StringParameterDefinition(SUITE_RUN_ID, "")));
+		FreeStyleBuild recreated = build(project, "3002");
+		assertEquals(old.getNumber(), recreated.getNumber());
+
+		BuildParametersIndex index = BuildParametersIndex.of(project);
+		assertEquals(Collections.emptyList(), index.find(project, SUITE_RUN_ID, "3001"));
+		assertEquals(Collections.singletonList(recreated.getNumber()), index.find(project, SUITE_RUN_ID, "3002"));
+
+		CIBuildStatusInfo status = JobProcessorFactory.getFlowProcessor(project).getBuildStatus(SUITE_RUN_ID, "3002");
+		assertEquals(CIBuildStatus.FINISHED, status.getBuildStatus());
+		assertEquals(String.valueOf(recreated.getNumber()), status.getBuildCiId());
+		status = JobProcessorFactory.getFlowProcessor(project).getBuildStatus(SUITE_RUN_ID, "3001");
+		assertEquals(CIBuildStatus.UNAVAILABLE, status.getBuildStatus());
+	}
+
+	@Test
+	public void testBuildStatusFoundWhenMissingFromIndex() throws Exception {
+		FreeStyleProject project = rule.createFreeStyleProject();
+		project.addProperty(new ParametersDefinitionProperty(new StringParameterDefinition(SUITE_RUN_ID, "")));
+		FreeStyleBuild build = build(project, "4001");
+		Files.write(new File(project.getRootDir(), "octaneBuildParameters.idx").toPath(), new byte[0]);
+
+		CIBuildStatusInfo status = JobProcessorFactory.getFlowProcessor(project).getBuildStatus(SUITE_RUN_ID, "4001");
+		assertEquals(CIBuildStatus.FINISHED, status.getBuildStatus());
+		assertEquals(String.valueOf(build.getNumber()), status.getBuildCiId());
+	}
+
+	private static FreeStyleBuild build(FreeStyleProject project, String suiteRunId) throws Exception {
+		return rule.assertBuildStatusSuccess(project.scheduleBuild2(0, new ParametersAction(new StringParameterValue(SUITE_RUN_ID, suiteRunId))));
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.model.processors.scm;
+
+import org.eclipse.jgit.lib.ObjectId;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests on GitBlameCache
+ */
+public class GitBlameCacheTest {
+	private static final ObjectId BLOB_A = ObjectId.fromString("0123456789abcdef0123456789abcdef01234567");
+	private static final ObjectId BLOB_B = ObjectId.fromString("89abcdef0123456789abcdef0123456789abcdef");
+	private static final String RANGES = "a1b2c3:1-4,d4e5f6:5-9";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testContentSurvivesReload() {
+		File file = new File(folder.getRoot(), "blame-cache");
+		GitBlameCache cache = GitBlameCache.load(file, 10);
+		assertNull(cache.get("src/a b.txt", BLOB_A));
+		cache.put("src/a b.txt", BLOB_A, RANGES);
+		cache.put("src/empty.txt", BLOB_B, "");
+		cache.save();
+
+		cache = GitBlameCache.load(file, 10);
+		assertEquals(RANGES, cache.get("src/a b.txt", BLOB_A));
+		assertEquals("", cache.get("src/empty.txt", BLOB_B));
+		assertNull("content changed", cache.get("src/a b.txt", BLOB_B));
+		assertEquals(2, cache.getHits());
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEvicted() {
+		File file = new File(folder.getRoot(), "blame-cache");
+		GitBlameCache cache = GitBlameCache.load(file, 2);
+		cache.put("a", BLOB_A, RANGES);
+		cache.put("b", BLOB_A, RANGES);
+		cache.get("a", BLOB_A);
+		cache.put("c", BLOB_A, RANGES);
+		cache.save();
+
+		cache = GitBlameCache.load(file, 2);
+		assertNotNull(cache.get("a", BLOB_A));
+		assertNull(cache.get("b", BLOB_A));
+		assertNotNull(cache.get("c", BLOB_A));
+	}
+
+	@Test
+	public void testMalformedLinesIgnored() throws IOException {
+		File file = new File(folder.getRoot(), "blame-cache");
+		Files.write(file.toPath(), Arrays.asList(
+				BLOB_A.getName() + " " + RANGES + " a",
+				BLOB_A.getName() + " broken b",
+				BLOB_A.getName()), StandardCharsets.UTF_8);
+
+		GitBlameCache cache = GitBlameCache.load(file, 10);
+		assertEquals(RANGES, cache.get("a", BLOB_A));
+		assertNull(cache.get("b", BLOB_A));
+	}
+
+	@Test
+	public void testDisabled() {
+		File file = new File(folder.getRoot(), "blame-cache");
+		GitBlameCache cache = GitBlameCache.load(file, 0);
+		cache.put("a", BLOB_A, RANGES);
+		cache.save();
+		assertNull(cache.get("a", BLOB_A));
+		assertFalse(file.exists());
+	}
+}
@@ -64,7 +64,15 @@ public class TestUtils {
 				Secret.fromString("password"),null));
 	}
 
+	/**
+	 * Converts test results on the thread finalizing the build, so mqmTests.xml exists once the build is completed
+	 */
+	public static void processTestResultsInline() {
+		System.setProperty("TestResultsProcessor.Threads", "0");
+	}
+
 	public static AbstractBuild runAndCheckBuild(AbstractProject project) throws Exception {
+		processTestResultsInline();
 		AbstractBuild build = (AbstractBuild) project.scheduleBuild2(0).get();
 		if (!build.getResult().isBetterOrEqualTo(Result.UNSTABLE)) { // avoid expensive build.getLog() until condition is met
 			Assert.fail("Build status: " + build.getResult() + ", log follows:\n" + build.getLog());
@@ -0,0 +1,102 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.tests.junit;
+
+import com.hp.octane.integrations.testresults.XmlWritableTestResult;
+import com.microfocus.application.automation.tools.octane.OctanePluginTestBase;
+import com.microfocus.application.automation.tools.octane.tests.CopyResourceSCM;
+import com.microfocus.application.automation.tools.octane.tests.HPRunnerType;
+import com.microfocus.application.automation.tools.octane.tests.TestCustomJUnitArchiver;
+import com.microfocus.application.automation.tools.octane.tests.TestUtils;
+import hudson.FilePath;
+import hudson.model.AbstractBuild;
+import hudson.model.FreeStyleProject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Tests on streaming JUnit results from the workspace node
+ */
+public class JUnitExtensionTest extends OctanePluginTestBase {
+
+	@Test
+	public void testStreamFromAgentOnBuiltInNode() throws Exception {
+		AbstractBuild build = runBuild(rule.createFreeStyleProject("root-job-" + UUID.randomUUID().toString()));
+		Assert.assertFalse(build.getWorkspace().isRemote());
+
+		assertStreamedAsOnController(build);
+	}
+
+	@Test
+	public void testStreamFromAgent() throws Exception {
+		FreeStyleProject project = rule.createFreeStyleProject("root-job-" + UUID.randomUUID().toString());
+		project.setAssignedNode(rule.createOnlineSlave());
+		AbstractBuild build = runBuild(project);
+		Assert.assertTrue(build.getWorkspace().isRemote());
+
+		assertStreamedAsOnController(build);
+	}
+
+	private static AbstractBuild runBuild(FreeStyleProject project) throws Exception {
+		project.getPublishersList().add(new TestCustomJUnitArchiver("UFT_results.xml"));
+		project.setScm(new CopyResourceSCM("/UFT"));
+		return TestUtils.runAndCheckBuild(project);
+	}
+
+	private static void assertStreamedAsOnController(AbstractBuild build) throws Exception {
+		List<FilePath> reports = Collections.singletonList(new FilePath(build.getRootDir()).child("junitResult.xml"));
+		List<String> expected = testNames(new JUnitExtension.GetJUnitTestResults(build, HPRunnerType.NONE, reports,
+				false, rule.getURL().toString()).streamOnController());
+		List<String> streamed = testNames(new JUnitExtension.GetJUnitTestResults(build, HPRunnerType.NONE, reports,
+				false, rule.getURL().toString()).streamFromAgent(build.getWorkspace()));
+
+		Assert.assertFalse(expected.isEmpty());
+		Assert.assertEquals(expected, streamed);
+	}
+
+	private static List<String> testNames(Iterator<XmlWritableTestResult> results) throws Exception {
+		List<String> names = new ArrayList<>();
+		try {
+			while (results.hasNext()) {
+				JUnitTestResult result = (JUnitTestResult) results.next();
+				names.add(result.getClassName() + "#" + result.getTestName() + ":" + result.getResult());
+			}
+		} finally {
+			((Closeable) results).close();
+		}
+		return names;
+	}
+}
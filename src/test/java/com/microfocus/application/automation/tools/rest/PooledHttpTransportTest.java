@@ -0,0 +1,193 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.rest;
+
+import com.microfocus.application.automation.tools.common.SSEException;
+import com.microfocus.application.automation.tools.sse.sdk.ResourceAccessLevel;
+import com.microfocus.application.automation.tools.sse.sdk.Response;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.client.config.RequestConfig;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PooledHttpTransportTest {
+
+    private static final String BODY = "<Entities TotalResults=\"0\"/>";
+
+    private HttpServer server;
+    private String serverUrl;
+    private final List<String> cookies = new CopyOnWriteArrayList<>();
+    private final List<String> queries = new CopyOnWriteArrayList<>();
+    private final CountDownLatch stalled = new CountDownLatch(1);
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/qcbin/plain", exchange -> {
+            cookies.add(exchange.getRequestHeaders().getFirst("Cookie"));
+            queries.add(exchange.getRequestURI().getQuery());
+            exchange.getResponseHeaders().add("Set-Cookie", "QCSession=abc; Path=/");
+            byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/qcbin/gzip", exchange -> {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(BODY.getBytes(StandardCharsets.UTF_8));
+            }
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, compressed.size());
+            try (OutputStream out = exchange.getResponseBody()) {
+                compressed.writeTo(out);
+            }
+        });
+        server.createContext("/qcbin/missing", exchange -> {
+            byte[] body = "not found".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(404, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/qcbin/stalled", exchange -> {
+            try {
+                stalled.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.start();
+        serverUrl = String.format("http://127.0.0.1:%d/qcbin", server.getAddress().getPort());
+    }
+
+    @After
+    public void stopServer() {
+        stalled.countDown();
+        server.stop(0);
+        PooledHttpTransport.closeAll();
+    }
+
+    @Test
+    public void testConnectionsAreReused() {
+        PooledHttpTransport transport = new PooledHttpTransport(serverUrl);
+        for (int i = 0; i < 5; i++) {
+            Response response = transport.execute("GET", serverUrl + "/plain", null, null);
+            assertTrue(response.isOk());
+            assertEquals(BODY, response.toString());
+        }
+        assertEquals("5 requests over 1 connections (4 reused)", transport.getStatistics());
+    }
+
+    @Test
+    public void testGzipResponseIsDecoded() {
+        PooledHttpTransport transport = new PooledHttpTransport(serverUrl);
+        Response response = transport.execute("GET", serverUrl + "/gzip", null, null);
+        assertTrue(response.isOk());
+        assertEquals(BODY, response.toString());
+    }
+
+    @Test
+    public void testErrorStatusIsFailure() {
+        PooledHttpTransport transport = new PooledHttpTransport(serverUrl);
+        Response response = transport.execute("GET", serverUrl + "/missing", null, null);
+        assertFalse(response.isOk());
+        assertEquals(404, response.getStatusCode());
+        assertNotNull(response.getFailure());
+        assertEquals("not found", response.toString());
+    }
+
+    @Test
+    public void testAlmQueryCharactersAreEscaped() {
+        PooledHttpTransport transport = new PooledHttpTransport(serverUrl);
+        Response response = transport.execute("GET",
+                serverUrl + "/plain?query={context[\"*Timeslot:%20101%3B*\"];id[>7]}&page-size=max", null, null);
+        assertTrue(response.isOk());
+        assertEquals("query={context[\"*Timeslot: 101;*\"];id[>7]}&page-size=max", queries.get(0));
+    }
+
+    @Test
+    public void testClientSendsReceivedCookies() {
+        RestClient client = new RestClient(serverUrl, "domain", "project", "user",
+                new PooledHttpTransport(serverUrl));
+        client.httpGet(client.build("plain"), null, null, ResourceAccessLevel.PUBLIC);
+        client.httpGet(client.build("plain"), null, null, ResourceAccessLevel.PUBLIC);
+
+        assertEquals(2, cookies.size());
+        assertFalse(cookies.get(0).contains("QCSession=abc;"));
+        assertTrue(cookies.get(1).contains("QCSession=abc;"));
+        assertTrue(cookies.get(1).contains("XSRF-TOKEN=" + client.getXsrfTokenValue() + ";"));
+    }
+
+    @Test
+    public void testUnresponsiveServerTimesOut() {
+        PooledHttpTransport transport = new PooledHttpTransport(serverUrl,
+                RequestConfig.custom().setSocketTimeout(200).build());
+        long start = System.nanoTime();
+        try {
+            transport.execute("GET", serverUrl + "/stalled", null, null);
+            fail("response of an unresponsive server");
+        } catch (SSEException e) {
+            assertTrue(e.getCause() instanceof SocketTimeoutException);
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 5);
+    }
+
+    @Test
+    public void testClosedPoolsAreReplaced() {
+        assertTrue(new PooledHttpTransport(serverUrl).execute("GET", serverUrl + "/plain", null, null).isOk());
+        PooledHttpTransport.closeAll();
+
+        PooledHttpTransport transport = new PooledHttpTransport(serverUrl);
+        assertTrue(transport.execute("GET", serverUrl + "/plain", null, null).isOk());
+        assertEquals("1 requests over 1 connections (0 reused)", transport.getStatistics());
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.results;
+
+import com.microfocus.application.automation.tools.results.projectparser.performance.JobLrScenarioResult;
+import com.microfocus.application.automation.tools.results.projectparser.performance.LrJobResults;
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests on PerformanceTrendIndex
+ */
+public class PerformanceTrendIndexTest {
+
+	@ClassRule
+	public static final JenkinsRule rule = new JenkinsRule();
+
+	@Test
+	public void testAppendAndReadLast() throws Exception {
+		FreeStyleProject project = rule.createFreeStyleProject();
+		PerformanceTrendIndex index = PerformanceTrendIndex.of(project);
+		index.append(1, results("scenario_1"));
+		assertFalse("appended before the index is created", index.exists());
+
+		index.create(project, 10);
+		assertTrue(index.exists());
+		assertEquals(Collections.emptyList(), index.readLast(10));
+		index.append(1, results("scenario_1"));
+		index.append(2, results("scenario_2"));
+		index.append(3, results("scenario_3"));
+
+		List<Map.Entry<Integer, LrJobResults>> last = index.readLast(2);
+		assertEquals(Arrays.asList(3, 2), buildNumbers(last));
+		assertTrue(last.get(0).getValue().getLrScenarioResults().containsKey("scenario_3"));
+		assertEquals(Arrays.asList(3, 2, 1), buildNumbers(index.readLast(10)));
+
+		// the newest record of a build replaces the older ones
+		index.append(2, results("scenario_2b"));
+		last = index.readLast(10);
+		assertEquals(Arrays.asList(2, 3, 1), buildNumbers(last));
+		assertTrue(last.get(0).getValue().getLrScenarioResults().containsKey("scenario_2b"));
+	}
+
+	@Test
+	public void testDeletedBuildsSkipped() throws Exception {
+		FreeStyleProject project = rule.createFreeStyleProject();
+		PerformanceTrendIndex index = PerformanceTrendIndex.of(project);
+		index.create(project, 10);
+		index.append(1, results("scenario"));
+		index.append(2, results("scenario"));
+		index.append(3, results("scenario"));
+		index.remove(2);
+		assertEquals(Arrays.asList(3, 1), buildNumbers(index.readLast(10)));
+		assertEquals(Collections.singletonList(3), buildNumbers(index.readLast(1)));
+
+		FreeStyleBuild build = rule.buildAndAssertSuccess(project);
+		build.addAction(new PerformanceJobReportAction(build, results("scenario")));
+		build.delete();
+		assertFalse(buildNumbers(index.readLast(10)).contains(build.getNumber()));
+	}
+
+	@Test
+	public void testCreatedFromBuilds() throws Exception {
+		FreeStyleProject project = rule.createFreeStyleProject();
+		FreeStyleBuild first = build(project, "scenario_1");
+		rule.buildAndAssertSuccess(project);
+		FreeStyleBuild third = build(project, "scenario_3");
+		FreeStyleBuild fourth = build(project, "scenario_4");
+
+		PerformanceTrendIndex index = PerformanceTrendIndex.of(project);
+		assertFalse(index.exists());
+		List<Map.Entry<Integer, LrJobResults>> last = index.read(project, 2);
+		assertEquals(Arrays.asList(fourth.getNumber(), third.getNumber()), buildNumbers(last));
+		assertTrue(last.get(1).getValue().getLrScenarioResults().containsKey("scenario_3"));
+
+		index.append(fourth.getNumber() + 1, results("scenario_5"));
+		assertEquals(Arrays.asList(fourth.getNumber() + 1, fourth.getNumber(), third.getNumber()),
+				buildNumbers(index.read(project, 10)));
+		assertFalse(buildNumbers(index.read(project, 10)).contains(first.getNumber()));
+	}
+
+	@Test
+	public void testTruncatedRecordRebuilt() throws Exception {
+		FreeStyleProject project = rule.createFreeStyleProject();
+		FreeStyleBuild first = build(project, "scenario_1");
+		FreeStyleBuild second = build(project, "scenario_2");
+		PerformanceTrendIndex index = PerformanceTrendIndex.of(project);
+		index.create(project, 10);
+		FreeStyleBuild third = build(project, "scenario_3");
+		index.append(third.getNumber(), third.getAction(PerformanceJobReportAction.class).getLrResultBuildDataset());
+
+		File file = new File(project.getRootDir(), "lrTrendIndex.dat");
+		truncate(file);
+		assertEquals(Arrays.asList(third.getNumber(), second.getNumber(), first.getNumber()),
+				buildNumbers(index.read(project, 10)));
+
+		truncate(file);
+		assertEquals(Collections.emptyList(), index.readLast(10));
+		assertFalse("corrupted index dropped", index.exists());
+	}
+
+	@Test
+	public void testCorruptedRecordRebuilt() throws Exception {
+		FreeStyleProject project = rule.createFreeStyleProject();
+		FreeStyleBuild first = build(project, "scenario_1");
+		FreeStyleBuild second = build(project, "scenario_2");
+		PerformanceTrendIndex index = PerformanceTrendIndex.of(project);
+		index.create(project, 10);
+
+		// same length, garbage payload in the last record
+		File file = new File(project.getRootDir(), "lrTrendIndex.dat");
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.seek(raf.length() - 20);
+			raf.write(new byte[]{'<', '<', '<', 0, 0, 0, 0, 0});
+		}
+		assertEquals(Arrays.asList(second.getNumber(), first.getNumber()), buildNumbers(index.read(project, 10)));
+		assertEquals(Arrays.asList(second.getNumber(), first.getNumber()), buildNumbers(index.readLast(10)));
+	}
+
+	private static void truncate(File file) throws Exception {
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(raf.length() - 5);
+		}
+	}
+
+	private FreeStyleBuild build(FreeStyleProject project, String scenario) throws Exception {
+		FreeStyleBuild build = rule.buildAndAssertSuccess(project);
+		build.addAction(new PerformanceJobReportAction(build, results(scenario)));
+		build.save();
+		return build;
+	}
+
+	private static LrJobResults results(String scenario) {
+		LrJobResults results = new LrJobResults();
+		results.addScenario(new JobLrScenarioResult(scenario));
+		return results;
+	}
+
+	private static List<Integer> buildNumbers(List<Map.Entry<Integer, LrJobResults>> entries) {
+		List<Integer> ret = new ArrayList<>();
+		for (Map.Entry<Integer, LrJobResults> entry : entries) {
+			ret.add(entry.getKey());
+		}
+		return ret;
+	}
+}
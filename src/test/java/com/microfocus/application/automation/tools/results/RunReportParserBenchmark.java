@@ -0,0 +1,138 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.results;
+
+import com.microfocus.application.automation.tools.results.projectparser.performance.JobLrScenarioResult;
+import com.microfocus.application.automation.tools.results.projectparser.performance.RunReportStaxParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the DOM parsing of a LoadRunner RunReport.xml with {@link RunReportStaxParser} on a synthetic report.
+ * The report size is given in MB by the reportSize parameter. Not part of the test suite, run with main() from the
+ * test classpath, e.g. with -Xmx4g for the DOM path on the default 500 MB report.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RunReportParserBenchmark {
+
+	private static final int TIME_RANGES_PER_RULE = 1000;
+
+	@Param({"500"})
+	public int reportSize;
+
+	private File report;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		report = File.createTempFile("RunReport", ".xml");
+		writeReport(report, reportSize * 1024L * 1024L);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		report.delete();
+	}
+
+	@Benchmark
+	public JobLrScenarioResult dom() throws Exception {
+		try (InputStream in = new BufferedInputStream(Files.newInputStream(report.toPath()))) {
+			return RunResultRecorder.parseScenarioResultsDom(in, "benchmark");
+		}
+	}
+
+	@Benchmark
+	public JobLrScenarioResult stax() throws Exception {
+		try (InputStream in = new BufferedInputStream(Files.newInputStream(report.toPath()))) {
+			return RunReportStaxParser.parse(in, "benchmark");
+		}
+	}
+
+	/**
+	 * Writes a RunReport.xml of about the given size, made of transactions and of average transaction response time
+	 * rules with their time ranges.
+	 */
+	static void writeReport(File file, long size) throws IOException {
+		try (Writer writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file.toPath()),
+				StandardCharsets.UTF_8))) {
+			writer.write("<Runs>\n  <General>\n");
+			writer.write("    <Time End=\"28/10/2016 16:19:00\" Start=\"27/10/2016 14:03:00\" Duration=\"94560\" />\n");
+			writer.write("    <VUsers Passed=\"344\" Stopped=\"364\" Failed=\"292\" Error=\"0\" Count=\"1000\" />\n");
+			writer.write("    <Transactions Count=\"11000\" Pass=\"6980\" Fail=\"2128\" Stop=\"1892\">\n");
+			for (int i = 0; i < 1000; i++) {
+				writer.write("      <Transaction Pass=\"" + i + "\" Fail=\"0\" Stop=\"0\" Name=\"trans_" + i + "\" />\n");
+			}
+			writer.write("    </Transactions>\n    <Connections MaxCount=\"1272\"/>\n  </General>\n  <SLA>\n");
+			writer.write("    <SLA_GOAL FullName=\"Total Hits\" Measurement=\"TotalHits\" GoalValue=\"10000\" "
+					+ "ActualValue=\"100\">Failed</SLA_GOAL>\n");
+			long written = 0;
+			for (int rule = 0; written < size; rule++) {
+				StringBuilder ruleXml = new StringBuilder();
+				ruleXml.append("    <TransactionTimeRange TransactionName=\"trans_").append(rule)
+						.append("\" FullName=\"Average Transaction Response Time\" Measurement=\"AverageTRT\" ")
+						.append("SLALoadThresholdValue=\"Running Vusers\">\n");
+				for (int range = 0; range < TIME_RANGES_PER_RULE; range++) {
+					ruleXml.append("      <TimeRangeInfo StartTime=\"").append(range * 5).append("\" EndTime=\"")
+							.append(range * 5 + 5).append("\" GoalValue=\"5\" ActualValue=\"").append(range % 7)
+							.append(".125\" LoadValue=\"").append(range % 100).append("\">")
+							.append(range % 7 > 5 ? "Failed" : "Passed").append("</TimeRangeInfo>\n");
+				}
+				ruleXml.append("      Failed\n    </TransactionTimeRange>\n");
+				writer.write(ruleXml.toString());
+				written += ruleXml.length();
+			}
+			writer.write("  </SLA>\n</Runs>\n");
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options options = new OptionsBuilder()
+				.include(RunReportParserBenchmark.class.getSimpleName())
+				.build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.results;
+
+import com.microfocus.application.automation.tools.results.projectparser.performance.AvgTransactionResponseTime;
+import com.microfocus.application.automation.tools.results.projectparser.performance.JobLrScenarioResult;
+import com.microfocus.application.automation.tools.results.projectparser.performance.RunReportStaxParser;
+import hudson.util.XStream2;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+
+import static org.junit.Assert.assertEquals;
+
+public class RunReportStaxParserTest {
+
+	private static final XStream2 XSTREAM = new XStream2();
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void testSameResultAsDom() throws Exception {
+		assertSameResult(new File(getClass().getResource("RunReport.xml").toURI()));
+		assertSameResult(new File(getClass().getResource("RunReport_sc5.xml").toURI()));
+	}
+
+	@Test
+	public void testSameResultAsDomOnSyntheticReport() throws Exception {
+		File report = temporaryFolder.newFile("RunReport.xml");
+		RunReportParserBenchmark.writeReport(report, 512 * 1024);
+		JobLrScenarioResult result = assertSameResult(report);
+
+		AvgTransactionResponseTime transactionTimeRange = (AvgTransactionResponseTime) result.scenarioSlaResults.get(1);
+		assertEquals("trans_0", transactionTimeRange.getName());
+		assertEquals(1000, transactionTimeRange.getTimeRanges().size());
+		assertEquals(5, transactionTimeRange.getGoalValue(), 0);
+		assertEquals(1000, result.transactionData.size());
+	}
+
+	private JobLrScenarioResult assertSameResult(File report) throws Exception {
+		JobLrScenarioResult domResult;
+		try (InputStream in = new FileInputStream(report)) {
+			domResult = RunResultRecorder.parseScenarioResultsDom(in, "scenario");
+		}
+		JobLrScenarioResult staxResult;
+		try (InputStream in = new FileInputStream(report)) {
+			staxResult = RunReportStaxParser.parse(in, "scenario");
+		}
+		assertEquals(XSTREAM.toXML(domResult), XSTREAM.toXML(staxResult));
+		return staxResult;
+	}
+}
@@ -0,0 +1,168 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.results.parser;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Writes synthetic reports of the supported formats for the parser tests and benchmarks.
+ */
+final class ReportFixtures {
+
+	private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n";
+
+	private ReportFixtures() {
+	}
+
+	/**
+	 * Writes a report of the given format with one test set of the given number of passed test cases.
+	 */
+	static void writeReport(File file, String format, int testcases) throws IOException {
+		String header;
+		String testcase;
+		String footer;
+		switch (format) {
+			case "junit":
+				header = "<result plugin=\"junit@1.2\">\n  <suites>\n    <suite>\n"
+						+ "      <name>com.demo.Suite</name>\n      <duration>1.0</duration>\n"
+						+ "      <timestamp>2015-05-12T12:23:27</timestamp>\n      <cases>\n";
+				testcase = "        <case>\n          <duration>0.001</duration>\n"
+						+ "          <className>com.demo.Suite</className>\n          <testName>test%d</testName>\n"
+						+ "          <skipped>false</skipped>\n          <failedSince>0</failedSince>\n        </case>\n";
+				footer = "      </cases>\n    </suite>\n  </suites>\n  <duration>1.0</duration>\n</result>\n";
+				break;
+			case "surefire":
+				header = "<testsuite name=\"com.demo.Suite\" tests=\"" + testcases + "\" time=\"1.0\" "
+						+ "timestamp=\"2015-05-12T12:23:27\">\n";
+				testcase = "  <testcase name=\"test%d\" classname=\"com.demo.Suite\" time=\"0.001\"/>\n";
+				footer = "</testsuite>\n";
+				break;
+			case "testng":
+				header = "<testng-results total=\"" + testcases + "\" passed=\"" + testcases + "\">\n"
+						+ "  <suite name=\"Suite\" duration-ms=\"1000\" started-at=\"2015-04-12T12:20:18Z\">\n"
+						+ "    <test name=\"test\" duration-ms=\"1000\" started-at=\"2015-04-12T12:20:18Z\">\n"
+						+ "      <class name=\"com.demo.Suite\">\n";
+				testcase = "        <test-method status=\"PASS\" signature=\"test%1$d()\" name=\"test%1$d\" "
+						+ "duration-ms=\"1\" started-at=\"2015-04-12T12:20:18Z\"/>\n";
+				footer = "      </class>\n    </test>\n  </suite>\n</testng-results>\n";
+				break;
+			case "nunit3":
+				header = "<test-run id=\"2\" testcasecount=\"" + testcases + "\" total=\"" + testcases + "\" passed=\""
+						+ testcases + "\" failed=\"0\" inconclusive=\"0\" skipped=\"0\" duration=\"1.0\" "
+						+ "start-time=\"2015-04-12 12:20:18Z\">\n"
+						+ "  <test-suite type=\"TestFixture\" id=\"1\" name=\"Suite\" testcasecount=\"" + testcases
+						+ "\" passed=\"" + testcases + "\" failed=\"0\" inconclusive=\"0\" skipped=\"0\" "
+						+ "duration=\"1.0\" start-time=\"2015-04-12 12:20:18Z\">\n";
+				testcase = "    <test-case id=\"1-%1$d\" name=\"test%1$d\" classname=\"com.demo.Suite\" "
+						+ "result=\"Passed\" duration=\"0.001\" asserts=\"1\"/>\n";
+				footer = "  </test-suite>\n</test-run>\n";
+				break;
+			case "nunit":
+				header = "<test-results name=\"Demo.dll\" total=\"" + testcases + "\" errors=\"0\" failures=\"0\" "
+						+ "date=\"2015-02-23\" time=\"17:46:56\">\n"
+						+ "  <test-suite type=\"Assembly\" name=\"Demo.dll\" executed=\"True\" result=\"Success\" "
+						+ "success=\"True\" time=\"1.0\">\n    <results>\n"
+						+ "      <test-suite type=\"TestFixture\" name=\"Suite\" executed=\"True\" result=\"Success\" "
+						+ "success=\"True\" time=\"1.0\">\n        <results>\n";
+				testcase = "          <test-case name=\"Suite.test%d\" executed=\"True\" result=\"Success\" "
+						+ "success=\"True\" time=\"0.001\" asserts=\"1\"/>\n";
+				footer = "        </results>\n      </test-suite>\n    </results>\n  </test-suite>\n</test-results>\n";
+				break;
+			case "ant":
+				header = "<testsuites>\n  <testsuite name=\"Suite\" package=\"com.demo\" tests=\"" + testcases
+						+ "\" time=\"1.0\" timestamp=\"2015-05-26T14:28:34\">\n";
+				testcase = "    <testcase name=\"test%d\" classname=\"com.demo.Suite\" time=\"0.001\"/>\n";
+				footer = "  </testsuite>\n</testsuites>\n";
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown report format: " + format);
+		}
+		try (Writer writer = newReportWriter(file)) {
+			writer.write(XML_DECLARATION);
+			writer.write(header);
+			for (int i = 0; i < testcases; i++) {
+				writer.write(String.format(testcase, i));
+			}
+			writer.write(footer);
+		}
+	}
+
+	/**
+	 * Writes an Ant JUnit report with the given number of test suites, each with the given number of passed test
+	 * cases.
+	 */
+	static void writeAntReport(File file, int testsuites, int testcases) throws IOException {
+		try (Writer writer = newReportWriter(file)) {
+			writer.write(XML_DECLARATION);
+			writer.write("<testsuites>\n");
+			for (int i = 0; i < testsuites; i++) {
+				writeAntTestsuite(writer, "Suite" + i, testcases, "  ");
+			}
+			writer.write("</testsuites>\n");
+		}
+	}
+
+	/**
+	 * Writes an Ant JUnit report with one test suite of its own and a nested testsuites element holding two more,
+	 * each with the given number of passed test cases.
+	 */
+	static void writeNestedAntReport(File file, int testcases) throws IOException {
+		try (Writer writer = newReportWriter(file)) {
+			writer.write(XML_DECLARATION);
+			writer.write("<testsuites>\n");
+			writeAntTestsuite(writer, "Suite0", testcases, "  ");
+			writer.write("  <testsuites name=\"Nested\">\n");
+			writeAntTestsuite(writer, "Suite1", testcases, "    ");
+			writeAntTestsuite(writer, "Suite2", testcases, "    ");
+			writer.write("  </testsuites>\n");
+			writer.write("</testsuites>\n");
+		}
+	}
+
+	private static void writeAntTestsuite(Writer writer, String name, int testcases, String indent)
+			throws IOException {
+		writer.write(indent + "<testsuite name=\"" + name + "\" package=\"com.demo\" tests=\"" + testcases
+				+ "\" time=\"1.0\" timestamp=\"2015-05-26T14:28:34\">\n");
+		for (int i = 0; i < testcases; i++) {
+			writer.write(String.format("%s  <testcase name=\"test%d\" classname=\"com.demo.%s\" time=\"0.001\"/>\n",
+					indent, i, name));
+		}
+		writer.write(indent + "</testsuite>\n");
+	}
+
+	private static Writer newReportWriter(File file) throws IOException {
+		return new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file.toPath()), StandardCharsets.UTF_8));
+	}
+}
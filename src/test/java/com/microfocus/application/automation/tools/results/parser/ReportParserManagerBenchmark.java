@@ -0,0 +1,128 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.results.parser;
+
+import com.microfocus.application.automation.tools.results.parser.antjunit.AntJUnitReportParserImpl;
+import com.microfocus.application.automation.tools.results.parser.jenkinsjunit.JenkinsJUnitReportParserImpl;
+import com.microfocus.application.automation.tools.results.parser.mavensurefire.MavenSureFireReportParserImpl;
+import com.microfocus.application.automation.tools.results.parser.nunit.NUnitReportParserImpl;
+import com.microfocus.application.automation.tools.results.parser.nunit3.NUnit3ReportParserImpl;
+import com.microfocus.application.automation.tools.results.parser.testngxml.TestNGXmlReportParserImpl;
+import com.microfocus.application.automation.tools.results.service.almentities.AlmTestSet;
+import com.microfocus.application.automation.tools.sse.sdk.Logger;
+import hudson.FilePath;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the root element dispatch of {@link ReportParserManager} with trying every parser in order, on a
+ * synthetic report of each supported format. Both paths share the cached JAXB contexts, so the difference is the
+ * failed parses of the formats tried before the right one. Not part of the test suite, run with main() from the
+ * test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ReportParserManagerBenchmark {
+
+	private static final Logger LOGGER = new Logger() {
+		@Override
+		public void log(String message) {
+		}
+
+		@Override
+		public void error(String message) {
+		}
+	};
+
+	@Param({"junit", "surefire", "testng", "nunit3", "nunit", "ant"})
+	public String format;
+
+	@Param({"1000"})
+	public int testcases;
+
+	private File report;
+	private ReportParserManager manager;
+	private List<ReportParser> parsers;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		report = File.createTempFile(format, ".xml");
+		ReportFixtures.writeReport(report, format, testcases);
+		// the manager keeps the first workspace it is given, the NUnit 3 parser writes its converted report there
+		FilePath workspacePath = new FilePath(report.getParentFile());
+		manager = ReportParserManager.getInstance(workspacePath, LOGGER);
+		parsers = Arrays.asList(new JenkinsJUnitReportParserImpl(), new MavenSureFireReportParserImpl(),
+				new TestNGXmlReportParserImpl(), new NUnit3ReportParserImpl(workspacePath),
+				new NUnitReportParserImpl(), new AntJUnitReportParserImpl());
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		report.delete();
+	}
+
+	@Benchmark
+	public List<AlmTestSet> sniffed() {
+		return manager.parseTestSets(report.getPath(), "JUnit", "Benchmark");
+	}
+
+	@Benchmark
+	public List<AlmTestSet> ordered() {
+		for (ReportParser reportParser : parsers) {
+			try (InputStream in = new FileInputStream(report)) {
+				return reportParser.parseTestSets(in, "JUnit", "Benchmark");
+			} catch (Exception e) {
+				LOGGER.log("Failed to parse file with: " + reportParser.getClass().getName());
+			}
+		}
+		return null;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options options = new OptionsBuilder()
+				.include(ReportParserManagerBenchmark.class.getSimpleName())
+				.build();
+		new Runner(options).run();
+	}
+}
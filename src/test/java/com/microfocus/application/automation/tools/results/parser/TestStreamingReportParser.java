@@ -0,0 +1,178 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.results.parser;
+
+import com.microfocus.application.automation.tools.results.parser.antjunit.AntJUnitReportParserImpl;
+import com.microfocus.application.automation.tools.results.parser.jenkinsjunit.JenkinsJUnitReportParserImpl;
+import com.microfocus.application.automation.tools.results.parser.mavensurefire.MavenSureFireReportParserImpl;
+import com.microfocus.application.automation.tools.results.parser.nunit.NUnitReportParserImpl;
+import com.microfocus.application.automation.tools.results.parser.nunit3.NUnit3ReportParserImpl;
+import com.microfocus.application.automation.tools.results.parser.testngxml.TestNGXmlReportParserImpl;
+import com.microfocus.application.automation.tools.results.service.almentities.AlmEntity;
+import com.microfocus.application.automation.tools.results.service.almentities.AlmRun;
+import com.microfocus.application.automation.tools.results.service.almentities.AlmTest;
+import com.microfocus.application.automation.tools.results.service.almentities.AlmTestInstance;
+import com.microfocus.application.automation.tools.results.service.almentities.AlmTestSet;
+import com.microfocus.application.automation.tools.results.service.almentities.EntityRelation;
+import hudson.FilePath;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TestStreamingReportParser {
+
+    private static final int TESTCASES = 25;
+    private static final String[] TEST_FIELDS = {AlmTest.TEST_NAME, AlmTest.TS_UT_PACKAGE_NAME,
+            AlmTest.TS_UT_CLASS_NAME, AlmTest.TS_UT_METHOD_NAME};
+    private static final String[] RUN_FIELDS = {AlmRun.RUN_STATUS, AlmRun.RUN_DETAIL, AlmRun.RUN_DURATION,
+            AlmRun.RUN_EXECUTION_DATE, AlmRun.RUN_EXECUTION_TIME};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testJenkinsJUnit() throws Exception {
+        assertStreamedAsParsed(new JenkinsJUnitReportParserImpl(), "junit");
+    }
+
+    @Test
+    public void testMavenSureFire() throws Exception {
+        assertStreamedAsParsed(new MavenSureFireReportParserImpl(), "surefire");
+    }
+
+    @Test
+    public void testTestNG() throws Exception {
+        assertStreamedAsParsed(new TestNGXmlReportParserImpl(), "testng");
+    }
+
+    @Test
+    public void testNUnit() throws Exception {
+        assertStreamedAsParsed(new NUnitReportParserImpl(), "nunit");
+    }
+
+    @Test
+    public void testNUnit3() throws Exception {
+        assertStreamedAsParsed(new NUnit3ReportParserImpl(new FilePath(folder.getRoot())), "nunit3");
+    }
+
+    @Test
+    public void testAntJUnit() throws Exception {
+        assertStreamedAsParsed(new AntJUnitReportParserImpl(), "ant");
+    }
+
+    @Test
+    public void testAntJUnitTestsuites() throws Exception {
+        File report = folder.newFile("ant-testsuites.xml");
+        ReportFixtures.writeAntReport(report, 3, TESTCASES);
+        List<AlmTestSet> testSets = assertStreamedAsParsed(new AntJUnitReportParserImpl(), report);
+        assertEquals(3, testSets.size());
+        for (int i = 0; i < testSets.size(); i++) {
+            assertEquals("Suite" + i, testSets.get(i).getName());
+        }
+    }
+
+    @Test
+    public void testAntJUnitNestedTestsuites() throws Exception {
+        // the suites of a nested testsuites element are not part of the unmarshalled report, nor of the streamed one
+        File report = folder.newFile("ant-nested.xml");
+        ReportFixtures.writeNestedAntReport(report, TESTCASES);
+        List<AlmTestSet> testSets = assertStreamedAsParsed(new AntJUnitReportParserImpl(), report);
+        assertEquals(1, testSets.size());
+        assertEquals("Suite0", testSets.get(0).getName());
+    }
+
+    private void assertStreamedAsParsed(StreamingReportParser parser, String format) throws Exception {
+        File report = folder.newFile(format + ".xml");
+        ReportFixtures.writeReport(report, format, TESTCASES);
+        assertEquals(1, assertStreamedAsParsed(parser, report).size());
+    }
+
+    /**
+     * Asserts that the report streams the test sets and instances it parses to, and returns the streamed test sets.
+     */
+    private static List<AlmTestSet> assertStreamedAsParsed(StreamingReportParser parser, File report)
+            throws Exception {
+        List<AlmTestSet> parsed;
+        try (InputStream in = new FileInputStream(report)) {
+            parsed = parser.parseTestSets(in, "JUnit", "Test");
+        }
+        final List<AlmTestSet> testSets = new ArrayList<AlmTestSet>();
+        final List<List<AlmTestInstance>> testInstances = new ArrayList<List<AlmTestInstance>>();
+        try (InputStream in = new FileInputStream(report)) {
+            parser.parseTestSets(in, "JUnit", "Test", new ReportConsumer() {
+                @Override
+                public void testSet(AlmTestSet testSet) {
+                    assertTrue(testSet.getRelatedEntities().isEmpty());
+                    testSets.add(testSet);
+                    testInstances.add(new ArrayList<AlmTestInstance>());
+                }
+
+                @Override
+                public void testInstance(AlmTestSet testSet, AlmTestInstance testInstance) {
+                    assertSame(testSets.get(testSets.size() - 1), testSet);
+                    testInstances.get(testInstances.size() - 1).add(testInstance);
+                }
+            });
+        }
+
+        assertEquals(parsed.size(), testSets.size());
+        for (int i = 0; i < parsed.size(); i++) {
+            assertEquals(parsed.get(i).getName(), testSets.get(i).getName());
+            List<AlmEntity> parsedInstances = parsed.get(i).getRelatedEntities()
+                    .get(EntityRelation.TESTSET_TO_TESTINSTANCE_CONTAINMENT_RELATION);
+            assertEquals(TESTCASES, parsedInstances.size());
+            assertEquals(TESTCASES, testInstances.get(i).size());
+            for (int j = 0; j < TESTCASES; j++) {
+                assertSameFields(parsedInstances.get(j), testInstances.get(i).get(j),
+                        EntityRelation.TEST_TO_TESTINSTANCE_REALIZATION_RELATION, TEST_FIELDS);
+                assertSameFields(parsedInstances.get(j), testInstances.get(i).get(j),
+                        EntityRelation.TESTINSTANCE_TO_RUN_REALIZATION_RELATION, RUN_FIELDS);
+            }
+        }
+        return testSets;
+    }
+
+    private static void assertSameFields(AlmEntity expected, AlmEntity actual, String relation, String[] fields) {
+        AlmEntity expectedEntity = expected.getRelatedEntities().get(relation).get(0);
+        AlmEntity actualEntity = actual.getRelatedEntities().get(relation).get(0);
+        for (String field : fields) {
+            assertEquals(field, expectedEntity.getFieldValue(field), actualEntity.getFieldValue(field));
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.results.service;
+
+import com.microfocus.application.automation.tools.rest.HttpTransport;
+import com.microfocus.application.automation.tools.rest.RestClient;
+import com.microfocus.application.automation.tools.results.service.almentities.AlmTestInstance;
+import com.microfocus.application.automation.tools.results.service.almentities.AlmTestInstanceImpl;
+import com.microfocus.application.automation.tools.sse.sdk.Response;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests on the bulk creation of ALM entities
+ */
+public class TestBulkEntityCreation {
+
+	private static final String[] FIELDS = {AlmTestInstance.TEST_INSTANCE_TEST_ID, AlmTestInstance.TEST_INSTANCE_CONFIG_ID};
+	private static final Pattern ENTITY = Pattern.compile("<Entity[^>]*><Fields>(.*?)</Fields></Entity>");
+	private static final Pattern FIELD = Pattern.compile("<Field Name=\"([^\"]*)\"><Value>(.*?)</Value></Field>");
+
+	private FakeAlm alm;
+	private AlmRestTool restTool;
+
+	@Before
+	public void setUp() {
+		alm = new FakeAlm();
+		restTool = new AlmRestTool(new RestClient("http://localhost:8080/qcbin", "DOMAIN", "PROJECT", "user", alm),
+				new SystemOutLogger());
+	}
+
+	@Test
+	public void testBulkRequestPayload() throws Exception {
+		List<AlmTestInstanceImpl> created = restTool.createAlmEntities(instances(2), FIELDS);
+
+		assertEquals(1, alm.requests.size());
+		assertTrue(alm.requests.get(0).endsWith("/rest/domains/DOMAIN/projects/PROJECT/test-instances"));
+		assertEquals("<Entities>"
+						+ "<Entity Type=\"test-instance\"><Fields>"
+						+ "<Field Name=\"test-id\"><Value>10</Value></Field>"
+						+ "<Field Name=\"test-config-id\"><Value>100</Value></Field>"
+						+ "</Fields></Entity>"
+						+ "<Entity Type=\"test-instance\"><Fields>"
+						+ "<Field Name=\"test-id\"><Value>11</Value></Field>"
+						+ "<Field Name=\"test-config-id\"><Value>101</Value></Field>"
+						+ "</Fields></Entity>"
+						+ "</Entities>",
+				alm.payloads.get(0));
+		assertEquals(Arrays.asList("1", "2"), Arrays.asList(created.get(0).getId(), created.get(1).getId()));
+	}
+
+	@Test
+	public void testPartialChunkFailure() throws Exception {
+		DefaultExternalEntityUploadServiceImpl service = new DefaultExternalEntityUploadServiceImpl(restTool, null,
+				new SystemOutLogger());
+		service.setBulkChunkSize(5);
+		// the second chunk is refused after its first two entities are created
+		alm.refuseBulkAfter = 7;
+		List<AlmTestInstanceImpl> instances = instances(12);
+
+		service.createInChunks(instances, FIELDS, "test instances", FIELDS, created ->
+				restTool.getAllAlmEntities(new AlmTestInstanceImpl(), "query={cycle-id[1]}", 2000));
+
+		assertEquals(12, alm.entities.size());
+		for (int i = 0; i < instances.size(); i++) {
+			Map<String, String> entity = alm.entities.get(instances.get(i).getId());
+			assertEquals(String.valueOf(10 + i), entity.get(AlmTestInstance.TEST_INSTANCE_TEST_ID));
+			assertEquals(String.valueOf(100 + i), entity.get(AlmTestInstance.TEST_INSTANCE_CONFIG_ID));
+		}
+		// the three entities ALM did not create are the only ones sent again
+		assertEquals(3, alm.singleCreates);
+	}
+
+	private static List<AlmTestInstanceImpl> instances(int count) {
+		List<AlmTestInstanceImpl> instances = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			AlmTestInstanceImpl instance = new AlmTestInstanceImpl();
+			instance.setFieldValue(AlmTestInstance.TEST_INSTANCE_TEST_ID, String.valueOf(10 + i));
+			instance.setFieldValue(AlmTestInstance.TEST_INSTANCE_CONFIG_ID, String.valueOf(100 + i));
+			instances.add(instance);
+		}
+		return instances;
+	}
+
+	/**
+	 * Creates the posted entities in memory and answers queries with all of them.
+	 */
+	private static class FakeAlm implements HttpTransport {
+
+		private final Map<String, Map<String, String>> entities = new LinkedHashMap<>();
+		private final List<String> requests = new ArrayList<>();
+		private final List<String> payloads = new ArrayList<>();
+		private int singleCreates;
+		private int refuseBulkAfter = Integer.MAX_VALUE;
+
+		@Override
+		public Response execute(String method, String url, Map<String, String> headers, byte[] data) {
+			requests.add(url);
+			Response response = new Response();
+			response.setStatusCode(200);
+			if ("GET".equals(method)) {
+				response.setData(toXml(new ArrayList<>(entities.values())));
+				return response;
+			}
+
+			String payload = new String(data, StandardCharsets.UTF_8);
+			payloads.add(payload);
+			boolean bulk = payload.startsWith("<Entities>");
+			List<Map<String, String>> created = new ArrayList<>();
+			Matcher entity = ENTITY.matcher(payload);
+			while (entity.find()) {
+				if (bulk && entities.size() >= refuseBulkAfter) {
+					refuseBulkAfter = Integer.MAX_VALUE;
+					response.setStatusCode(500);
+					response.setData(new byte[0]);
+					return response;
+				}
+				if (!bulk) {
+					singleCreates++;
+				}
+				Map<String, String> fields = new LinkedHashMap<>();
+				fields.put("id", String.valueOf(entities.size() + 1));
+				Matcher field = FIELD.matcher(entity.group(1));
+				while (field.find()) {
+					fields.put(field.group(1), field.group(2));
+				}
+				entities.put(fields.get("id"), fields);
+				created.add(fields);
+			}
+			response.setData(toXml(created));
+			return response;
+		}
+
+		private static byte[] toXml(List<Map<String, String>> entities) {
+			StringBuilder xml = new StringBuilder("<Entities TotalResults=\"" + entities.size() + "\">");
+			for (Map<String, String> fields : entities) {
+				xml.append("<Entity Type=\"test-instance\"><Fields>");
+				for (Map.Entry<String, String> field : fields.entrySet()) {
+					xml.append("<Field Name=\"").append(field.getKey()).append("\"><Value>").append(field.getValue())
+							.append("</Value></Field>");
+				}
+				xml.append("</Fields></Entity>");
+			}
+			return xml.append("</Entities>").toString().getBytes(StandardCharsets.UTF_8);
+		}
+
+		@Override
+		public String getStatistics() {
+			return "";
+		}
+	}
+}
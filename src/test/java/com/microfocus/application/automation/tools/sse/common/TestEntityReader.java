@@ -0,0 +1,128 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.sse.common;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.microfocus.application.automation.tools.common.SSEException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestEntityReader {
+
+    private static final String ENTITIES =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><Entities TotalResults=\"2\">"
+                    + "<Entity Type=\"run\"><Fields>"
+                    + "<Field Name=\"id\"><Value>5</Value></Field>"
+                    + "<Field Name=\"name\"><Value>a &amp; b</Value><Value>second</Value></Field>"
+                    + "<Field Name=\"comments\"><Value/></Field>"
+                    + "</Fields><RelatedEntities/></Entity>"
+                    + "<Entity Type=\"run\"><Fields>"
+                    + "<Field Name=\"id\"><Value>6</Value></Field>"
+                    + "<Field Name=\"cycle-id\"><Value>9</Value></Field>"
+                    + "</Fields><RelatedEntities/></Entity></Entities>";
+
+    private static final String ENTITY =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><Entity Type=\"run\"><Fields>"
+                    + "<Field Name=\"state\"><Value>Finished</Value></Field>"
+                    + "<Field Name=\"end-time\"><Value>2013-02-19 12:04:17</Value></Field>"
+                    + "</Fields></Entity>";
+
+    @Test
+    public void testSameEntitiesAsFromString() {
+
+        List<Map<String, String>> entities = XPathUtils.toEntities(bytes(ENTITIES));
+        Assert.assertEquals(XPathUtils.toEntities(ENTITIES), entities);
+        Assert.assertEquals(2, entities.size());
+        Assert.assertEquals("a & b", entities.get(0).get("name"));
+        Assert.assertTrue(entities.get(0).containsKey("comments"));
+        Assert.assertNull(entities.get(0).get("comments"));
+        Assert.assertEquals("9", entities.get(1).get("cycle-id"));
+    }
+
+    @Test
+    public void testProjection() {
+
+        List<Map<String, String>> entities = XPathUtils.toEntities(bytes(ENTITIES), Collections.singleton("id"));
+        Assert.assertEquals(2, entities.size());
+        Assert.assertEquals(Collections.singletonMap("id", "5"), entities.get(0));
+        Assert.assertEquals(Collections.singletonMap("id", "6"), entities.get(1));
+    }
+
+    @Test
+    public void testIterator() {
+
+        try (EntityReader reader = EntityReader.open(bytes(ENTITIES), Arrays.asList("id", "cycle-id"))) {
+            Assert.assertTrue(reader.hasNext());
+            Assert.assertEquals("5", reader.next().get("id"));
+            Map<String, String> second = reader.next();
+            Assert.assertEquals("6", second.get("id"));
+            Assert.assertEquals("9", second.get("cycle-id"));
+            Assert.assertFalse(reader.hasNext());
+        }
+    }
+
+    @Test
+    public void testAttributeValue() {
+
+        Assert.assertEquals("Finished", XPathUtils.getAttributeValue(bytes(ENTITY), "state"));
+        Assert.assertEquals("2013-02-19 12:04:17", XPathUtils.getAttributeValue(ENTITY, "end-time"));
+        Assert.assertEquals(StringUtils.EMPTY_STRING, XPathUtils.getAttributeValue(bytes(ENTITY), "missing"));
+        // only the fields of a single entity response are looked at
+        Assert.assertEquals(StringUtils.EMPTY_STRING, XPathUtils.getAttributeValue(bytes(ENTITIES), "id"));
+    }
+
+    @Test
+    public void testHasResultsAndTestSetIds() {
+
+        Assert.assertTrue(XPathUtils.hasResults(bytes(ENTITIES)));
+        Assert.assertFalse(XPathUtils.hasResults(bytes("<Entities TotalResults=\"0\"/>")));
+        Assert.assertEquals(
+                Arrays.asList("3", "4"),
+                XPathUtils.getTestSetIds(bytes("<Entities>"
+                        + "<Entity Type=\"test-set\"><Fields><Field Name=\"cycle-id\"><Value>3</Value></Field></Fields></Entity>"
+                        + "<Entity Type=\"test-set\"><Fields><Field Name=\"cycle-id\"><Value>4</Value></Field></Fields></Entity>"
+                        + "</Entities>")));
+    }
+
+    @Test(expected = SSEException.class)
+    public void testBadXml() {
+
+        XPathUtils.toEntities(bytes("<Entities><Entity>"));
+    }
+
+    private static byte[] bytes(String xml) {
+
+        return xml.getBytes(StandardCharsets.UTF_8);
+    }
+}
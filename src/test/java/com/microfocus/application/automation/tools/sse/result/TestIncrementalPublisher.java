@@ -0,0 +1,187 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.sse.result;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.microfocus.application.automation.tools.sse.common.ConsoleLogger;
+import com.microfocus.application.automation.tools.sse.common.RestClient4Test;
+import com.microfocus.application.automation.tools.sse.common.TestCase;
+import com.microfocus.application.automation.tools.sse.result.model.junit.Testcase;
+import com.microfocus.application.automation.tools.sse.result.model.junit.Testsuite;
+import com.microfocus.application.automation.tools.sse.result.model.junit.Testsuites;
+import com.microfocus.application.automation.tools.sse.sdk.ResourceAccessLevel;
+import com.microfocus.application.automation.tools.sse.sdk.Response;
+
+import hudson.FilePath;
+
+public class TestIncrementalPublisher extends TestCase {
+    
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+    
+    @Test
+    public void testRunsArePublishedWhenDone() throws IOException, InterruptedException, JAXBException {
+        
+        MockClient client = new MockClient();
+        File results = new File(tmp.getRoot(), "Results.xml");
+        TestsuitesWriter writer = new TestsuitesWriter(new FilePath(results));
+        IncrementalPublisher publisher =
+                new IncrementalPublisher(
+                        new LabPublisher(client, "1310", "1001"),
+                        writer,
+                        "",
+                        URL,
+                        DOMAIN,
+                        PROJECT);
+        
+        client._runs.add(run("1", "Finished", "Passed", "2013-02-13 14:32:35"));
+        client._runs.add(run("2", "Running", "", "2013-02-13 14:32:35"));
+        client._runs.add(run("3", "Not Started", "No Run", "2013-02-13 14:32:35"));
+        publisher.onPoll(new ConsoleLogger());
+        Assert.assertEquals(1, writer.getTestcaseCount());
+        Assert.assertFalse(writer.hasErrors());
+        Assert.assertTrue(results.exists());
+        
+        client._runs.set(1, run("2", "Finished", "Failed", "2013-02-13 14:49:51"));
+        publisher.onPoll(new ConsoleLogger());
+        Assert.assertEquals(
+                "query={procedure-run[1001];vts[%3E%3D\"2013-02-13%2014:32:35\"]}&page-size=2000",
+                client._queries.get(client._queries.size() - 1));
+        Assert.assertEquals(2, writer.getTestcaseCount());
+        Assert.assertTrue(writer.hasErrors());
+        
+        Assert.assertEquals(3, publisher.publish(new ConsoleLogger()));
+        Assert.assertEquals(
+                "query={procedure-run[1001]}&page-size=2000",
+                client._queries.get(client._queries.size() - 1));
+        writer.close();
+        
+        List<String> names = new ArrayList<String>();
+        Testsuites testsuites =
+                (Testsuites) JAXBContext.newInstance(Testsuites.class).createUnmarshaller().unmarshal(results);
+        for (Testsuite testsuite : testsuites.getTestsuite()) {
+            for (Testcase testcase : testsuite.getTestcase()) {
+                names.add(testcase.getName() + ":" + testcase.getStatus());
+            }
+        }
+        Assert.assertEquals("[test 1:pass, test 2:error, test 3:error]", names.toString());
+    }
+    
+    @Test
+    public void testNoResultsLeaveNoFile() throws IOException, InterruptedException {
+        
+        MockClient client = new MockClient();
+        File results = new File(tmp.getRoot(), "Results.xml");
+        TestsuitesWriter writer = new TestsuitesWriter(new FilePath(results));
+        IncrementalPublisher publisher =
+                new IncrementalPublisher(
+                        new LabPublisher(client, "1310", "1001"),
+                        writer,
+                        "",
+                        URL,
+                        DOMAIN,
+                        PROJECT);
+        
+        client._runs.add(run("1", "Running", "", "2013-02-13 14:32:35"));
+        publisher.onPoll(new ConsoleLogger());
+        writer.close();
+        
+        Assert.assertEquals(0, writer.getTestcaseCount());
+        Assert.assertFalse(results.exists());
+    }
+    
+    private static String run(String id, String state, String status, String vts) {
+        
+        return String.format(
+                "<Entity Type=\"procedure-testset-instance-run\"><Fields>"
+                        + "<Field Name=\"id\"><Value>%s</Value></Field>"
+                        + "<Field Name=\"run-id\"><Value>%s</Value></Field>"
+                        + "<Field Name=\"state\"><Value>%s</Value></Field>"
+                        + "<Field Name=\"status\"><Value>%s</Value></Field>"
+                        + "<Field Name=\"vts\"><Value>%s</Value></Field>"
+                        + "<Field Name=\"testcycl-id\"><Value>7</Value></Field>"
+                        + "<Field Name=\"testset-name\"><Value>ts1</Value></Field>"
+                        + "<Field Name=\"test-config-name\"><Value>test %s</Value></Field>"
+                        + "<Field Name=\"duration\"><Value>1</Value></Field>"
+                        + "</Fields><RelatedEntities/></Entity>",
+                id,
+                id,
+                state,
+                status,
+                vts,
+                id);
+    }
+    
+    private class MockClient extends RestClient4Test {
+        
+        private final List<String> _runs = new ArrayList<String>();
+        private final List<String> _queries = new ArrayList<String>();
+        
+        public MockClient() {
+            
+            super(URL, DOMAIN, PROJECT, USER);
+        }
+        
+        @Override
+        public Response httpGet(
+                String url,
+                String queryString,
+                Map<String, String> headers,
+                ResourceAccessLevel resourceAccessLevel) {
+            
+            StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>");
+            if (url.contains("procedure-testset-instance-runs")) {
+                _queries.add(queryString);
+                xml.append(String.format("<Entities TotalResults=\"%d\">", _runs.size()));
+                for (String run : _runs) {
+                    xml.append(run);
+                }
+                xml.append("</Entities>");
+            } else {
+                xml.append("<Entity Type=\"procedure\"><Fields><Field Name=\"name\"><Value>bvs1</Value></Field></Fields></Entity>");
+            }
+            
+            return new Response(null, xml.toString().getBytes(), null, HttpURLConnection.HTTP_OK);
+        }
+    }
+}
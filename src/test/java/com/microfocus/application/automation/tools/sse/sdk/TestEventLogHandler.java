@@ -49,7 +49,7 @@ public class TestEventLogHandler extends TestCase {
                     + PROJECT
                     + "/event-log-reads?query={context[\"*Timeslot:%20"
                     + TIMESLOT_ID
-                    + "%3B*\"]}&fields=id,event-type,creation-time,action,description";
+                    + "%3B*\"]}&fields=id,creation-time,description&order-by={id[ASC]}&page-size=500";
     
     @Test
     public void testLog() {
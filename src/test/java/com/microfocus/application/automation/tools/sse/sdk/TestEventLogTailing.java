@@ -0,0 +1,181 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.sse.sdk;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.microfocus.application.automation.tools.rest.PooledHttpTransport;
+import com.microfocus.application.automation.tools.rest.RestClient;
+import com.microfocus.application.automation.tools.sse.sdk.handler.EventLogHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Tails the event log of a stub ALM server that keeps growing, the way a long lab run does.
+ */
+public class TestEventLogTailing {
+
+    private static final String TIMESLOT_ID = "1005";
+    // ids of the same length give pages of the same size
+    private static final int FIRST_EVENT_ID = 100001;
+    private static final Pattern LAST_READ = Pattern.compile("id\\[>(\\d+)\\]");
+    private static final Pattern PAGE_SIZE = Pattern.compile("page-size=(\\d+)");
+
+    private HttpServer server;
+    private String serverUrl;
+    private final List<Integer> events = new CopyOnWriteArrayList<>();
+    private final List<Integer> bytesSent = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/qcbin/rest/domains/domain/projects/project/event-log-reads", exchange -> {
+            String query = exchange.getRequestURI().getQuery();
+            Assert.assertTrue(query, query.contains("*Timeslot: " + TIMESLOT_ID + ";*"));
+            Matcher lastRead = LAST_READ.matcher(query);
+            Matcher pageSize = PAGE_SIZE.matcher(query);
+            int after = lastRead.find() ? Integer.parseInt(lastRead.group(1)) : -1;
+            int limit = pageSize.find() ? Integer.parseInt(pageSize.group(1)) : Integer.MAX_VALUE;
+
+            StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>");
+            List<Integer> page = new ArrayList<>();
+            for (int id : events) {
+                if (id > after && page.size() < limit) {
+                    page.add(id);
+                }
+            }
+            xml.append(String.format("<Entities TotalResults=\"%d\">", page.size()));
+            for (int id : page) {
+                xml.append(String.format(
+                        "<Entity Type=\"event-log-read\"><Fields>"
+                                + "<Field Name=\"id\"><Value>%d</Value></Field>"
+                                + "<Field Name=\"creation-time\"><Value>2013-02-19 12:03:42</Value></Field>"
+                                + "<Field Name=\"description\"><Value>Event %d of timeslot %s</Value></Field>"
+                                + "</Fields><RelatedEntities/></Entity>",
+                        id,
+                        id,
+                        TIMESLOT_ID));
+            }
+            xml.append("</Entities>");
+            byte[] body = xml.toString().getBytes(StandardCharsets.UTF_8);
+            bytesSent.add(body.length);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        serverUrl = String.format("http://127.0.0.1:%d/qcbin", server.getAddress().getPort());
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testBytesPerPollStayFlatAsLogGrows() {
+        EventLogHandler handler = new EventLogHandler(createClient(), TIMESLOT_ID);
+        List<String> logged = new ArrayList<>();
+        List<Integer> bytesPerPoll = new ArrayList<>();
+        for (int poll = 0; poll < 20; poll++) {
+            addEvents(50);
+            int requests = bytesSent.size();
+            Assert.assertTrue(handler.log(new ListLogger(logged)));
+            Assert.assertEquals(requests + 1, bytesSent.size());
+            bytesPerPoll.add(bytesSent.get(bytesSent.size() - 1));
+        }
+
+        Assert.assertEquals(1000, logged.size());
+        for (int i = 0; i < logged.size(); i++) {
+            Assert.assertEquals(
+                    String.format("2013-02-19 12:03:42:Event %d of timeslot %s", FIRST_EVENT_ID + i, TIMESLOT_ID),
+                    logged.get(i));
+        }
+        for (int bytes : bytesPerPoll) {
+            Assert.assertEquals(bytesPerPoll.get(0), Integer.valueOf(bytes));
+        }
+    }
+
+    @Test
+    public void testBacklogIsReadInPages() {
+        EventLogHandler handler = new EventLogHandler(createClient(), TIMESLOT_ID);
+        List<String> logged = new ArrayList<>();
+        addEvents(1200);
+        Assert.assertTrue(handler.log(new ListLogger(logged)));
+        Assert.assertEquals(1200, logged.size());
+        Assert.assertEquals(3, bytesSent.size());
+
+        Assert.assertTrue(handler.log(new ListLogger(logged)));
+        Assert.assertEquals(1200, logged.size());
+        Assert.assertEquals(4, bytesSent.size());
+    }
+
+    private RestClient createClient() {
+        return new RestClient(serverUrl, "domain", "project", "user", new PooledHttpTransport(serverUrl));
+    }
+
+    private void addEvents(int count) {
+        int next = FIRST_EVENT_ID + events.size();
+        for (int i = 0; i < count; i++) {
+            events.add(next + i);
+        }
+    }
+
+    private static class ListLogger implements Logger {
+
+        private final List<String> messages;
+
+        private ListLogger(List<String> messages) {
+            this.messages = messages;
+        }
+
+        @Override
+        public void log(String message) {
+            messages.add(message);
+        }
+
+        @Override
+        public void error(String message) {
+            Assert.fail(message);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.sse.sdk.handler;
+
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.microfocus.application.automation.tools.sse.common.ConsoleLogger;
+import com.microfocus.application.automation.tools.sse.common.RestClient4Test;
+import com.microfocus.application.automation.tools.sse.common.TestCase;
+import com.microfocus.application.automation.tools.sse.common.XPathUtils;
+import com.microfocus.application.automation.tools.sse.sdk.Client;
+import com.microfocus.application.automation.tools.sse.sdk.Logger;
+import com.microfocus.application.automation.tools.sse.sdk.ResourceAccessLevel;
+import com.microfocus.application.automation.tools.sse.sdk.Response;
+
+public class TestPollScheduler extends TestCase {
+
+    // long enough for all the runs of a test to be started before their second poll
+    private static final int INTERVAL = 300;
+    private static final int FINISHED_ON_POLL = 3;
+
+    @Test
+    public void testRunsDueTogetherAreReadInOneRequest() throws InterruptedException {
+
+        MockRestClientRuns client = new MockRestClientRuns(URL, DOMAIN, PROJECT, USER);
+        List<MockPollHandler> handlers = poll(client, "1", "2", "3");
+
+        Assert.assertTrue(client.batches.contains(new HashSet<String>(Arrays.asList("1", "2", "3"))));
+        for (MockPollHandler handler : handlers) {
+            // a run claimed into a batch is not polled again by its own, already dispatched, firing
+            Assert.assertEquals(FINISHED_ON_POLL, handler.polls.get());
+        }
+    }
+
+    @Test
+    public void testBatchResponseIsSplitPerRun() throws InterruptedException {
+
+        MockRestClientRuns client = new MockRestClientRuns(URL, DOMAIN, PROJECT, USER);
+        List<MockPollHandler> handlers = poll(client, "1", "2", "3");
+
+        int batched = 0;
+        for (MockPollHandler handler : handlers) {
+            String runId = handler.getRunId();
+            batched += FINISHED_ON_POLL - client.getSingles(runId);
+            Assert.assertEquals(Collections.singleton(runId), new HashSet<String>(handler.ids));
+            Assert.assertEquals(Collections.singleton("run " + runId), new HashSet<String>(handler.names));
+        }
+        Assert.assertTrue(batched >= 3 * (FINISHED_ON_POLL - 1));
+    }
+
+    @Test
+    public void testRunsPolledOnTheirOwnWhenBatchFails() throws InterruptedException {
+
+        MockRestClientRuns client = new MockRestClientRuns(URL, DOMAIN, PROJECT, USER);
+        client.failBatches = true;
+        List<MockPollHandler> handlers = poll(client, "1", "2", "3");
+
+        Assert.assertFalse(client.batches.isEmpty());
+        for (MockPollHandler handler : handlers) {
+            Assert.assertEquals(FINISHED_ON_POLL, client.getSingles(handler.getRunId()));
+            Assert.assertEquals(FINISHED_ON_POLL, handler.polls.get());
+        }
+    }
+
+    @Test
+    public void testRunMissingFromBatchIsPolledOnItsOwn() throws InterruptedException {
+
+        MockRestClientRuns client = new MockRestClientRuns(URL, DOMAIN, PROJECT, USER);
+        client.missing.add("3");
+        poll(client, "1", "2", "3");
+
+        Assert.assertTrue(client.batches.contains(new HashSet<String>(Arrays.asList("1", "2", "3"))));
+        Assert.assertEquals(FINISHED_ON_POLL, client.getSingles("3"));
+        Assert.assertTrue(client.getSingles("1") < FINISHED_ON_POLL);
+        Assert.assertTrue(client.getSingles("2") < FINISHED_ON_POLL);
+    }
+
+    private static List<MockPollHandler> poll(Client client, String... runIds) throws InterruptedException {
+
+        final Logger logger = new ConsoleLogger();
+        final List<MockPollHandler> handlers = new ArrayList<MockPollHandler>();
+        final List<Boolean> results = new CopyOnWriteArrayList<Boolean>();
+        List<Thread> threads = new ArrayList<Thread>();
+        for (String runId : runIds) {
+            final MockPollHandler handler = new MockPollHandler(client, runId);
+            handlers.add(handler);
+            threads.add(new Thread(() -> {
+                try {
+                    results.add(handler.poll(logger));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join(30000);
+        }
+        Assert.assertEquals(Collections.nCopies(runIds.length, true), results);
+
+        return handlers;
+    }
+
+    /**
+     * Run that is reported Finished on its third poll.
+     */
+    private static class MockPollHandler extends PollHandler {
+
+        private final AtomicInteger polls = new AtomicInteger();
+        private final List<String> ids = new CopyOnWriteArrayList<String>();
+        private final List<String> names = new CopyOnWriteArrayList<String>();
+
+        public MockPollHandler(Client client, String runId) {
+
+            super(client, "1", INTERVAL);
+            setRunId(runId);
+        }
+
+        @Override
+        protected String getBatchCollection() {
+
+            return "runs";
+        }
+
+        @Override
+        protected Response getResponse() {
+
+            return _client.httpGet(
+                    _client.buildRestRequest("runs/" + _runId),
+                    null,
+                    null,
+                    ResourceAccessLevel.PROTECTED);
+        }
+
+        @Override
+        protected boolean isFinished(Response response, Logger logger) {
+
+            polls.incrementAndGet();
+            String xml = response.toString();
+            ids.add(XPathUtils.getAttributeValue(xml, "id"));
+            names.add(XPathUtils.getAttributeValue(xml, "name"));
+
+            return "Finished".equals(XPathUtils.getAttributeValue(xml, "state"));
+        }
+
+        @Override
+        protected Response getRunEntityResultsResponse() {
+
+            return null;
+        }
+
+        @Override
+        protected boolean logRunEntityResults(Response response, Logger logger) {
+
+            return true;
+        }
+    }
+
+    private class MockRestClientRuns extends RestClient4Test {
+
+        private final Map<String, AtomicInteger> observations = new ConcurrentHashMap<String, AtomicInteger>();
+        private final Map<String, AtomicInteger> singles = new ConcurrentHashMap<String, AtomicInteger>();
+        private final List<Set<String>> batches = new CopyOnWriteArrayList<Set<String>>();
+        private final Set<String> missing = new HashSet<String>();
+        private volatile boolean failBatches;
+
+        public MockRestClientRuns(String url, String domain, String project, String username) {
+
+            super(url, domain, project, username);
+        }
+
+        private int getSingles(String runId) {
+
+            AtomicInteger count = singles.get(runId);
+            return count == null ? 0 : count.get();
+        }
+
+        @Override
+        public Response httpGet(String url, String queryString, Map<String, String> headers, ResourceAccessLevel resourceAccessLevel) {
+
+            if (url.endsWith("/runs")) {
+                String ids = queryString.substring(queryString.indexOf('[') + 1, queryString.indexOf(']'));
+                Set<String> runIds = new HashSet<String>(Arrays.asList(ids.split("%20OR%20")));
+                batches.add(runIds);
+                if (failBatches) {
+                    return new Response(null, null, null, HttpURLConnection.HTTP_INTERNAL_ERROR);
+                }
+                StringBuilder xml = new StringBuilder("<Entities TotalResults=\"" + runIds.size() + "\">");
+                for (String runId : runIds) {
+                    if (!missing.contains(runId)) {
+                        xml.append(toEntity(runId));
+                    }
+                }
+                xml.append("</Entities>");
+                return new Response(null, xml.toString().getBytes(StandardCharsets.UTF_8), null, HttpURLConnection.HTTP_OK);
+            }
+            if (url.contains("/runs/")) {
+                String runId = url.substring(url.lastIndexOf('/') + 1);
+                singles.computeIfAbsent(runId, k -> new AtomicInteger()).incrementAndGet();
+                return new Response(null, toEntity(runId).getBytes(StandardCharsets.UTF_8), null, HttpURLConnection.HTTP_OK);
+            }
+            Assert.fail("unexpected request " + url);
+
+            return null;
+        }
+
+        private String toEntity(String runId) {
+
+            int observation = observations.computeIfAbsent(runId, k -> new AtomicInteger()).incrementAndGet();
+            return "<Entity Type=\"run\"><Fields>"
+                    + "<Field Name=\"id\"><Value>" + runId + "</Value></Field>"
+                    + "<Field Name=\"name\"><Value>run " + runId + "</Value></Field>"
+                    + "<Field Name=\"state\"><Value>" + (observation < FINISHED_ON_POLL ? "Running" : "Finished") + "</Value></Field>"
+                    + "</Fields></Entity>";
+        }
+    }
+}